@@ -0,0 +1,23 @@
+package com.example.moty.demo.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.example.moty.demo.enums.TaskPriority;
+
+/**
+ * Run the method asynchronously on priorityExecutor at the given priority
+ * Used instead of @Async. The method must return void, Future or CompletableFuture;
+ * queued tasks are served by priority with aging, see PriorityAgingQueue.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AsyncPriority {
+
+    /**
+     * Scheduling priority, CRITICAL is served first
+     */
+    TaskPriority value() default TaskPriority.NORMAL;
+}
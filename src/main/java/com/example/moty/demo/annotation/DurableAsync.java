@@ -0,0 +1,24 @@
+package com.example.moty.demo.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fire-and-forget call that survives restarts
+ * With async.durable.enabled=true the call is appended to the local task log and the
+ * caller returns once it is on disk; a durable worker later invokes the method at least
+ * once, under the caller's username. Arguments must be JSON serializable and the method
+ * must return void, Future or CompletableFuture, whose value is not kept.
+ * Otherwise the call runs on executor, or passes straight through when executor is empty.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DurableAsync {
+
+    /**
+     * Executor bean used while the durable queue is disabled, e.g. "auditExecutor"
+     */
+    String executor() default "";
+}
@@ -0,0 +1,72 @@
+package com.example.moty.demo.aspect;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.CompletableToListenableFutureAdapter;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import com.example.moty.demo.annotation.AsyncPriority;
+import com.example.moty.demo.executor.PriorityTaskExecutor;
+
+/**
+ * Async priority aspect
+ * Hands @AsyncPriority methods to priorityExecutor at their declared priority
+ * The caller gets the executor's CompletableFuture, adapted for methods declared to
+ * return ListenableFuture; other Future subtypes cannot be produced and are rejected.
+ */
+@Aspect
+@Component
+public class AsyncPriorityAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncPriorityAspect.class);
+
+    @Autowired
+    private PriorityTaskExecutor priorityExecutor;
+
+    @Around("@annotation(asyncPriority)")
+    public Object submit(ProceedingJoinPoint joinPoint, AsyncPriority asyncPriority) {
+        Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+        boolean returnsVoid = returnType == void.class;
+        boolean returnsListenable = returnType == ListenableFuture.class;
+        if (!returnsVoid && !returnsListenable && !returnType.isAssignableFrom(CompletableFuture.class)) {
+            throw new IllegalStateException("@AsyncPriority method must return void, Future, CompletionStage, "
+                    + "CompletableFuture or ListenableFuture: " + joinPoint.getSignature().toShortString());
+        }
+
+        CompletableFuture<Object> future = priorityExecutor.submit(asyncPriority.value(), () -> {
+            try {
+                Object result = joinPoint.proceed();
+                // The method returns e.g. CompletableFuture.completedFuture(value)
+                if (result instanceof Future) {
+                    return ((Future<?>) result).get();
+                }
+                if (result instanceof CompletionStage) {
+                    return ((CompletionStage<?>) result).toCompletableFuture().get();
+                }
+                return result;
+            } catch (Exception | Error e) {
+                if (returnsVoid) {
+                    logger.error("@AsyncPriority task {} failed: {}", joinPoint.getSignature().toShortString(),
+                            e.getMessage(), e);
+                }
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        });
+        if (returnsVoid) {
+            return null;
+        }
+        return returnsListenable ? new CompletableToListenableFutureAdapter<>(future) : future;
+    }
+}
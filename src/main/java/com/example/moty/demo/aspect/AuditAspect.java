@@ -6,7 +6,10 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Component;
 
 import com.example.moty.demo.annotation.Audit;
@@ -16,6 +19,8 @@ import com.example.moty.demo.service.AuditLogService;
 @Component
 public class AuditAspect {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuditAspect.class);
+
     @Autowired
     private AuditLogService auditLogService;
 
@@ -30,7 +35,12 @@ public class AuditAspect {
         } finally {
             // 非同步寫入 Audit Log
             String details = Arrays.toString(joinPoint.getArgs());
-            auditLogService.log(audit.action().getAction(), details);
+            try {
+                auditLogService.log(audit.action().getAction(), details);
+            } catch (TaskRejectedException e) {
+                // 執行緒池已滿時不可覆蓋 Controller 的結果或例外，拒絕次數記錄於 /admin/executors
+                logger.warn("Audit log rejected for action {}: {}", audit.action().getAction(), e.getMessage());
+            }
         }
         return result;
     }
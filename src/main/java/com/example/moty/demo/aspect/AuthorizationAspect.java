@@ -8,6 +8,7 @@ import java.util.stream.Collectors;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,7 +18,9 @@ import com.example.moty.demo.annotation.RequireAuth;
 import com.example.moty.demo.annotation.RequirePermission;
 import com.example.moty.demo.annotation.RequireRole;
 import com.example.moty.demo.enums.HttpStatusEnum;
+import com.example.moty.demo.model.dto.ApiResponse;
 import com.example.moty.demo.util.ApiResponseUtil;
+import com.example.moty.demo.util.AsyncResponseUtil;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -40,7 +43,7 @@ public class AuthorizationAspect {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             log.warn("User not authenticated - method: {}", joinPoint.getSignature().getName());
-            return ApiResponseUtil.error(HttpStatusEnum.UNAUTHORIZED, requireAuth.message());
+            return deny(joinPoint, ApiResponseUtil.error(HttpStatusEnum.UNAUTHORIZED, requireAuth.message()));
         }
         
         log.debug("Authentication check passed - user: {}", authentication.getName());
@@ -59,7 +62,7 @@ public class AuthorizationAspect {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             log.warn("User not authenticated - method: {}", joinPoint.getSignature().getName());
-            return ApiResponseUtil.error(HttpStatusEnum.UNAUTHORIZED, "Not logged in");
+            return deny(joinPoint, ApiResponseUtil.error(HttpStatusEnum.UNAUTHORIZED, "Not logged in"));
         }
         
         // Check role permissions
@@ -83,7 +86,7 @@ public class AuthorizationAspect {
         if (!hasPermission) {
             log.warn("Insufficient role permissions - user: {}, has roles: {}, required roles: {}", 
                        authentication.getName(), userRoles, requiredRoles);
-            return ApiResponseUtil.error(HttpStatusEnum.FORBIDDEN, requireRole.message());
+            return deny(joinPoint, ApiResponseUtil.error(HttpStatusEnum.FORBIDDEN, requireRole.message()));
         }
         
         log.debug("Role permission check passed - user: {}", authentication.getName());
@@ -102,7 +105,7 @@ public class AuthorizationAspect {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             log.warn("User not authenticated - method: {}", joinPoint.getSignature().getName());
-            return ApiResponseUtil.error(HttpStatusEnum.UNAUTHORIZED, "Not logged in");
+            return deny(joinPoint, ApiResponseUtil.error(HttpStatusEnum.UNAUTHORIZED, "Not logged in"));
         }
         
         // Check permissions
@@ -126,10 +129,18 @@ public class AuthorizationAspect {
         if (!hasPermission) {
             log.warn("Insufficient permissions - user: {}, has permissions: {}, required permissions: {}", 
                        authentication.getName(), userPermissions, requiredPermissions);
-            return ApiResponseUtil.error(HttpStatusEnum.FORBIDDEN, requirePermission.message());
+            return deny(joinPoint, ApiResponseUtil.error(HttpStatusEnum.FORBIDDEN, requirePermission.message()));
         }
         
         log.debug("Permission check passed - user: {}", authentication.getName());
         return joinPoint.proceed();
     }
+
+    /**
+     * Wrap the denial so async endpoints still receive their declared return type
+     */
+    private Object deny(ProceedingJoinPoint joinPoint, ApiResponse<?> response) {
+        Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+        return AsyncResponseUtil.adapt(returnType, response);
+    }
 }
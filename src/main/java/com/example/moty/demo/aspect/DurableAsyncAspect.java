@@ -0,0 +1,93 @@
+package com.example.moty.demo.aspect;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.example.moty.demo.annotation.DurableAsync;
+import com.example.moty.demo.executor.DurableTaskService;
+
+/**
+ * Durable async aspect
+ * Stores @DurableAsync calls in the durable task queue when it is enabled, otherwise
+ * runs them on the annotation's fallback executor. Runs before other method advice such
+ * as @AsyncPriority, which then only applies while the durable queue is disabled.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DurableAsyncAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurableAsyncAspect.class);
+
+    @Autowired
+    private ObjectProvider<DurableTaskService> durableTaskService;
+
+    @Autowired
+    private BeanFactory beanFactory;
+
+    @Around("@annotation(durableAsync)")
+    public Object submit(ProceedingJoinPoint joinPoint, DurableAsync durableAsync) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Class<?> returnType = signature.getReturnType();
+        boolean returnsVoid = returnType == void.class;
+        if (!returnsVoid && !Future.class.isAssignableFrom(returnType)
+                && !CompletionStage.class.isAssignableFrom(returnType)) {
+            throw new IllegalStateException("@DurableAsync method must return void or a Future: "
+                    + signature.toShortString());
+        }
+
+        DurableTaskService service = durableTaskService.getIfAvailable();
+        if (service != null) {
+            // Captured here on the caller thread, including the caller's username
+            service.enqueue(AopUtils.getTargetClass(joinPoint.getTarget()), signature.getMethod(), joinPoint.getArgs());
+            return returnsVoid ? null : CompletableFuture.completedFuture(null);
+        }
+        if (durableAsync.executor().isEmpty()) {
+            return joinPoint.proceed();
+        }
+
+        AsyncTaskExecutor executor = beanFactory.getBean(durableAsync.executor(), AsyncTaskExecutor.class);
+        CompletableFuture<Object> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                Object result = joinPoint.proceed();
+                if (result instanceof Future) {
+                    return ((Future<?>) result).get();
+                }
+                if (result instanceof CompletionStage) {
+                    return ((CompletionStage<?>) result).toCompletableFuture().get();
+                }
+                return result;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }, executor);
+        if (returnsVoid) {
+            future.whenComplete((result, error) -> {
+                if (error != null) {
+                    logger.error("@DurableAsync task {} failed: {}", signature.toShortString(), error.getMessage(),
+                            error);
+                }
+            });
+            return null;
+        }
+        return future;
+    }
+}
@@ -1,28 +1,158 @@
 package com.example.moty.demo.config;
 
-import java.util.concurrent.Executor;
-
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
+
+import com.example.moty.demo.enums.AsyncExecutorMode;
+import com.example.moty.demo.executor.ExecutorMetricsRegistry;
+import com.example.moty.demo.executor.ParallelExecutionService;
+import com.example.moty.demo.executor.PriorityTaskExecutor;
+import com.example.moty.demo.executor.VirtualBulkhead;
+import com.example.moty.demo.executor.VirtualThreadSupport;
+import com.example.moty.demo.security.SecurityContextPropagation;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    @Autowired
+    private AsyncProperties asyncProperties;
+
+    @Autowired
+    private ExecutorMetricsRegistry executorMetricsRegistry;
+
     // Optional: 可以自訂 ThreadPool
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("Async-");
-        executor.initialize();
-
-        // return executor;
-        return new DelegatingSecurityContextAsyncTaskExecutor(executor);
-    }
-}
\ No newline at end of file
+    public AsyncTaskExecutor taskExecutor() {
+        return bulkhead("taskExecutor");
+    }
+
+    /**
+     * Audit writes, isolated so a request burst cannot starve the audit trail
+     */
+    @Bean(name = "auditExecutor")
+    public AsyncTaskExecutor auditExecutor() {
+        return bulkhead("auditExecutor");
+    }
+
+    /**
+     * CPU-bound signing and verification offload
+     */
+    @Bean(name = "cryptoExecutor")
+    public AsyncTaskExecutor cryptoExecutor() {
+        return bulkhead("cryptoExecutor");
+    }
+
+    /**
+     * Workers replaying the durable task queue, only with async.durable.enabled=true
+     */
+    @Bean(name = "durableExecutor")
+    @ConditionalOnProperty(name = "async.durable.enabled", havingValue = "true")
+    public AsyncTaskExecutor durableExecutor() {
+        return bulkhead("durableExecutor");
+    }
+
+    /**
+     * Fork-join pool for CPU-bound fan-out, see ParallelExecutionService
+     */
+    @Bean(name = "parallelExecutionService", destroyMethod = "shutdown")
+    public ParallelExecutionService parallelExecutionService() {
+        AsyncProperties.Parallel config = asyncProperties.getParallel();
+        int parallelism = config.getParallelism() > 0
+                ? config.getParallelism() : Runtime.getRuntime().availableProcessors();
+        int perCaller = config.getMaxParallelismPerCaller() > 0 ? config.getMaxParallelismPerCaller() : parallelism;
+        return new ParallelExecutionService(parallelism, perCaller, config.getThreadNamePrefix());
+    }
+
+    /**
+     * Priority-ordered pool behind @AsyncPriority, always platform threads since
+     * ordering only matters while tasks wait in the queue
+     */
+    @Bean(name = "priorityExecutor")
+    public PriorityTaskExecutor priorityExecutor() {
+        PriorityTaskExecutor executor = new PriorityTaskExecutor(asyncProperties.getPriority().getAgingMillis());
+        configurePool("priorityExecutor", executor, asyncProperties.bulkhead("priorityExecutor"));
+        return executor;
+    }
+
+    /**
+     * Bounded, instrumented executor configured by async.bulkheads[name]
+     * Pick it with @Async("name"); saturation shows up per name on /api/v1/admin/executors.
+     */
+    private AsyncTaskExecutor bulkhead(String name) {
+        AsyncProperties.Bulkhead config = asyncProperties.bulkhead(name);
+        AsyncTaskExecutor executor;
+        if (useVirtualThreads()) {
+            // max-pool-size bounds concurrent tasks and queue-capacity the tasks waiting for one
+            VirtualBulkhead bulkhead = new VirtualBulkhead(name,
+                    VirtualThreadSupport.newThreadPerTaskExecutor(threadNamePrefix(name, config) + "vt-"),
+                    config.getMaxPoolSize(), config.getQueueCapacity(), config.getRejectionPolicy());
+            TaskExecutorAdapter virtual = new TaskExecutorAdapter(bulkhead);
+            executorMetricsRegistry.instrument(name, virtual, bulkhead, SecurityContextPropagation.taskDecorator());
+            executor = virtual;
+            logger.info("{} running on virtual threads, at most {} concurrent tasks", name, config.getMaxPoolSize());
+        } else {
+            ThreadPoolTaskExecutor platform = new ThreadPoolTaskExecutor();
+            configurePool(name, platform, config);
+            executor = platform;
+        }
+
+        // The caller's principal reaches the worker through the task decorator, platform or virtual
+        return executor;
+    }
+
+    private void configurePool(String name, ThreadPoolTaskExecutor pool, AsyncProperties.Bulkhead config) {
+        pool.setCorePoolSize(config.getCorePoolSize());
+        pool.setMaxPoolSize(config.getMaxPoolSize());
+        pool.setQueueCapacity(config.getQueueCapacity());
+        pool.setThreadNamePrefix(threadNamePrefix(name, config));
+        executorMetricsRegistry.instrument(name, pool, config.getRejectionPolicy(),
+                SecurityContextPropagation.taskDecorator());
+        pool.initialize();
+    }
+
+    private static String threadNamePrefix(String name, AsyncProperties.Bulkhead config) {
+        return config.getThreadNamePrefix() != null && !config.getThreadNamePrefix().isEmpty()
+                ? config.getThreadNamePrefix() : name + "-";
+    }
+
+    /**
+     * Hand Tomcat request processing to virtual threads
+     * Requires async.mode=virtual; the security filter chain still populates the
+     * context per request since SecurityContextHolder is thread-local on virtual threads too.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "async.tomcat-virtual-threads", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            if (useVirtualThreads()) {
+                protocolHandler.setExecutor(VirtualThreadSupport.newThreadPerTaskExecutor("http-vt-"));
+                logger.info("Tomcat request handling running on virtual threads");
+            }
+        };
+    }
+
+    private boolean useVirtualThreads() {
+        if (asyncProperties.getMode() != AsyncExecutorMode.VIRTUAL) {
+            return false;
+        }
+        if (!VirtualThreadSupport.isSupported()) {
+            logger.warn("async.mode=virtual needs Java 21, running on {} with platform threads instead",
+                    System.getProperty("java.version"));
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.moty.demo.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.moty.demo.enums.AsyncExecutorMode;
+import com.example.moty.demo.enums.BulkheadRejectionPolicy;
+
+import lombok.Data;
+
+/**
+ * Async executor configuration properties
+ * Bound from the "async.*" keys in application.properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "async")
+public class AsyncProperties {
+
+    /**
+     * Thread model for all bulkheads, VIRTUAL falls back to PLATFORM before Java 21
+     */
+    private AsyncExecutorMode mode = AsyncExecutorMode.PLATFORM;
+
+    /**
+     * Run Tomcat request handling on virtual threads as well
+     */
+    private boolean tomcatVirtualThreads = false;
+
+    /**
+     * Isolated executors keyed by bean name, e.g. async.bulkheads.auditExecutor.core-pool-size
+     */
+    private Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+
+    private Adaptive adaptive = new Adaptive();
+
+    private Parallel parallel = new Parallel();
+
+    private Priority priority = new Priority();
+
+    private Durable durable = new Durable();
+
+    private Shutdown shutdown = new Shutdown();
+
+    /**
+     * Settings of the named bulkhead, defaults when it is not configured
+     */
+    public Bulkhead bulkhead(String name) {
+        Bulkhead bulkhead = bulkheads.get(name);
+        return bulkhead != null ? bulkhead : new Bulkhead();
+    }
+
+    @Data
+    public static class Bulkhead {
+
+        /**
+         * Platform mode only: threads kept alive
+         */
+        private int corePoolSize = 5;
+
+        /**
+         * Threads started once the queue is full; in virtual mode, the most tasks running at once
+         */
+        private int maxPoolSize = 10;
+
+        /**
+         * Tasks waiting for a thread before new threads are started; in virtual mode,
+         * tasks waiting for one of the max-pool-size slots
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * Applied when threads and queue are both full
+         */
+        private BulkheadRejectionPolicy rejectionPolicy = BulkheadRejectionPolicy.ABORT;
+
+        /**
+         * Worker thread name prefix, the bean name followed by "-" when empty
+         */
+        private String threadNamePrefix;
+    }
+
+    @Data
+    public static class Adaptive {
+
+        /**
+         * Resize platform pools at runtime from their observed queue wait
+         */
+        private boolean enabled = false;
+
+        /**
+         * Instrumented executors under control
+         */
+        private List<String> executors = new ArrayList<>(Collections.singletonList("taskExecutor"));
+
+        /**
+         * Queue-wait p99 the controller steers towards
+         */
+        private long targetP99Millis = 50;
+
+        /**
+         * Shrink only while p99 stays below target * low-watermark
+         */
+        private double lowWatermark = 0.25;
+
+        private int minCorePoolSize = 2;
+
+        private int maxCorePoolSize = 64;
+
+        /**
+         * Extra threads allowed above core once the queue is full
+         */
+        private int burstThreads = 5;
+
+        /**
+         * Grow steps are proportional to the p99 overshoot, capped at this many threads
+         */
+        private int maxStep = 8;
+
+        /**
+         * Minimum relative throughput gain for a grow step to be kept
+         */
+        private double minThroughputGain = 0.05;
+
+        /**
+         * Intervals with fewer completed tasks are not acted upon
+         */
+        private long minSamples = 20;
+
+        private long intervalMillis = 5000;
+
+        /**
+         * Quiet period after every resize before the next one
+         */
+        private long cooldownMillis = 15000;
+    }
+
+    @Data
+    public static class Parallel {
+
+        /**
+         * Fork-join workers, number of CPUs when 0
+         */
+        private int parallelism = 0;
+
+        /**
+         * Slices a single call may run at once, the whole pool when 0
+         */
+        private int maxParallelismPerCaller = 0;
+
+        private String threadNamePrefix = "Parallel-";
+    }
+
+    @Data
+    public static class Priority {
+
+        /**
+         * A queued task gains one priority level per interval waited, so LOW work cannot starve
+         */
+        private long agingMillis = 2000;
+    }
+
+    @Data
+    public static class Durable {
+
+        /**
+         * Store @DurableAsync calls on local disk so they survive restarts
+         */
+        private boolean enabled = false;
+
+        private String directory = "task-queue";
+
+        /**
+         * A new segment file is started once the current one reaches this size
+         */
+        private long segmentBytes = 64L * 1024 * 1024;
+
+        /**
+         * Stored calls not yet completed before new ones are rejected
+         */
+        private int maxPending = 100000;
+
+        /**
+         * Attempts per call before it is logged and dropped
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * Delay before the first retry, doubled on every further attempt
+         */
+        private long retryBackoffMillis = 1000;
+
+        /**
+         * How often the completed position is persisted and old segments deleted
+         */
+        private long checkpointIntervalMillis = 1000;
+    }
+
+    @Data
+    public static class Shutdown {
+
+        /**
+         * Time allowed to finish queued async work and flush audit buffers once requests stopped
+         */
+        private long drainTimeoutMillis = 20000;
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.moty.demo.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.moty.demo.enums.AuditTailDropPolicy;
+
+import lombok.Data;
+
+/**
+ * Audit configuration properties
+ * Bound from the "audit.*" keys in application.properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "audit")
+public class AuditProperties {
+
+    private Query query = new Query();
+
+    private Retention retention = new Retention();
+
+    private Partitioning partitioning = new Partitioning();
+
+    private Archive archive = new Archive();
+
+    private Tail tail = new Tail();
+
+    private Chain chain = new Chain();
+
+    private Sink sink = new Sink();
+
+    @Data
+    public static class Query {
+
+        /**
+         * Page size used when the caller does not specify one
+         */
+        private int defaultPageSize = 50;
+
+        /**
+         * Upper bound for a single page
+         */
+        private int maxPageSize = 500;
+    }
+
+    @Data
+    public static class Retention {
+
+        /**
+         * Whether the scheduled retention purge is enabled
+         */
+        private boolean enabled = true;
+
+        /**
+         * Rows older than this many days are purged
+         */
+        private int days = 180;
+
+        /**
+         * Maximum rows deleted per statement when partitions cannot be dropped
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Pause between delete batches, gives replication and other writers room to breathe
+         */
+        private long batchPauseMillis = 50;
+
+        /**
+         * Cron expression for the purge job
+         */
+        private String cron = "0 30 3 * * *";
+    }
+
+    @Data
+    public static class Partitioning {
+
+        /**
+         * Whether audit_log is range partitioned by month (see db/audit_log_partitioning.sql)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of future monthly partitions kept ready ahead of time
+         */
+        private int monthsAhead = 3;
+    }
+
+    @Data
+    public static class Archive {
+
+        /**
+         * Whether the scheduled archiver is enabled
+         */
+        private boolean enabled = false;
+
+        /**
+         * Directory holding archive segments and their index
+         */
+        private String directory = "./audit-archive";
+
+        /**
+         * Rows older than this many days are moved to the archive, keep it below retention.days
+         */
+        private int afterDays = 90;
+
+        /**
+         * Rows per compressed segment file
+         */
+        private int rowsPerSegment = 100000;
+
+        /**
+         * Upper bound for rows returned by one archive scan
+         */
+        private int maxScanResults = 1000;
+
+        /**
+         * Cron expression for the archive job
+         */
+        private String cron = "0 0 3 * * *";
+    }
+
+    @Data
+    public static class Tail {
+
+        /**
+         * Events buffered per subscriber before the drop policy applies
+         */
+        private int bufferSize = 256;
+
+        /**
+         * Policy applied when a subscriber's buffer is full
+         */
+        private AuditTailDropPolicy dropPolicy = AuditTailDropPolicy.DROP_OLDEST;
+
+        /**
+         * Maximum concurrent subscribers
+         */
+        private int maxSubscribers = 32;
+
+        /**
+         * Threads writing events to subscriber connections
+         */
+        private int senderThreads = 4;
+
+        /**
+         * SSE connection timeout, 0 keeps the connection open until the client leaves
+         */
+        private long timeoutMillis = 0;
+    }
+
+    @Data
+    public static class Chain {
+
+        /**
+         * Whether audit rows are hash chained and batch signed
+         */
+        private boolean enabled = true;
+
+        /**
+         * Rows covered by one Merkle root signature
+         */
+        private int batchSize = 5000;
+
+        /**
+         * Sign a partial batch when it has been open this long
+         */
+        private long flushIntervalMillis = 60000;
+
+        /**
+         * Base64 PKCS#8 signing key; when empty the pair in keyFile is used
+         */
+        private String privateKey;
+
+        /**
+         * Base64 X.509 verification key matching privateKey
+         */
+        private String publicKey;
+
+        /**
+         * Key pair generated on first start and reused afterwards when privateKey is empty
+         */
+        private String keyFile = "./audit-chain.key";
+
+        /**
+         * Base64 X.509 keys of earlier signing keys, batches they signed still verify
+         */
+        private List<String> previousPublicKeys = new ArrayList<>();
+
+        /**
+         * Batches verified in parallel on the shared parallelExecutionService
+         */
+        private int verifyThreads = 4;
+    }
+
+    @Data
+    public static class Sink {
+
+        /**
+         * "jpa" writes to the local audit_log table, "grpc" streams to a collector
+         */
+        private String type = "jpa";
+
+        /**
+         * Collector address for the grpc sink
+         */
+        private String target = "localhost:18081";
+
+        /**
+         * Events buffered locally before new events are dropped
+         */
+        private int queueCapacity = 10000;
+
+        /**
+         * Maximum events per batch
+         */
+        private int batchSize = 200;
+
+        /**
+         * How long a partial batch waits for more events
+         */
+        private long lingerMillis = 200;
+
+        /**
+         * Maximum unacknowledged batches on the stream
+         */
+        private int maxInFlight = 4;
+
+        /**
+         * Resend a batch when no ack arrived within this time
+         */
+        private long ackTimeoutMillis = 10000;
+
+        /**
+         * Attempts per batch before it is given up and counted as lost
+         */
+        private int maxRetries = 5;
+
+        /**
+         * Base delay between retries, multiplied by the attempt number
+         */
+        private long retryBackoffMillis = 500;
+    }
+}
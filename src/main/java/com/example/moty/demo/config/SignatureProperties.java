@@ -0,0 +1,156 @@
+package com.example.moty.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Signature configuration properties
+ * Bound from the "signature.*" keys in application.properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "signature")
+public class SignatureProperties {
+
+    private KeyCache keyCache = new KeyCache();
+
+    private EnginePool enginePool = new EnginePool();
+
+    private Batch batch = new Batch();
+
+    private Files files = new Files();
+
+    private KeyPool keyPool = new KeyPool();
+
+    private KeyStore keyStore = new KeyStore();
+
+    private VerifyCache verifyCache = new VerifyCache();
+
+    @Data
+    public static class KeyCache {
+
+        /**
+         * Parsed keys kept, least recently used evicted first; 0 disables the cache
+         */
+        private int maxSize = 1000;
+
+        /**
+         * A parsed key is reused for at most this long
+         */
+        private long ttlMillis = 600000;
+    }
+
+    @Data
+    public static class EnginePool {
+
+        /**
+         * Initialized Signature engines kept per thread and key, least recently used evicted first;
+         * 0 creates a new engine for every call. Engines expire with key-cache.ttl-millis.
+         */
+        private int maxPerThread = 16;
+    }
+
+    @Data
+    public static class Batch {
+
+        /**
+         * Items accepted by one batch-sign or batch-verify call
+         */
+        private int maxItems = 10000;
+
+        /**
+         * Items processed in parallel before their results are written and flushed
+         */
+        private int chunkSize = 256;
+    }
+
+    @Data
+    public static class Files {
+
+        /**
+         * Only files below this directory can be signed or verified in place
+         */
+        private String baseDir = "exports";
+
+        /**
+         * Size of each mapping, larger files are mapped window by window. Earlier windows stay
+         * mapped until their buffers are garbage collected, so this does not cap total mapped size
+         */
+        private int mapWindowBytes = 256 * 1024 * 1024;
+    }
+
+    @Data
+    public static class KeyPool {
+
+        /**
+         * Pre-generate key pairs in the background for generate-keys and the demo flows
+         */
+        private boolean enabled = true;
+
+        /**
+         * Key pairs held at most
+         */
+        private int capacity = 64;
+
+        /**
+         * Refill starts once fewer key pairs than this are left
+         */
+        private int lowWatermark = 8;
+
+        /**
+         * Refill stops once this many key pairs are ready
+         */
+        private int highWatermark = 32;
+
+        /**
+         * Background threads generating key pairs, run at minimum thread priority
+         */
+        private int refillThreads = 1;
+    }
+
+    @Data
+    public static class KeyStore {
+
+        /**
+         * Server-held keys one user can generate or import
+         */
+        private int maxKeysPerUser = 100;
+
+        /**
+         * Base64 AES key (16, 24 or 32 bytes) encrypting private keys at rest with AES-GCM
+         */
+        private String encryptionKey;
+
+        /**
+         * Store private keys unencrypted when no encryptionKey is set; development only
+         */
+        private boolean allowPlaintextPrivateKeys = false;
+
+        /**
+         * A resolved key is re-checked against its row after this long, so deletes on
+         * other nodes take effect; 0 checks on every use
+         */
+        private long cacheTtlMillis = 60000;
+    }
+
+    @Data
+    public static class VerifyCache {
+
+        /**
+         * Remember successful verifications of identical (data, signature, key) triples
+         */
+        private boolean enabled = false;
+
+        /**
+         * Successful verifications kept, least recently used evicted first
+         */
+        private int maxSize = 10000;
+
+        /**
+         * A successful verification is reused for at most this long
+         */
+        private long ttlMillis = 300000;
+    }
+}
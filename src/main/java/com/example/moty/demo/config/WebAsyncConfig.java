@@ -0,0 +1,41 @@
+package com.example.moty.demo.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.moty.demo.enums.HttpStatusEnum;
+import com.example.moty.demo.util.ApiResponseUtil;
+
+/**
+ * Servlet async support for controllers returning CompletableFuture, DeferredResult or Callable
+ * The timeout comes from spring.mvc.async.request-timeout. Callable handlers run on
+ * taskExecutor instead of Spring MVC's unbounded SimpleAsyncTaskExecutor fallback.
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(taskExecutor);
+        configurer.registerDeferredResultInterceptors(new DeferredResultProcessingInterceptor() {
+            @Override
+            public <T> boolean handleTimeout(NativeWebRequest request, DeferredResult<T> deferredResult) {
+                // Same envelope as every other error instead of AsyncRequestTimeoutException's bare 503
+                deferredResult.setErrorResult(ApiResponseUtil.error(HttpStatusEnum.GATEWAY_TIMEOUT,
+                        "Async request timed out"));
+                return false;
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.moty.demo.constant;
+
+/**
+ * Signature header constants
+ * Carry keys and signatures for the octet-stream sign/verify endpoints, whose body is the payload
+ */
+public class SignatureHeaderConstant {
+
+    // Base64 PKCS#8 private key
+    public static final String PRIVATE_KEY = "X-Private-Key";
+
+    // Base64 X.509 public key
+    public static final String PUBLIC_KEY = "X-Public-Key";
+
+    // Base64 signature to verify
+    public static final String SIGNATURE = "X-Signature";
+
+    // Signature algorithm id, e.g. "ECDSA-P256"; RSA when absent
+    public static final String ALGORITHM = "X-Signature-Algorithm";
+
+    // Private constructor to prevent instantiation
+    private SignatureHeaderConstant() {
+        throw new UnsupportedOperationException("Constant class cannot be instantiated");
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.moty.demo.controller;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.moty.demo.annotation.PreHandle;
+import com.example.moty.demo.annotation.RequireRole;
+import com.example.moty.demo.constant.ApiPathConstant;
+import com.example.moty.demo.model.dto.ApiResponse;
+import com.example.moty.demo.model.dto.AuditChainVerificationDto;
+import com.example.moty.demo.model.dto.AuditLogDto;
+import com.example.moty.demo.model.dto.AuditLogPageDto;
+import com.example.moty.demo.service.AuditChainVerifier;
+import com.example.moty.demo.service.AuditEventBroadcaster;
+import com.example.moty.demo.service.AuditQueryService;
+import com.example.moty.demo.service.archive.AuditArchiveService;
+import com.example.moty.demo.util.ApiResponseUtil;
+
+/**
+ * Audit Controller V1
+ * Provides audit log query endpoints
+ */
+@RestController
+@RequestMapping(ApiPathConstant.API_V1 + "/audit")
+public class AuditController {
+
+    @Autowired
+    private AuditQueryService auditQueryService;
+
+    @Autowired
+    private AuditArchiveService auditArchiveService;
+
+    @Autowired
+    private AuditEventBroadcaster auditEventBroadcaster;
+
+    @Autowired
+    private AuditChainVerifier auditChainVerifier;
+
+    /**
+     * Query audit logs, newest first, with keyset pagination
+     * Pass the returned nextCursor as cursor to fetch the next page
+     */
+    @GetMapping("/logs")
+    @PreHandle
+    @RequireRole(value = "ROLE_ADMIN", message = "Admin permission required to query audit logs")
+    public ApiResponse<AuditLogPageDto> queryLogs(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ApiResponseUtil.success(auditQueryService.query(username, action, from, to, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ApiResponseUtil.badRequest(e.getMessage());
+        }
+    }
+
+    /**
+     * Scan archived audit logs, oldest first
+     */
+    @GetMapping("/archive")
+    @PreHandle
+    @RequireRole(value = "ROLE_ADMIN", message = "Admin permission required to query audit archive")
+    public ApiResponse<List<AuditLogDto>> scanArchive(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ApiResponseUtil.success(auditArchiveService.scan(username, action, from, to, limit));
+        } catch (IOException e) {
+            return ApiResponseUtil.internalError("Audit archive scan failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Live audit tail over Server-Sent Events
+     * Admin access is enforced in SecurityConfig
+     */
+    @GetMapping(value = "/tail", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter tail() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        SseEmitter emitter = auditEventBroadcaster.subscribe(auth != null ? auth.getName() : "anonymous");
+        if (emitter == null) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many audit tail subscribers");
+        }
+        return emitter;
+    }
+
+    /**
+     * Live audit tail subscriber statistics
+     */
+    @GetMapping("/tail/stats")
+    @PreHandle
+    @RequireRole(value = "ROLE_ADMIN", message = "Admin permission required")
+    public ApiResponse<Map<String, Object>> tailStats() {
+        return ApiResponseUtil.success(auditEventBroadcaster.stats());
+    }
+
+    /**
+     * Verify hash chain continuity and batch signatures over the whole audit_log table
+     */
+    @GetMapping("/verify")
+    @PreHandle
+    @RequireRole(value = "ROLE_ADMIN", message = "Admin permission required")
+    public ApiResponse<AuditChainVerificationDto> verifyChain() {
+        return ApiResponseUtil.success(auditChainVerifier.verify());
+    }
+}
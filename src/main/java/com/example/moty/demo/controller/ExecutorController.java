@@ -0,0 +1,53 @@
+package com.example.moty.demo.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.moty.demo.annotation.PreHandle;
+import com.example.moty.demo.annotation.RequireRole;
+import com.example.moty.demo.constant.ApiPathConstant;
+import com.example.moty.demo.executor.ExecutorMetricsRegistry;
+import com.example.moty.demo.executor.PriorityTaskExecutor;
+import com.example.moty.demo.model.dto.ApiResponse;
+import com.example.moty.demo.model.dto.ExecutorStatsDto;
+import com.example.moty.demo.model.dto.PriorityStatsDto;
+import com.example.moty.demo.util.ApiResponseUtil;
+
+/**
+ * Executor Controller V1
+ * Provides executor monitoring endpoints
+ */
+@RestController
+@RequestMapping(ApiPathConstant.API_V1 + "/admin/executors")
+public class ExecutorController {
+
+    @Autowired
+    private ExecutorMetricsRegistry executorMetricsRegistry;
+
+    @Autowired
+    private PriorityTaskExecutor priorityExecutor;
+
+    /**
+     * Queue depth, active threads, wait/run latency, completions and rejections per executor
+     */
+    @GetMapping
+    @PreHandle
+    @RequireRole(value = "ROLE_ADMIN", message = "Admin permission required")
+    public ApiResponse<List<ExecutorStatsDto>> executors() {
+        return ApiResponseUtil.success(executorMetricsRegistry.stats());
+    }
+
+    /**
+     * Submissions, queued tasks and wait/run latency per @AsyncPriority level
+     */
+    @GetMapping("/priorities")
+    @PreHandle
+    @RequireRole(value = "ROLE_ADMIN", message = "Admin permission required")
+    public ApiResponse<List<PriorityStatsDto>> priorities() {
+        return ApiResponseUtil.success(priorityExecutor.priorityStats());
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import com.example.moty.demo.annotation.Audit;
 import com.example.moty.demo.annotation.PreHandle;
@@ -13,6 +14,7 @@ import com.example.moty.demo.enums.AuditEnum;
 import com.example.moty.demo.model.dto.ApiResponse;
 import com.example.moty.demo.service.AsyncService;
 import com.example.moty.demo.util.ApiResponseUtil;
+import com.example.moty.demo.util.AsyncResponseUtil;
 
 /**
  * Basic Controller V1
@@ -63,9 +65,13 @@ public class HelloController {
         return ApiResponseUtil.success("Async task started.");
     }
 
+    /**
+     * Async endpoint - the request thread is released while asyncTask1 runs,
+     * a timed out or disconnected request interrupts it
+     */
     @GetMapping("/async1")
     @PreHandle
-    public ApiResponse<String> asyncEndpoint1() throws Exception {
-        return ApiResponseUtil.success(asyncService.asyncTask1().get());
+    public DeferredResult<ApiResponse<String>> asyncEndpoint1() {
+        return AsyncResponseUtil.deferInterruptible(asyncService::asyncTask1);
     }
 }
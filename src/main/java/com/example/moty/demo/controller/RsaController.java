@@ -1,20 +1,49 @@
 package com.example.moty.demo.controller;
 
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.moty.demo.annotation.PreHandle;
+import com.example.moty.demo.annotation.RequireRole;
 import com.example.moty.demo.constant.ApiPathConstant;
+import com.example.moty.demo.constant.SignatureHeaderConstant;
+import com.example.moty.demo.enums.SignatureAlgorithm;
 import com.example.moty.demo.model.dto.ApiResponse;
+import com.example.moty.demo.model.dto.KeyCacheStatsDto;
+import com.example.moty.demo.model.dto.KeyPairPoolStatsDto;
+import com.example.moty.demo.model.dto.MerkleBatchSignatureDto;
 import com.example.moty.demo.model.dto.SignatureDto;
+import com.example.moty.demo.model.dto.SignatureEngineStatsDto;
+import com.example.moty.demo.model.dto.SigningKeyDto;
+import com.example.moty.demo.model.dto.VerificationCacheStatsDto;
+import com.example.moty.demo.model.vo.BatchSignatureRequest;
+import com.example.moty.demo.model.vo.FileSignatureRequest;
+import com.example.moty.demo.model.vo.MerkleSignRequest;
+import com.example.moty.demo.model.vo.MerkleVerifyRequest;
 import com.example.moty.demo.model.vo.SignatureRequest;
+import com.example.moty.demo.model.vo.SigningKeyImportRequest;
+import com.example.moty.demo.service.BatchSignatureService;
+import com.example.moty.demo.service.FileSignatureService;
+import com.example.moty.demo.service.MerkleSignatureService;
 import com.example.moty.demo.service.SignatureService;
+import com.example.moty.demo.service.SigningKeyService;
 import com.example.moty.demo.util.ApiResponseUtil;
+import com.example.moty.demo.util.RsaSignatureUtil;
 
 /**
  * RSA 數字簽名控制器 V1
@@ -27,13 +56,80 @@ public class RsaController {
     @Autowired
     private SignatureService signatureService;
     
+    @Autowired
+    private BatchSignatureService batchSignatureService;
+    
+    @Autowired
+    private FileSignatureService fileSignatureService;
+    
+    @Autowired
+    private SigningKeyService signingKeyService;
+    
+    @Autowired
+    private MerkleSignatureService merkleSignatureService;
+    
+    @Autowired
+    private RsaSignatureUtil rsaSignatureUtil;
+    
     /**
-     * 生成 RSA 密鑰對
+     * 生成密鑰對，algorithm 未指定時為 RSA
      */
     @PostMapping("/generate-keys")
     @PreHandle
-    public ApiResponse<SignatureDto> generateKeyPair() {
-        return ApiResponseUtil.success(signatureService.generateKeyPair());
+    public ApiResponse<SignatureDto> generateKeyPair(@RequestParam(required = false) String algorithm) {
+        return ApiResponseUtil.success(signatureService.generateKeyPair(algorithm));
+    }
+    
+    /**
+     * 在伺服器端生成密鑰並取得 keyId，私鑰不會回傳
+     * 之後 /sign、/verify 以 keyId 引用，不必再傳送密鑰
+     */
+    @PostMapping("/keys")
+    @PreHandle
+    public ApiResponse<SigningKeyDto> generateStoredKey(@RequestParam(required = false) String algorithm) {
+        return ApiResponseUtil.success(signingKeyService.generate(algorithm));
+    }
+    
+    /**
+     * 匯入既有密鑰並取得 keyId，只提供公鑰時僅能用於驗證
+     */
+    @PostMapping("/keys/import")
+    @PreHandle
+    public ApiResponse<SigningKeyDto> importStoredKey(@RequestBody SigningKeyImportRequest request) {
+        return ApiResponseUtil.success(signingKeyService.importKey(request));
+    }
+    
+    /**
+     * 目前使用者的伺服器端密鑰
+     */
+    @GetMapping("/keys")
+    @PreHandle
+    public ApiResponse<List<SigningKeyDto>> listStoredKeys() {
+        return ApiResponseUtil.success(signingKeyService.list());
+    }
+    
+    /**
+     * 刪除目前使用者的伺服器端密鑰
+     */
+    @DeleteMapping("/keys/{keyId}")
+    @PreHandle
+    public ApiResponse<SigningKeyDto> deleteStoredKey(@PathVariable String keyId) {
+        return ApiResponseUtil.success(signingKeyService.delete(keyId));
+    }
+    
+    /**
+     * 目前 Java 版本可用的簽名演算法
+     */
+    @GetMapping("/algorithms")
+    @PreHandle
+    public ApiResponse<List<String>> algorithms() {
+        List<String> available = new ArrayList<>();
+        for (SignatureAlgorithm algorithm : SignatureAlgorithm.values()) {
+            if (algorithm.isAvailable()) {
+                available.add(algorithm.getId());
+            }
+        }
+        return ApiResponseUtil.success(available);
     }
     
     /**
@@ -54,13 +150,108 @@ public class RsaController {
         return ApiResponseUtil.success(signatureService.verifySignature(request));
     }
     
+    /**
+     * 串流簽名，請求本文即為原始資料 (application/octet-stream)
+     * 私鑰放在 X-Private-Key 標頭，演算法放在 X-Signature-Algorithm 標頭 (未提供時為 RSA)，
+     * 資料分段讀入，不會整份載入記憶體
+     */
+    @PostMapping(value = "/sign-stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreHandle
+    public ApiResponse<SignatureDto> signStream(InputStream body,
+        @RequestHeader(SignatureHeaderConstant.PRIVATE_KEY) String privateKey,
+        @RequestHeader(value = SignatureHeaderConstant.ALGORITHM, required = false) String algorithm) {
+        return ApiResponseUtil.success(signatureService.signStream(body, privateKey, algorithm));
+    }
+    
+    /**
+     * 串流驗證，請求本文即為原始資料 (application/octet-stream)
+     * 簽名與公鑰分別放在 X-Signature 與 X-Public-Key 標頭，演算法放在 X-Signature-Algorithm 標頭
+     */
+    @PostMapping(value = "/verify-stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreHandle
+    public ApiResponse<SignatureDto> verifyStream(InputStream body,
+        @RequestHeader(SignatureHeaderConstant.SIGNATURE) String signature,
+        @RequestHeader(SignatureHeaderConstant.PUBLIC_KEY) String publicKey,
+        @RequestHeader(value = SignatureHeaderConstant.ALGORITHM, required = false) String algorithm) {
+        return ApiResponseUtil.success(signatureService.verifyStream(body, signature, publicKey, algorithm));
+    }
+    
+    /**
+     * 對伺服器本機檔案簽名 (限管理員)，path 相對於 signature.files.base-dir
+     * 簽名同時寫入檔案旁的 .sig 簽名檔
+     */
+    @PostMapping("/sign-file")
+    @PreHandle
+    @RequireRole(value = "ROLE_ADMIN", message = "Admin permission required")
+    public ApiResponse<SignatureDto> signFile(@RequestBody FileSignatureRequest request) {
+        return ApiResponseUtil.success(fileSignatureService.signFile(request));
+    }
+    
+    /**
+     * 驗證伺服器本機檔案的簽名 (限管理員)，未提供 signature 時讀取 .sig 簽名檔
+     */
+    @PostMapping("/verify-file")
+    @PreHandle
+    @RequireRole(value = "ROLE_ADMIN", message = "Admin permission required")
+    public ApiResponse<SignatureDto> verifyFile(@RequestBody FileSignatureRequest request) {
+        return ApiResponseUtil.success(fileSignatureService.verifyFile(request));
+    }
+    
+    /**
+     * 批次簽名，以同一把私鑰簽署所有項目
+     * 結果以 NDJSON 逐行回傳，每行含項目的 index 與 id
+     */
+    @PostMapping(value = "/batch-sign", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreHandle
+    public ResponseEntity<StreamingResponseBody> batchSign(@RequestBody BatchSignatureRequest request) {
+        try {
+            return ndjson(ResponseEntity.ok(), batchSignatureService.batchSign(request));
+        } catch (IllegalArgumentException e) {
+            return ndjson(ResponseEntity.badRequest(), batchSignatureService.error(e.getMessage()));
+        }
+    }
+    
+    /**
+     * 批次驗證，以同一把公鑰驗證所有項目
+     * 結果以 NDJSON 逐行回傳，每行含項目的 index、id 與驗證結果
+     */
+    @PostMapping(value = "/batch-verify", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreHandle
+    public ResponseEntity<StreamingResponseBody> batchVerify(@RequestBody BatchSignatureRequest request) {
+        try {
+            return ndjson(ResponseEntity.ok(), batchSignatureService.batchVerify(request));
+        } catch (IllegalArgumentException e) {
+            return ndjson(ResponseEntity.badRequest(), batchSignatureService.error(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Merkle 批次簽名，整批只簽署 Merkle 根一次
+     * 回傳根、根的簽名與每個項目的包含證明
+     */
+    @PostMapping("/merkle-sign")
+    @PreHandle
+    public ApiResponse<MerkleBatchSignatureDto> merkleSign(@RequestBody MerkleSignRequest request) {
+        return ApiResponseUtil.success(merkleSignatureService.sign(request));
+    }
+    
+    /**
+     * 以包含證明驗證 Merkle 批次簽名中的單一項目
+     */
+    @PostMapping("/merkle-verify")
+    @PreHandle
+    public ApiResponse<SignatureDto> merkleVerify(@RequestBody MerkleVerifyRequest request) {
+        return ApiResponseUtil.success(merkleSignatureService.verify(request));
+    }
+    
     /**
      * 完整的簽名和驗證流程演示
      */
     @PostMapping("/complete-flow")
     @PreHandle
-    public ApiResponse<SignatureDto> completeSignatureFlow(@RequestParam String data) {
-        return ApiResponseUtil.success(signatureService.completeSignatureFlow(data));
+    public ApiResponse<SignatureDto> completeSignatureFlow(@RequestParam String data,
+        @RequestParam(required = false) String algorithm) {
+        return ApiResponseUtil.success(signatureService.completeSignatureFlow(data, algorithm));
     }
     
     /**
@@ -68,9 +259,9 @@ public class RsaController {
      */
     @GetMapping("/test")
     @PreHandle
-    public ApiResponse<SignatureDto> testSignature() {
+    public ApiResponse<SignatureDto> testSignature(@RequestParam(required = false) String algorithm) {
         String testData = "這是一個測試數據 - " + System.currentTimeMillis();
-        return ApiResponseUtil.success(signatureService.completeSignatureFlow(testData));
+        return ApiResponseUtil.success(signatureService.completeSignatureFlow(testData, algorithm));
     }
     
     /**
@@ -78,10 +269,14 @@ public class RsaController {
      */
     @GetMapping("/sign-get")
     @PreHandle
-    public ApiResponse<SignatureDto> signDataGet(@RequestParam String data, @RequestParam String privateKey) {
+    public ApiResponse<SignatureDto> signDataGet(@RequestParam String data,
+        @RequestParam(required = false) String privateKey, @RequestParam(required = false) String keyId,
+        @RequestParam(required = false) String algorithm) {
         SignatureRequest request = SignatureRequest.builder()
                 .data(data)
                 .privateKey(privateKey)
+                .keyId(keyId)
+                .algorithm(algorithm)
                 .build();
         return ApiResponseUtil.success(signatureService.signData(request));
     }
@@ -92,12 +287,60 @@ public class RsaController {
     @GetMapping("/verify-get")
     @PreHandle
     public ApiResponse<SignatureDto> verifySignatureGet(@RequestParam String data, 
-        @RequestParam String signature, @RequestParam String publicKey) {
+        @RequestParam String signature, @RequestParam(required = false) String publicKey,
+        @RequestParam(required = false) String keyId, @RequestParam(required = false) String algorithm) {
         SignatureRequest request = SignatureRequest.builder()
                 .data(data)
                 .signature(signature)
                 .publicKey(publicKey)
+                .keyId(keyId)
+                .algorithm(algorithm)
                 .build();
         return ApiResponseUtil.success(signatureService.verifySignature(request));
     }
+    
+    /**
+     * 已解析密鑰快取的命中率、淘汰與過期次數
+     */
+    @GetMapping("/key-cache")
+    @PreHandle
+    @RequireRole(value = "ROLE_ADMIN", message = "Admin permission required")
+    public ApiResponse<KeyCacheStatsDto> keyCacheStats() {
+        return ApiResponseUtil.success(rsaSignatureUtil.keyCacheStats());
+    }
+    
+    /**
+     * 預先生成密鑰對池的存量、取空次數與背景生成數，未啟用時 data 為 null
+     */
+    @GetMapping("/key-pool")
+    @PreHandle
+    @RequireRole(value = "ROLE_ADMIN", message = "Admin permission required")
+    public ApiResponse<KeyPairPoolStatsDto> keyPairPoolStats() {
+        return ApiResponseUtil.success(rsaSignatureUtil.keyPairPoolStats());
+    }
+    
+    /**
+     * 驗證結果快取的命中率、淘汰與過期次數，未啟用時 data 為 null
+     */
+    @GetMapping("/verify-cache")
+    @PreHandle
+    @RequireRole(value = "ROLE_ADMIN", message = "Admin permission required")
+    public ApiResponse<VerificationCacheStatsDto> verificationCacheStats() {
+        return ApiResponseUtil.success(rsaSignatureUtil.verificationCacheStats());
+    }
+    
+    /**
+     * 簽名引擎池的重用、建立與丟棄次數
+     */
+    @GetMapping("/engine-pool")
+    @PreHandle
+    @RequireRole(value = "ROLE_ADMIN", message = "Admin permission required")
+    public ApiResponse<SignatureEngineStatsDto> engineStats() {
+        return ApiResponseUtil.success(rsaSignatureUtil.engineStats());
+    }
+    
+    private static ResponseEntity<StreamingResponseBody> ndjson(ResponseEntity.BodyBuilder builder,
+                                                                StreamingResponseBody body) {
+        return builder.contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 }
@@ -0,0 +1,17 @@
+package com.example.moty.demo.enums;
+
+/**
+ * Thread model behind the async executors
+ */
+public enum AsyncExecutorMode {
+
+    /**
+     * Bounded pool of platform threads
+     */
+    PLATFORM,
+
+    /**
+     * One virtual thread per task, requires a Java 21 runtime
+     */
+    VIRTUAL
+}
@@ -0,0 +1,17 @@
+package com.example.moty.demo.enums;
+
+/**
+ * What an audit tail subscriber does when its buffer is full
+ */
+public enum AuditTailDropPolicy {
+
+    /**
+     * Evict the oldest buffered event to make room for the new one
+     */
+    DROP_OLDEST,
+
+    /**
+     * Discard the incoming event and keep what is already buffered
+     */
+    DROP_NEWEST
+}
@@ -0,0 +1,44 @@
+package com.example.moty.demo.enums;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * What a bulkhead does with a task once its threads and queue are full
+ */
+public enum BulkheadRejectionPolicy {
+
+    /**
+     * Throw TaskRejectedException to the submitter
+     */
+    ABORT,
+
+    /**
+     * Run the task on the submitting thread, slowing the producer down
+     */
+    CALLER_RUNS,
+
+    /**
+     * Silently drop the task; only for fire-and-forget methods, a dropped
+     * CompletableFuture-returning call never completes
+     */
+    DISCARD,
+
+    /**
+     * Drop the oldest queued task and retry the submission; same caveat as DISCARD
+     */
+    DISCARD_OLDEST;
+
+    public RejectedExecutionHandler newHandler() {
+        switch (this) {
+            case CALLER_RUNS:
+                return new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD:
+                return new ThreadPoolExecutor.DiscardPolicy();
+            case DISCARD_OLDEST:
+                return new ThreadPoolExecutor.DiscardOldestPolicy();
+            default:
+                return new ThreadPoolExecutor.AbortPolicy();
+        }
+    }
+}
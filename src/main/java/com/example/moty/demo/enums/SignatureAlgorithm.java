@@ -0,0 +1,136 @@
+package com.example.moty.demo.enums;
+
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.security.spec.RSAKeyGenParameterSpec;
+
+/**
+ * Signature algorithms selectable through the "algorithm" field of sign/verify requests
+ * Keys are Base64 X.509 (public) and PKCS#8 (private) for every algorithm; ECDSA signatures are DER encoded.
+ */
+public enum SignatureAlgorithm {
+
+    /**
+     * RSA-2048 with PKCS#1 v1.5 padding, the default when no algorithm is given
+     */
+    RSA_SHA256("RSA", "RSA", "SHA256withRSA",
+            new RSAKeyGenParameterSpec(2048, RSAKeyGenParameterSpec.F4), null),
+
+    /**
+     * RSA-2048 with PSS padding, SHA-256 and MGF1-SHA-256, 32-byte salt; uses plain RSA keys
+     */
+    RSA_PSS("RSA-PSS", "RSA", "RSASSA-PSS",
+            new RSAKeyGenParameterSpec(2048, RSAKeyGenParameterSpec.F4),
+            new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, 1)),
+
+    /**
+     * ECDSA on NIST P-256 with SHA-256
+     */
+    ECDSA_P256("ECDSA-P256", "EC", "SHA256withECDSA", new ECGenParameterSpec("secp256r1"), null),
+
+    /**
+     * ECDSA on NIST P-384 with SHA-384
+     */
+    ECDSA_P384("ECDSA-P384", "EC", "SHA384withECDSA", new ECGenParameterSpec("secp384r1"), null),
+
+    /**
+     * EdDSA on Curve25519, requires a Java 15+ runtime
+     */
+    ED25519("Ed25519", "Ed25519", "Ed25519", null, null);
+
+    private final String id;
+    private final String keyAlgorithm;
+    private final String signatureAlgorithm;
+    private final AlgorithmParameterSpec keyGenParameters;
+    private final AlgorithmParameterSpec signatureParameters;
+
+    private volatile Boolean available;
+
+    SignatureAlgorithm(String id, String keyAlgorithm, String signatureAlgorithm,
+                       AlgorithmParameterSpec keyGenParameters, AlgorithmParameterSpec signatureParameters) {
+        this.id = id;
+        this.keyAlgorithm = keyAlgorithm;
+        this.signatureAlgorithm = signatureAlgorithm;
+        this.keyGenParameters = keyGenParameters;
+        this.signatureParameters = signatureParameters;
+    }
+
+    /**
+     * Name used in requests and responses, e.g. "ECDSA-P256"
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * JCA KeyPairGenerator / KeyFactory algorithm
+     */
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    /**
+     * JCA Signature algorithm
+     */
+    public String getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    /**
+     * Key size or curve for KeyPairGenerator.initialize, null when the algorithm fixes it
+     */
+    public AlgorithmParameterSpec getKeyGenParameters() {
+        return keyGenParameters;
+    }
+
+    /**
+     * Passed to Signature.setParameter before init, null when not needed
+     */
+    public AlgorithmParameterSpec getSignatureParameters() {
+        return signatureParameters;
+    }
+
+    /**
+     * Whether the running JDK provides both the key generator and the signature engine
+     */
+    public boolean isAvailable() {
+        Boolean result = available;
+        if (result == null) {
+            try {
+                KeyPairGenerator.getInstance(keyAlgorithm);
+                Signature.getInstance(signatureAlgorithm);
+                result = Boolean.TRUE;
+            } catch (Exception e) {
+                result = Boolean.FALSE;
+            }
+            available = result;
+        }
+        return result;
+    }
+
+    /**
+     * Resolve a request's algorithm by id or enum name, case-insensitive
+     *
+     * @param value algorithm from the request, blank selects RSA_SHA256
+     * @throws IllegalArgumentException unknown algorithm, or not available on this JDK
+     */
+    public static SignatureAlgorithm of(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return RSA_SHA256;
+        }
+        String name = value.trim();
+        for (SignatureAlgorithm algorithm : values()) {
+            if (algorithm.id.equalsIgnoreCase(name) || algorithm.name().equalsIgnoreCase(name)) {
+                if (!algorithm.isAvailable()) {
+                    throw new IllegalArgumentException("簽名演算法 " + algorithm.id + " 在目前的 Java 版本不可用");
+                }
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("不支援的簽名演算法: " + value);
+    }
+}
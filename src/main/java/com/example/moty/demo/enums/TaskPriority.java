@@ -0,0 +1,21 @@
+package com.example.moty.demo.enums;
+
+/**
+ * Scheduling priority of @AsyncPriority work, most urgent first
+ */
+public enum TaskPriority {
+
+    /**
+     * Security and audit work that must not wait behind anything else
+     */
+    CRITICAL,
+
+    HIGH,
+
+    NORMAL,
+
+    /**
+     * Bulk or best-effort work
+     */
+    LOW
+}
@@ -0,0 +1,175 @@
+package com.example.moty.demo.executor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.example.moty.demo.config.AsyncProperties;
+
+/**
+ * Hill-climbing controller for instrumented platform pools
+ * Every interval it compares the queue-wait p99 of that interval against
+ * async.adaptive.target-p99-millis:
+ * - above target, core grows by a step proportional to the overshoot
+ * - well below target or idle, core shrinks one thread at a time
+ * After a grow step the next interval checks that throughput actually rose; if it did
+ * not, the step is undone and that size becomes a ceiling until latency recovers, since
+ * more threads only help when the tasks are not bound by a shared downstream resource.
+ * Every resize is followed by a cooldown so each step is judged on settled numbers.
+ * Core never grows past the pool's configured max-pool-size, and max stays within it.
+ */
+@Component
+@ConditionalOnProperty(name = "async.adaptive.enabled", havingValue = "true")
+public class AdaptivePoolController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePoolController.class);
+
+    private final AsyncProperties asyncProperties;
+
+    private final ExecutorMetricsRegistry executorMetricsRegistry;
+
+    private final LongSupplier clock;
+
+    // Only touched by the scheduler thread
+    private final Map<String, PoolState> states = new HashMap<>();
+
+    @Autowired
+    public AdaptivePoolController(AsyncProperties asyncProperties, ExecutorMetricsRegistry executorMetricsRegistry) {
+        this(asyncProperties, executorMetricsRegistry, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock current time in milliseconds
+     */
+    public AdaptivePoolController(AsyncProperties asyncProperties, ExecutorMetricsRegistry executorMetricsRegistry,
+                                  LongSupplier clock) {
+        this.asyncProperties = asyncProperties;
+        this.executorMetricsRegistry = executorMetricsRegistry;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${async.adaptive.interval-millis:5000}")
+    public void adjust() {
+        for (String name : asyncProperties.getAdaptive().getExecutors()) {
+            ExecutorMetrics metrics = executorMetricsRegistry.get(name);
+            if (metrics == null || metrics.getPool() == null || metrics.getPool().getThreadPoolExecutor() == null) {
+                continue;
+            }
+            PoolState state = states.get(name);
+            if (state == null) {
+                states.put(name, new PoolState(metrics, clock.getAsLong()));
+                continue;
+            }
+            evaluate(metrics, state);
+        }
+    }
+
+    private void evaluate(ExecutorMetrics metrics, PoolState state) {
+        AsyncProperties.Adaptive config = asyncProperties.getAdaptive();
+        ThreadPoolTaskExecutor pool = metrics.getPool();
+        long now = clock.getAsLong();
+
+        LatencyHistogram.Snapshot cumulative = metrics.getQueueWait().snapshot();
+        LatencyHistogram.Snapshot interval = cumulative.minus(state.previousWait);
+        long completed = metrics.getCompleted();
+        double throughput = (completed - state.previousCompleted) * 1000.0 / Math.max(1, now - state.previousAt);
+        state.previousWait = cumulative;
+        state.previousCompleted = completed;
+        state.previousAt = now;
+
+        if (now - state.lastResizeAt < config.getCooldownMillis()) {
+            return;
+        }
+
+        int core = pool.getCorePoolSize();
+        long targetMicros = config.getTargetP99Millis() * 1000;
+        boolean idle = interval.getCount() < config.getMinSamples();
+        long p99 = idle ? 0 : interval.percentileMicros(0.99);
+
+        if (state.pendingStep > 0) {
+            int step = state.pendingStep;
+            state.pendingStep = 0;
+            double before = state.throughputBeforeStep;
+            if (!idle && p99 > targetMicros && before > 0
+                    && (throughput - before) / before < config.getMinThroughputGain()) {
+                state.ceiling = core - step;
+                resize(pool, metrics.getName(), state.ceiling, config, now, state,
+                        String.format("grow step gave no throughput (%.1f -> %.1f tasks/s)", before, throughput));
+                return;
+            }
+        }
+
+        if (!idle && p99 > targetMicros) {
+            int limit = Math.min(Math.min(config.getMaxCorePoolSize(), state.configuredMax), state.ceiling);
+            if (core >= limit) {
+                return;
+            }
+            double overshoot = (double) p99 / targetMicros - 1;
+            int step = (int) Math.max(1, Math.min(config.getMaxStep(), Math.ceil(core * overshoot)));
+            step = Math.min(step, limit - core);
+            state.pendingStep = step;
+            state.throughputBeforeStep = throughput;
+            resize(pool, metrics.getName(), core + step, config, now, state,
+                    String.format("queue wait p99 %dus above target %dus", p99, targetMicros));
+        } else if (p99 < targetMicros * config.getLowWatermark()) {
+            // Latency has recovered, earlier saturation no longer applies
+            state.ceiling = Integer.MAX_VALUE;
+            if (core > config.getMinCorePoolSize() && pool.getActiveCount() < core) {
+                resize(pool, metrics.getName(), core - 1, config, now, state,
+                        idle ? "idle" : String.format("queue wait p99 %dus well below target", p99));
+            }
+        } else if (p99 <= targetMicros) {
+            state.ceiling = Integer.MAX_VALUE;
+        }
+    }
+
+    private static void resize(ThreadPoolTaskExecutor pool, String name, int core, AsyncProperties.Adaptive config,
+                               long now, PoolState state, String reason) {
+        int maxCore = Math.min(config.getMaxCorePoolSize(), state.configuredMax);
+        int newCore = Math.max(Math.min(config.getMinCorePoolSize(), maxCore), Math.min(maxCore, core));
+        // Burst threads only up to the configured max-pool-size
+        int newMax = Math.max(newCore, Math.min(state.configuredMax, newCore + config.getBurstThreads()));
+        int oldCore = pool.getCorePoolSize();
+        if (newCore == oldCore) {
+            return;
+        }
+        // Keep core <= max at every point, newer JDKs reject the call otherwise
+        if (newCore > oldCore) {
+            pool.setMaxPoolSize(newMax);
+            pool.setCorePoolSize(newCore);
+        } else {
+            pool.setCorePoolSize(newCore);
+            pool.setMaxPoolSize(newMax);
+        }
+        state.lastResizeAt = now;
+        logger.info("Executor {} resized core {} -> {}, max {}: {}", name, oldCore, newCore, newMax, reason);
+    }
+
+    private static final class PoolState {
+
+        private LatencyHistogram.Snapshot previousWait;
+        private long previousCompleted;
+        private long previousAt;
+        private long lastResizeAt;
+        private int pendingStep;
+        private double throughputBeforeStep;
+        private int ceiling = Integer.MAX_VALUE;
+        // max-pool-size before the first resize, the bulkhead's configured limit
+        private final int configuredMax;
+
+        PoolState(ExecutorMetrics metrics, long now) {
+            previousWait = metrics.getQueueWait().snapshot();
+            previousCompleted = metrics.getCompleted();
+            previousAt = now;
+            configuredMax = metrics.getPool().getMaxPoolSize();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.moty.demo.executor;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A @DurableAsync invocation as stored in the durable task log
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DurableTask {
+
+    private String targetClass;
+    private String method;
+    private List<String> parameterTypes;
+    private List<JsonNode> args;
+
+    /**
+     * Caller's principal name, null when anonymous
+     */
+    private String username;
+    private long enqueuedAt;
+
+    public String describe() {
+        return targetClass.substring(targetClass.lastIndexOf('.') + 1) + "." + method;
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.moty.demo.executor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only, segmented on-disk task log with group commit
+ * Record layout: length(int) crc32(int) seq(long) payload(UTF-8), crc over seq and payload.
+ * append() returns once the record is fsynced. The first waiting appender becomes the
+ * leader and forces the file for every record written so far, while later appenders keep
+ * writing and join the next force, so concurrent producers share one fsync.
+ * Acknowledged sequence numbers advance a persisted cursor; on open every record above the
+ * cursor is returned again (at-least-once), a torn tail from a crash is truncated, and
+ * segments wholly below the cursor are deleted at checkpoints.
+ */
+public class DurableTaskQueue implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurableTaskQueue.class);
+
+    private static final int HEADER_BYTES = 4 + 4 + 8;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final String CURSOR_FILE = "cursor";
+
+    private final Path directory;
+
+    private final long segmentBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition synced = lock.newCondition();
+
+    // First sequence number of each segment, guarded by lock
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+    private final ConcurrentSkipListSet<Long> unacked = new ConcurrentSkipListSet<>();
+
+    // Guarded by lock
+    private FileChannel channel;
+    private long segmentSize;
+    private long writtenSeq;
+    private long syncedSeq;
+    private boolean syncing;
+
+    private volatile long cursor;
+    private long persistedCursor;
+
+    public DurableTaskQueue(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Open the log and return the records that were never acknowledged, oldest first
+     */
+    public List<Record> open() throws IOException {
+        Files.createDirectories(directory);
+        Path cursorFile = directory.resolve(CURSOR_FILE);
+        if (Files.exists(cursorFile)) {
+            cursor = ByteBuffer.wrap(Files.readAllBytes(cursorFile)).getLong();
+        }
+        persistedCursor = cursor;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                        name.length() - SEGMENT_SUFFIX.length())), file);
+            }
+        }
+
+        List<Record> pending = new ArrayList<>();
+        long lastSeq = cursor;
+        Path lastSegment = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        for (Path segment : segments.values()) {
+            lastSeq = Math.max(lastSeq, readSegment(segment, segment.equals(lastSegment), pending));
+        }
+        writtenSeq = lastSeq;
+        syncedSeq = lastSeq;
+
+        if (lastSegment != null && Files.size(lastSegment) < segmentBytes) {
+            channel = FileChannel.open(lastSegment, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            segmentSize = channel.size();
+        } else {
+            openSegment(lastSeq + 1);
+        }
+        for (Record record : pending) {
+            unacked.add(record.getSeq());
+        }
+        logger.info("Durable task queue {} opened: {} pending, cursor {}", directory, pending.size(), cursor);
+        return pending;
+    }
+
+    /**
+     * Append a record and wait until it is on disk
+     *
+     * @return the record's sequence number
+     */
+    public long append(String payload) throws IOException {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        long seq;
+        lock.lock();
+        try {
+            if (channel == null) {
+                throw new IOException("Durable task queue is closed: " + directory);
+            }
+            if (segmentSize >= segmentBytes) {
+                rollSegment();
+            }
+            seq = writtenSeq + 1;
+            ByteBuffer record = encode(seq, bytes);
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            segmentSize += HEADER_BYTES + bytes.length;
+            writtenSeq = seq;
+            unacked.add(seq);
+            awaitSynced(seq);
+        } finally {
+            lock.unlock();
+        }
+        return seq;
+    }
+
+    public void ack(long seq) {
+        lock.lock();
+        try {
+            unacked.remove(seq);
+            // Everything below the oldest unacknowledged record is done
+            long newCursor = unacked.isEmpty() ? writtenSeq : unacked.first() - 1;
+            if (newCursor > cursor) {
+                cursor = newCursor;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records appended but not yet acknowledged
+     */
+    public int pending() {
+        return unacked.size();
+    }
+
+    /**
+     * Persist the cursor and delete segments that are fully acknowledged
+     */
+    public synchronized void checkpoint() throws IOException {
+        long current = cursor;
+        if (current == persistedCursor) {
+            return;
+        }
+        Path temp = directory.resolve(CURSOR_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(8).putLong(current);
+            buffer.flip();
+            out.write(buffer);
+            out.force(true);
+        }
+        Files.move(temp, directory.resolve(CURSOR_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        persistedCursor = current;
+
+        List<Path> obsolete = new ArrayList<>();
+        lock.lock();
+        try {
+            // A segment is obsolete when the next one starts at or below cursor + 1
+            while (segments.size() > 1) {
+                Long first = segments.firstKey();
+                Long next = segments.higherKey(first);
+                if (next - 1 > current) {
+                    break;
+                }
+                obsolete.add(segments.remove(first));
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Path segment : obsolete) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        checkpoint();
+        lock.lock();
+        try {
+            while (syncing) {
+                synced.awaitUninterruptibly();
+            }
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private void awaitSynced(long seq) throws IOException {
+        while (syncedSeq < seq) {
+            if (syncing) {
+                synced.awaitUninterruptibly();
+                continue;
+            }
+            // Become the leader: force everything written so far, without blocking writers
+            syncing = true;
+            long target = writtenSeq;
+            FileChannel current = channel;
+            lock.unlock();
+            IOException failure = null;
+            try {
+                current.force(false);
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                lock.lock();
+                syncing = false;
+                if (failure == null) {
+                    syncedSeq = Math.max(syncedSeq, target);
+                }
+                synced.signalAll();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void rollSegment() throws IOException {
+        while (syncing) {
+            synced.awaitUninterruptibly();
+        }
+        channel.force(false);
+        channel.close();
+        syncedSeq = writtenSeq;
+        openSegment(writtenSeq + 1);
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        segmentSize = channel.size();
+        segments.put(firstSeq, segment);
+    }
+
+    /**
+     * @return the highest sequence number found in the segment
+     */
+    private long readSegment(Path segment, boolean last, List<Record> pending) throws IOException {
+        long maxSeq = 0;
+        long validBytes = 0;
+        try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            long size = in.size();
+            while (validBytes + HEADER_BYTES <= size) {
+                header.clear();
+                readFully(in, header, validBytes);
+                header.flip();
+                int length = header.getInt();
+                int crc = header.getInt();
+                long seq = header.getLong();
+                if (length < 0 || validBytes + HEADER_BYTES + length > size) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                readFully(in, payload, validBytes + HEADER_BYTES);
+                if (crc != crc(seq, payload.array())) {
+                    break;
+                }
+                validBytes += HEADER_BYTES + length;
+                maxSeq = seq;
+                if (seq > cursor) {
+                    pending.add(new Record(seq, new String(payload.array(), StandardCharsets.UTF_8)));
+                }
+            }
+            if (validBytes < size) {
+                if (last) {
+                    // Torn write from a crash, the record was never acknowledged to its producer
+                    logger.warn("Truncating {} bytes of incomplete records in {}", size - validBytes, segment);
+                    in.truncate(validBytes);
+                    in.force(true);
+                } else {
+                    logger.error("Corrupt record in {} at offset {}, rest of segment skipped", segment, validBytes);
+                }
+            }
+        }
+        return maxSeq;
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of segment");
+            }
+        }
+    }
+
+    private static ByteBuffer encode(long seq, byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length).putInt(crc(seq, payload)).putLong(seq).put(payload);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int crc(long seq, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(8).putLong(seq).array());
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * One stored task
+     */
+    public static final class Record {
+
+        private final long seq;
+        private final String payload;
+
+        public Record(long seq, String payload) {
+            this.seq = seq;
+            this.payload = payload;
+        }
+
+        public long getSeq() {
+            return seq;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.moty.demo.executor;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import com.example.moty.demo.config.AsyncProperties;
+import com.example.moty.demo.security.SecurityContextPropagation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Durable executor behind @DurableAsync
+ * Calls are stored in a DurableTaskQueue under async.durable.directory and handed to
+ * durableExecutor; a call is acknowledged only after the method returned, so a crash or
+ * restart replays it. Failures are retried with exponential backoff up to max-attempts,
+ * then logged and dropped. On replay the method runs on the unproxied bean, under an
+ * unauthenticated context carrying the original username only.
+ */
+@Component
+@ConditionalOnProperty(name = "async.durable.enabled", havingValue = "true")
+public class DurableTaskService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurableTaskService.class);
+
+    @Autowired
+    private AsyncProperties asyncProperties;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("durableExecutor")
+    private AsyncTaskExecutor durableExecutor;
+
+    private DurableTaskQueue queue;
+
+    private ScheduledExecutorService retryScheduler;
+
+    private List<DurableTaskQueue.Record> recovered;
+
+    private final LongAdder delivered = new LongAdder();
+
+    private final LongAdder retried = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    @PostConstruct
+    public void open() throws IOException {
+        AsyncProperties.Durable config = asyncProperties.getDurable();
+        queue = new DurableTaskQueue(Paths.get(config.getDirectory()), config.getSegmentBytes());
+        recovered = queue.open();
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "Durable-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Replay tasks left over from the previous run once every target bean is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replay() {
+        if (recovered.isEmpty()) {
+            return;
+        }
+        logger.info("Replaying {} durable tasks", recovered.size());
+        for (DurableTaskQueue.Record record : recovered) {
+            DurableTask task;
+            try {
+                task = objectMapper.readValue(record.getPayload(), DurableTask.class);
+            } catch (IOException e) {
+                logger.error("Unreadable durable task {} dropped: {}", record.getSeq(), record.getPayload(), e);
+                dropped.increment();
+                queue.ack(record.getSeq());
+                continue;
+            }
+            dispatch(record.getSeq(), task, 1);
+        }
+        recovered = new ArrayList<>();
+    }
+
+    /**
+     * Store the call and schedule it, returns once the call is on disk
+     * The username is taken from the calling thread.
+     *
+     * @throws TaskRejectedException when the queue is full or cannot be written
+     */
+    public void enqueue(Class<?> targetClass, Method method, Object[] args) {
+        AsyncProperties.Durable config = asyncProperties.getDurable();
+        if (queue.pending() >= config.getMaxPending()) {
+            throw new TaskRejectedException("Durable task queue full, " + queue.pending() + " pending");
+        }
+        List<String> parameterTypes = new ArrayList<>(args.length);
+        List<JsonNode> values = new ArrayList<>(args.length);
+        for (int i = 0; i < args.length; i++) {
+            parameterTypes.add(method.getParameterTypes()[i].getName());
+            values.add(objectMapper.valueToTree(args[i]));
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        DurableTask task = DurableTask.builder()
+                .targetClass(targetClass.getName())
+                .method(method.getName())
+                .parameterTypes(parameterTypes)
+                .args(values)
+                .username(auth != null ? auth.getName() : null)
+                .enqueuedAt(System.currentTimeMillis())
+                .build();
+
+        long seq;
+        try {
+            seq = queue.append(objectMapper.writeValueAsString(task));
+        } catch (IOException e) {
+            throw new TaskRejectedException("Durable task queue write failed: " + e.getMessage(), e);
+        }
+        dispatch(seq, task, 1);
+    }
+
+    /**
+     * Stored calls not yet completed, including those waiting for a retry
+     */
+    public int pending() {
+        return queue.pending();
+    }
+
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    public long getRetried() {
+        return retried.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${async.durable.checkpoint-interval-millis:1000}")
+    public void checkpoint() {
+        try {
+            queue.checkpoint();
+        } catch (IOException e) {
+            logger.warn("Durable task checkpoint failed, completed tasks may run again: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Unfinished tasks stay in the log and run after the next start
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        retryScheduler.shutdownNow();
+        queue.close();
+        logger.info("Durable task queue closed with {} pending", queue.pending());
+    }
+
+    private void dispatch(long seq, DurableTask task, int attempt) {
+        try {
+            durableExecutor.execute(() -> run(seq, task, attempt));
+        } catch (TaskRejectedException e) {
+            // Still on disk, try again once the workers caught up
+            retryLater(seq, task, attempt);
+        }
+    }
+
+    private void run(long seq, DurableTask task, int attempt) {
+        try {
+            invoke(task);
+            delivered.increment();
+            queue.ack(seq);
+        } catch (Exception e) {
+            if (attempt >= asyncProperties.getDurable().getMaxAttempts()) {
+                logger.error("Durable task {} {} failed {} times, dropped: {}", seq, task.describe(), attempt,
+                        e.getMessage(), e);
+                dropped.increment();
+                queue.ack(seq);
+                return;
+            }
+            logger.warn("Durable task {} {} failed on attempt {}: {}", seq, task.describe(), attempt, e.getMessage());
+            retried.increment();
+            retryLater(seq, task, attempt + 1);
+        }
+    }
+
+    private void retryLater(long seq, DurableTask task, int attempt) {
+        long backoff = asyncProperties.getDurable().getRetryBackoffMillis() << Math.min(attempt - 1, 10);
+        try {
+            retryScheduler.schedule(() -> dispatch(seq, task, attempt), backoff, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down, the task runs after the next start
+            logger.debug("Durable task {} left for the next start", seq);
+        }
+    }
+
+    private void invoke(DurableTask task) throws Exception {
+        ClassLoader classLoader = applicationContext.getClassLoader();
+        Class<?> targetClass = ClassUtils.forName(task.getTargetClass(), classLoader);
+        Class<?>[] parameterTypes = new Class<?>[task.getParameterTypes().size()];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            parameterTypes[i] = ClassUtils.forName(task.getParameterTypes().get(i), classLoader);
+        }
+        Method method = ReflectionUtils.findMethod(targetClass, task.getMethod(), parameterTypes);
+        if (method == null) {
+            throw new NoSuchMethodException(task.describe());
+        }
+        Type[] genericTypes = method.getGenericParameterTypes();
+        Object[] args = new Object[parameterTypes.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = objectMapper.convertValue(task.getArgs().get(i), objectMapper.constructType(genericTypes[i]));
+        }
+
+        // The raw bean, so @DurableAsync and other async advice do not run again
+        Object bean = applicationContext.getBean(targetClass);
+        Object target = AopProxyUtils.getSingletonTarget(bean);
+        Object receiver = target != null ? target : bean;
+        ReflectionUtils.makeAccessible(method);
+
+        SecurityContext context = new SecurityContextImpl(task.getUsername() == null ? null
+                : new UsernamePasswordAuthenticationToken(task.getUsername(), null));
+        SecurityContextPropagation.callWith(context, () -> {
+            Object result;
+            try {
+                result = method.invoke(receiver, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : new IllegalStateException(cause);
+            }
+            if (result instanceof Future) {
+                ((Future<?>) result).get();
+            } else if (result instanceof CompletionStage) {
+                ((CompletionStage<?>) result).toCompletableFuture().get();
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.moty.demo.executor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.example.moty.demo.enums.BulkheadRejectionPolicy;
+import com.example.moty.demo.model.dto.ExecutorStatsDto;
+import com.example.moty.demo.model.dto.LatencyStatsDto;
+
+/**
+ * Counters and latency histograms for one named executor
+ * decorate() stamps every task at submission, so queue wait is measured from execute()
+ * to the start of run(). Pool gauges are read from the ThreadPoolTaskExecutor or the
+ * VirtualBulkhead when there is one, otherwise derived from the task counters.
+ */
+public class ExecutorMetrics {
+
+    private final String name;
+
+    private final ThreadPoolTaskExecutor pool;
+
+    private final VirtualBulkhead virtualBulkhead;
+
+    private final BulkheadRejectionPolicy rejectionPolicy;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder active = new LongAdder();
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram runTime = new LatencyHistogram();
+
+    public ExecutorMetrics(String name, ThreadPoolTaskExecutor pool, BulkheadRejectionPolicy rejectionPolicy) {
+        this.name = name;
+        this.pool = pool;
+        this.virtualBulkhead = null;
+        this.rejectionPolicy = rejectionPolicy;
+    }
+
+    public ExecutorMetrics(String name, VirtualBulkhead virtualBulkhead) {
+        this.name = name;
+        this.pool = null;
+        this.virtualBulkhead = virtualBulkhead;
+        this.rejectionPolicy = virtualBulkhead.getRejectionPolicy();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The instrumented pool, null for executors without one
+     */
+    public ThreadPoolTaskExecutor getPool() {
+        return pool;
+    }
+
+    /**
+     * The instrumented virtual thread bulkhead, null for other executors
+     */
+    public VirtualBulkhead getVirtualBulkhead() {
+        return virtualBulkhead;
+    }
+
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    public LatencyHistogram getRunTime() {
+        return runTime;
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Tasks submitted but not finished, queued or running
+     */
+    public long getInFlight() {
+        return Math.max(0, queued.sum()) + active.sum();
+    }
+
+    /**
+     * Tasks queued or running as seen by the pool itself, falls back to the task
+     * counters for executors without one
+     */
+    public long getPendingTasks() {
+        ThreadPoolExecutor executor = pool != null ? pool.getThreadPoolExecutor() : null;
+        if (executor != null) {
+            return executor.getQueue().size() + executor.getActiveCount();
+        }
+        if (virtualBulkhead != null) {
+            return virtualBulkhead.getQueueSize() + virtualBulkhead.getActiveCount();
+        }
+        return getInFlight();
+    }
+
+    public long getQueueDepth() {
+        if (pool != null && pool.getThreadPoolExecutor() != null) {
+            return pool.getThreadPoolExecutor().getQueue().size();
+        }
+        if (virtualBulkhead != null) {
+            return virtualBulkhead.getQueueSize();
+        }
+        return Math.max(0, queued.sum());
+    }
+
+    /**
+     * Task decorator body, stamps the submission time
+     */
+    public Runnable decorate(Runnable task) {
+        submitted.increment();
+        queued.increment();
+        return new InstrumentedTask(task, System.nanoTime());
+    }
+
+    /**
+     * Count rejections before handing the task to the configured policy
+     * Discard-oldest is applied here, since the evicted task never runs and
+     * would otherwise stay counted as queued.
+     */
+    public RejectedExecutionHandler countingRejections(RejectedExecutionHandler policy) {
+        return (task, executor) -> {
+            if (policy instanceof ThreadPoolExecutor.DiscardOldestPolicy && !executor.isShutdown()) {
+                Runnable evicted = executor.getQueue().poll();
+                rejected.increment();
+                if (evicted instanceof InstrumentedTask) {
+                    ((InstrumentedTask) evicted).leaveQueue();
+                }
+                executor.execute(task);
+                return;
+            }
+            countRejection(task);
+            policy.rejectedExecution(task, executor);
+        };
+    }
+
+    /**
+     * Count a task that was refused or evicted, it no longer counts as queued
+     */
+    public void countRejection(Runnable task) {
+        rejected.increment();
+        if (task instanceof InstrumentedTask) {
+            ((InstrumentedTask) task).leaveQueue();
+        }
+    }
+
+    public ExecutorStatsDto toDto() {
+        ExecutorStatsDto.ExecutorStatsDtoBuilder dto = ExecutorStatsDto.builder()
+                .name(name)
+                .activeThreads(active.sum())
+                .queueDepth(getQueueDepth())
+                .submitted(submitted.sum())
+                .completed(completed.sum())
+                .failed(failed.sum())
+                .rejected(rejected.sum())
+                .queueWait(LatencyStatsDto.from(queueWait.snapshot()))
+                .run(LatencyStatsDto.from(runTime.snapshot()));
+        ThreadPoolExecutor executor = pool != null ? pool.getThreadPoolExecutor() : null;
+        if (executor != null) {
+            int queueDepth = executor.getQueue().size();
+            int queueCapacity = queueDepth + executor.getQueue().remainingCapacity();
+            dto.threadModel("platform")
+                    .rejectionPolicy(rejectionPolicy != null ? rejectionPolicy.name() : null)
+                    .poolSize(executor.getPoolSize())
+                    .corePoolSize(executor.getCorePoolSize())
+                    .maxPoolSize(executor.getMaximumPoolSize())
+                    .queueCapacity(queueCapacity)
+                    .threadSaturation((double) executor.getActiveCount() / executor.getMaximumPoolSize())
+                    .queueSaturation(queueCapacity == 0 ? 0.0 : (double) queueDepth / queueCapacity);
+        } else if (virtualBulkhead != null) {
+            int queueCapacity = virtualBulkhead.getQueueCapacity();
+            dto.threadModel("virtual")
+                    .rejectionPolicy(rejectionPolicy.name())
+                    .poolSize(virtualBulkhead.getActiveCount())
+                    .maxPoolSize(virtualBulkhead.getMaxConcurrency())
+                    .queueCapacity(queueCapacity)
+                    .threadSaturation((double) virtualBulkhead.getActiveCount() / virtualBulkhead.getMaxConcurrency())
+                    .queueSaturation(queueCapacity == 0 ? 0.0 : (double) virtualBulkhead.getQueueSize() / queueCapacity);
+        } else {
+            dto.threadModel("virtual");
+        }
+        return dto.build();
+    }
+
+    private final class InstrumentedTask implements Runnable {
+
+        private final Runnable delegate;
+        private final long submittedAt;
+        // Only touched by the submitting thread (rejection, eviction, caller-runs) or the worker
+        private boolean inQueue = true;
+
+        InstrumentedTask(Runnable delegate, long submittedAt) {
+            this.delegate = delegate;
+            this.submittedAt = submittedAt;
+        }
+
+        void leaveQueue() {
+            if (inQueue) {
+                inQueue = false;
+                queued.decrement();
+            }
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            leaveQueue();
+            queueWait.record(start - submittedAt);
+            active.increment();
+            try {
+                delegate.run();
+                completed.increment();
+            } catch (RuntimeException | Error e) {
+                failed.increment();
+                throw e;
+            } finally {
+                active.decrement();
+                runTime.record(System.nanoTime() - start);
+            }
+        }
+    }
+}
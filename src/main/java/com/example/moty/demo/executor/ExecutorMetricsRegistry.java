@@ -0,0 +1,107 @@
+package com.example.moty.demo.executor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.example.moty.demo.enums.BulkheadRejectionPolicy;
+import com.example.moty.demo.model.dto.ExecutorStatsDto;
+
+/**
+ * Registry of instrumented executors, keyed by bean name
+ * Executors must be instrumented before initialize(), since ThreadPoolTaskExecutor
+ * only picks up its decorator and rejection handler when it builds the pool.
+ */
+@Component
+public class ExecutorMetricsRegistry {
+
+    private final Map<String, ExecutorMetrics> metrics = new ConcurrentSkipListMap<>();
+
+    /**
+     * Instrument a platform pool
+     *
+     * @param rejectionPolicy policy applied after the rejection is counted
+     */
+    public ExecutorMetrics instrument(String name, ThreadPoolTaskExecutor executor,
+                                      BulkheadRejectionPolicy rejectionPolicy) {
+        return instrument(name, executor, rejectionPolicy, null);
+    }
+
+    /**
+     * Instrument a platform pool on top of another task decorator
+     *
+     * @param rejectionPolicy policy applied after the rejection is counted
+     * @param decorator applied inside the metrics wrapper, may be null
+     */
+    public ExecutorMetrics instrument(String name, ThreadPoolTaskExecutor executor,
+                                      BulkheadRejectionPolicy rejectionPolicy, TaskDecorator decorator) {
+        ExecutorMetrics executorMetrics = new ExecutorMetrics(name, executor, rejectionPolicy);
+        executor.setTaskDecorator(chain(executorMetrics, decorator));
+        executor.setRejectedExecutionHandler(executorMetrics.countingRejections(rejectionPolicy.newHandler()));
+        register(executorMetrics);
+        return executorMetrics;
+    }
+
+    /**
+     * Instrument an executor without a pool, e.g. one virtual thread per task
+     *
+     * @param decorator applied inside the metrics wrapper, may be null
+     */
+    public ExecutorMetrics instrument(String name, TaskExecutorAdapter executor, TaskDecorator decorator) {
+        ExecutorMetrics executorMetrics = new ExecutorMetrics(name, null, null);
+        executor.setTaskDecorator(chain(executorMetrics, decorator));
+        register(executorMetrics);
+        return executorMetrics;
+    }
+
+    /**
+     * Instrument a bounded virtual thread bulkhead
+     *
+     * @param executor the adapter handed out as the bean, wrapping the bulkhead
+     * @param decorator applied inside the metrics wrapper, may be null
+     */
+    public ExecutorMetrics instrument(String name, TaskExecutorAdapter executor, VirtualBulkhead bulkhead,
+                                      TaskDecorator decorator) {
+        ExecutorMetrics executorMetrics = new ExecutorMetrics(name, bulkhead);
+        executor.setTaskDecorator(chain(executorMetrics, decorator));
+        bulkhead.setRejectionListener(executorMetrics::countRejection);
+        register(executorMetrics);
+        return executorMetrics;
+    }
+
+    public ExecutorMetrics get(String name) {
+        return metrics.get(name);
+    }
+
+    public Collection<ExecutorMetrics> all() {
+        return metrics.values();
+    }
+
+    public List<ExecutorStatsDto> stats() {
+        List<ExecutorStatsDto> stats = new ArrayList<>(metrics.size());
+        for (ExecutorMetrics executorMetrics : metrics.values()) {
+            stats.add(executorMetrics.toDto());
+        }
+        return stats;
+    }
+
+    private static TaskDecorator chain(ExecutorMetrics executorMetrics, TaskDecorator decorator) {
+        if (decorator == null) {
+            return executorMetrics::decorate;
+        }
+        return task -> executorMetrics.decorate(decorator.decorate(task));
+    }
+
+    private void register(ExecutorMetrics executorMetrics) {
+        if (metrics.putIfAbsent(executorMetrics.getName(), executorMetrics) != null) {
+            throw new IllegalStateException("Executor already instrumented: " + executorMetrics.getName());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.moty.demo.executor;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.example.moty.demo.config.AsyncProperties;
+import com.example.moty.demo.service.sink.AuditSink;
+
+/**
+ * Drains async work and audit buffers on shutdown
+ * Stops after the web server's graceful shutdown (server.shutdown=graceful), so no new
+ * requests arrive, and before any executor or sink bean is destroyed:
+ * - waits until every instrumented executor is idle, since tasks on one executor may
+ *   still submit audit events to another
+ * - shuts the pools down, discarding what is still queued at the deadline
+ * - flushes the audit sink, which also signs the pending audit chain batch
+ * - checkpoints the durable task queue
+ * Whatever did not make it is logged per executor and sink. Everything shares one
+ * deadline, async.shutdown.drain-timeout-millis.
+ */
+@Component
+public class GracefulShutdownCoordinator implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GracefulShutdownCoordinator.class);
+
+    /**
+     * Below the web server phases (DEFAULT_PHASE and DEFAULT_PHASE - 1), which stop first
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 1024;
+
+    private final AsyncProperties asyncProperties;
+
+    private final ExecutorMetricsRegistry executorMetricsRegistry;
+
+    private final AuditSink auditSink;
+
+    private final ObjectProvider<DurableTaskService> durableTaskService;
+
+    private volatile boolean running;
+
+    @Autowired
+    public GracefulShutdownCoordinator(AsyncProperties asyncProperties, ExecutorMetricsRegistry executorMetricsRegistry,
+                                       AuditSink auditSink, ObjectProvider<DurableTaskService> durableTaskService) {
+        this.asyncProperties = asyncProperties;
+        this.executorMetricsRegistry = executorMetricsRegistry;
+        this.auditSink = auditSink;
+        this.durableTaskService = durableTaskService;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        long startedAt = System.currentTimeMillis();
+        long deadline = startedAt + asyncProperties.getShutdown().getDrainTimeoutMillis();
+        DurableTaskService durable = durableTaskService.getIfAvailable();
+
+        boolean idle = awaitIdle(deadline);
+        long lostTasks = 0;
+        for (ExecutorMetrics metrics : executorMetricsRegistry.all()) {
+            lostTasks += shutdown(metrics, durable != null && "durableExecutor".equals(metrics.getName()));
+        }
+
+        long remaining = Math.max(0, deadline - System.currentTimeMillis());
+        boolean flushed = auditSink.flush(remaining);
+        long lostEvents = flushed ? 0 : auditSink.pending();
+        if (!flushed) {
+            logger.warn("Audit sink not flushed within the drain deadline, {} events pending", lostEvents);
+        }
+
+        if (durable != null) {
+            durable.checkpoint();
+            if (durable.pending() > 0) {
+                logger.info("{} durable tasks left for the next start", durable.pending());
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - startedAt;
+        if (idle && lostTasks == 0 && lostEvents == 0) {
+            logger.info("Shutdown drain completed in {}ms, no work lost", elapsed);
+        } else {
+            logger.warn("Shutdown drain finished in {}ms: {} async tasks and {} audit events lost",
+                    elapsed, lostTasks, lostEvents);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Poll the pools until nothing is queued or running. A worker is briefly neither
+     * while it takes the next task off the queue, so idle must be seen twice in a row.
+     */
+    private boolean awaitIdle(long deadline) {
+        int idlePolls = 0;
+        while (true) {
+            long pending = 0;
+            for (ExecutorMetrics metrics : executorMetricsRegistry.all()) {
+                pending += metrics.getPendingTasks();
+            }
+            idlePolls = pending == 0 ? idlePolls + 1 : 0;
+            if (idlePolls >= 2) {
+                return true;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @param persisted tasks of this executor are still in the durable queue
+     * @return tasks that were discarded
+     */
+    private static long shutdown(ExecutorMetrics metrics, boolean persisted) {
+        long inFlight = metrics.getInFlight();
+        ThreadPoolExecutor pool = metrics.getPool() != null ? metrics.getPool().getThreadPoolExecutor() : null;
+        if (pool != null) {
+            List<Runnable> discarded = pool.shutdownNow();
+            inFlight = discarded.size() + pool.getActiveCount();
+        } else if (metrics.getVirtualBulkhead() != null) {
+            VirtualBulkhead bulkhead = metrics.getVirtualBulkhead();
+            List<Runnable> discarded = bulkhead.shutdownNow();
+            inFlight = discarded.size() + bulkhead.getActiveCount();
+        }
+        if (inFlight == 0) {
+            return 0;
+        }
+        if (persisted) {
+            logger.info("Executor {} stopped with {} tasks, they stay in the durable queue", metrics.getName(),
+                    inFlight);
+            return 0;
+        }
+        logger.warn("Executor {} stopped with {} tasks unfinished", metrics.getName(), inFlight);
+        return inFlight;
+    }
+}
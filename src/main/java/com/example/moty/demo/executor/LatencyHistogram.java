@@ -0,0 +1,119 @@
+package com.example.moty.demo.executor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two microsecond buckets
+ * Bucket 0 holds values below 1us, bucket i holds [2^(i-1), 2^i) us. Percentiles are
+ * reported as the upper bound of their bucket, so they overestimate by at most 2x.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 40;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    private final LongAdder sumMicros = new LongAdder();
+
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+        counts[bucketOf(micros)].increment();
+        sumMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    /**
+     * Consistent enough copy of the counters, taken without blocking writers
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts[i].sum();
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, sumMicros.sum(), maxMicros.get());
+    }
+
+    static int bucketOf(long micros) {
+        return micros == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    static long upperBoundMicros(int bucket) {
+        return bucket == 0 ? 1 : 1L << bucket;
+    }
+
+    /**
+     * Immutable histogram state
+     * Subtracting an earlier snapshot gives the distribution for the interval in between.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sumMicros;
+        private final long maxMicros;
+
+        Snapshot(long[] counts, long count, long sumMicros, long maxMicros) {
+            this.counts = counts;
+            this.count = count;
+            this.sumMicros = sumMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMaxMicros() {
+            return maxMicros;
+        }
+
+        public long meanMicros() {
+            return count == 0 ? 0 : sumMicros / count;
+        }
+
+        /**
+         * @param quantile between 0 and 1, e.g. 0.99
+         * @return bucket upper bound in microseconds, capped at the observed maximum
+         */
+        public long percentileMicros(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundMicros(i), maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+
+        /**
+         * Distribution recorded since the earlier snapshot
+         * The maximum cannot be recovered per interval, the cumulative one is kept.
+         */
+        public Snapshot minus(Snapshot earlier) {
+            long[] delta = new long[counts.length];
+            long total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                delta[i] = counts[i] - earlier.counts[i];
+                total += delta[i];
+            }
+            return new Snapshot(delta, total, sumMicros - earlier.sumMicros, maxMicros);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.moty.demo.executor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+import com.example.moty.demo.security.SecurityContextRecursiveTask;
+
+/**
+ * Work-stealing fan-out for CPU-bound jobs such as bulk signing or password hashing
+ * Each call splits its input into at most maxParallelismPerCaller contiguous slices and
+ * runs them as fork-join subtasks, so one large job cannot occupy every worker while
+ * idle workers still steal slices from busy ones. Every slice runs under the caller's
+ * security context. Results keep input order.
+ */
+public class ParallelExecutionService {
+
+    private final ForkJoinPool pool;
+
+    private final int maxParallelismPerCaller;
+
+    public ParallelExecutionService(int parallelism, int maxParallelismPerCaller, String threadNamePrefix) {
+        this.pool = new ForkJoinPool(parallelism, namedThreads(threadNamePrefix), null, false);
+        this.maxParallelismPerCaller = Math.max(1, Math.min(parallelism, maxParallelismPerCaller));
+    }
+
+    /**
+     * Run all tasks and return their results in order
+     * A checked exception from a task is rethrown wrapped in CompletionException.
+     */
+    public <T> List<T> invokeAll(Collection<? extends Callable<T>> tasks) {
+        return map(new ArrayList<Callable<T>>(tasks), ParallelExecutionService::call, maxParallelismPerCaller);
+    }
+
+    public <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> mapper) {
+        return map(items, mapper, maxParallelismPerCaller);
+    }
+
+    /**
+     * @param parallelism requested slices, capped at async.parallel.max-parallelism-per-caller
+     */
+    public <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> mapper, int parallelism) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Object[] results = new Object[items.size()];
+        run(new MapTask<>(items, mapper, results, 0, items.size(), slices(items.size(), parallelism)));
+        @SuppressWarnings("unchecked")
+        List<R> mapped = (List<R>) Arrays.asList(results);
+        return mapped;
+    }
+
+    public <T, R> R mapReduce(List<T> items, Function<? super T, ? extends R> mapper, R identity,
+                              BinaryOperator<R> reducer) {
+        return mapReduce(items, mapper, identity, reducer, maxParallelismPerCaller);
+    }
+
+    /**
+     * Map every item and fold the results; reducer must be associative, identity neutral
+     *
+     * @param parallelism requested slices, capped at async.parallel.max-parallelism-per-caller
+     */
+    public <T, R> R mapReduce(List<T> items, Function<? super T, ? extends R> mapper, R identity,
+                              BinaryOperator<R> reducer, int parallelism) {
+        if (items.isEmpty()) {
+            return identity;
+        }
+        return run(new ReduceTask<>(items, mapper, identity, reducer, 0, items.size(),
+                slices(items.size(), parallelism)));
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getMaxParallelismPerCaller() {
+        return maxParallelismPerCaller;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private <R> R run(ForkJoinTask<R> task) {
+        // Nested calls from one of our workers run inline rather than parking the worker
+        if (ForkJoinTask.getPool() == pool) {
+            return task.invoke();
+        }
+        return pool.invoke(task);
+    }
+
+    private int slices(int size, int parallelism) {
+        return Math.max(1, Math.min(size, Math.min(parallelism, maxParallelismPerCaller)));
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static ForkJoinPool.ForkJoinWorkerThreadFactory namedThreads(String prefix) {
+        // getPoolIndex() is not assigned yet while the thread is being created on newer JDKs
+        AtomicInteger counter = new AtomicInteger();
+        return pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(prefix + counter.incrementAndGet());
+            return thread;
+        };
+    }
+
+    /**
+     * Index of the split point that gives the left half leftSlices of slices
+     */
+    private static int splitPoint(int from, int to, int leftSlices, int slices) {
+        return from + (int) ((long) (to - from) * leftSlices / slices);
+    }
+
+    private static final class MapTask<T, R> extends SecurityContextRecursiveTask<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<T> items;
+        private final transient Function<? super T, ? extends R> mapper;
+        private final transient Object[] results;
+        private final int from;
+        private final int to;
+        private final int slices;
+
+        MapTask(List<T> items, Function<? super T, ? extends R> mapper, Object[] results,
+                int from, int to, int slices) {
+            this.items = items;
+            this.mapper = mapper;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.slices = slices;
+        }
+
+        @Override
+        protected Void computeWithContext() {
+            if (slices <= 1) {
+                for (int i = from; i < to; i++) {
+                    results[i] = mapper.apply(items.get(i));
+                }
+                return null;
+            }
+            int leftSlices = slices / 2;
+            int mid = splitPoint(from, to, leftSlices, slices);
+            MapTask<T, R> left = new MapTask<>(items, mapper, results, from, mid, leftSlices);
+            left.fork();
+            new MapTask<>(items, mapper, results, mid, to, slices - leftSlices).invoke();
+            left.join();
+            return null;
+        }
+    }
+
+    private static final class ReduceTask<T, R> extends SecurityContextRecursiveTask<R> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<T> items;
+        private final transient Function<? super T, ? extends R> mapper;
+        private final transient R identity;
+        private final transient BinaryOperator<R> reducer;
+        private final int from;
+        private final int to;
+        private final int slices;
+
+        ReduceTask(List<T> items, Function<? super T, ? extends R> mapper, R identity, BinaryOperator<R> reducer,
+                   int from, int to, int slices) {
+            this.items = items;
+            this.mapper = mapper;
+            this.identity = identity;
+            this.reducer = reducer;
+            this.from = from;
+            this.to = to;
+            this.slices = slices;
+        }
+
+        @Override
+        protected R computeWithContext() {
+            if (slices <= 1) {
+                R result = identity;
+                for (int i = from; i < to; i++) {
+                    result = reducer.apply(result, mapper.apply(items.get(i)));
+                }
+                return result;
+            }
+            int leftSlices = slices / 2;
+            int mid = splitPoint(from, to, leftSlices, slices);
+            ReduceTask<T, R> left = new ReduceTask<>(items, mapper, identity, reducer, from, mid, leftSlices);
+            left.fork();
+            R right = new ReduceTask<>(items, mapper, identity, reducer, mid, to, slices - leftSlices).invoke();
+            return reducer.apply(left.join(), right);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.moty.demo.executor;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import com.example.moty.demo.enums.TaskPriority;
+
+/**
+ * Bounded multi-level work queue with aging, for ThreadPoolExecutor
+ * One FIFO per TaskPriority. A take serves the level whose head has the best effective
+ * level, i.e. its priority level minus one for every agingMillis it has waited, so a LOW
+ * task queued long enough overtakes fresh HIGH ones instead of starving. Ties go to
+ * the older task.
+ * The priority of an offered task is read from priorityOfSubmission, which the executor
+ * sets on the submitting thread; ThreadPoolExecutor calls offer() on that same thread.
+ */
+public class PriorityAgingQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    private static final TaskPriority[] LEVELS = TaskPriority.values();
+
+    private final int capacity;
+
+    private final long agingNanos;
+
+    private final Supplier<TaskPriority> priorityOfSubmission;
+
+    private final List<ArrayDeque<Entry>> levels = new ArrayList<>(LEVELS.length);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Condition notFull = lock.newCondition();
+
+    private int count;
+
+    public PriorityAgingQueue(int capacity, long agingMillis, Supplier<TaskPriority> priorityOfSubmission) {
+        this.capacity = capacity;
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, agingMillis));
+        this.priorityOfSubmission = priorityOfSubmission;
+        for (int i = 0; i < LEVELS.length; i++) {
+            levels.add(new ArrayDeque<>());
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        TaskPriority priority = priorityOfSubmission.get();
+        Entry entry = new Entry(task, priority != null ? priority : TaskPriority.NORMAL, System.nanoTime());
+        lock.lock();
+        try {
+            if (count >= capacity) {
+                return false;
+            }
+            levels.get(entry.priority.ordinal()).addLast(entry);
+            count++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            return offer(task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Runnable task) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                notFull.await();
+            }
+            offer(task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try {
+            int level = nextLevel(System.nanoTime());
+            return level < 0 ? null : levels.get(level).peekFirst().task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queued tasks per priority, in TaskPriority order
+     */
+    public int[] sizesByPriority() {
+        lock.lock();
+        try {
+            int[] sizes = new int[LEVELS.length];
+            for (int i = 0; i < LEVELS.length; i++) {
+                sizes[i] = levels.get(i).size();
+            }
+            return sizes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object task) {
+        lock.lock();
+        try {
+            for (ArrayDeque<Entry> level : levels) {
+                Iterator<Entry> iterator = level.iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().task.equals(task)) {
+                        iterator.remove();
+                        count--;
+                        notFull.signal();
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> target) {
+        return drainTo(target, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> target, int maxElements) {
+        if (target == this) {
+            throw new IllegalArgumentException();
+        }
+        lock.lock();
+        try {
+            int drained = 0;
+            while (count > 0 && drained < maxElements) {
+                target.add(dequeue());
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Iterates over a snapshot; remove() removes the task from the queue
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        List<Runnable> snapshot = new ArrayList<>();
+        lock.lock();
+        try {
+            for (ArrayDeque<Entry> level : levels) {
+                for (Entry entry : level) {
+                    snapshot.add(entry.task);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        Iterator<Runnable> delegate = snapshot.iterator();
+        return new Iterator<Runnable>() {
+            private Runnable last;
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public Runnable next() {
+                last = delegate.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                PriorityAgingQueue.this.remove(last);
+            }
+        };
+    }
+
+    // Caller holds the lock and has checked count > 0
+    private Runnable dequeue() {
+        Entry entry = levels.get(nextLevel(System.nanoTime())).pollFirst();
+        count--;
+        notFull.signal();
+        return entry.task;
+    }
+
+    // Caller holds the lock
+    private int nextLevel(long now) {
+        int best = -1;
+        long bestScore = Long.MAX_VALUE;
+        long bestEnqueued = Long.MAX_VALUE;
+        for (int i = 0; i < LEVELS.length; i++) {
+            Entry head = levels.get(i).peekFirst();
+            if (head == null) {
+                continue;
+            }
+            long score = i - (now - head.enqueuedAt) / agingNanos;
+            if (score < bestScore || (score == bestScore && head.enqueuedAt < bestEnqueued)) {
+                best = i;
+                bestScore = score;
+                bestEnqueued = head.enqueuedAt;
+            }
+        }
+        return best;
+    }
+
+    private static final class Entry {
+
+        private final Runnable task;
+        private final TaskPriority priority;
+        private final long enqueuedAt;
+
+        Entry(Runnable task, TaskPriority priority, long enqueuedAt) {
+            this.task = task;
+            this.priority = priority;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.moty.demo.executor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.example.moty.demo.enums.TaskPriority;
+import com.example.moty.demo.model.dto.LatencyStatsDto;
+import com.example.moty.demo.model.dto.PriorityStatsDto;
+
+/**
+ * Thread pool whose queue is a PriorityAgingQueue
+ * submit(priority, task) tags the submission on the calling thread; plain execute()
+ * calls, e.g. from @Async("priorityExecutor"), run at NORMAL. Queue wait and run time
+ * are recorded per priority.
+ */
+public class PriorityTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<TaskPriority> SUBMITTING = new ThreadLocal<>();
+
+    private final long agingMillis;
+
+    private final transient Map<TaskPriority, PriorityStats> stats = new EnumMap<>(TaskPriority.class);
+
+    private transient PriorityAgingQueue queue;
+
+    public PriorityTaskExecutor(long agingMillis) {
+        this.agingMillis = agingMillis;
+        for (TaskPriority priority : TaskPriority.values()) {
+            stats.put(priority, new PriorityStats());
+        }
+    }
+
+    @Override
+    protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+        queue = new PriorityAgingQueue(queueCapacity, agingMillis, SUBMITTING::get);
+        return queue;
+    }
+
+    /**
+     * Run task at the given priority
+     *
+     * @throws org.springframework.core.task.TaskRejectedException when threads and queue are full
+     */
+    public <T> CompletableFuture<T> submit(TaskPriority priority, Callable<T> task) {
+        PriorityStats priorityStats = stats.get(priority);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long submittedAt = System.nanoTime();
+        Runnable command = () -> {
+            long start = System.nanoTime();
+            priorityStats.queueWait.record(start - submittedAt);
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                priorityStats.runTime.record(System.nanoTime() - start);
+            }
+        };
+        SUBMITTING.set(priority);
+        try {
+            execute(command);
+            priorityStats.submitted.increment();
+        } finally {
+            SUBMITTING.remove();
+        }
+        return future;
+    }
+
+    public List<PriorityStatsDto> priorityStats() {
+        int[] queued = queue != null ? queue.sizesByPriority() : new int[TaskPriority.values().length];
+        List<PriorityStatsDto> result = new ArrayList<>();
+        for (TaskPriority priority : TaskPriority.values()) {
+            PriorityStats priorityStats = stats.get(priority);
+            result.add(PriorityStatsDto.builder()
+                    .priority(priority.name())
+                    .submitted(priorityStats.submitted.sum())
+                    .queued(queued[priority.ordinal()])
+                    .queueWait(LatencyStatsDto.from(priorityStats.queueWait.snapshot()))
+                    .run(LatencyStatsDto.from(priorityStats.runTime.snapshot()))
+                    .build());
+        }
+        return result;
+    }
+
+    private static final class PriorityStats {
+
+        private final LongAdder submitted = new LongAdder();
+        private final LatencyHistogram queueWait = new LatencyHistogram();
+        private final LatencyHistogram runTime = new LatencyHistogram();
+    }
+}
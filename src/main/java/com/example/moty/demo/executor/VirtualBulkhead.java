@@ -0,0 +1,198 @@
+package com.example.moty.demo.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.moty.demo.enums.BulkheadRejectionPolicy;
+
+/**
+ * Bounded executor on top of one virtual thread per task
+ * Virtual threads are cheap, but what they call (database, RSA keys, remote sinks) is not,
+ * so a bulkhead keeps the limits of its platform counterpart: at most maxConcurrency tasks
+ * run at once, up to queueCapacity more wait, and anything beyond that is handled by the
+ * bulkhead's rejection policy. A finishing task hands its permit straight to the oldest
+ * waiting task, which then starts on a new virtual thread.
+ */
+public class VirtualBulkhead implements Executor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualBulkhead.class);
+
+    private final String name;
+
+    private final ExecutorService threads;
+
+    private final int maxConcurrency;
+
+    private final int queueCapacity;
+
+    private final BulkheadRejectionPolicy rejectionPolicy;
+
+    private final Semaphore permits;
+
+    private final BlockingQueue<Runnable> waiting;
+
+    private volatile Consumer<Runnable> rejectionListener = task -> { };
+
+    private volatile boolean shutdown;
+
+    /**
+     * @param threads one virtual thread per task, see VirtualThreadSupport.newThreadPerTaskExecutor
+     */
+    public VirtualBulkhead(String name, ExecutorService threads, int maxConcurrency, int queueCapacity,
+                           BulkheadRejectionPolicy rejectionPolicy) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        this.name = name;
+        this.threads = threads;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = Math.max(0, queueCapacity);
+        this.rejectionPolicy = rejectionPolicy;
+        this.permits = new Semaphore(maxConcurrency);
+        this.waiting = this.queueCapacity > 0 ? new LinkedBlockingQueue<>(this.queueCapacity) : new SynchronousQueue<>();
+    }
+
+    /**
+     * Called with every task that is refused or evicted, before the policy is applied
+     */
+    public void setRejectionListener(Consumer<Runnable> rejectionListener) {
+        this.rejectionListener = rejectionListener;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (shutdown) {
+            rejectionListener.accept(task);
+            throw new RejectedExecutionException("Executor " + name + " has been shut down");
+        }
+        if (permits.tryAcquire()) {
+            start(task);
+            return;
+        }
+        if (waiting.offer(task)) {
+            // A running task may have finished between the failed tryAcquire and the offer
+            startWaiting();
+            return;
+        }
+        reject(task);
+    }
+
+    /**
+     * Stop accepting tasks, interrupt the running ones and return those still waiting
+     */
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> discarded = new ArrayList<>();
+        waiting.drainTo(discarded);
+        threads.shutdownNow();
+        return discarded;
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public int getQueueSize() {
+        return waiting.size();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public BulkheadRejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    private void reject(Runnable task) {
+        switch (rejectionPolicy) {
+            case CALLER_RUNS:
+                rejectionListener.accept(task);
+                task.run();
+                return;
+            case DISCARD:
+                rejectionListener.accept(task);
+                return;
+            case DISCARD_OLDEST:
+                Runnable evicted = waiting.poll();
+                if (evicted == null) {
+                    // Nothing queued to make room for, e.g. queue-capacity=0
+                    rejectionListener.accept(task);
+                    return;
+                }
+                rejectionListener.accept(evicted);
+                execute(task);
+                return;
+            default:
+                rejectionListener.accept(task);
+                throw new RejectedExecutionException("Executor " + name + " is saturated: " + maxConcurrency
+                        + " running, " + queueCapacity + " queued");
+        }
+    }
+
+    /**
+     * Run the task on a new virtual thread, the caller holds a permit for it
+     */
+    private void start(Runnable task) {
+        try {
+            threads.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    handOff();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Pass the finished task's permit to the oldest waiting task, or release it
+     */
+    private void handOff() {
+        Runnable next = shutdown ? null : waiting.poll();
+        if (next == null) {
+            permits.release();
+            // A task queued after the poll above would otherwise wait for the next finish
+            startWaiting();
+            return;
+        }
+        try {
+            start(next);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Executor {} dropped a queued task while shutting down", name);
+        }
+    }
+
+    private void startWaiting() {
+        while (!shutdown && !waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                permits.release();
+                continue;
+            }
+            start(next);
+        }
+    }
+}
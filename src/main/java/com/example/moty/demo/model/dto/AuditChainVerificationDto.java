@@ -0,0 +1,41 @@
+package com.example.moty.demo.model.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Audit hash chain verification report
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditChainVerificationDto {
+
+    private boolean valid;
+    private long rowsChecked;
+    /**
+     * Rows without a hash written before the chain was enabled
+     */
+    private long unchainedRows;
+    private Long anchorId;
+    private List<Long> hashMismatchIds;
+    private List<Long> brokenLinkIds;
+    /**
+     * Rows after the anchor or inside a signed range whose hash is missing
+     */
+    private List<Long> unhashedRowIds;
+    /**
+     * Chained rows before the last signed batch that no batch covers
+     */
+    private List<Long> unsignedRowIds;
+    private long batchesVerified;
+    private List<Long> invalidBatchIds;
+    private List<Long> unknownKeyBatchIds;
+    private List<Long> incompleteBatchIds;
+    private long elapsedMillis;
+}
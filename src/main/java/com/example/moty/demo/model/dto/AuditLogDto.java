@@ -0,0 +1,36 @@
+package com.example.moty.demo.model.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.moty.demo.model.po.AuditLog;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Audit log response DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogDto {
+
+    private Long id;
+    private String username;
+    private String action;
+    private String details;
+    private LocalDateTime createdAt;
+
+    public static AuditLogDto from(AuditLog log) {
+        return AuditLogDto.builder()
+                .id(log.getId())
+                .username(log.getUsername())
+                .action(log.getAction())
+                .details(log.getDetails())
+                .createdAt(log.getCreatedAt())
+                .build();
+    }
+}
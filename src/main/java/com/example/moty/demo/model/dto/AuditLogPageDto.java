@@ -0,0 +1,26 @@
+package com.example.moty.demo.model.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Keyset paginated audit log page
+ * Pass nextCursor back as the cursor parameter to fetch the following page
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AuditLogPageDto {
+
+    private List<AuditLogDto> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
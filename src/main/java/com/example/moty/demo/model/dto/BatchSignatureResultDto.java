@@ -0,0 +1,28 @@
+package com.example.moty.demo.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批次簽名 / 驗證的單筆結果，以 NDJSON 逐行回傳
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchSignatureResultDto {
+
+    /**
+     * 項目在請求中的位置
+     */
+    private Integer index;
+    private String id;
+    private boolean success;
+    private String message;
+    private String signature;
+    private Boolean verified;
+}
@@ -0,0 +1,39 @@
+package com.example.moty.demo.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Point-in-time statistics of one named executor
+ * Pool sizes, queue capacity and saturation are only present for platform thread pools.
+ * Saturation is the busy share of max threads and the filled share of the queue, 0 to 1.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExecutorStatsDto {
+
+    private String name;
+    private String threadModel;
+    private String rejectionPolicy;
+    private long activeThreads;
+    private Integer poolSize;
+    private Integer corePoolSize;
+    private Integer maxPoolSize;
+    private long queueDepth;
+    private Integer queueCapacity;
+    private Double threadSaturation;
+    private Double queueSaturation;
+    private long submitted;
+    private long completed;
+    private long failed;
+    private long rejected;
+    private LatencyStatsDto queueWait;
+    private LatencyStatsDto run;
+}
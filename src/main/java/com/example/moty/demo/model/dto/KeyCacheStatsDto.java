@@ -0,0 +1,25 @@
+package com.example.moty.demo.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Parsed-key cache statistics
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeyCacheStatsDto {
+
+    private int size;
+    private int maxSize;
+    private long ttlMillis;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private double hitRate;
+}
@@ -0,0 +1,43 @@
+package com.example.moty.demo.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pre-generated key pair pool statistics
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeyPairPoolStatsDto {
+
+    private int capacity;
+    private int lowWatermark;
+    private int highWatermark;
+
+    /**
+     * Key pairs ready to be served right now
+     */
+    private int available;
+
+    /**
+     * Requests served from the pool
+     */
+    private long served;
+
+    /**
+     * Requests that found the pool empty and generated on the caller's thread
+     */
+    private long starved;
+
+    /**
+     * Key pairs generated by the background refill threads
+     */
+    private long generated;
+
+    private long failures;
+    private double starvationRate;
+}
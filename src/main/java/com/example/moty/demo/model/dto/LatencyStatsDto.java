@@ -0,0 +1,37 @@
+package com.example.moty.demo.model.dto;
+
+import com.example.moty.demo.executor.LatencyHistogram;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Latency distribution summary, all values in microseconds
+ * Percentiles are histogram bucket upper bounds
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencyStatsDto {
+
+    private long count;
+    private long meanMicros;
+    private long p50Micros;
+    private long p90Micros;
+    private long p99Micros;
+    private long maxMicros;
+
+    public static LatencyStatsDto from(LatencyHistogram.Snapshot snapshot) {
+        return LatencyStatsDto.builder()
+                .count(snapshot.getCount())
+                .meanMicros(snapshot.meanMicros())
+                .p50Micros(snapshot.percentileMicros(0.50))
+                .p90Micros(snapshot.percentileMicros(0.90))
+                .p99Micros(snapshot.percentileMicros(0.99))
+                .maxMicros(snapshot.getMaxMicros())
+                .build();
+    }
+}
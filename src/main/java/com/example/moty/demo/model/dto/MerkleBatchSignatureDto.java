@@ -0,0 +1,38 @@
+package com.example.moty.demo.model.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Merkle batch signature: one signature over the root plus an inclusion proof per item
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MerkleBatchSignatureDto {
+
+    private boolean success;
+    private String message;
+    private String algorithm;
+
+    /**
+     * Merkle root, hex encoded
+     */
+    private String root;
+
+    /**
+     * Signature over the root, Base64 encoded
+     */
+    private String signature;
+
+    private int leafCount;
+    private List<MerkleLeafProofDto> leaves;
+}
@@ -0,0 +1,25 @@
+package com.example.moty.demo.model.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Inclusion proof of one batch item
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MerkleLeafProofDto {
+
+    private int index;
+    private String id;
+    private List<MerkleProofStepDto> proof;
+}
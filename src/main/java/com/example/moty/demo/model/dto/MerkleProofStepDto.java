@@ -0,0 +1,26 @@
+package com.example.moty.demo.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One step of a Merkle inclusion proof, ordered from the leaf up to the root
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerkleProofStepDto {
+
+    /**
+     * Sibling node hash, hex encoded
+     */
+    private String hash;
+
+    /**
+     * Whether the sibling is the left child
+     */
+    private boolean left;
+}
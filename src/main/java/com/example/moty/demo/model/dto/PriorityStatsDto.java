@@ -0,0 +1,22 @@
+package com.example.moty.demo.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-priority statistics of the priority executor
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriorityStatsDto {
+
+    private String priority;
+    private long submitted;
+    private int queued;
+    private LatencyStatsDto queueWait;
+    private LatencyStatsDto run;
+}
@@ -22,4 +22,5 @@ public class SignatureDto {
     private String privateKey;
     private String signature;
     private boolean verified;
+    private String algorithm;
 }
@@ -0,0 +1,43 @@
+package com.example.moty.demo.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Signature engine pool statistics
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SignatureEngineStatsDto {
+
+    private int maxEnginesPerThread;
+
+    /**
+     * How long an engine is reused after it was created
+     */
+    private long ttlMillis;
+
+    /**
+     * Calls served by an already initialized engine
+     */
+    private long reused;
+
+    /**
+     * Engines created and initialized
+     */
+    private long created;
+
+    /**
+     * Engines dropped because a call using them failed
+     */
+    private long discarded;
+
+    /**
+     * Engines dropped after ttlMillis
+     */
+    private long expired;
+}
@@ -0,0 +1,30 @@
+package com.example.moty.demo.model.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 伺服器端密鑰資訊 DTO，不含私鑰
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SigningKeyDto {
+
+    private boolean success;
+    private String message;
+    private String keyId;
+    private String algorithm;
+    private String publicKey;
+    private boolean canSign;
+    private String owner;
+    private LocalDateTime createdAt;
+}
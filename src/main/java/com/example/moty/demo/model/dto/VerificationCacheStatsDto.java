@@ -0,0 +1,34 @@
+package com.example.moty.demo.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Verification result cache statistics
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VerificationCacheStatsDto {
+
+    private int size;
+    private int maxSize;
+    private long ttlMillis;
+
+    /**
+     * Verifications answered from the cache
+     */
+    private long hits;
+
+    /**
+     * Verifications actually performed, successful ones are then cached
+     */
+    private long misses;
+
+    private long evictions;
+    private long expirations;
+    private double hitRate;
+}
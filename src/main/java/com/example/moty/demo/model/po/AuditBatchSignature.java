@@ -0,0 +1,46 @@
+package com.example.moty.demo.model.po;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.Data;
+
+/**
+ * Signature over the Merkle root of a contiguous range of audit_log hashes
+ */
+@Entity
+@Table(name = "audit_batch_signature")
+@Data
+public class AuditBatchSignature {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "first_log_id", nullable = false)
+    private Long firstLogId;
+
+    @Column(name = "last_log_id", nullable = false)
+    private Long lastLogId;
+
+    @Column(name = "event_count", nullable = false)
+    private int eventCount;
+
+    @Column(name = "merkle_root", length = 64, nullable = false)
+    private String merkleRoot;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String signature;
+
+    // Null for batches signed before fingerprints were recorded
+    @Column(name = "key_fingerprint", length = 64)
+    private String keyFingerprint;
+
+    @Column(name = "signed_at", nullable = false)
+    private LocalDateTime signedAt = LocalDateTime.now();
+}
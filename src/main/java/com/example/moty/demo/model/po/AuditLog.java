@@ -6,12 +6,28 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 import lombok.Data;
 
+/**
+ * Audit log entity
+ * Composite indexes end with (created_at, id) so that keyset pagination
+ * can seek directly to the next page for every supported filter.
+ * prevHash/hash link each row to the previous one (see AuditChainService).
+ * eventKey identifies rows received by the audit collector; its unique key includes
+ * created_at so it stays valid on the partitioned table.
+ */
 @Entity
-@Table(name = "audit_log")
+@Table(name = "audit_log", indexes = {
+    @Index(name = "idx_audit_log_user_time", columnList = "username, created_at, id"),
+    @Index(name = "idx_audit_log_action_time", columnList = "action, created_at, id"),
+    @Index(name = "idx_audit_log_time", columnList = "created_at, id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_audit_log_event", columnNames = {"event_key", "created_at"})
+})
 @Data
 public class AuditLog {
     @Id @GeneratedValue
@@ -23,5 +39,18 @@ public class AuditLog {
     @Column(columnDefinition = "TEXT")
     private String details;
 
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
-}
\ No newline at end of file
+
+    @Column(name = "prev_hash", length = 64)
+    private String prevHash;
+
+    @Column(length = 64)
+    private String hash;
+
+    /**
+     * senderId:sequence:index of an event stored by the collector, null for local rows
+     */
+    @Column(name = "event_key", length = 80)
+    private String eventKey;
+}
@@ -0,0 +1,46 @@
+package com.example.moty.demo.model.po;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import lombok.Data;
+
+/**
+ * Key pair held by the server and referenced by keyId in sign/verify requests
+ * Keys are stored as Base64 X.509 / PKCS#8; privateKey is AES-GCM encrypted with
+ * signature.key-store.encryption-key (see PrivateKeyCipher), plain Base64 only when
+ * signature.key-store.allow-plaintext-private-keys is set, and null for public-only keys.
+ */
+@Entity
+@Table(name = "signing_key", indexes = @Index(name = "idx_signing_key_owner", columnList = "owner"))
+@Data
+public class SigningKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "key_id", length = 36, nullable = false, unique = true)
+    private String keyId;
+
+    @Column(length = 32, nullable = false)
+    private String algorithm;
+
+    @Column(name = "public_key", columnDefinition = "TEXT", nullable = false)
+    private String publicKey;
+
+    @Column(name = "private_key", columnDefinition = "TEXT")
+    private String privateKey;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
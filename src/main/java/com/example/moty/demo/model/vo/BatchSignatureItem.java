@@ -0,0 +1,27 @@
+package com.example.moty.demo.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批次簽名中的單筆資料
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSignatureItem {
+
+    /**
+     * 呼叫端自訂的識別碼，原樣回傳於結果中
+     */
+    private String id;
+    private String data;
+
+    /**
+     * 僅批次驗證使用
+     */
+    private String signature;
+}
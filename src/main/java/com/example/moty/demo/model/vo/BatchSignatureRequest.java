@@ -0,0 +1,23 @@
+package com.example.moty.demo.model.vo;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批次簽名 / 驗證請求 DTO
+ * 所有項目共用同一把密鑰，批次簽名使用 privateKey，批次驗證使用 publicKey
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSignatureRequest {
+
+    private String publicKey;
+    private String privateKey;
+    private List<BatchSignatureItem> items;
+}
@@ -0,0 +1,24 @@
+package com.example.moty.demo.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 伺服器本機檔案簽名請求 DTO
+ * path 為相對於 signature.files.base-dir 的路徑；驗證時未提供 signature 則讀取檔案旁的 .sig 簽名檔
+ * algorithm 為簽名演算法，未提供時為 RSA
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileSignatureRequest {
+
+    private String path;
+    private String publicKey;
+    private String privateKey;
+    private String signature;
+    private String algorithm;
+}
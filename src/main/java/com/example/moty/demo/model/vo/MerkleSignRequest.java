@@ -0,0 +1,24 @@
+package com.example.moty.demo.model.vo;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Merkle 批次簽名請求 DTO
+ * 以 privateKey 或伺服器端密鑰 keyId 簽署所有項目的 Merkle 根，只需一次私鑰運算
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerkleSignRequest {
+
+    private String privateKey;
+    private String keyId;
+    private String algorithm;
+    private List<BatchSignatureItem> items;
+}
@@ -0,0 +1,29 @@
+package com.example.moty.demo.model.vo;
+
+import java.util.List;
+
+import com.example.moty.demo.model.dto.MerkleProofStepDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Merkle 包含證明驗證請求 DTO
+ * root、signature 與 proof 取自 Merkle 批次簽名的回應
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerkleVerifyRequest {
+
+    private String data;
+    private String root;
+    private String signature;
+    private List<MerkleProofStepDto> proof;
+    private String publicKey;
+    private String keyId;
+    private String algorithm;
+}
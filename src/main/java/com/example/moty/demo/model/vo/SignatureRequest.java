@@ -18,4 +18,10 @@ public class SignatureRequest {
     private String publicKey;
     private String privateKey;
     private String signature;
+
+    // 簽名演算法，例如 RSA、RSA-PSS、ECDSA-P256、ECDSA-P384、Ed25519，未指定時為 RSA
+    private String algorithm;
+
+    // 伺服器端密鑰 ID，提供時不需傳送 publicKey / privateKey，演算法以密鑰登記的為準
+    private String keyId;
 }
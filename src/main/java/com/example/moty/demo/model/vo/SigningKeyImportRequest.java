@@ -0,0 +1,21 @@
+package com.example.moty.demo.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 匯入密鑰請求 DTO
+ * 只提供公鑰時匯入的密鑰僅能用於驗證
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SigningKeyImportRequest {
+
+    private String algorithm;
+    private String publicKey;
+    private String privateKey;
+}
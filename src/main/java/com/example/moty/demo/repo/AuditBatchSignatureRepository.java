@@ -0,0 +1,14 @@
+package com.example.moty.demo.repo;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.moty.demo.model.po.AuditBatchSignature;
+
+public interface AuditBatchSignatureRepository extends JpaRepository<AuditBatchSignature, Long> {
+
+    AuditBatchSignature findTopByOrderByLastLogIdDesc();
+
+    List<AuditBatchSignature> findAllByOrderByFirstLogIdAsc();
+}
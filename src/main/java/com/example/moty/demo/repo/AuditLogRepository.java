@@ -1,8 +1,77 @@
 package com.example.moty.demo.repo;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.moty.demo.model.po.AuditLog;
 
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Delete at most batchSize rows older than cutoff
+     * Each call runs in its own short transaction so row locks are released between batches
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM audit_log WHERE created_at < :cutoff ORDER BY created_at, id LIMIT :batchSize",
+           nativeQuery = true)
+    int deleteBatchOlderThan(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+
+    /**
+     * Delete at most batchSize archived rows, i.e. older than cutoff and not newer than maxId
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM audit_log WHERE created_at < :cutoff AND id <= :maxId ORDER BY created_at, id LIMIT :batchSize",
+           nativeQuery = true)
+    int deleteBatchArchived(@Param("cutoff") LocalDateTime cutoff, @Param("maxId") long maxId,
+                            @Param("batchSize") int batchSize);
+
+    /**
+     * Forward-only cursor over rows older than cutoff, oldest first
+     * A fetch size of Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering
+     * the whole result. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "-2147483648"),
+        @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT a FROM AuditLog a WHERE a.createdAt < :cutoff ORDER BY a.createdAt, a.id")
+    Stream<AuditLog> streamOlderThan(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Forward-only cursor over the whole table in id (chain) order
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "-2147483648"),
+        @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT a FROM AuditLog a ORDER BY a.id")
+    Stream<AuditLog> streamAllInChainOrder();
+
+    AuditLog findTopByOrderByIdDesc();
+
+    AuditLog findFirstByHashIsNotNullOrderByIdAsc();
+
+    /**
+     * Those of the given collector event keys that are already stored
+     */
+    @Query("SELECT a.eventKey FROM AuditLog a WHERE a.eventKey IN :keys")
+    List<String> findStoredEventKeys(@Param("keys") Collection<String> keys);
+
+    List<AuditLog> findByIdGreaterThanOrderByIdAsc(Long id);
+}
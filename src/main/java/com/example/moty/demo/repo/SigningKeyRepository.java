@@ -0,0 +1,16 @@
+package com.example.moty.demo.repo;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.moty.demo.model.po.SigningKey;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, Long> {
+
+    SigningKey findByKeyId(String keyId);
+
+    List<SigningKey> findByOwnerOrderByCreatedAtDesc(String owner);
+
+    long countByOwner(String owner);
+}
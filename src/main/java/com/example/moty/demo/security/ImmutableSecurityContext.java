@@ -0,0 +1,56 @@
+package com.example.moty.demo.security;
+
+import java.util.Objects;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+
+/**
+ * Read-only security context handed to async and fork-join tasks
+ * One instance is shared by every task submitted from the same context, so it must not
+ * change underneath them; setAuthentication is rejected. Workers never install it
+ * directly but run each task under a PropagatedSecurityContext built from it.
+ */
+public final class ImmutableSecurityContext implements SecurityContext {
+
+    private static final long serialVersionUID = 1L;
+
+    static final ImmutableSecurityContext EMPTY = new ImmutableSecurityContext(null);
+
+    private final Authentication authentication;
+
+    ImmutableSecurityContext(Authentication authentication) {
+        this.authentication = authentication;
+    }
+
+    @Override
+    public Authentication getAuthentication() {
+        return authentication;
+    }
+
+    @Override
+    public void setAuthentication(Authentication authentication) {
+        throw new UnsupportedOperationException("Propagated security context is a read-only snapshot");
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof SecurityContext)) {
+            return false;
+        }
+        return Objects.equals(authentication, ((SecurityContext) other).getAuthentication());
+    }
+
+    @Override
+    public int hashCode() {
+        return authentication != null ? authentication.hashCode() : -1;
+    }
+
+    @Override
+    public String toString() {
+        return "ImmutableSecurityContext [Authentication=" + authentication + "]";
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.moty.demo.security;
+
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+/**
+ * Mutable context a worker runs a propagated task under
+ * Built from the shared snapshot for each task, so the task may call setAuthentication
+ * (run-as, re-authentication) without touching the snapshot other tasks still use.
+ * While the authentication is unchanged, capture() hands on the original snapshot.
+ */
+final class PropagatedSecurityContext extends SecurityContextImpl {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient SecurityContext snapshot;
+
+    PropagatedSecurityContext(SecurityContext snapshot) {
+        super(snapshot.getAuthentication());
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * The snapshot this context was built from, or null once the task replaced its authentication
+     */
+    SecurityContext unchangedSnapshot() {
+        return snapshot != null && getAuthentication() == snapshot.getAuthentication() ? snapshot : null;
+    }
+}
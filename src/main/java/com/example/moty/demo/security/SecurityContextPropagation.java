@@ -0,0 +1,107 @@
+package com.example.moty.demo.security;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Carries the caller's principal onto other threads
+ * capture() takes an ImmutableSecurityContext on the submitting thread: no copy when the
+ * caller already runs under a snapshot (nested or forked work), otherwise one small object
+ * holding the Authentication reference. The worker installs a mutable copy of it for the
+ * duration of the task and restores its previous context afterwards, so SecurityContextHolder
+ * reads and writes the same as with DelegatingSecurityContextAsyncTaskExecutor, minus the
+ * executor wrappers and the copies on nested submissions.
+ */
+public final class SecurityContextPropagation {
+
+    private static final TaskDecorator TASK_DECORATOR = SecurityContextPropagation::wrap;
+
+    private SecurityContextPropagation() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Decorator for ThreadPoolTaskExecutor / TaskExecutorAdapter, runs on the submitting thread
+     */
+    public static TaskDecorator taskDecorator() {
+        return TASK_DECORATOR;
+    }
+
+    /**
+     * Snapshot of the current thread's security context
+     */
+    public static SecurityContext capture() {
+        SecurityContext current = SecurityContextHolder.getContext();
+        if (current instanceof ImmutableSecurityContext) {
+            return current;
+        }
+        if (current instanceof PropagatedSecurityContext) {
+            SecurityContext snapshot = ((PropagatedSecurityContext) current).unchangedSnapshot();
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+        Authentication authentication = current.getAuthentication();
+        return authentication == null ? ImmutableSecurityContext.EMPTY : new ImmutableSecurityContext(authentication);
+    }
+
+    public static Runnable wrap(Runnable task) {
+        SecurityContext snapshot = capture();
+        return () -> {
+            SecurityContext previous = SecurityContextHolder.getContext();
+            SecurityContextHolder.setContext(new PropagatedSecurityContext(snapshot));
+            try {
+                task.run();
+            } finally {
+                SecurityContextHolder.setContext(previous);
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        SecurityContext snapshot = capture();
+        return () -> callWith(snapshot, task);
+    }
+
+    /**
+     * For CompletableFuture.supplyAsync and similar stage factories
+     */
+    public static <T> Supplier<T> wrapSupplier(Supplier<T> task) {
+        SecurityContext snapshot = capture();
+        return () -> {
+            SecurityContext previous = SecurityContextHolder.getContext();
+            SecurityContextHolder.setContext(new PropagatedSecurityContext(snapshot));
+            try {
+                return task.get();
+            } finally {
+                SecurityContextHolder.setContext(previous);
+            }
+        };
+    }
+
+    /**
+     * Executor that propagates the submitter's context, e.g. for CompletableFuture *Async stages
+     */
+    public static Executor wrap(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    /**
+     * Run task under a mutable copy of the given snapshot on the current thread
+     */
+    public static <T> T callWith(SecurityContext snapshot, Callable<T> task) throws Exception {
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext(new PropagatedSecurityContext(snapshot));
+        try {
+            return task.call();
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.moty.demo.security;
+
+import java.util.concurrent.RecursiveTask;
+
+import org.springframework.security.core.context.SecurityContext;
+
+/**
+ * RecursiveTask that runs under the security context it was created in
+ * Subtasks created inside computeWithContext() capture the same snapshot again without
+ * copying, so a whole fork-join tree shares one ImmutableSecurityContext.
+ */
+public abstract class SecurityContextRecursiveTask<T> extends RecursiveTask<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient SecurityContext context = SecurityContextPropagation.capture();
+
+    @Override
+    protected final T compute() {
+        try {
+            return SecurityContextPropagation.callWith(context, this::computeWithContext);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Exception e) {
+            // computeWithContext declares no checked exceptions
+            throw new IllegalStateException(e);
+        }
+    }
+
+    protected abstract T computeWithContext();
+}
@@ -1,34 +1,45 @@
 package com.example.moty.demo.service;
 
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
 
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import com.example.moty.demo.annotation.AsyncPriority;
+import com.example.moty.demo.annotation.DurableAsync;
+import com.example.moty.demo.enums.TaskPriority;
 
 @Service
 public class AsyncService {
 
-    @Async("taskExecutor")
+    @DurableAsync
+    @AsyncPriority(TaskPriority.LOW)
     public void asyncTask() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         System.out.println("User in async: " + (auth != null ? auth.getName() : "null"));
     }
 
+    /**
+     * Returns a ListenableFuture so Spring submits it with submitListenable,
+     * cancelling the future on request timeout then interrupts the sleep below
+     */
     @Async("taskExecutor")
-    public CompletableFuture<String> asyncTask1() {
+    public ListenableFuture<String> asyncTask1() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         System.out.println("User in async2: " + (auth != null ? auth.getName() : "null"));
 
         try {
             Thread.sleep(1000);
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            Thread.currentThread().interrupt();
+            return AsyncResult.forExecutionException(e);
         }
 
-        return CompletableFuture.completedFuture(
+        return AsyncResult.forValue(
             Objects.isNull(auth) ? "Trigger By null" : "Trigger By " + auth.getName()
         );
     }
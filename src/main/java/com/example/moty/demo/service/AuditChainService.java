@@ -0,0 +1,288 @@
+package com.example.moty.demo.service;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.codec.Hex;
+import org.springframework.stereotype.Service;
+
+import com.example.moty.demo.config.AuditProperties;
+import com.example.moty.demo.model.po.AuditBatchSignature;
+import com.example.moty.demo.model.po.AuditLog;
+import com.example.moty.demo.repo.AuditBatchSignatureRepository;
+import com.example.moty.demo.repo.AuditLogRepository;
+import com.example.moty.demo.util.MerkleTreeUtil;
+import com.example.moty.demo.util.RsaSignatureUtil;
+
+/**
+ * Audit hash chain service
+ * Every saved row stores the previous row's hash and its own SHA-256 over
+ * (prevHash, username, action, details, createdAt). Row hashes are collected into
+ * batches of audit.chain.batch-size; each batch's Merkle root is signed once with
+ * RsaSignatureUtil.signBytes, so the RSA cost is one signature per batch.
+ * Each batch records the fingerprint of the key that signed it, so batches signed
+ * before a key rotation still verify against audit.chain.previous-public-keys.
+ */
+@Service
+public class AuditChainService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditChainService.class);
+
+    public static final String GENESIS_HASH = "0000000000000000000000000000000000000000000000000000000000000000";
+
+    private static final char FIELD_SEPARATOR = '\u001f';
+
+    private static final String NULL_FIELD = "\u0000";
+
+    private final AuditLogRepository auditLogRepository;
+
+    private final AuditBatchSignatureRepository auditBatchSignatureRepository;
+
+    private final RsaSignatureUtil rsaSignatureUtil;
+
+    private final AuditProperties auditProperties;
+
+    private PrivateKey signingKey;
+
+    private PublicKey verificationKey;
+
+    private String keyFingerprint;
+
+    // fingerprint -> key, current key first
+    private final Map<String, PublicKey> trustedKeys = new LinkedHashMap<>();
+
+    // Chain state, guarded by this
+    private String lastHash = GENESIS_HASH;
+    private final List<String> pendingHashes = new ArrayList<>();
+    private long pendingFirstId;
+    private long pendingLastId;
+    private long batchOpenedAt = System.currentTimeMillis();
+
+    @Autowired
+    public AuditChainService(AuditLogRepository auditLogRepository,
+                             AuditBatchSignatureRepository auditBatchSignatureRepository,
+                             RsaSignatureUtil rsaSignatureUtil, AuditProperties auditProperties) {
+        this.auditLogRepository = auditLogRepository;
+        this.auditBatchSignatureRepository = auditBatchSignatureRepository;
+        this.rsaSignatureUtil = rsaSignatureUtil;
+        this.auditProperties = auditProperties;
+    }
+
+    @PostConstruct
+    public void init() throws Exception {
+        AuditProperties.Chain config = auditProperties.getChain();
+        if (config.getPrivateKey() != null && !config.getPrivateKey().isEmpty()) {
+            signingKey = rsaSignatureUtil.stringToPrivateKey(config.getPrivateKey());
+            verificationKey = rsaSignatureUtil.stringToPublicKey(config.getPublicKey());
+        } else {
+            KeyPair keyPair = loadOrCreateKeyFile(Paths.get(config.getKeyFile()));
+            signingKey = keyPair.getPrivate();
+            verificationKey = keyPair.getPublic();
+        }
+        keyFingerprint = fingerprint(verificationKey);
+        trustedKeys.put(keyFingerprint, verificationKey);
+        for (String previous : config.getPreviousPublicKeys()) {
+            PublicKey previousKey = rsaSignatureUtil.stringToPublicKey(previous);
+            trustedKeys.putIfAbsent(fingerprint(previousKey), previousKey);
+        }
+
+        if (!config.isEnabled()) {
+            return;
+        }
+        AuditLog last = auditLogRepository.findTopByOrderByIdDesc();
+        if (last != null && last.getHash() != null) {
+            lastHash = last.getHash();
+        }
+        // Rows chained after the last signed batch, or since the first chained row when
+        // nothing has been signed yet, were pending when the previous run stopped
+        AuditBatchSignature lastBatch = auditBatchSignatureRepository.findTopByOrderByLastLogIdDesc();
+        Long signedThrough = null;
+        if (lastBatch != null) {
+            signedThrough = lastBatch.getLastLogId();
+        } else {
+            AuditLog firstChained = auditLogRepository.findFirstByHashIsNotNullOrderByIdAsc();
+            if (firstChained != null) {
+                signedThrough = firstChained.getId() - 1;
+            }
+        }
+        if (signedThrough != null) {
+            for (AuditLog log : auditLogRepository.findByIdGreaterThanOrderByIdAsc(signedThrough)) {
+                if (log.getHash() != null) {
+                    addPending(log);
+                }
+            }
+        }
+    }
+
+    /**
+     * Link the row to the chain and save it
+     * Saves are serialized so that id order matches chain order.
+     */
+    public synchronized AuditLog append(AuditLog log) {
+        if (!auditProperties.getChain().isEnabled()) {
+            return auditLogRepository.save(log);
+        }
+        // MySQL DATETIME(6) keeps microseconds, hash what will be read back
+        log.setCreatedAt(log.getCreatedAt().truncatedTo(ChronoUnit.MICROS));
+        log.setPrevHash(lastHash);
+        log.setHash(computeHash(log));
+        AuditLog saved = auditLogRepository.save(log);
+        lastHash = saved.getHash();
+
+        addPending(saved);
+        if (pendingHashes.size() >= auditProperties.getChain().getBatchSize()) {
+            signPendingBatch();
+        }
+        return saved;
+    }
+
+    @Scheduled(fixedDelayString = "${audit.chain.flush-interval-millis:60000}")
+    public synchronized void flushStaleBatch() {
+        if (!pendingHashes.isEmpty()
+                && System.currentTimeMillis() - batchOpenedAt >= auditProperties.getChain().getFlushIntervalMillis()) {
+            signPendingBatch();
+        }
+    }
+
+    /**
+     * Sign whatever is pending, used on shutdown
+     */
+    public synchronized void flush() {
+        if (!pendingHashes.isEmpty()) {
+            signPendingBatch();
+        }
+    }
+
+    public PublicKey getVerificationKey() {
+        return verificationKey;
+    }
+
+    /**
+     * Keys accepted when verifying batches, by fingerprint
+     */
+    public Map<String, PublicKey> getTrustedKeys() {
+        return trustedKeys;
+    }
+
+    /**
+     * Hex SHA-256 of the X.509 encoding, stored with every batch
+     */
+    public static String fingerprint(PublicKey publicKey) {
+        return new String(Hex.encode(MerkleTreeUtil.sha256(publicKey.getEncoded())));
+    }
+
+    /**
+     * Load the key pair written on a previous start, or generate and persist one,
+     * so batches signed before a restart keep verifying
+     */
+    private KeyPair loadOrCreateKeyFile(Path keyFile) throws Exception {
+        if (Files.exists(keyFile)) {
+            Properties stored = new Properties();
+            try (InputStream in = Files.newInputStream(keyFile)) {
+                stored.load(in);
+            }
+            logger.info("Audit chain key loaded from {}", keyFile.toAbsolutePath());
+            return new KeyPair(rsaSignatureUtil.stringToPublicKey(stored.getProperty("public-key")),
+                    rsaSignatureUtil.stringToPrivateKey(stored.getProperty("private-key")));
+        }
+
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        Properties stored = new Properties();
+        stored.setProperty("public-key", rsaSignatureUtil.publicKeyToString(keyPair.getPublic()));
+        stored.setProperty("private-key", rsaSignatureUtil.privateKeyToString(keyPair.getPrivate()));
+        Path parent = keyFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = keyFile.resolveSibling(keyFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            stored.store(out, "audit chain signing key");
+        }
+        try {
+            Files.setPosixFilePermissions(tmp, EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE));
+        } catch (UnsupportedOperationException e) {
+            // Non-POSIX file system, rely on the directory permissions
+        }
+        Files.move(tmp, keyFile, StandardCopyOption.ATOMIC_MOVE);
+        logger.warn("audit.chain.private-key not set, generated a key pair in {}, public key: {}",
+                keyFile.toAbsolutePath(), rsaSignatureUtil.publicKeyToString(keyPair.getPublic()));
+        return keyPair;
+    }
+
+    private void addPending(AuditLog log) {
+        if (pendingHashes.isEmpty()) {
+            pendingFirstId = log.getId();
+            batchOpenedAt = System.currentTimeMillis();
+        }
+        pendingLastId = log.getId();
+        pendingHashes.add(log.getHash());
+    }
+
+    private void signPendingBatch() {
+        List<byte[]> leaves = new ArrayList<>(pendingHashes.size());
+        for (String hash : pendingHashes) {
+            leaves.add(Hex.decode(hash));
+        }
+        byte[] root = MerkleTreeUtil.root(leaves);
+        try {
+            AuditBatchSignature batch = new AuditBatchSignature();
+            batch.setFirstLogId(pendingFirstId);
+            batch.setLastLogId(pendingLastId);
+            batch.setEventCount(pendingHashes.size());
+            batch.setMerkleRoot(new String(Hex.encode(root)));
+            batch.setSignature(rsaSignatureUtil.signBytes(root, signingKey));
+            batch.setKeyFingerprint(keyFingerprint);
+            auditBatchSignatureRepository.save(batch);
+            logger.info("Signed audit batch {}..{} ({} events)", batch.getFirstLogId(), batch.getLastLogId(),
+                    batch.getEventCount());
+            pendingHashes.clear();
+        } catch (Exception e) {
+            // Keep the rows pending, the next append or flush retries
+            logger.error("Signing audit batch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * SHA-256 of the row content chained to prevHash, hex encoded
+     */
+    public static String computeHash(AuditLog log) {
+        StringBuilder content = new StringBuilder(256)
+                .append(log.getPrevHash()).append(FIELD_SEPARATOR)
+                .append(nullSafe(log.getUsername())).append(FIELD_SEPARATOR)
+                .append(nullSafe(log.getAction())).append(FIELD_SEPARATOR)
+                .append(nullSafe(log.getDetails())).append(FIELD_SEPARATOR)
+                .append(formatTime(log.getCreatedAt()));
+        return new String(Hex.encode(MerkleTreeUtil.sha256(content.toString().getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static String nullSafe(String value) {
+        return value == null ? NULL_FIELD : value;
+    }
+
+    private static String formatTime(LocalDateTime time) {
+        return time == null ? NULL_FIELD : time.toString();
+    }
+}
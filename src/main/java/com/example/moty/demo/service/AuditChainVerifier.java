@@ -0,0 +1,286 @@
+package com.example.moty.demo.service;
+
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.codec.Hex;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.moty.demo.config.AuditProperties;
+import com.example.moty.demo.executor.ParallelExecutionService;
+import com.example.moty.demo.model.dto.AuditChainVerificationDto;
+import com.example.moty.demo.model.po.AuditBatchSignature;
+import com.example.moty.demo.model.po.AuditLog;
+import com.example.moty.demo.repo.AuditBatchSignatureRepository;
+import com.example.moty.demo.repo.AuditLogRepository;
+import com.example.moty.demo.util.MerkleTreeUtil;
+import com.example.moty.demo.util.RsaSignatureUtil;
+
+/**
+ * Audit hash chain verifier
+ * Streams audit_log once in id order, recomputing every row hash and checking the
+ * prevHash links on the streaming thread. Completed batches are collected into small
+ * windows that the shared parallelExecutionService verifies (Merkle root rebuild and
+ * RSA signature against the key whose fingerprint the batch recorded), which keeps
+ * at most one window of row hashes in memory.
+ * The first chained row is accepted as anchor, since older rows may have been archived;
+ * batches that start before it are skipped for the same reason. After the anchor every
+ * row must carry a hash, fall inside a signed batch (except the open tail that has not
+ * been signed yet) and every signed batch must still have all of its rows.
+ */
+@Service
+public class AuditChainVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditChainVerifier.class);
+
+    private static final int MAX_REPORTED_IDS = 100;
+
+    // Batches handed to the pool at once, per verify thread
+    private static final int BATCHES_PER_THREAD = 4;
+
+    private enum BatchOutcome {
+        VALID, INVALID, UNKNOWN_KEY
+    }
+
+    private static class BatchJob {
+        final AuditBatchSignature batch;
+        final List<String> hashes;
+
+        BatchJob(AuditBatchSignature batch, List<String> hashes) {
+            this.batch = batch;
+            this.hashes = hashes;
+        }
+    }
+
+    private final AuditLogRepository auditLogRepository;
+
+    private final AuditBatchSignatureRepository auditBatchSignatureRepository;
+
+    private final AuditChainService auditChainService;
+
+    private final RsaSignatureUtil rsaSignatureUtil;
+
+    private final AuditProperties auditProperties;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final ParallelExecutionService parallelExecutionService;
+
+    @Autowired
+    public AuditChainVerifier(AuditLogRepository auditLogRepository,
+                              AuditBatchSignatureRepository auditBatchSignatureRepository,
+                              AuditChainService auditChainService, RsaSignatureUtil rsaSignatureUtil,
+                              AuditProperties auditProperties, PlatformTransactionManager transactionManager,
+                              ParallelExecutionService parallelExecutionService) {
+        this.auditLogRepository = auditLogRepository;
+        this.auditBatchSignatureRepository = auditBatchSignatureRepository;
+        this.auditChainService = auditChainService;
+        this.rsaSignatureUtil = rsaSignatureUtil;
+        this.auditProperties = auditProperties;
+        this.transactionManager = transactionManager;
+        this.parallelExecutionService = parallelExecutionService;
+    }
+
+    public AuditChainVerificationDto verify() {
+        long start = System.currentTimeMillis();
+        List<AuditBatchSignature> batches = auditBatchSignatureRepository.findAllByOrderByFirstLogIdAsc();
+        Map<String, PublicKey> trustedKeys = auditChainService.getTrustedKeys();
+        PublicKey currentKey = auditChainService.getVerificationKey();
+        int parallelism = Math.max(1, auditProperties.getChain().getVerifyThreads());
+        int window = parallelism * BATCHES_PER_THREAD;
+        Long firstSignedId = batches.isEmpty() ? null : batches.get(0).getFirstLogId();
+
+        List<Long> hashMismatchIds = new ArrayList<>();
+        List<Long> brokenLinkIds = new ArrayList<>();
+        List<Long> unhashedRowIds = new ArrayList<>();
+        List<Long> unsignedRowIds = new ArrayList<>();
+        List<Long> incompleteBatchIds = new ArrayList<>();
+        List<Long> invalidBatchIds = new ArrayList<>();
+        List<Long> unknownKeyBatchIds = new ArrayList<>();
+        List<BatchJob> pending = new ArrayList<>(window);
+        long[] counters = new long[3]; // rows checked, unchained rows, batches verified
+        Long[] anchor = new Long[1];
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.execute(status -> {
+            int batchIndex = 0;
+            List<String> batchHashes = new ArrayList<>();
+            // The current batch started before the anchor, its first rows were archived
+            boolean batchArchived = false;
+            String expectedPrev = null;
+
+            try (Stream<AuditLog> rows = auditLogRepository.streamAllInChainOrder()) {
+                Iterator<AuditLog> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    AuditLog row = iterator.next();
+                    counters[0]++;
+
+                    if (row.getHash() == null) {
+                        // Only rows written before the chain was enabled may lack a hash; a row
+                        // inside the chain or a signed range had its hash removed
+                        if (anchor[0] == null && row.getPrevHash() == null
+                                && (firstSignedId == null || row.getId() < firstSignedId)) {
+                            counters[1]++;
+                        } else {
+                            addBounded(unhashedRowIds, row.getId());
+                        }
+                        continue;
+                    }
+                    if (anchor[0] == null) {
+                        anchor[0] = row.getId();
+                        // Batches that ended before the anchor were archived together with their rows
+                        while (batchIndex < batches.size() && batches.get(batchIndex).getLastLogId() < row.getId()) {
+                            batchIndex++;
+                        }
+                        batchArchived = batchIndex < batches.size()
+                                && batches.get(batchIndex).getFirstLogId() < row.getId();
+                    }
+                    if (!row.getHash().equals(AuditChainService.computeHash(row))) {
+                        addBounded(hashMismatchIds, row.getId());
+                    }
+                    if (expectedPrev != null && !expectedPrev.equals(row.getPrevHash())) {
+                        addBounded(brokenLinkIds, row.getId());
+                    }
+                    expectedPrev = row.getHash();
+
+                    // Close batches whose last row is missing
+                    while (batchIndex < batches.size() && batches.get(batchIndex).getLastLogId() < row.getId()) {
+                        if (!batchArchived) {
+                            addBounded(incompleteBatchIds, batches.get(batchIndex).getId());
+                        }
+                        batchArchived = false;
+                        batchHashes = new ArrayList<>();
+                        batchIndex++;
+                    }
+                    if (batchIndex >= batches.size()) {
+                        // Open tail, signed by the next batch
+                        continue;
+                    }
+                    AuditBatchSignature batch = batches.get(batchIndex);
+                    if (row.getId() < batch.getFirstLogId()) {
+                        addBounded(unsignedRowIds, row.getId());
+                        continue;
+                    }
+                    batchHashes.add(row.getHash());
+                    if (row.getId().equals(batch.getLastLogId())) {
+                        if (batchArchived) {
+                            // Partially archived, the remaining rows cannot rebuild the root
+                        } else if (batchHashes.size() == batch.getEventCount()) {
+                            pending.add(new BatchJob(batch, batchHashes));
+                            if (pending.size() >= window) {
+                                counters[2] += verifyWindow(pending, trustedKeys, currentKey, parallelism,
+                                        invalidBatchIds, unknownKeyBatchIds);
+                            }
+                        } else {
+                            addBounded(incompleteBatchIds, batch.getId());
+                        }
+                        batchArchived = false;
+                        batchHashes = new ArrayList<>();
+                        batchIndex++;
+                    }
+                }
+            }
+            // Signed batches whose last rows never arrived lost rows at the end of the table
+            if (anchor[0] != null) {
+                for (; batchIndex < batches.size(); batchIndex++) {
+                    if (!batchArchived) {
+                        addBounded(incompleteBatchIds, batches.get(batchIndex).getId());
+                    }
+                    batchArchived = false;
+                }
+            }
+            return null;
+        });
+        counters[2] += verifyWindow(pending, trustedKeys, currentKey, parallelism, invalidBatchIds,
+                unknownKeyBatchIds);
+
+        boolean valid = hashMismatchIds.isEmpty() && brokenLinkIds.isEmpty() && unhashedRowIds.isEmpty()
+                && unsignedRowIds.isEmpty() && incompleteBatchIds.isEmpty() && invalidBatchIds.isEmpty()
+                && unknownKeyBatchIds.isEmpty();
+        AuditChainVerificationDto report = AuditChainVerificationDto.builder()
+                .valid(valid)
+                .rowsChecked(counters[0])
+                .unchainedRows(counters[1])
+                .anchorId(anchor[0])
+                .hashMismatchIds(hashMismatchIds)
+                .brokenLinkIds(brokenLinkIds)
+                .unhashedRowIds(unhashedRowIds)
+                .unsignedRowIds(unsignedRowIds)
+                .batchesVerified(counters[2])
+                .invalidBatchIds(invalidBatchIds)
+                .unknownKeyBatchIds(unknownKeyBatchIds)
+                .incompleteBatchIds(incompleteBatchIds)
+                .elapsedMillis(System.currentTimeMillis() - start)
+                .build();
+        logger.info("Audit chain verification finished: valid={}, rows={}, batches={}", valid,
+                report.getRowsChecked(), report.getBatchesVerified());
+        return report;
+    }
+
+    /**
+     * Verify the collected batches on the shared pool and clear the window
+     * @return number of batches verified
+     */
+    private int verifyWindow(List<BatchJob> pending, Map<String, PublicKey> trustedKeys, PublicKey currentKey,
+            int parallelism, List<Long> invalidBatchIds, List<Long> unknownKeyBatchIds) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<BatchOutcome> outcomes = parallelExecutionService.map(pending,
+                job -> verifyBatch(job, trustedKeys, currentKey), parallelism);
+        for (int i = 0; i < outcomes.size(); i++) {
+            Long batchId = pending.get(i).batch.getId();
+            if (outcomes.get(i) == BatchOutcome.INVALID) {
+                addBounded(invalidBatchIds, batchId);
+            } else if (outcomes.get(i) == BatchOutcome.UNKNOWN_KEY) {
+                addBounded(unknownKeyBatchIds, batchId);
+            }
+        }
+        int verified = pending.size();
+        pending.clear();
+        return verified;
+    }
+
+    /**
+     * Rebuild the batch root and check its signature with the key it was signed with;
+     * batches without a fingerprint predate it and are checked with the current key
+     */
+    private BatchOutcome verifyBatch(BatchJob job, Map<String, PublicKey> trustedKeys, PublicKey currentKey) {
+        AuditBatchSignature batch = job.batch;
+        PublicKey publicKey = batch.getKeyFingerprint() == null
+                ? currentKey : trustedKeys.get(batch.getKeyFingerprint());
+        if (publicKey == null) {
+            return BatchOutcome.UNKNOWN_KEY;
+        }
+        List<byte[]> leaves = new ArrayList<>(job.hashes.size());
+        for (String hash : job.hashes) {
+            leaves.add(Hex.decode(hash));
+        }
+        byte[] root = MerkleTreeUtil.root(leaves);
+        if (!batch.getMerkleRoot().equals(new String(Hex.encode(root)))) {
+            return BatchOutcome.INVALID;
+        }
+        try {
+            return rsaSignatureUtil.verifyBytes(root, batch.getSignature(), publicKey)
+                    ? BatchOutcome.VALID : BatchOutcome.INVALID;
+        } catch (Exception e) {
+            throw new IllegalStateException("Audit batch " + batch.getId() + " verification failed", e);
+        }
+    }
+
+    private static void addBounded(List<Long> ids, Long id) {
+        if (ids.size() < MAX_REPORTED_IDS) {
+            ids.add(id);
+        }
+    }
+}
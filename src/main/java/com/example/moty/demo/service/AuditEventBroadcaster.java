@@ -0,0 +1,246 @@
+package com.example.moty.demo.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.moty.demo.config.AuditProperties;
+import com.example.moty.demo.enums.AuditTailDropPolicy;
+import com.example.moty.demo.model.dto.AuditLogDto;
+
+/**
+ * Fans audit events out to live SSE subscribers
+ * publish() never blocks: each subscriber has its own bounded buffer drained by a
+ * small sender pool, and a full buffer drops events according to audit.tail.drop-policy.
+ * Dropped events are coalesced into a single "dropped" event carrying the count,
+ * sent ahead of the next delivered event. A drain pass sends at most EVENTS_PER_DRAIN
+ * events and then requeues itself, so a busy subscriber cannot hold a sender thread
+ * while the others wait.
+ */
+@Service
+public class AuditEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditEventBroadcaster.class);
+
+    /**
+     * Events sent to one subscriber before its drain yields the sender thread
+     */
+    private static final int EVENTS_PER_DRAIN = 64;
+
+    private final AuditProperties auditProperties;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger subscriberIds = new AtomicInteger();
+
+    /**
+     * Free subscriber slots, reserved before a subscriber is added and released when it is removed
+     */
+    private Semaphore slots;
+
+    private ExecutorService senders;
+
+    @Autowired
+    public AuditEventBroadcaster(AuditProperties auditProperties) {
+        this.auditProperties = auditProperties;
+    }
+
+    @PostConstruct
+    public void init() {
+        slots = new Semaphore(auditProperties.getTail().getMaxSubscribers());
+        int threads = auditProperties.getTail().getSenderThreads();
+        AtomicInteger threadIds = new AtomicInteger();
+        // At most one pending drain task per subscriber, so the queue is bounded by max-subscribers
+        senders = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "AuditTail-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> {
+            remove(subscriber);
+            subscriber.emitter.complete();
+        });
+        senders.shutdownNow();
+    }
+
+    /**
+     * Register a new subscriber
+     *
+     * @return the emitter to return from the controller, or null when max-subscribers is reached
+     */
+    public SseEmitter subscribe(String name) {
+        AuditProperties.Tail config = auditProperties.getTail();
+        if (!slots.tryAcquire()) {
+            return null;
+        }
+        SseEmitter emitter = createEmitter(config.getTimeoutMillis());
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), name, emitter,
+                config.getBufferSize(), config.getDropPolicy());
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.add(subscriber);
+        logger.info("Audit tail subscriber {} ({}) connected", subscriber.id, name);
+        return emitter;
+    }
+
+    /**
+     * Offer an event to every subscriber without blocking the caller
+     */
+    public void publish(AuditLogDto event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+            subscriber.schedule();
+        }
+    }
+
+    /**
+     * Per-subscriber statistics, keyed by subscriber id
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Subscriber subscriber : subscribers) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", subscriber.name);
+            entry.put("buffered", subscriber.buffered());
+            entry.put("delivered", subscriber.delivered.get());
+            entry.put("dropped", subscriber.droppedTotal.get());
+            stats.put(String.valueOf(subscriber.id), entry);
+        }
+        return stats;
+    }
+
+    /**
+     * Emitter handed to a new subscriber
+     */
+    protected SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void remove(Subscriber subscriber) {
+        // Completion, timeout, error and a failed send may all report the same subscriber
+        if (subscribers.remove(subscriber)) {
+            slots.release();
+        }
+    }
+
+    private final class Subscriber {
+
+        private final int id;
+        private final String name;
+        private final SseEmitter emitter;
+        private final int capacity;
+        private final AuditTailDropPolicy dropPolicy;
+        private final ArrayDeque<AuditLogDto> buffer;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong droppedTotal = new AtomicLong();
+
+        /**
+         * Drops not yet reported to the client, guarded by buffer's monitor
+         */
+        private long droppedPending;
+
+        Subscriber(int id, String name, SseEmitter emitter, int capacity, AuditTailDropPolicy dropPolicy) {
+            this.id = id;
+            this.name = name;
+            this.emitter = emitter;
+            this.capacity = capacity;
+            this.dropPolicy = dropPolicy;
+            this.buffer = new ArrayDeque<>(capacity);
+        }
+
+        void offer(AuditLogDto event) {
+            synchronized (buffer) {
+                if (buffer.size() >= capacity) {
+                    droppedPending++;
+                    droppedTotal.incrementAndGet();
+                    if (dropPolicy == AuditTailDropPolicy.DROP_NEWEST) {
+                        return;
+                    }
+                    buffer.pollFirst();
+                }
+                buffer.addLast(event);
+            }
+        }
+
+        int buffered() {
+            synchronized (buffer) {
+                return buffer.size();
+            }
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        void drain() {
+            try {
+                for (int sent = 0; sent < EVENTS_PER_DRAIN; sent++) {
+                    AuditLogDto event;
+                    long dropped;
+                    synchronized (buffer) {
+                        event = buffer.pollFirst();
+                        dropped = droppedPending;
+                        droppedPending = 0;
+                    }
+                    if (dropped > 0) {
+                        emitter.send(SseEmitter.event().name("dropped").data(dropped));
+                    }
+                    if (event == null) {
+                        break;
+                    }
+                    emitter.send(SseEmitter.event().name("audit").id(String.valueOf(event.getId())).data(event));
+                    delivered.incrementAndGet();
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.info("Audit tail subscriber {} disconnected: {}", id, e.getMessage());
+                remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            // Events left after a full pass, or arriving between the last poll and clearing
+            // the flag, are sent by a new pass queued behind the other subscribers
+            if (buffered() > 0) {
+                schedule();
+            }
+        }
+    }
+}
@@ -3,21 +3,21 @@ package com.example.moty.demo.service;
 import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import com.example.moty.demo.annotation.DurableAsync;
 import com.example.moty.demo.model.po.AuditLog;
-import com.example.moty.demo.repo.AuditLogRepository;
+import com.example.moty.demo.service.sink.AuditSink;
 
 @Service
 public class AuditLogService {
 
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditSink auditSink;
 
-    @Async("taskExecutor")
+    @DurableAsync(executor = "auditExecutor")
     public CompletableFuture<Boolean> log(String action, String details) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth != null ? auth.getName() : "anonymous";
@@ -27,7 +27,8 @@ public class AuditLogService {
         log.setAction(action);
         log.setDetails(details);
 
-        auditLogRepository.save(log);
+        // The sink that stores the row publishes it to the live tail
+        auditSink.write(log);
         return CompletableFuture.completedFuture(true);
     }
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.example.moty.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.moty.demo.config.AuditProperties;
+import com.example.moty.demo.model.dto.AuditLogDto;
+import com.example.moty.demo.model.dto.AuditLogPageDto;
+import com.example.moty.demo.model.po.AuditLog;
+
+/**
+ * Audit log query service
+ * Uses keyset (seek) pagination ordered by (createdAt DESC, id DESC): the cursor carries
+ * the last row's sort key, so each page is an index range scan instead of an OFFSET scan
+ */
+@Service
+public class AuditQueryService {
+
+    private static final String CURSOR_SEPARATOR = "|";
+
+    private final EntityManager entityManager;
+
+    private final AuditProperties auditProperties;
+
+    @Autowired
+    public AuditQueryService(EntityManager entityManager, AuditProperties auditProperties) {
+        this.entityManager = entityManager;
+        this.auditProperties = auditProperties;
+    }
+
+    /**
+     * Query audit logs
+     *
+     * @param username exact username filter, optional
+     * @param action exact action filter, optional
+     * @param from inclusive lower time bound, optional
+     * @param to exclusive upper time bound, optional
+     * @param cursor nextCursor of the previous page, optional
+     * @param size page size, optional
+     * @return one page of audit logs, newest first
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public AuditLogPageDto query(String username, String action, LocalDateTime from, LocalDateTime to,
+                                 String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AuditLog> cq = cb.createQuery(AuditLog.class);
+        Root<AuditLog> root = cq.from(AuditLog.class);
+        Path<LocalDateTime> createdAt = root.get("createdAt");
+        Path<Long> id = root.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (username != null && !username.isEmpty()) {
+            predicates.add(cb.equal(root.get("username"), username));
+        }
+        if (action != null && !action.isEmpty()) {
+            predicates.add(cb.equal(root.get("action"), action));
+        }
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(createdAt, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(createdAt, to));
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            CursorPosition position = decodeCursor(cursor);
+            // (createdAt, id) < (cursorTime, cursorId)
+            predicates.add(cb.or(
+                    cb.lessThan(createdAt, position.createdAt),
+                    cb.and(cb.equal(createdAt, position.createdAt), cb.lessThan(id, position.id))));
+        }
+
+        cq.select(root)
+          .where(predicates.toArray(new Predicate[0]))
+          .orderBy(cb.desc(createdAt), cb.desc(id));
+
+        // Fetch one extra row to know whether another page exists without a COUNT query
+        List<AuditLog> rows = entityManager.createQuery(cq)
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            AuditLog last = rows.get(rows.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+
+        return AuditLogPageDto.builder()
+                .items(rows.stream().map(AuditLogDto::from).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private int resolvePageSize(Integer size) {
+        AuditProperties.Query config = auditProperties.getQuery();
+        if (size == null || size <= 0) {
+            return config.getDefaultPageSize();
+        }
+        return Math.min(size, config.getMaxPageSize());
+    }
+
+    static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static CursorPosition decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(CURSOR_SEPARATOR);
+            return new CursorPosition(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    static final class CursorPosition {
+        final LocalDateTime createdAt;
+        final Long id;
+
+        CursorPosition(LocalDateTime createdAt, Long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.moty.demo.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.moty.demo.config.AuditProperties;
+import com.example.moty.demo.repo.AuditLogRepository;
+
+/**
+ * Audit log retention service
+ * When audit_log is partitioned by month, expired months are removed with DROP PARTITION
+ * (a metadata operation) and future months are pre-created. Otherwise expired rows are
+ * deleted in small batches, each in its own transaction, so no long table lock is held.
+ */
+@Service
+public class AuditRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditRetentionService.class);
+
+    private static final String TABLE_NAME = "audit_log";
+
+    private static final String MAX_PARTITION = "pmax";
+
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("'p'uuuuMM");
+
+    private final AuditLogRepository auditLogRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AuditProperties auditProperties;
+
+    @Autowired
+    public AuditRetentionService(AuditLogRepository auditLogRepository, JdbcTemplate jdbcTemplate,
+                                 AuditProperties auditProperties) {
+        this.auditLogRepository = auditLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditProperties = auditProperties;
+    }
+
+    @Scheduled(cron = "${audit.retention.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        if (!auditProperties.getRetention().isEnabled()) {
+            return;
+        }
+        try {
+            purge();
+        } catch (Exception e) {
+            logger.error("Audit retention purge failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Run one retention pass
+     *
+     * @return number of rows deleted by batched deletes (dropped partitions are not counted)
+     */
+    public long purge() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(auditProperties.getRetention().getDays()).atStartOfDay();
+        if (auditProperties.getPartitioning().isEnabled()) {
+            ensureFuturePartitions();
+            dropExpiredPartitions(cutoff);
+        }
+        // Rows of the partially expired month (or everything, when not partitioned)
+        return deleteInBatches(cutoff);
+    }
+
+    /**
+     * Delete rows older than cutoff in batches of audit.retention.batch-size
+     */
+    public long deleteInBatches(LocalDateTime cutoff) {
+        AuditProperties.Retention retention = auditProperties.getRetention();
+        long total = 0;
+        int deleted;
+        do {
+            deleted = auditLogRepository.deleteBatchOlderThan(cutoff, retention.getBatchSize());
+            total += deleted;
+            if (deleted > 0 && retention.getBatchPauseMillis() > 0) {
+                try {
+                    Thread.sleep(retention.getBatchPauseMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } while (deleted == retention.getBatchSize());
+
+        if (total > 0) {
+            logger.info("Audit retention deleted {} rows older than {}", total, cutoff);
+        }
+        return total;
+    }
+
+    /**
+     * Split the catch-all pmax partition so the next months each have their own partition
+     */
+    public void ensureFuturePartitions() {
+        List<String> partitions = listPartitions();
+        if (!partitions.contains(MAX_PARTITION)) {
+            logger.warn("audit_log is not partitioned, run db/audit_log_partitioning.sql first");
+            return;
+        }
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= auditProperties.getPartitioning().getMonthsAhead(); i++, month = month.plusMonths(1)) {
+            String name = month.format(PARTITION_FORMAT);
+            if (partitions.contains(name)) {
+                continue;
+            }
+            String upperBound = month.plusMonths(1).atDay(1).toString();
+            jdbcTemplate.execute("ALTER TABLE " + TABLE_NAME + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+                    + "PARTITION " + name + " VALUES LESS THAN ('" + upperBound + "'), "
+                    + "PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+            logger.info("Created audit_log partition {}", name);
+        }
+    }
+
+    /**
+     * Drop monthly partitions whose whole range is older than cutoff
+     */
+    public void dropExpiredPartitions(LocalDateTime cutoff) {
+        for (String name : listPartitions()) {
+            if (MAX_PARTITION.equals(name)) {
+                continue;
+            }
+            YearMonth month;
+            try {
+                month = YearMonth.parse(name, PARTITION_FORMAT);
+            } catch (RuntimeException e) {
+                logger.warn("Skipping unrecognised audit_log partition {}", name);
+                continue;
+            }
+            if (!month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE_NAME + " DROP PARTITION " + name);
+                logger.info("Dropped expired audit_log partition {}", name);
+            }
+        }
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                        + "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, TABLE_NAME);
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.moty.demo.service;
+
+import com.example.moty.demo.config.SignatureProperties;
+import com.example.moty.demo.executor.ParallelExecutionService;
+import com.example.moty.demo.model.dto.BatchSignatureResultDto;
+import com.example.moty.demo.model.vo.BatchSignatureItem;
+import com.example.moty.demo.model.vo.BatchSignatureRequest;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * 批次數字簽名服務類
+ * 同一批次共用一把密鑰，只解析一次；項目切成 signature.batch.chunk-size 大小的區塊，
+ * 每個區塊交給 ParallelExecutionService 分散到各核心，完成一個區塊就以 NDJSON 寫出一個區塊，
+ * 呼叫端不必等整批完成即可開始處理結果。單筆失敗只影響該筆結果。
+ */
+@Service
+public class BatchSignatureService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchSignatureService.class);
+
+    private final RsaSignatureUtil rsaSignatureUtil;
+
+    private final ParallelExecutionService parallelExecutionService;
+
+    private final SignatureProperties signatureProperties;
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public BatchSignatureService(RsaSignatureUtil rsaSignatureUtil, ParallelExecutionService parallelExecutionService,
+                                 SignatureProperties signatureProperties, ObjectMapper objectMapper) {
+        this.rsaSignatureUtil = rsaSignatureUtil;
+        this.parallelExecutionService = parallelExecutionService;
+        this.signatureProperties = signatureProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 批次簽名
+     *
+     * @param request 批次簽名請求
+     * @return 逐行寫出簽名結果的回應內容
+     * @throws IllegalArgumentException 請求不合法或私鑰無法解析時拋出
+     */
+    public StreamingResponseBody batchSign(BatchSignatureRequest request) {
+        List<BatchSignatureItem> items = checkItems(request);
+        if (isBlank(request.getPrivateKey())) {
+            throw new IllegalArgumentException("私鑰不能為空");
+        }
+        PrivateKey privateKey;
+        try {
+            privateKey = rsaSignatureUtil.stringToPrivateKey(request.getPrivateKey());
+        } catch (Exception e) {
+            throw new IllegalArgumentException("私鑰解析失敗: " + e.getMessage(), e);
+        }
+        return out -> stream("簽名", items, out, (index, item) -> signItem(index, item, privateKey));
+    }
+
+    /**
+     * 批次驗證
+     *
+     * @param request 批次驗證請求
+     * @return 逐行寫出驗證結果的回應內容
+     * @throws IllegalArgumentException 請求不合法或公鑰無法解析時拋出
+     */
+    public StreamingResponseBody batchVerify(BatchSignatureRequest request) {
+        List<BatchSignatureItem> items = checkItems(request);
+        if (isBlank(request.getPublicKey())) {
+            throw new IllegalArgumentException("公鑰不能為空");
+        }
+        PublicKey publicKey;
+        try {
+            publicKey = rsaSignatureUtil.stringToPublicKey(request.getPublicKey());
+        } catch (Exception e) {
+            throw new IllegalArgumentException("公鑰解析失敗: " + e.getMessage(), e);
+        }
+        return out -> stream("驗證", items, out, (index, item) -> verifyItem(index, item, publicKey));
+    }
+
+    /**
+     * 以單行 NDJSON 回傳整批失敗的原因
+     *
+     * @param message 錯誤訊息
+     * @return 回應內容
+     */
+    public StreamingResponseBody error(String message) {
+        return out -> writeLine(out, BatchSignatureResultDto.builder().success(false).message(message).build());
+    }
+
+    private List<BatchSignatureItem> checkItems(BatchSignatureRequest request) {
+        List<BatchSignatureItem> items = request.getItems();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("批次項目不能為空");
+        }
+        int maxItems = signatureProperties.getBatch().getMaxItems();
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("批次項目超過上限 " + maxItems);
+        }
+        return items;
+    }
+
+    private void stream(String operation, List<BatchSignatureItem> items, OutputStream out,
+                        BiFunction<Integer, BatchSignatureItem, BatchSignatureResultDto> handler) throws IOException {
+        long startedAt = System.nanoTime();
+        int chunkSize = Math.max(1, signatureProperties.getBatch().getChunkSize());
+        int failed = 0;
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            int to = Math.min(items.size(), from + chunkSize);
+            List<Integer> indexes = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                indexes.add(i);
+            }
+            List<BatchSignatureResultDto> results = parallelExecutionService.map(indexes,
+                    index -> handler.apply(index, items.get(index)));
+            for (BatchSignatureResultDto result : results) {
+                if (!result.isSuccess()) {
+                    failed++;
+                }
+                writeLine(out, result);
+            }
+            out.flush();
+        }
+        logger.info("批次{}完成，共 {} 筆，失敗 {} 筆，耗時 {} ms", operation, items.size(), failed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    private BatchSignatureResultDto signItem(int index, BatchSignatureItem item, PrivateKey privateKey) {
+        BatchSignatureResultDto.BatchSignatureResultDtoBuilder result = BatchSignatureResultDto.builder()
+                .index(index)
+                .id(item != null ? item.getId() : null);
+        if (item == null || item.getData() == null) {
+            return result.success(false).message("數據不能為空").build();
+        }
+        try {
+            String signature = rsaSignatureUtil.signBytes(item.getData().getBytes(StandardCharsets.UTF_8), privateKey);
+            return result.success(true).signature(signature).build();
+        } catch (Exception e) {
+            return result.success(false).message("數據簽名失敗: " + e.getMessage()).build();
+        }
+    }
+
+    private BatchSignatureResultDto verifyItem(int index, BatchSignatureItem item, PublicKey publicKey) {
+        BatchSignatureResultDto.BatchSignatureResultDtoBuilder result = BatchSignatureResultDto.builder()
+                .index(index)
+                .id(item != null ? item.getId() : null);
+        if (item == null || item.getData() == null) {
+            return result.success(false).message("數據不能為空").build();
+        }
+        if (isBlank(item.getSignature())) {
+            return result.success(false).message("簽名不能為空").build();
+        }
+        try {
+            boolean verified = rsaSignatureUtil.verifyBytes(item.getData().getBytes(StandardCharsets.UTF_8),
+                    item.getSignature(), publicKey);
+            return result.success(true).verified(verified).build();
+        } catch (Exception e) {
+            return result.success(false).message("簽名驗證失敗: " + e.getMessage()).build();
+        }
+    }
+
+    private void writeLine(OutputStream out, BatchSignatureResultDto result) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write('\n');
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.moty.demo.service;
+
+import com.example.moty.demo.config.SignatureProperties;
+import com.example.moty.demo.enums.SignatureAlgorithm;
+import com.example.moty.demo.model.dto.SignatureDto;
+import com.example.moty.demo.model.vo.FileSignatureRequest;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 伺服器本機檔案簽名服務類
+ * 對已存在於應用節點上的檔案 (例如匯出檔) 直接以記憶體映射簽名與驗證，不必再經 HTTP 上傳。
+ * 只允許存取 signature.files.base-dir 之下的檔案；簽名以 Base64 文字寫入同目錄的 &lt;檔名&gt;.sig。
+ */
+@Service
+public class FileSignatureService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSignatureService.class);
+
+    /**
+     * 分離式簽名檔的副檔名
+     */
+    public static final String SIGNATURE_SUFFIX = ".sig";
+
+    @Autowired
+    private RsaSignatureUtil rsaSignatureUtil;
+
+    @Autowired
+    private SignatureProperties signatureProperties;
+
+    /**
+     * 對本機檔案簽名並寫出分離式簽名檔
+     *
+     * @param request 檔案簽名請求
+     * @return 簽名結果
+     */
+    public SignatureDto signFile(FileSignatureRequest request) {
+        try {
+            if (isBlank(request.getPrivateKey())) {
+                return failure("私鑰不能為空");
+            }
+            SignatureAlgorithm algorithm = SignatureAlgorithm.of(request.getAlgorithm());
+            Path file = resolve(request.getPath());
+            PrivateKey privateKey = rsaSignatureUtil.stringToPrivateKey(request.getPrivateKey(), algorithm);
+
+            long startedAt = System.nanoTime();
+            String signature = rsaSignatureUtil.signFile(file, privateKey, algorithm);
+            Path signatureFile = signatureFileOf(file);
+            writeSignatureFile(signatureFile, signature);
+
+            logger.info("檔案簽名成功: {} ({} bytes)，耗時 {} ms", file, Files.size(file),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            return SignatureDto.builder()
+                    .success(true)
+                    .message("檔案簽名成功，簽名檔: " + baseDir().relativize(signatureFile))
+                    .signature(signature)
+                    .algorithm(algorithm.getId())
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return failure(e.getMessage());
+        } catch (Exception e) {
+            logger.error("檔案簽名失敗: {}", e.getMessage(), e);
+            return failure("檔案簽名失敗: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 驗證本機檔案的簽名
+     *
+     * @param request 檔案驗證請求，未提供簽名時讀取 &lt;檔名&gt;.sig
+     * @return 驗證結果
+     */
+    public SignatureDto verifyFile(FileSignatureRequest request) {
+        try {
+            if (isBlank(request.getPublicKey())) {
+                return failure("公鑰不能為空");
+            }
+            SignatureAlgorithm algorithm = SignatureAlgorithm.of(request.getAlgorithm());
+            Path file = resolve(request.getPath());
+            String signature = request.getSignature();
+            if (isBlank(signature)) {
+                Path signatureFile = signatureFileOf(file);
+                if (!Files.isRegularFile(signatureFile)) {
+                    return failure("簽名不能為空，且找不到簽名檔");
+                }
+                signature = new String(Files.readAllBytes(signatureFile), StandardCharsets.US_ASCII).trim();
+            }
+            PublicKey publicKey = rsaSignatureUtil.stringToPublicKey(request.getPublicKey(), algorithm);
+            boolean verified = rsaSignatureUtil.verifyFile(file, signature, publicKey, algorithm);
+
+            logger.info("檔案簽名驗證完成: {}，結果: {}", file, verified ? "有效" : "無效");
+            return SignatureDto.builder()
+                    .success(true)
+                    .message(verified ? "檔案簽名驗證成功" : "檔案簽名驗證失敗")
+                    .verified(verified)
+                    .algorithm(algorithm.getId())
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return failure(e.getMessage());
+        } catch (Exception e) {
+            logger.error("檔案簽名驗證失敗: {}", e.getMessage(), e);
+            return failure("檔案簽名驗證失敗: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 將相對路徑解析為 base-dir 之下的實際檔案，拒絕 ".."、絕對路徑與指向外部的符號連結
+     */
+    private Path resolve(String relativePath) throws IOException {
+        if (isBlank(relativePath)) {
+            throw new IllegalArgumentException("檔案路徑不能為空");
+        }
+        Path base = baseDir();
+        Path file = base.resolve(relativePath).normalize();
+        if (!file.startsWith(base) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("檔案不存在或不在允許的目錄內: " + relativePath);
+        }
+        Path real = file.toRealPath();
+        if (!real.startsWith(base.toRealPath())) {
+            throw new IllegalArgumentException("檔案不存在或不在允許的目錄內: " + relativePath);
+        }
+        return real;
+    }
+
+    private Path baseDir() {
+        return Paths.get(signatureProperties.getFiles().getBaseDir()).toAbsolutePath().normalize();
+    }
+
+    private static Path signatureFileOf(Path file) {
+        return file.resolveSibling(file.getFileName() + SIGNATURE_SUFFIX);
+    }
+
+    /**
+     * 先寫入暫存檔再原子替換，讀取端不會看到寫到一半的簽名檔
+     */
+    private static void writeSignatureFile(Path signatureFile, String signature) throws IOException {
+        Path temp = Files.createTempFile(signatureFile.getParent(), signatureFile.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, signature.getBytes(StandardCharsets.US_ASCII));
+            Files.move(temp, signatureFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static SignatureDto failure(String message) {
+        return SignatureDto.builder()
+                .success(false)
+                .message(message)
+                .build();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
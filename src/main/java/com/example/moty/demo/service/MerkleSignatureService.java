@@ -0,0 +1,225 @@
+package com.example.moty.demo.service;
+
+import com.example.moty.demo.config.SignatureProperties;
+import com.example.moty.demo.enums.SignatureAlgorithm;
+import com.example.moty.demo.model.dto.MerkleBatchSignatureDto;
+import com.example.moty.demo.model.dto.MerkleLeafProofDto;
+import com.example.moty.demo.model.dto.MerkleProofStepDto;
+import com.example.moty.demo.model.dto.SignatureDto;
+import com.example.moty.demo.model.vo.BatchSignatureItem;
+import com.example.moty.demo.model.vo.MerkleSignRequest;
+import com.example.moty.demo.model.vo.MerkleVerifyRequest;
+import com.example.moty.demo.util.MerkleTreeUtil;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.codec.Hex;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merkle 批次簽名服務類
+ * 對 N 筆數據建立 Merkle 樹，只簽署根一次，私鑰運算由 N 次降為 1 次；
+ * 每筆數據附上包含證明，驗證時以證明重算根，再驗證根的簽名。
+ * 同一批次的根簽名驗證走 RsaSignatureUtil.verifyBytesCached，啟用 signature.verify-cache 後
+ * 同批次其餘數據的驗證只需雜湊運算。
+ */
+@Service
+public class MerkleSignatureService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MerkleSignatureService.class);
+
+    // 實際簽署的內容為前綴加上根，避免根的簽名與一般 /sign 數據的簽名互相冒用
+    private static final byte[] ROOT_PREFIX = "merkle-root:".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private RsaSignatureUtil rsaSignatureUtil;
+
+    @Autowired
+    private SigningKeyService signingKeyService;
+
+    @Autowired
+    private SignatureProperties signatureProperties;
+
+    /**
+     * Merkle 批次簽名
+     *
+     * @param request 批次簽名請求
+     * @return 根、根的簽名與每筆數據的包含證明
+     */
+    public MerkleBatchSignatureDto sign(MerkleSignRequest request) {
+        try {
+            List<BatchSignatureItem> items = request.getItems();
+            if (items == null || items.isEmpty()) {
+                return failure("批次項目不能為空");
+            }
+            int maxItems = signatureProperties.getBatch().getMaxItems();
+            if (items.size() > maxItems) {
+                return failure("批次項目超過上限 " + maxItems);
+            }
+            if (isBlank(request.getKeyId()) && isBlank(request.getPrivateKey())) {
+                return failure("私鑰不能為空");
+            }
+
+            List<byte[]> leaves = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                BatchSignatureItem item = items.get(i);
+                if (item == null || item.getData() == null) {
+                    return failure("第 " + i + " 筆數據不能為空");
+                }
+                leaves.add(item.getData().getBytes(StandardCharsets.UTF_8));
+            }
+
+            SignatureAlgorithm algorithm;
+            PrivateKey privateKey;
+            if (!isBlank(request.getKeyId())) {
+                SigningKeyService.StoredKey key = signingKeyService.signingKey(request.getKeyId());
+                algorithm = key.algorithmFor(request.getAlgorithm());
+                privateKey = key.getPrivateKey();
+            } else {
+                algorithm = SignatureAlgorithm.of(request.getAlgorithm());
+                privateKey = rsaSignatureUtil.stringToPrivateKey(request.getPrivateKey(), algorithm);
+            }
+
+            long startedAt = System.nanoTime();
+            List<List<MerkleTreeUtil.ProofStep>> proofs = MerkleTreeUtil.proofs(leaves);
+            byte[] root = MerkleTreeUtil.rootFromProof(leaves.get(0), proofs.get(0));
+            String signature = rsaSignatureUtil.signBytes(rootMessage(root), privateKey, algorithm);
+
+            List<MerkleLeafProofDto> leafProofs = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                leafProofs.add(MerkleLeafProofDto.builder()
+                        .index(i)
+                        .id(items.get(i).getId())
+                        .proof(toDto(proofs.get(i)))
+                        .build());
+            }
+
+            logger.info("Merkle 批次簽名完成，共 {} 筆，演算法: {}，耗時 {} ms", items.size(), algorithm.getId(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            return MerkleBatchSignatureDto.builder()
+                    .success(true)
+                    .message("Merkle 批次簽名成功")
+                    .algorithm(algorithm.getId())
+                    .root(new String(Hex.encode(root)))
+                    .signature(signature)
+                    .leafCount(items.size())
+                    .leaves(leafProofs)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return failure(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Merkle 批次簽名失敗: {}", e.getMessage(), e);
+            return failure("Merkle 批次簽名失敗: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 驗證單筆數據的包含證明與根的簽名
+     *
+     * @param request 驗證請求
+     * @return 驗證結果
+     */
+    public SignatureDto verify(MerkleVerifyRequest request) {
+        try {
+            if (request.getData() == null) {
+                return verifyFailure("數據不能為空");
+            }
+            if (isBlank(request.getRoot()) || isBlank(request.getSignature())) {
+                return verifyFailure("Merkle 根與簽名不能為空");
+            }
+            if (isBlank(request.getKeyId()) && isBlank(request.getPublicKey())) {
+                return verifyFailure("公鑰不能為空");
+            }
+
+            SignatureAlgorithm algorithm;
+            PublicKey publicKey;
+            if (!isBlank(request.getKeyId())) {
+                SigningKeyService.StoredKey key = signingKeyService.verificationKey(request.getKeyId());
+                algorithm = key.algorithmFor(request.getAlgorithm());
+                publicKey = key.getPublicKey();
+            } else {
+                algorithm = SignatureAlgorithm.of(request.getAlgorithm());
+                publicKey = rsaSignatureUtil.stringToPublicKey(request.getPublicKey(), algorithm);
+            }
+
+            byte[] root = Hex.decode(request.getRoot());
+            List<MerkleTreeUtil.ProofStep> proof = new ArrayList<>();
+            if (request.getProof() != null) {
+                for (MerkleProofStepDto step : request.getProof()) {
+                    proof.add(new MerkleTreeUtil.ProofStep(Hex.decode(step.getHash()), step.isLeft()));
+                }
+            }
+
+            boolean verified;
+            String message;
+            byte[] computed = MerkleTreeUtil.rootFromProof(request.getData().getBytes(StandardCharsets.UTF_8), proof);
+            if (!MessageDigest.isEqual(computed, root)) {
+                verified = false;
+                message = "包含證明與 Merkle 根不符";
+            } else {
+                verified = rsaSignatureUtil.verifyBytesCached(rootMessage(root), request.getSignature(), publicKey,
+                        algorithm);
+                message = verified ? "Merkle 包含證明驗證成功" : "Merkle 根簽名驗證失敗";
+            }
+
+            logger.info("Merkle 包含證明驗證完成: {}", message);
+            return SignatureDto.builder()
+                    .success(true)
+                    .message(message)
+                    .signature(request.getSignature())
+                    .verified(verified)
+                    .algorithm(algorithm.getId())
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return verifyFailure(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Merkle 包含證明驗證失敗: {}", e.getMessage(), e);
+            return verifyFailure("Merkle 包含證明驗證失敗: " + e.getMessage());
+        }
+    }
+
+    private static byte[] rootMessage(byte[] root) {
+        byte[] message = new byte[ROOT_PREFIX.length + root.length];
+        System.arraycopy(ROOT_PREFIX, 0, message, 0, ROOT_PREFIX.length);
+        System.arraycopy(root, 0, message, ROOT_PREFIX.length, root.length);
+        return message;
+    }
+
+    private static List<MerkleProofStepDto> toDto(List<MerkleTreeUtil.ProofStep> proof) {
+        List<MerkleProofStepDto> steps = new ArrayList<>(proof.size());
+        for (MerkleTreeUtil.ProofStep step : proof) {
+            steps.add(MerkleProofStepDto.builder()
+                    .hash(new String(Hex.encode(step.getHash())))
+                    .left(step.isLeft())
+                    .build());
+        }
+        return steps;
+    }
+
+    private static MerkleBatchSignatureDto failure(String message) {
+        return MerkleBatchSignatureDto.builder()
+                .success(false)
+                .message(message)
+                .build();
+    }
+
+    private static SignatureDto verifyFailure(String message) {
+        return SignatureDto.builder()
+                .success(false)
+                .message(message)
+                .build();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.moty.demo.service;
 
+import com.example.moty.demo.enums.SignatureAlgorithm;
 import com.example.moty.demo.model.dto.SignatureDto;
 import com.example.moty.demo.model.vo.SignatureRequest;
 import com.example.moty.demo.util.RsaSignatureUtil;
@@ -8,6 +9,8 @@ import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyPair;
 import java.security.PrivateKey;
 import java.security.PublicKey;
@@ -24,23 +27,29 @@ public class SignatureService {
     @Autowired
     private RsaSignatureUtil rsaSignatureUtil;
     
+    @Autowired
+    private SigningKeyService signingKeyService;
+    
     /**
-     * 生成新的 RSA 密鑰對
+     * 生成新的密鑰對
      * 
+     * @param algorithm 簽名演算法，未指定時為 RSA
      * @return 包含公鑰和私鑰的響應
      */
-    public SignatureDto generateKeyPair() {
+    public SignatureDto generateKeyPair(String algorithm) {
         try {
-            KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+            SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.of(algorithm);
+            KeyPair keyPair = rsaSignatureUtil.generateKeyPair(signatureAlgorithm);
             String publicKeyString = rsaSignatureUtil.publicKeyToString(keyPair.getPublic());
             String privateKeyString = rsaSignatureUtil.privateKeyToString(keyPair.getPrivate());
             
-            logger.info("成功生成新的 RSA 密鑰對");
+            logger.info("成功生成新的 {} 密鑰對", signatureAlgorithm.getId());
             return SignatureDto.builder()
                     .success(true)
                     .message("密鑰對生成成功")
                     .publicKey(publicKeyString)
                     .privateKey(privateKeyString)
+                    .algorithm(signatureAlgorithm.getId())
                     .build();
         } catch (Exception e) {
             logger.error("生成密鑰對失敗: {}", e.getMessage(), e);
@@ -66,24 +75,36 @@ public class SignatureService {
                         .build();
             }
             
-            if (request.getPrivateKey() == null || request.getPrivateKey().trim().isEmpty()) {
+            if (isBlank(request.getKeyId()) && isBlank(request.getPrivateKey())) {
                 return SignatureDto.builder()
                         .success(false)
                         .message("私鑰不能為空")
                         .build();
             }
             
-            // 從字符串恢復私鑰
-            PrivateKey privateKey = rsaSignatureUtil.stringToPrivateKey(request.getPrivateKey());
+            SignatureAlgorithm algorithm;
+            PrivateKey privateKey;
+            if (!isBlank(request.getKeyId())) {
+                // 使用伺服器端密鑰
+                SigningKeyService.StoredKey key = signingKeyService.signingKey(request.getKeyId());
+                algorithm = key.algorithmFor(request.getAlgorithm());
+                privateKey = key.getPrivateKey();
+            } else {
+                algorithm = SignatureAlgorithm.of(request.getAlgorithm());
+                // 從字符串恢復私鑰
+                privateKey = rsaSignatureUtil.stringToPrivateKey(request.getPrivateKey(), algorithm);
+            }
             
             // 對數據進行簽名
-            String signature = rsaSignatureUtil.sign(request.getData(), privateKey);
+            String signature = rsaSignatureUtil.signBytes(request.getData().getBytes(StandardCharsets.UTF_8),
+                    privateKey, algorithm);
             
-            logger.info("數據簽名成功，數據長度: {} 字符", request.getData().length());
+            logger.info("數據簽名成功，演算法: {}，數據長度: {} 字符", algorithm.getId(), request.getData().length());
             return SignatureDto.builder()
                     .success(true)
                     .message("數據簽名成功")
                     .signature(signature)
+                    .algorithm(algorithm.getId())
                     .build();
         } catch (Exception e) {
             logger.error("數據簽名失敗: {}", e.getMessage(), e);
@@ -116,27 +137,39 @@ public class SignatureService {
                         .build();
             }
             
-            if (request.getPublicKey() == null || request.getPublicKey().trim().isEmpty()) {
+            if (isBlank(request.getKeyId()) && isBlank(request.getPublicKey())) {
                 return SignatureDto.builder()
                         .success(false)
                         .message("公鑰不能為空")
                         .build();
             }
             
-            // 從字符串恢復公鑰
-            PublicKey publicKey = rsaSignatureUtil.stringToPublicKey(request.getPublicKey());
+            SignatureAlgorithm algorithm;
+            PublicKey publicKey;
+            if (!isBlank(request.getKeyId())) {
+                // 使用伺服器端密鑰
+                SigningKeyService.StoredKey key = signingKeyService.verificationKey(request.getKeyId());
+                algorithm = key.algorithmFor(request.getAlgorithm());
+                publicKey = key.getPublicKey();
+            } else {
+                algorithm = SignatureAlgorithm.of(request.getAlgorithm());
+                // 從字符串恢復公鑰
+                publicKey = rsaSignatureUtil.stringToPublicKey(request.getPublicKey(), algorithm);
+            }
             
             // 驗證簽名
-            boolean isValid = rsaSignatureUtil.verify(request.getData(), request.getSignature(), publicKey);
+            boolean isValid = rsaSignatureUtil.verifyBytesCached(request.getData().getBytes(StandardCharsets.UTF_8),
+                    request.getSignature(), publicKey, algorithm);
             
             String message = isValid ? "簽名驗證成功" : "簽名驗證失敗";
-            logger.info("簽名驗證完成: {}", message);
+            logger.info("簽名驗證完成: {}，演算法: {}", message, algorithm.getId());
             
             return SignatureDto.builder()
                     .success(true)
                     .message(message)
                     .signature(request.getSignature())
                     .verified(isValid)
+                    .algorithm(algorithm.getId())
                     .build();
         } catch (Exception e) {
             logger.error("簽名驗證失敗: {}", e.getMessage(), e);
@@ -151,9 +184,10 @@ public class SignatureService {
      * 完整的簽名和驗證流程演示
      * 
      * @param data 要簽名的數據
+     * @param algorithm 簽名演算法，未指定時為 RSA
      * @return 完整的簽名和驗證結果
      */
-    public SignatureDto completeSignatureFlow(String data) {
+    public SignatureDto completeSignatureFlow(String data, String algorithm) {
         try {
             if (data == null || data.trim().isEmpty()) {
                 return SignatureDto.builder()
@@ -162,18 +196,21 @@ public class SignatureService {
                         .build();
             }
             
+            SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.of(algorithm);
+            byte[] dataBytes = data.getBytes(StandardCharsets.UTF_8);
+            
             // 1. 生成密鑰對
-            KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+            KeyPair keyPair = rsaSignatureUtil.generateKeyPair(signatureAlgorithm);
             String publicKeyString = rsaSignatureUtil.publicKeyToString(keyPair.getPublic());
             String privateKeyString = rsaSignatureUtil.privateKeyToString(keyPair.getPrivate());
             
             // 2. 對數據進行簽名
-            String signature = rsaSignatureUtil.sign(data, keyPair.getPrivate());
+            String signature = rsaSignatureUtil.signBytes(dataBytes, keyPair.getPrivate(), signatureAlgorithm);
             
             // 3. 驗證簽名
-            boolean isValid = rsaSignatureUtil.verify(data, signature, keyPair.getPublic());
+            boolean isValid = rsaSignatureUtil.verifyBytes(dataBytes, signature, keyPair.getPublic(), signatureAlgorithm);
             
-            logger.info("完整簽名流程執行成功，驗證結果: {}", isValid);
+            logger.info("完整簽名流程執行成功，演算法: {}，驗證結果: {}", signatureAlgorithm.getId(), isValid);
             
             return SignatureDto.builder()
                     .success(true)
@@ -182,6 +219,7 @@ public class SignatureService {
                     .privateKey(privateKeyString)
                     .signature(signature)
                     .verified(isValid)
+                    .algorithm(signatureAlgorithm.getId())
                     .build();
         } catch (Exception e) {
             logger.error("完整簽名流程執行失敗: {}", e.getMessage(), e);
@@ -197,9 +235,10 @@ public class SignatureService {
      * 
      * @param data 字節數組數據
      * @param privateKeyString 私鑰字符串
+     * @param algorithm 簽名演算法，未指定時為 RSA
      * @return 簽名結果
      */
-    public SignatureDto signBytes(byte[] data, String privateKeyString) {
+    public SignatureDto signBytes(byte[] data, String privateKeyString, String algorithm) {
         try {
             if (data == null || data.length == 0) {
                 return SignatureDto.builder()
@@ -215,14 +254,16 @@ public class SignatureService {
                         .build();
             }
             
-            PrivateKey privateKey = rsaSignatureUtil.stringToPrivateKey(privateKeyString);
-            String signature = rsaSignatureUtil.signBytes(data, privateKey);
+            SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.of(algorithm);
+            PrivateKey privateKey = rsaSignatureUtil.stringToPrivateKey(privateKeyString, signatureAlgorithm);
+            String signature = rsaSignatureUtil.signBytes(data, privateKey, signatureAlgorithm);
             
-            logger.info("字節數組簽名成功，數據長度: {} 字節", data.length);
+            logger.info("字節數組簽名成功，演算法: {}，數據長度: {} 字節", signatureAlgorithm.getId(), data.length);
             return SignatureDto.builder()
                     .success(true)
                     .message("字節數組簽名成功")
                     .signature(signature)
+                    .algorithm(signatureAlgorithm.getId())
                     .build();
         } catch (Exception e) {
             logger.error("字節數組簽名失敗: {}", e.getMessage(), e);
@@ -239,9 +280,10 @@ public class SignatureService {
      * @param data 字節數組數據
      * @param signature 簽名
      * @param publicKeyString 公鑰字符串
+     * @param algorithm 簽名演算法，未指定時為 RSA
      * @return 驗證結果
      */
-    public SignatureDto verifyBytes(byte[] data, String signature, String publicKeyString) {
+    public SignatureDto verifyBytes(byte[] data, String signature, String publicKeyString, String algorithm) {
         try {
             if (data == null || data.length == 0) {
                 return SignatureDto.builder()
@@ -264,17 +306,19 @@ public class SignatureService {
                         .build();
             }
             
-            PublicKey publicKey = rsaSignatureUtil.stringToPublicKey(publicKeyString);
-            boolean isValid = rsaSignatureUtil.verifyBytes(data, signature, publicKey);
+            SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.of(algorithm);
+            PublicKey publicKey = rsaSignatureUtil.stringToPublicKey(publicKeyString, signatureAlgorithm);
+            boolean isValid = rsaSignatureUtil.verifyBytesCached(data, signature, publicKey, signatureAlgorithm);
             
             String message = isValid ? "字節數組簽名驗證成功" : "字節數組簽名驗證失敗";
-            logger.info("字節數組簽名驗證完成: {}", message);
+            logger.info("字節數組簽名驗證完成: {}，演算法: {}", message, signatureAlgorithm.getId());
             
             return SignatureDto.builder()
                     .success(true)
                     .message(message)
                     .signature(signature)
                     .verified(isValid)
+                    .algorithm(signatureAlgorithm.getId())
                     .build();
         } catch (Exception e) {
             logger.error("字節數組簽名驗證失敗: {}", e.getMessage(), e);
@@ -284,4 +328,93 @@ public class SignatureService {
                     .build();
         }
     }
+    
+    /**
+     * 對串流資料進行簽名
+     * 
+     * @param in 資料串流
+     * @param privateKeyString 私鑰字符串
+     * @param algorithm 簽名演算法，未指定時為 RSA
+     * @return 簽名結果
+     */
+    public SignatureDto signStream(InputStream in, String privateKeyString, String algorithm) {
+        try {
+            if (privateKeyString == null || privateKeyString.trim().isEmpty()) {
+                return SignatureDto.builder()
+                        .success(false)
+                        .message("私鑰不能為空")
+                        .build();
+            }
+            
+            SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.of(algorithm);
+            PrivateKey privateKey = rsaSignatureUtil.stringToPrivateKey(privateKeyString, signatureAlgorithm);
+            String signature = rsaSignatureUtil.signStream(in, privateKey, signatureAlgorithm);
+            
+            logger.info("串流簽名成功，演算法: {}", signatureAlgorithm.getId());
+            return SignatureDto.builder()
+                    .success(true)
+                    .message("串流簽名成功")
+                    .signature(signature)
+                    .algorithm(signatureAlgorithm.getId())
+                    .build();
+        } catch (Exception e) {
+            logger.error("串流簽名失敗: {}", e.getMessage(), e);
+            return SignatureDto.builder()
+                    .success(false)
+                    .message("串流簽名失敗: " + e.getMessage())
+                    .build();
+        }
+    }
+    
+    /**
+     * 驗證串流資料的簽名
+     * 
+     * @param in 資料串流
+     * @param signature 簽名
+     * @param publicKeyString 公鑰字符串
+     * @param algorithm 簽名演算法，未指定時為 RSA
+     * @return 驗證結果
+     */
+    public SignatureDto verifyStream(InputStream in, String signature, String publicKeyString, String algorithm) {
+        try {
+            if (signature == null || signature.trim().isEmpty()) {
+                return SignatureDto.builder()
+                        .success(false)
+                        .message("簽名不能為空")
+                        .build();
+            }
+            
+            if (publicKeyString == null || publicKeyString.trim().isEmpty()) {
+                return SignatureDto.builder()
+                        .success(false)
+                        .message("公鑰不能為空")
+                        .build();
+            }
+            
+            SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.of(algorithm);
+            PublicKey publicKey = rsaSignatureUtil.stringToPublicKey(publicKeyString, signatureAlgorithm);
+            boolean isValid = rsaSignatureUtil.verifyStream(in, signature, publicKey, signatureAlgorithm);
+            
+            String message = isValid ? "串流簽名驗證成功" : "串流簽名驗證失敗";
+            logger.info("串流簽名驗證完成: {}，演算法: {}", message, signatureAlgorithm.getId());
+            
+            return SignatureDto.builder()
+                    .success(true)
+                    .message(message)
+                    .signature(signature)
+                    .verified(isValid)
+                    .algorithm(signatureAlgorithm.getId())
+                    .build();
+        } catch (Exception e) {
+            logger.error("串流簽名驗證失敗: {}", e.getMessage(), e);
+            return SignatureDto.builder()
+                    .success(false)
+                    .message("串流簽名驗證失敗: " + e.getMessage())
+                    .build();
+        }
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
 }
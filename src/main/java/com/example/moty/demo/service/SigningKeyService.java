@@ -0,0 +1,362 @@
+package com.example.moty.demo.service;
+
+import com.example.moty.demo.config.SignatureProperties;
+import com.example.moty.demo.enums.SignatureAlgorithm;
+import com.example.moty.demo.model.dto.SigningKeyDto;
+import com.example.moty.demo.model.po.SigningKey;
+import com.example.moty.demo.model.vo.SigningKeyImportRequest;
+import com.example.moty.demo.repo.SigningKeyRepository;
+import com.example.moty.demo.util.PrivateKeyCipher;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 伺服器端密鑰管理服務類
+ * 密鑰生成或匯入一次後以 keyId 引用，簽名與驗證請求不必再傳送完整密鑰。
+ * 密鑰保存在 signing_key 資料表，私鑰以 signature.key-store.encryption-key 做 AES-GCM
+ * 加密；解析後的密鑰物件依 keyId 快取，同一 keyId 取得同一個物件，簽名引擎池可直接
+ * 重用已初始化的引擎，超過 cache-ttl-millis 會重新確認資料列，其他節點的刪除因此生效。
+ * 私鑰只能由建立者使用，且不會經由 API 回傳；公鑰可供任何使用者驗證。
+ */
+@Service
+public class SigningKeyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigningKeyService.class);
+
+    private final SigningKeyRepository signingKeyRepository;
+
+    private final RsaSignatureUtil rsaSignatureUtil;
+
+    private final SignatureProperties signatureProperties;
+
+    /**
+     * 未設定 encryption-key 時為 null
+     */
+    private final PrivateKeyCipher privateKeyCipher;
+
+    private final ConcurrentMap<String, CachedKey> resolved = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SigningKeyService(SigningKeyRepository signingKeyRepository, RsaSignatureUtil rsaSignatureUtil,
+                             SignatureProperties signatureProperties) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.rsaSignatureUtil = rsaSignatureUtil;
+        this.signatureProperties = signatureProperties;
+        String encryptionKey = signatureProperties.getKeyStore().getEncryptionKey();
+        if (!isBlank(encryptionKey)) {
+            privateKeyCipher = new PrivateKeyCipher(Base64.getDecoder().decode(encryptionKey.trim()));
+        } else {
+            privateKeyCipher = null;
+            if (signatureProperties.getKeyStore().isAllowPlaintextPrivateKeys()) {
+                logger.warn("signature.key-store.encryption-key 未設定，私鑰將以明文保存");
+            }
+        }
+    }
+
+    /**
+     * 在伺服器端生成密鑰對並登記
+     *
+     * @param algorithm 簽名演算法，未指定時為 RSA
+     * @return 新密鑰的 keyId 與公鑰
+     */
+    public SigningKeyDto generate(String algorithm) {
+        try {
+            SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.of(algorithm);
+            checkPrivateKeyStorable();
+            checkQuota();
+            KeyPair keyPair = rsaSignatureUtil.generateKeyPair(signatureAlgorithm);
+            SigningKey key = save(signatureAlgorithm, keyPair.getPublic(), keyPair.getPrivate());
+
+            logger.info("使用者 {} 生成 {} 密鑰: {}", key.getOwner(), signatureAlgorithm.getId(), key.getKeyId());
+            return toDto(key, "密鑰生成成功");
+        } catch (IllegalArgumentException e) {
+            return failure(e.getMessage());
+        } catch (Exception e) {
+            logger.error("生成密鑰失敗: {}", e.getMessage(), e);
+            return failure("生成密鑰失敗: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 匯入既有密鑰並登記，同時提供公私鑰時會確認兩者成對
+     *
+     * @param request 匯入請求
+     * @return 密鑰的 keyId 與公鑰
+     */
+    public SigningKeyDto importKey(SigningKeyImportRequest request) {
+        try {
+            if (isBlank(request.getPublicKey())) {
+                return failure("公鑰不能為空");
+            }
+            SignatureAlgorithm algorithm = SignatureAlgorithm.of(request.getAlgorithm());
+            checkQuota();
+            PublicKey publicKey = rsaSignatureUtil.stringToPublicKey(request.getPublicKey(), algorithm);
+            PrivateKey privateKey = null;
+            if (!isBlank(request.getPrivateKey())) {
+                checkPrivateKeyStorable();
+                privateKey = rsaSignatureUtil.stringToPrivateKey(request.getPrivateKey(), algorithm);
+                byte[] probe = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+                String signature = rsaSignatureUtil.signBytes(probe, privateKey, algorithm);
+                if (!rsaSignatureUtil.verifyBytes(probe, signature, publicKey, algorithm)) {
+                    return failure("公鑰與私鑰不成對");
+                }
+            }
+            SigningKey key = save(algorithm, publicKey, privateKey);
+
+            logger.info("使用者 {} 匯入 {} 密鑰: {}", key.getOwner(), algorithm.getId(), key.getKeyId());
+            return toDto(key, "密鑰匯入成功");
+        } catch (IllegalArgumentException e) {
+            return failure(e.getMessage());
+        } catch (Exception e) {
+            logger.error("匯入密鑰失敗: {}", e.getMessage(), e);
+            return failure("匯入密鑰失敗: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 列出目前使用者的密鑰
+     *
+     * @return 密鑰清單，新建立的在前
+     */
+    public List<SigningKeyDto> list() {
+        List<SigningKeyDto> keys = new ArrayList<>();
+        for (SigningKey key : signingKeyRepository.findByOwnerOrderByCreatedAtDesc(currentUsername())) {
+            keys.add(toDto(key, null));
+        }
+        return keys;
+    }
+
+    /**
+     * 刪除目前使用者的密鑰
+     *
+     * @param keyId 密鑰 ID
+     * @return 刪除結果
+     */
+    public SigningKeyDto delete(String keyId) {
+        SigningKey key = signingKeyRepository.findByKeyId(keyId);
+        if (key == null || !key.getOwner().equals(currentUsername())) {
+            return failure("找不到密鑰: " + keyId);
+        }
+        signingKeyRepository.delete(key);
+        resolved.remove(keyId);
+        logger.info("使用者 {} 刪除密鑰: {}", key.getOwner(), keyId);
+        return SigningKeyDto.builder()
+                .success(true)
+                .message("密鑰已刪除")
+                .keyId(keyId)
+                .build();
+    }
+
+    /**
+     * 取得可簽名的密鑰，只有建立者可使用
+     *
+     * @param keyId 密鑰 ID
+     * @return 已解析的密鑰
+     * @throws IllegalArgumentException 密鑰不存在、不屬於目前使用者或沒有私鑰時拋出
+     */
+    public StoredKey signingKey(String keyId) throws Exception {
+        StoredKey key = resolve(keyId);
+        if (!key.getOwner().equals(currentUsername())) {
+            throw new IllegalArgumentException("找不到密鑰: " + keyId);
+        }
+        if (key.getPrivateKey() == null) {
+            throw new IllegalArgumentException("密鑰 " + keyId + " 僅有公鑰，無法簽名");
+        }
+        return key;
+    }
+
+    /**
+     * 取得驗證用的密鑰
+     *
+     * @param keyId 密鑰 ID
+     * @return 已解析的密鑰
+     * @throws IllegalArgumentException 密鑰不存在時拋出
+     */
+    public StoredKey verificationKey(String keyId) throws Exception {
+        return resolve(keyId);
+    }
+
+    private StoredKey resolve(String keyId) throws Exception {
+        CachedKey cached = resolved.get(keyId);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.checkedAt < signatureProperties.getKeyStore().getCacheTtlMillis()) {
+            return cached.key;
+        }
+        SigningKey entity = signingKeyRepository.findByKeyId(keyId);
+        if (entity == null) {
+            resolved.remove(keyId);
+            throw new IllegalArgumentException("找不到密鑰: " + keyId);
+        }
+        if (cached != null) {
+            // 密鑰內容不會變更，資料列仍在就沿用同一個物件
+            resolved.put(keyId, new CachedKey(cached.key, now));
+            return cached.key;
+        }
+        SignatureAlgorithm algorithm = SignatureAlgorithm.of(entity.getAlgorithm());
+        PublicKey publicKey = rsaSignatureUtil.stringToPublicKey(entity.getPublicKey(), algorithm);
+        PrivateKey privateKey = entity.getPrivateKey() != null
+                ? rsaSignatureUtil.stringToPrivateKey(readPrivateKey(entity), algorithm) : null;
+        StoredKey loaded = new StoredKey(keyId, algorithm, entity.getOwner(), publicKey, privateKey);
+        CachedKey existing = resolved.putIfAbsent(keyId, new CachedKey(loaded, now));
+        return existing != null ? existing.key : loaded;
+    }
+
+    private SigningKey save(SignatureAlgorithm algorithm, PublicKey publicKey, PrivateKey privateKey)
+            throws Exception {
+        SigningKey key = new SigningKey();
+        key.setKeyId(UUID.randomUUID().toString());
+        key.setAlgorithm(algorithm.getId());
+        key.setPublicKey(rsaSignatureUtil.publicKeyToString(publicKey));
+        if (privateKey != null) {
+            String encoded = rsaSignatureUtil.privateKeyToString(privateKey);
+            key.setPrivateKey(privateKeyCipher != null ? privateKeyCipher.encrypt(encoded, key.getKeyId()) : encoded);
+        }
+        key.setOwner(currentUsername());
+        SigningKey saved = signingKeyRepository.save(key);
+
+        // 先寫入再計數，並行的請求最多一起失敗，不會超過上限
+        int maxKeys = signatureProperties.getKeyStore().getMaxKeysPerUser();
+        if (signingKeyRepository.countByOwner(saved.getOwner()) > maxKeys) {
+            signingKeyRepository.delete(saved);
+            throw new IllegalArgumentException("每位使用者最多保存 " + maxKeys + " 把密鑰");
+        }
+        resolved.put(saved.getKeyId(), new CachedKey(
+                new StoredKey(saved.getKeyId(), algorithm, saved.getOwner(), publicKey, privateKey),
+                System.currentTimeMillis()));
+        return saved;
+    }
+
+    private String readPrivateKey(SigningKey entity) throws Exception {
+        if (!PrivateKeyCipher.isEncrypted(entity.getPrivateKey())) {
+            // 明文保存的舊資料列
+            return entity.getPrivateKey();
+        }
+        if (privateKeyCipher == null) {
+            throw new IllegalStateException("未設定 signature.key-store.encryption-key，無法解密密鑰 " + entity.getKeyId());
+        }
+        return privateKeyCipher.decrypt(entity.getPrivateKey(), entity.getKeyId());
+    }
+
+    private void checkPrivateKeyStorable() {
+        if (privateKeyCipher == null && !signatureProperties.getKeyStore().isAllowPlaintextPrivateKeys()) {
+            throw new IllegalArgumentException("伺服器未設定私鑰加密金鑰，無法保存私鑰");
+        }
+    }
+
+    private void checkQuota() {
+        int maxKeys = signatureProperties.getKeyStore().getMaxKeysPerUser();
+        if (signingKeyRepository.countByOwner(currentUsername()) >= maxKeys) {
+            throw new IllegalArgumentException("每位使用者最多保存 " + maxKeys + " 把密鑰");
+        }
+    }
+
+    private static SigningKeyDto toDto(SigningKey key, String message) {
+        return SigningKeyDto.builder()
+                .success(true)
+                .message(message)
+                .keyId(key.getKeyId())
+                .algorithm(key.getAlgorithm())
+                .publicKey(key.getPublicKey())
+                .canSign(key.getPrivateKey() != null)
+                .owner(key.getOwner())
+                .createdAt(key.getCreatedAt())
+                .build();
+    }
+
+    private static SigningKeyDto failure(String message) {
+        return SigningKeyDto.builder()
+                .success(false)
+                .message(message)
+                .build();
+    }
+
+    private static String currentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : "anonymous";
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static final class CachedKey {
+
+        private final StoredKey key;
+        private final long checkedAt;
+
+        CachedKey(StoredKey key, long checkedAt) {
+            this.key = key;
+            this.checkedAt = checkedAt;
+        }
+    }
+
+    /**
+     * 已解析、可直接用於簽名或驗證的伺服器端密鑰
+     */
+    public static final class StoredKey {
+
+        private final String keyId;
+        private final SignatureAlgorithm algorithm;
+        private final String owner;
+        private final PublicKey publicKey;
+        private final PrivateKey privateKey;
+
+        StoredKey(String keyId, SignatureAlgorithm algorithm, String owner, PublicKey publicKey, PrivateKey privateKey) {
+            this.keyId = keyId;
+            this.algorithm = algorithm;
+            this.owner = owner;
+            this.publicKey = publicKey;
+            this.privateKey = privateKey;
+        }
+
+        public String getKeyId() {
+            return keyId;
+        }
+
+        public SignatureAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public PublicKey getPublicKey() {
+            return publicKey;
+        }
+
+        public PrivateKey getPrivateKey() {
+            return privateKey;
+        }
+
+        /**
+         * 以密鑰登記的演算法為準，請求另外指定的演算法必須相同
+         *
+         * @param requested 請求指定的演算法，可為空
+         * @return 密鑰的演算法
+         * @throws IllegalArgumentException 指定的演算法與密鑰不符時拋出
+         */
+        public SignatureAlgorithm algorithmFor(String requested) {
+            if (requested != null && !requested.trim().isEmpty() && SignatureAlgorithm.of(requested) != algorithm) {
+                throw new IllegalArgumentException("密鑰 " + keyId + " 的演算法為 " + algorithm.getId());
+            }
+            return algorithm;
+        }
+    }
+}
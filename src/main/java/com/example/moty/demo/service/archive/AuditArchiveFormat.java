@@ -0,0 +1,101 @@
+package com.example.moty.demo.service.archive;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Audit archive segment format
+ *
+ * <pre>
+ * header (uncompressed):
+ *   int   MAGIC
+ *   int   row count
+ *   long  min createdAt (epoch micros, UTC)
+ *   long  max createdAt (epoch micros, UTC)
+ *   long  min id
+ *   long  max id
+ * body (deflate compressed, one column after another):
+ *   createdAt  zigzag varint deltas, rows arrive sorted by (createdAt, id) so deltas stay small
+ *   id         zigzag varint deltas
+ *   username   dictionary (varint size, strings) followed by one varint code per row
+ *   action     dictionary (varint size, strings) followed by one varint code per row
+ *   details    varint (length + 1) per row, 0 meaning null, followed by UTF-8 bytes
+ * </pre>
+ *
+ * Dictionary code 0 is reserved for null.
+ */
+final class AuditArchiveFormat {
+
+    static final int MAGIC = 0x41434131; // "ACA1"
+
+    static final String SEGMENT_SUFFIX = ".aca";
+
+    private AuditArchiveFormat() {
+    }
+
+    static long toEpochMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated varint");
+            }
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static void writeZigZag(DataOutputStream out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long readZigZag(DataInputStream in) throws IOException {
+        long raw = readVarLong(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int length = (int) readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.moty.demo.service.archive;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.zip.InflaterInputStream;
+
+import com.example.moty.demo.model.dto.AuditLogDto;
+
+/**
+ * Scans a single archive segment
+ * Filters on username/action are resolved against the segment dictionaries first,
+ * so segments that never saw the value are skipped without decoding the details column.
+ */
+public class AuditArchiveReader {
+
+    private AuditArchiveReader() {
+    }
+
+    /**
+     * Append rows matching the filter to results until it holds limit rows
+     *
+     * @param segmentFile segment file
+     * @param username exact username filter, null for any
+     * @param action exact action filter, null for any
+     * @param fromMicros inclusive lower bound in epoch micros
+     * @param toMicros exclusive upper bound in epoch micros
+     * @param limit maximum size of results
+     * @param results output list
+     */
+    public static void scan(Path segmentFile, String username, String action, long fromMicros, long toMicros,
+                            int limit, List<AuditLogDto> results) throws IOException {
+        try (InputStream raw = Files.newInputStream(segmentFile)) {
+            DataInputStream header = new DataInputStream(raw);
+            if (header.readInt() != AuditArchiveFormat.MAGIC) {
+                throw new IOException("Not an audit archive segment: " + segmentFile);
+            }
+            int rows = header.readInt();
+            long minTime = header.readLong();
+            long maxTime = header.readLong();
+            header.readLong();
+            header.readLong();
+            if (maxTime < fromMicros || minTime >= toMicros) {
+                return;
+            }
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(raw), 64 * 1024));
+            long[] createdAt = new long[rows];
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                previous += AuditArchiveFormat.readZigZag(in);
+                createdAt[i] = previous;
+            }
+            long[] ids = new long[rows];
+            previous = 0;
+            for (int i = 0; i < rows; i++) {
+                previous += AuditArchiveFormat.readZigZag(in);
+                ids[i] = previous;
+            }
+
+            String[] usernames = readDictionary(in);
+            int usernameFilter = resolve(usernames, username);
+            if (usernameFilter < 0) {
+                return;
+            }
+            int[] usernameCodes = readCodes(in, rows);
+
+            String[] actions = readDictionary(in);
+            int actionFilter = resolve(actions, action);
+            if (actionFilter < 0) {
+                return;
+            }
+            int[] actionCodes = readCodes(in, rows);
+
+            IntPredicate matches = i -> createdAt[i] >= fromMicros && createdAt[i] < toMicros
+                    && (usernameFilter == 0 || usernameCodes[i] == usernameFilter)
+                    && (actionFilter == 0 || actionCodes[i] == actionFilter);
+
+            for (int i = 0; i < rows && results.size() < limit; i++) {
+                String details = AuditArchiveFormat.readString(in);
+                if (matches.test(i)) {
+                    results.add(AuditLogDto.builder()
+                            .id(ids[i])
+                            .username(usernames[usernameCodes[i]])
+                            .action(actions[actionCodes[i]])
+                            .details(details)
+                            .createdAt(AuditArchiveFormat.fromEpochMicros(createdAt[i]))
+                            .build());
+                }
+            }
+        }
+    }
+
+    private static String[] readDictionary(DataInputStream in) throws IOException {
+        int size = (int) AuditArchiveFormat.readVarLong(in);
+        String[] dictionary = new String[size + 1];
+        for (int i = 1; i <= size; i++) {
+            dictionary[i] = AuditArchiveFormat.readString(in);
+        }
+        return dictionary;
+    }
+
+    private static int[] readCodes(DataInputStream in, int rows) throws IOException {
+        int[] codes = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            codes[i] = (int) AuditArchiveFormat.readVarLong(in);
+        }
+        return codes;
+    }
+
+    /**
+     * @return 0 when there is no filter, the dictionary code when found, -1 when the value is absent
+     */
+    private static int resolve(String[] dictionary, String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        for (int i = 1; i < dictionary.length; i++) {
+            if (value.equals(dictionary[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
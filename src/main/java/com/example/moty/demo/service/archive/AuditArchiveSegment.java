@@ -0,0 +1,39 @@
+package com.example.moty.demo.service.archive;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Archive index entry describing one segment file
+ */
+@Getter
+@AllArgsConstructor
+public class AuditArchiveSegment {
+
+    private static final String SEPARATOR = "\t";
+
+    private final String fileName;
+    private final int rows;
+    private final long minTime;
+    private final long maxTime;
+    private final long minId;
+    private final long maxId;
+
+    /**
+     * Whether this segment may contain rows in [fromMicros, toMicros)
+     */
+    public boolean overlaps(long fromMicros, long toMicros) {
+        return maxTime >= fromMicros && minTime < toMicros;
+    }
+
+    String toIndexLine() {
+        return String.join(SEPARATOR, fileName, String.valueOf(rows), String.valueOf(minTime),
+                String.valueOf(maxTime), String.valueOf(minId), String.valueOf(maxId));
+    }
+
+    static AuditArchiveSegment fromIndexLine(String line) {
+        String[] parts = line.split(SEPARATOR);
+        return new AuditArchiveSegment(parts[0], Integer.parseInt(parts[1]), Long.parseLong(parts[2]),
+                Long.parseLong(parts[3]), Long.parseLong(parts[4]), Long.parseLong(parts[5]));
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.moty.demo.service.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.moty.demo.config.AuditProperties;
+import com.example.moty.demo.model.dto.AuditLogDto;
+import com.example.moty.demo.model.po.AuditLog;
+import com.example.moty.demo.repo.AuditLogRepository;
+
+/**
+ * Audit archive service
+ * Moves aged audit_log rows into compressed columnar segment files and serves
+ * compliance lookups over them. Rows are deleted from MySQL only after their
+ * segments and index entries have been fsynced.
+ *
+ * A run writes its segments, then a pending-delete marker listing them, then the index
+ * entries, then deletes the rows. A run that stopped after the marker is finished by the
+ * next one: index entries already present are not added twice and the delete only
+ * touches rows still in the table. Segments written before a crash but not yet in a
+ * marker are never indexed, so scans skip them; the rerun archives those rows again,
+ * normally overwriting the same segment files.
+ */
+@Service
+public class AuditArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditArchiveService.class);
+
+    private static final String INDEX_FILE = "segments.idx";
+
+    private static final String PENDING_DELETE_FILE = "pending-delete";
+
+    private final AuditLogRepository auditLogRepository;
+
+    private final AuditProperties auditProperties;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Index sorted by min time, replaced as a whole so scans never see a partial update
+     */
+    private volatile List<AuditArchiveSegment> segments = Collections.emptyList();
+
+    private Path directory;
+
+    @Autowired
+    public AuditArchiveService(AuditLogRepository auditLogRepository, AuditProperties auditProperties,
+                               PlatformTransactionManager transactionManager, EntityManager entityManager) {
+        this.auditLogRepository = auditLogRepository;
+        this.auditProperties = auditProperties;
+        this.transactionManager = transactionManager;
+        this.entityManager = entityManager;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = Paths.get(auditProperties.getArchive().getDirectory());
+        Files.createDirectories(directory);
+        Path index = directory.resolve(INDEX_FILE);
+        if (Files.exists(index)) {
+            Set<String> seen = new HashSet<>();
+            segments = Collections.unmodifiableList(Files.readAllLines(index, StandardCharsets.UTF_8).stream()
+                    .filter(line -> !line.isEmpty())
+                    .map(AuditArchiveSegment::fromIndexLine)
+                    // Indexes written before runs were resumable may list a segment twice
+                    .filter(segment -> seen.add(segment.getFileName()))
+                    .sorted(Comparator.comparingLong(AuditArchiveSegment::getMinTime))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    @Scheduled(cron = "${audit.archive.cron:0 0 3 * * *}")
+    public void scheduledArchive() {
+        if (!auditProperties.getArchive().isEnabled()) {
+            return;
+        }
+        try {
+            archive();
+        } catch (Exception e) {
+            logger.error("Audit archive run failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Archive every row older than audit.archive.after-days, then delete those rows
+     *
+     * @return number of rows archived
+     */
+    public synchronized long archive() throws IOException {
+        finishPendingDelete();
+
+        AuditProperties.Archive config = auditProperties.getArchive();
+        LocalDateTime cutoff = LocalDate.now().minusDays(config.getAfterDays()).atStartOfDay();
+        AuditArchiveWriter writer = new AuditArchiveWriter(directory, config.getRowsPerSegment());
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Long maxId = readOnly.execute(status -> {
+            long max = Long.MIN_VALUE;
+            try (Stream<AuditLog> rows = auditLogRepository.streamOlderThan(cutoff)) {
+                Iterator<AuditLog> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    AuditLog row = iterator.next();
+                    writer.append(row);
+                    max = Math.max(max, row.getId());
+                    // Keep the persistence context empty while streaming
+                    entityManager.detach(row);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return max;
+        });
+
+        List<AuditArchiveSegment> written = writer.finish();
+        if (written.isEmpty()) {
+            return 0;
+        }
+
+        writePendingDelete(cutoff, maxId, written);
+        finishPendingDelete();
+
+        long archived = written.stream().mapToLong(AuditArchiveSegment::getRows).sum();
+        logger.info("Archived {} audit rows older than {} into {} segments", archived, cutoff, written.size());
+        return archived;
+    }
+
+    /**
+     * Scan archived rows, oldest first
+     *
+     * @param username exact username filter, optional
+     * @param action exact action filter, optional
+     * @param from inclusive lower time bound, optional
+     * @param to exclusive upper time bound, optional
+     * @param limit maximum rows returned, capped by audit.archive.max-scan-results
+     */
+    public List<AuditLogDto> scan(String username, String action, LocalDateTime from, LocalDateTime to,
+                                  Integer limit) throws IOException {
+        int max = auditProperties.getArchive().getMaxScanResults();
+        int effectiveLimit = limit == null || limit <= 0 ? max : Math.min(limit, max);
+        long fromMicros = from == null ? Long.MIN_VALUE : AuditArchiveFormat.toEpochMicros(from);
+        long toMicros = to == null ? Long.MAX_VALUE : AuditArchiveFormat.toEpochMicros(to);
+
+        List<AuditLogDto> results = new ArrayList<>();
+        for (AuditArchiveSegment segment : segments) {
+            if (results.size() >= effectiveLimit) {
+                break;
+            }
+            if (segment.overlaps(fromMicros, toMicros)) {
+                AuditArchiveReader.scan(directory.resolve(segment.getFileName()), username, action,
+                        fromMicros, toMicros, effectiveLimit, results);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Add the segments the index does not list yet
+     */
+    private void appendToIndex(List<AuditArchiveSegment> written) throws IOException {
+        Set<String> indexed = segments.stream().map(AuditArchiveSegment::getFileName).collect(Collectors.toSet());
+        List<AuditArchiveSegment> missing = written.stream()
+                .filter(segment -> !indexed.contains(segment.getFileName()))
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        StringBuilder lines = new StringBuilder();
+        for (AuditArchiveSegment segment : missing) {
+            lines.append(segment.toIndexLine()).append('\n');
+        }
+        Files.write(directory.resolve(INDEX_FILE), lines.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+
+        List<AuditArchiveSegment> merged = new ArrayList<>(segments);
+        merged.addAll(missing);
+        merged.sort(Comparator.comparingLong(AuditArchiveSegment::getMinTime));
+        segments = Collections.unmodifiableList(merged);
+    }
+
+    /**
+     * Record the run's cutoff, max id and segments, replacing the marker atomically
+     * First line cutoff and max id, then one index line per segment
+     */
+    private void writePendingDelete(LocalDateTime cutoff, long maxId, List<AuditArchiveSegment> written)
+            throws IOException {
+        StringBuilder content = new StringBuilder().append(cutoff).append('\t').append(maxId).append('\n');
+        for (AuditArchiveSegment segment : written) {
+            content.append(segment.toIndexLine()).append('\n');
+        }
+        Path temp = directory.resolve(PENDING_DELETE_FILE + ".tmp");
+        Files.write(temp, content.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC);
+        Files.move(temp, directory.resolve(PENDING_DELETE_FILE), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Index and delete the rows recorded in the pending-delete marker, resuming a run
+     * that stopped after its segments were written
+     */
+    private void finishPendingDelete() throws IOException {
+        Path marker = directory.resolve(PENDING_DELETE_FILE);
+        if (!Files.exists(marker)) {
+            return;
+        }
+        List<String> lines = Files.readAllLines(marker, StandardCharsets.UTF_8);
+        String[] parts = lines.get(0).trim().split("\t");
+        LocalDateTime cutoff = LocalDateTime.parse(parts[0]);
+        long maxId = Long.parseLong(parts[1]);
+        appendToIndex(lines.subList(1, lines.size()).stream()
+                .filter(line -> !line.isEmpty())
+                .map(AuditArchiveSegment::fromIndexLine)
+                .collect(Collectors.toList()));
+
+        int batchSize = auditProperties.getRetention().getBatchSize();
+        long deleted = 0;
+        int batch;
+        do {
+            batch = auditLogRepository.deleteBatchArchived(cutoff, maxId, batchSize);
+            deleted += batch;
+        } while (batch == batchSize);
+
+        Files.delete(marker);
+        logger.info("Deleted {} archived audit rows", deleted);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.moty.demo.service.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import com.example.moty.demo.model.po.AuditLog;
+
+/**
+ * Buffers up to rowsPerSegment audit rows column by column and writes them as
+ * one compressed segment file. Not thread-safe; one writer per archive run.
+ */
+public class AuditArchiveWriter {
+
+    private final Path directory;
+    private final int rowsPerSegment;
+    private final List<AuditArchiveSegment> written = new ArrayList<>();
+
+    private final long[] createdAt;
+    private final long[] ids;
+    private final int[] usernameCodes;
+    private final int[] actionCodes;
+    private final String[] details;
+    private final Map<String, Integer> usernameDictionary;
+    private final Map<String, Integer> actionDictionary;
+    private int rows;
+
+    public AuditArchiveWriter(Path directory, int rowsPerSegment) {
+        this.directory = directory;
+        this.rowsPerSegment = rowsPerSegment;
+        // Column buffers are allocated once and reused for every segment
+        int capacity = Math.min(rowsPerSegment, 1024);
+        this.createdAt = new long[rowsPerSegment];
+        this.ids = new long[rowsPerSegment];
+        this.usernameCodes = new int[rowsPerSegment];
+        this.actionCodes = new int[rowsPerSegment];
+        this.details = new String[rowsPerSegment];
+        this.usernameDictionary = new LinkedHashMap<>(capacity);
+        this.actionDictionary = new LinkedHashMap<>(capacity);
+    }
+
+    /**
+     * Append one row, flushing a segment when the buffer is full
+     * Rows must be appended in (createdAt, id) order
+     */
+    public void append(AuditLog log) throws IOException {
+        createdAt[rows] = AuditArchiveFormat.toEpochMicros(log.getCreatedAt());
+        ids[rows] = log.getId();
+        usernameCodes[rows] = encode(usernameDictionary, log.getUsername());
+        actionCodes[rows] = encode(actionDictionary, log.getAction());
+        details[rows] = log.getDetails();
+        rows++;
+        if (rows == rowsPerSegment) {
+            flush();
+        }
+    }
+
+    /**
+     * Write any buffered rows and return every segment written by this writer
+     */
+    public List<AuditArchiveSegment> finish() throws IOException {
+        flush();
+        return written;
+    }
+
+    private void flush() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        for (int i = 0; i < rows; i++) {
+            minTime = Math.min(minTime, createdAt[i]);
+            maxTime = Math.max(maxTime, createdAt[i]);
+            minId = Math.min(minId, ids[i]);
+            maxId = Math.max(maxId, ids[i]);
+        }
+
+        String fileName = "audit-" + minTime + "-" + minId + AuditArchiveFormat.SEGMENT_SUFFIX;
+        Path target = directory.resolve(fileName);
+        Path temp = directory.resolve(fileName + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream raw = Channels.newOutputStream(channel);
+            DataOutputStream header = new DataOutputStream(new BufferedOutputStream(raw));
+            header.writeInt(AuditArchiveFormat.MAGIC);
+            header.writeInt(rows);
+            header.writeLong(minTime);
+            header.writeLong(maxTime);
+            header.writeLong(minId);
+            header.writeLong(maxId);
+            header.flush();
+
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                DeflaterOutputStream compressed = new DeflaterOutputStream(raw, deflater, 64 * 1024);
+                DataOutputStream body = new DataOutputStream(new BufferedOutputStream(compressed, 64 * 1024));
+                writeBody(body);
+                body.flush();
+                compressed.finish();
+            } finally {
+                deflater.end();
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+
+        written.add(new AuditArchiveSegment(fileName, rows, minTime, maxTime, minId, maxId));
+        reset();
+    }
+
+    private void writeBody(DataOutputStream out) throws IOException {
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            AuditArchiveFormat.writeZigZag(out, createdAt[i] - previous);
+            previous = createdAt[i];
+        }
+        previous = 0;
+        for (int i = 0; i < rows; i++) {
+            AuditArchiveFormat.writeZigZag(out, ids[i] - previous);
+            previous = ids[i];
+        }
+        writeDictionaryColumn(out, usernameDictionary, usernameCodes);
+        writeDictionaryColumn(out, actionDictionary, actionCodes);
+        for (int i = 0; i < rows; i++) {
+            AuditArchiveFormat.writeString(out, details[i]);
+        }
+    }
+
+    private void writeDictionaryColumn(DataOutputStream out, Map<String, Integer> dictionary, int[] codes)
+            throws IOException {
+        AuditArchiveFormat.writeVarLong(out, dictionary.size());
+        for (String value : dictionary.keySet()) {
+            AuditArchiveFormat.writeString(out, value);
+        }
+        for (int i = 0; i < rows; i++) {
+            AuditArchiveFormat.writeVarLong(out, codes[i]);
+        }
+    }
+
+    private static int encode(Map<String, Integer> dictionary, String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer code = dictionary.get(value);
+        if (code == null) {
+            code = dictionary.size() + 1;
+            dictionary.put(value, code);
+        }
+        return code;
+    }
+
+    private void reset() {
+        // Numeric columns are overwritten by the next rows; only drop the detail references
+        Arrays.fill(details, 0, rows, null);
+        usernameDictionary.clear();
+        actionDictionary.clear();
+        rows = 0;
+    }
+}
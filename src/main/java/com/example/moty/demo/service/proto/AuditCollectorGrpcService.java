@@ -0,0 +1,144 @@
+package com.example.moty.demo.service.proto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.moty.demo.model.dto.AuditLogDto;
+import com.example.moty.demo.model.po.AuditLog;
+import com.example.moty.demo.model.protobuf.AuditCollectorGrpc;
+import com.example.moty.demo.model.protobuf.AuditProto;
+import com.example.moty.demo.repo.AuditLogRepository;
+import com.example.moty.demo.service.AuditChainService;
+import com.example.moty.demo.service.AuditEventBroadcaster;
+
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.server.service.GrpcService;
+
+/**
+ * Local stand-in for the central audit collector
+ * Persists received batches through the hash chain and acknowledges each one.
+ * Every stored row records its event key (senderId:sequence:index), and events whose
+ * key is already stored are skipped, so a batch resent after a partly failed store or
+ * a collector restart does not chain the same event twice. Recently seen batches are
+ * also kept in memory: they are acknowledged without a lookup, and a batch is claimed
+ * before it is stored, so a resend arriving meanwhile is rejected and retried by the
+ * sender; the claim is released again when storing fails.
+ */
+@GrpcService
+public class AuditCollectorGrpcService extends AuditCollectorGrpc.AuditCollectorImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditCollectorGrpcService.class);
+
+    private static final int SEEN_BATCHES = 10000;
+
+    private final AuditChainService auditChainService;
+
+    private final AuditEventBroadcaster auditEventBroadcaster;
+
+    private final AuditLogRepository auditLogRepository;
+
+    // batch key -> stored, false while the claiming call is still storing it; guarded by itself
+    private final Map<String, Boolean> seenBatches = new LinkedHashMap<String, Boolean>(SEEN_BATCHES, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > SEEN_BATCHES;
+        }
+    };
+
+    @Autowired
+    public AuditCollectorGrpcService(AuditChainService auditChainService, AuditEventBroadcaster auditEventBroadcaster,
+                                     AuditLogRepository auditLogRepository) {
+        this.auditChainService = auditChainService;
+        this.auditEventBroadcaster = auditEventBroadcaster;
+        this.auditLogRepository = auditLogRepository;
+    }
+
+    @Override
+    public StreamObserver<AuditProto.AuditBatch> publish(StreamObserver<AuditProto.AuditAck> responseObserver) {
+        return new StreamObserver<AuditProto.AuditBatch>() {
+
+            @Override
+            public void onNext(AuditProto.AuditBatch batch) {
+                AuditProto.AuditAck.Builder ack = AuditProto.AuditAck.newBuilder().setSequence(batch.getSequence());
+                try {
+                    String batchKey = batch.getSenderId() + ":" + batch.getSequence();
+                    Boolean stored;
+                    synchronized (seenBatches) {
+                        stored = seenBatches.putIfAbsent(batchKey, Boolean.FALSE);
+                    }
+                    if (stored == null) {
+                        store(batch, batchKey);
+                        ack.setAccepted(true);
+                    } else if (stored) {
+                        ack.setAccepted(true);
+                    } else {
+                        ack.setAccepted(false).setMessage("Batch is still being stored");
+                    }
+                } catch (RuntimeException e) {
+                    logger.error("Storing audit batch {} failed: {}", batch.getSequence(), e.getMessage(), e);
+                    ack.setAccepted(false).setMessage(e.getMessage() != null ? e.getMessage() : e.toString());
+                }
+                responseObserver.onNext(ack.build());
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                logger.warn("Audit sink stream closed with error: {}", t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    private void store(AuditProto.AuditBatch batch, String batchKey) {
+        try {
+            List<String> eventKeys = new ArrayList<>(batch.getEventsCount());
+            for (int i = 0; i < batch.getEventsCount(); i++) {
+                eventKeys.add(batchKey + ":" + i);
+            }
+            Set<String> stored = eventKeys.isEmpty()
+                    ? new HashSet<>() : new HashSet<>(auditLogRepository.findStoredEventKeys(eventKeys));
+            for (int i = 0; i < batch.getEventsCount(); i++) {
+                if (stored.contains(eventKeys.get(i))) {
+                    continue;
+                }
+                AuditLog log = toAuditLog(batch.getEvents(i));
+                log.setEventKey(eventKeys.get(i));
+                AuditLog saved = auditChainService.append(log);
+                auditEventBroadcaster.publish(AuditLogDto.from(saved));
+            }
+        } catch (RuntimeException e) {
+            synchronized (seenBatches) {
+                seenBatches.remove(batchKey);
+            }
+            throw e;
+        }
+        synchronized (seenBatches) {
+            seenBatches.put(batchKey, Boolean.TRUE);
+        }
+    }
+
+    private static AuditLog toAuditLog(AuditProto.AuditEvent event) {
+        AuditLog log = new AuditLog();
+        log.setUsername(event.getUsername().isEmpty() ? null : event.getUsername());
+        log.setAction(event.getAction().isEmpty() ? null : event.getAction());
+        log.setDetails(event.getDetails().isEmpty() ? null : event.getDetails());
+        long micros = event.getCreatedAtMicros();
+        log.setCreatedAt(LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC));
+        return log;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.moty.demo.service.sink;
+
+import com.example.moty.demo.model.po.AuditLog;
+
+/**
+ * Destination for audit events produced by AuditLogService
+ * Selected with audit.sink.type.
+ */
+public interface AuditSink {
+
+    /**
+     * Hand one event to the sink
+     */
+    void write(AuditLog log);
+
+    /**
+     * Wait until every accepted event has been durably handed off
+     *
+     * @return false if events were still pending when the timeout expired
+     */
+    default boolean flush(long timeoutMillis) {
+        return true;
+    }
+
+    /**
+     * Events accepted but not yet durably handed off
+     */
+    default long pending() {
+        return 0;
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.moty.demo.service.sink;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.moty.demo.config.AuditProperties;
+import com.example.moty.demo.model.po.AuditLog;
+import com.example.moty.demo.model.protobuf.AuditCollectorGrpc;
+import com.example.moty.demo.model.protobuf.AuditProto;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Streams audit events to a remote collector in batches
+ * write() only enqueues into a bounded local queue. A sender thread groups events
+ * into batches (audit.sink.batch-size or audit.sink.linger-millis, whichever comes
+ * first) and sends them over one long-lived stream with at most
+ * audit.sink.max-in-flight unacknowledged batches. Rejected, timed-out and
+ * stream-broken batches are resent with linear backoff up to audit.sink.max-retries.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.sink.type", havingValue = "grpc")
+public class GrpcAuditSink implements AuditSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcAuditSink.class);
+
+    /**
+     * sentAt of a batch waiting for its scheduled resend
+     */
+    private static final long RETRY_SCHEDULED = Long.MAX_VALUE;
+
+    private final AuditProperties auditProperties;
+
+    private final String senderId = UUID.randomUUID().toString();
+
+    private final ConcurrentSkipListMap<Long, PendingBatch> inFlight = new ConcurrentSkipListMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicLong sentEvents = new AtomicLong();
+    private final AtomicLong ackedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong lostEvents = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    private final Object streamLock = new Object();
+
+    private AuditProperties.Sink config;
+    private BlockingQueue<AuditProto.AuditEvent> queue;
+    private Semaphore window;
+    private ManagedChannel channel;
+    private ScheduledExecutorService scheduler;
+    private Thread sender;
+    private volatile boolean running;
+
+    /**
+     * Events taken off the queue by the sender but not yet in flight
+     */
+    private volatile int assembling;
+
+    // Current request stream and its generation, guarded by streamLock
+    private StreamObserver<AuditProto.AuditBatch> requestStream;
+    private long streamGeneration;
+
+    @Autowired
+    public GrpcAuditSink(AuditProperties auditProperties) {
+        this.auditProperties = auditProperties;
+    }
+
+    @PostConstruct
+    public void start() {
+        config = auditProperties.getSink();
+        queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        window = new Semaphore(config.getMaxInFlight());
+        channel = createChannel(config.getTarget());
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "AuditSink-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::resendTimedOut, config.getAckTimeoutMillis(),
+                config.getAckTimeoutMillis(), TimeUnit.MILLISECONDS);
+
+        running = true;
+        sender = new Thread(this::sendLoop, "AuditSink-sender");
+        sender.setDaemon(true);
+        sender.start();
+        logger.info("gRPC audit sink {} streaming to {}", senderId, config.getTarget());
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush(config.getAckTimeoutMillis());
+        running = false;
+        sender.interrupt();
+        scheduler.shutdownNow();
+        synchronized (streamLock) {
+            if (requestStream != null) {
+                requestStream.onCompleted();
+                requestStream = null;
+            }
+        }
+        channel.shutdown();
+        logger.info("gRPC audit sink stopped: sent={}, acked={}, dropped={}, lost={}, retries={}",
+                sentEvents.get(), ackedEvents.get(), droppedEvents.get(), lostEvents.get(), retries.get());
+    }
+
+    @Override
+    public void write(AuditLog log) {
+        AuditProto.AuditEvent.Builder event = AuditProto.AuditEvent.newBuilder()
+                .setCreatedAtMicros(log.getCreatedAt().toEpochSecond(ZoneOffset.UTC) * 1_000_000L
+                        + log.getCreatedAt().getNano() / 1_000);
+        if (log.getUsername() != null) {
+            event.setUsername(log.getUsername());
+        }
+        if (log.getAction() != null) {
+            event.setAction(log.getAction());
+        }
+        if (log.getDetails() != null) {
+            event.setDetails(log.getDetails());
+        }
+        if (!queue.offer(event.build())) {
+            long dropped = droppedEvents.incrementAndGet();
+            if ((dropped & (dropped - 1)) == 0) {
+                logger.warn("Audit sink queue full, {} events dropped so far", dropped);
+            }
+        }
+    }
+
+    @Override
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (pending() > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long pending() {
+        long events = queue.size() + assembling;
+        for (PendingBatch batch : inFlight.values()) {
+            events += batch.batch.getEventsCount();
+        }
+        return events;
+    }
+
+    /**
+     * Channel to the collector at audit.sink.target
+     */
+    protected ManagedChannel createChannel(String target) {
+        return ManagedChannelBuilder.forTarget(target).usePlaintext().build();
+    }
+
+    private void sendLoop() {
+        int batchSize = config.getBatchSize();
+        List<AuditProto.AuditEvent> events = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditProto.AuditEvent first = queue.poll(config.getLingerMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                events.add(first);
+                long lingerDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getLingerMillis());
+                while (events.size() < batchSize) {
+                    queue.drainTo(events, batchSize - events.size());
+                    long remaining = lingerDeadline - System.nanoTime();
+                    if (events.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    AuditProto.AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    events.add(next);
+                }
+                assembling = events.size();
+
+                // Bounded in-flight window: wait for an ack before sending more
+                window.acquire();
+                AuditProto.AuditBatch batch = AuditProto.AuditBatch.newBuilder()
+                        .setSenderId(senderId)
+                        .setSequence(sequence.incrementAndGet())
+                        .addAllEvents(events)
+                        .build();
+                events.clear();
+                PendingBatch pending = new PendingBatch(batch);
+                inFlight.put(batch.getSequence(), pending);
+                assembling = 0;
+                send(pending);
+                sentEvents.addAndGet(batch.getEventsCount());
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void send(PendingBatch pending) {
+        synchronized (streamLock) {
+            try {
+                if (requestStream == null) {
+                    streamGeneration++;
+                    requestStream = AuditCollectorGrpc.newStub(channel).publish(new AckObserver(streamGeneration));
+                }
+                pending.sentAt = System.currentTimeMillis();
+                requestStream.onNext(pending.batch);
+            } catch (RuntimeException e) {
+                logger.warn("Sending audit batch {} failed: {}", pending.batch.getSequence(), e.getMessage());
+                requestStream = null;
+                scheduleRetry(pending);
+            }
+        }
+    }
+
+    private void scheduleRetry(PendingBatch pending) {
+        if (pending.attempts.incrementAndGet() > config.getMaxRetries()) {
+            if (inFlight.remove(pending.batch.getSequence()) != null) {
+                window.release();
+                lostEvents.addAndGet(pending.batch.getEventsCount());
+                logger.error("Audit batch {} given up after {} attempts, {} events lost",
+                        pending.batch.getSequence(), config.getMaxRetries(), pending.batch.getEventsCount());
+            }
+            return;
+        }
+        retries.incrementAndGet();
+        // Push sentAt forward so the ack-timeout check does not fire again before the retry runs
+        pending.sentAt = RETRY_SCHEDULED;
+        scheduler.schedule(() -> {
+            if (inFlight.containsKey(pending.batch.getSequence())) {
+                send(pending);
+            }
+        }, config.getRetryBackoffMillis() * pending.attempts.get(), TimeUnit.MILLISECONDS);
+    }
+
+    private void resendTimedOut() {
+        long now = System.currentTimeMillis();
+        for (PendingBatch pending : inFlight.values()) {
+            if (now - pending.sentAt > config.getAckTimeoutMillis()) {
+                logger.warn("No ack for audit batch {}, resending", pending.batch.getSequence());
+                scheduleRetry(pending);
+            }
+        }
+    }
+
+    private void onStreamBroken(long generation, Throwable error) {
+        synchronized (streamLock) {
+            if (generation != streamGeneration) {
+                return;
+            }
+            requestStream = null;
+        }
+        if (error != null) {
+            logger.warn("Audit collector stream failed: {}", error.getMessage());
+        }
+        // Everything unacknowledged on the broken stream has to be sent again,
+        // batches that already wait for a resend keep their attempt count
+        for (PendingBatch pending : inFlight.values()) {
+            if (pending.sentAt != RETRY_SCHEDULED) {
+                scheduleRetry(pending);
+            }
+        }
+    }
+
+    private static final class PendingBatch {
+
+        private final AuditProto.AuditBatch batch;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private volatile long sentAt;
+
+        PendingBatch(AuditProto.AuditBatch batch) {
+            this.batch = batch;
+        }
+    }
+
+    private final class AckObserver implements StreamObserver<AuditProto.AuditAck> {
+
+        private final long generation;
+
+        AckObserver(long generation) {
+            this.generation = generation;
+        }
+
+        @Override
+        public void onNext(AuditProto.AuditAck ack) {
+            PendingBatch pending = inFlight.get(ack.getSequence());
+            if (pending == null) {
+                return;
+            }
+            if (ack.getAccepted()) {
+                if (inFlight.remove(ack.getSequence()) != null) {
+                    window.release();
+                    ackedEvents.addAndGet(pending.batch.getEventsCount());
+                }
+            } else {
+                logger.warn("Audit batch {} rejected by collector: {}", ack.getSequence(), ack.getMessage());
+                scheduleRetry(pending);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            onStreamBroken(generation, t);
+        }
+
+        @Override
+        public void onCompleted() {
+            onStreamBroken(generation, null);
+        }
+    }
+}
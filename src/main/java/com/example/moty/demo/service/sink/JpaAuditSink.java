@@ -0,0 +1,37 @@
+package com.example.moty.demo.service.sink;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.moty.demo.model.dto.AuditLogDto;
+import com.example.moty.demo.model.po.AuditLog;
+import com.example.moty.demo.service.AuditChainService;
+import com.example.moty.demo.service.AuditEventBroadcaster;
+
+/**
+ * Writes audit events to the local audit_log table through the hash chain
+ * and publishes the stored row to live tail subscribers
+ */
+@Component
+@ConditionalOnProperty(name = "audit.sink.type", havingValue = "jpa", matchIfMissing = true)
+public class JpaAuditSink implements AuditSink {
+
+    @Autowired
+    private AuditChainService auditChainService;
+
+    @Autowired
+    private AuditEventBroadcaster auditEventBroadcaster;
+
+    @Override
+    public void write(AuditLog log) {
+        AuditLog saved = auditChainService.append(log);
+        auditEventBroadcaster.publish(AuditLogDto.from(saved));
+    }
+
+    @Override
+    public boolean flush(long timeoutMillis) {
+        auditChainService.flush();
+        return true;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.moty.demo.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.example.moty.demo.enums.HttpStatusEnum;
+import com.example.moty.demo.model.dto.ApiResponse;
+
+/**
+ * Servlet 非同步響應工具類
+ * 將 @Async 服務方法回傳的 CompletionStage 或 ListenableFuture 轉為 DeferredResult，
+ * 請求執行緒在等待期間即歸還給 Tomcat。
+ * Spring 以 CompletableFuture.supplyAsync 提交回傳 CompletableFuture 的 @Async 方法，
+ * 取消該 future 不會中斷工作執行緒；需要在逾時或斷線時中斷工作時，
+ * 讓服務方法回傳 ListenableFuture 並使用 deferInterruptible。
+ */
+public class AsyncResponseUtil {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncResponseUtil.class);
+
+    private AsyncResponseUtil() {
+    }
+
+    /**
+     * 以預設逾時（spring.mvc.async.request-timeout）包裝非同步呼叫
+     *
+     * @param call 回傳 CompletionStage 的非同步服務呼叫
+     * @return 完成時寫出 ApiResponse 的 DeferredResult
+     */
+    public static <T> DeferredResult<ApiResponse<T>> defer(Supplier<? extends CompletionStage<T>> call) {
+        return defer(call, null);
+    }
+
+    /**
+     * 以指定逾時包裝非同步呼叫
+     * 逾時回傳 504，執行緒池已滿回傳 503，用戶端中斷或逾時時取消 future。
+     * 取消只會讓 future 提早完成，已在執行的 @Async 工作會繼續跑完，結果被丟棄。
+     *
+     * @param call 非同步服務呼叫
+     * @param timeoutMillis 逾時毫秒數，null 表示使用預設值
+     * @return 完成時寫出 ApiResponse 的 DeferredResult
+     */
+    public static <T> DeferredResult<ApiResponse<T>> defer(Supplier<? extends CompletionStage<T>> call,
+                                                           Long timeoutMillis) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get().toCompletableFuture();
+        } catch (TaskRejectedException e) {
+            return rejected(timeoutMillis, e);
+        }
+        return bind(future, future, timeoutMillis);
+    }
+
+    /**
+     * 以預設逾時包裝可中斷的非同步呼叫
+     *
+     * @param call 回傳 ListenableFuture 的非同步服務呼叫，例如 asyncService::asyncTask1
+     * @return 完成時寫出 ApiResponse 的 DeferredResult
+     */
+    public static <T> DeferredResult<ApiResponse<T>> deferInterruptible(
+            Supplier<? extends ListenableFuture<T>> call) {
+        return deferInterruptible(call, null);
+    }
+
+    /**
+     * 以指定逾時包裝可中斷的非同步呼叫
+     * Spring 以 submitListenable 提交回傳 ListenableFuture 的 @Async 方法，
+     * 用戶端中斷或逾時時取消該任務會中斷執行中的工作執行緒，尚未開始的任務則不再執行。
+     *
+     * @param call 回傳 ListenableFuture 的非同步服務呼叫
+     * @param timeoutMillis 逾時毫秒數，null 表示使用預設值
+     * @return 完成時寫出 ApiResponse 的 DeferredResult
+     */
+    public static <T> DeferredResult<ApiResponse<T>> deferInterruptible(Supplier<? extends ListenableFuture<T>> call,
+                                                                       Long timeoutMillis) {
+        ListenableFuture<T> task;
+        try {
+            task = call.get();
+        } catch (TaskRejectedException e) {
+            return rejected(timeoutMillis, e);
+        }
+        return bind(task.completable(), task, timeoutMillis);
+    }
+
+    /**
+     * 將 CompletionStage 映射為 ApiResponse，供直接回傳 CompletableFuture 的 Controller 使用
+     *
+     * @param stage 非同步結果
+     * @return 一定正常完成的 ApiResponse future
+     */
+    public static <T> CompletableFuture<ApiResponse<T>> toResponse(CompletionStage<T> stage) {
+        return stage.toCompletableFuture().handle(AsyncResponseUtil::toResponse);
+    }
+
+    /**
+     * 依 Controller 方法的回傳型別包裝已決定的響應
+     * 切面在 proceed 之前就拒絕請求時使用，避免非同步方法收到型別不符的 ApiResponse。
+     *
+     * @param returnType Controller 方法宣告的回傳型別
+     * @param response 要回傳的響應
+     * @return response 本身，或已完成的 CompletableFuture / DeferredResult
+     */
+    public static Object adapt(Class<?> returnType, ApiResponse<?> response) {
+        if (CompletionStage.class.isAssignableFrom(returnType)) {
+            return CompletableFuture.completedFuture(response);
+        }
+        if (DeferredResult.class.isAssignableFrom(returnType)) {
+            DeferredResult<ApiResponse<?>> result = new DeferredResult<>();
+            result.setResult(response);
+            return result;
+        }
+        return response;
+    }
+
+    private static <T> DeferredResult<ApiResponse<T>> rejected(Long timeoutMillis, TaskRejectedException e) {
+        logger.warn("Async task rejected: {}", e.getMessage());
+        DeferredResult<ApiResponse<T>> result = new DeferredResult<>(timeoutMillis);
+        result.setResult(ApiResponseUtil.serviceUnavailable("Server busy, please retry later"));
+        return result;
+    }
+
+    /**
+     * 以 future 的結果完成 DeferredResult，逾時或斷線時以 cancel(true) 取消 task
+     */
+    private static <T> DeferredResult<ApiResponse<T>> bind(CompletableFuture<T> future, Future<?> task,
+                                                           Long timeoutMillis) {
+        DeferredResult<ApiResponse<T>> result = new DeferredResult<>(timeoutMillis);
+        result.onTimeout(() -> {
+            task.cancel(true);
+            result.setResult(ApiResponseUtil.error(HttpStatusEnum.GATEWAY_TIMEOUT, "Async task timed out"));
+        });
+        result.onError(error -> task.cancel(true));
+        future.whenComplete((value, error) -> result.setResult(toResponse(value, error)));
+        return result;
+    }
+
+    private static <T> ApiResponse<T> toResponse(T value, Throwable error) {
+        if (error == null) {
+            return ApiResponseUtil.success(value);
+        }
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof CancellationException) {
+            return ApiResponseUtil.error(HttpStatusEnum.GATEWAY_TIMEOUT, "Async task cancelled");
+        }
+        logger.error("Async task failed: {}", cause.getMessage(), cause);
+        return ApiResponseUtil.internalError(cause.getMessage() != null ? cause.getMessage() : cause.toString());
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.moty.demo.util;
+
+import java.io.Closeable;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.moty.demo.model.dto.KeyPairPoolStatsDto;
+
+/**
+ * 預先生成的密鑰對池
+ * 背景以最低優先權的 daemon 執行緒預先生成密鑰對，請求執行緒直接取用，不必等待生成。
+ * 存量低於 lowWatermark 時喚醒補充執行緒，補到 highWatermark 後停止；池中最多保存 capacity 組。
+ * 每組密鑰對只會交出一次。池已取空時 (starvation) 在呼叫端執行緒當場生成，行為與未啟用池相同。
+ */
+public class KeyPairPool implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyPairPool.class);
+
+    // 生成失敗後補充執行緒的等待時間，避免持續失敗時空轉
+    private static final long FAILURE_BACKOFF_MILLIS = 1000;
+
+    private final Callable<KeyPair> generator;
+    private final int capacity;
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final int refillThreads;
+    private final String threadNamePrefix;
+
+    private final BlockingQueue<KeyPair> pairs;
+    private final List<Thread> workers = new ArrayList<>();
+
+    // 補充請求，guarded by this
+    private boolean refillRequested;
+    private volatile boolean closed;
+
+    private final LongAdder served = new LongAdder();
+    private final LongAdder starved = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * @param generator 生成一組新密鑰對
+     * @param capacity 池中最多保存的密鑰對數
+     * @param lowWatermark 存量低於此值時開始補充
+     * @param highWatermark 補充到此存量為止
+     * @param refillThreads 補充執行緒數
+     * @param threadNamePrefix 補充執行緒名稱前綴
+     */
+    public KeyPairPool(Callable<KeyPair> generator, int capacity, int lowWatermark, int highWatermark,
+                       int refillThreads, String threadNamePrefix) {
+        if (capacity < 1 || lowWatermark < 0 || lowWatermark > highWatermark || highWatermark > capacity) {
+            throw new IllegalArgumentException("需滿足 0 <= lowWatermark <= highWatermark <= capacity 且 capacity >= 1，目前為 "
+                    + lowWatermark + " / " + highWatermark + " / " + capacity);
+        }
+        this.generator = generator;
+        this.capacity = capacity;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.refillThreads = Math.max(1, refillThreads);
+        this.threadNamePrefix = threadNamePrefix;
+        this.pairs = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * 啟動補充執行緒，並立即補充到 highWatermark
+     */
+    public synchronized void start() {
+        if (!workers.isEmpty() || closed) {
+            return;
+        }
+        for (int i = 0; i < refillThreads; i++) {
+            Thread worker = new Thread(this::refillLoop, threadNamePrefix + (i + 1));
+            worker.setDaemon(true);
+            worker.setPriority(Thread.MIN_PRIORITY);
+            workers.add(worker);
+            worker.start();
+        }
+        requestRefill();
+    }
+
+    /**
+     * 取得一組密鑰對，池已取空時當場生成
+     *
+     * @return 未交給其他呼叫者的密鑰對
+     * @throws Exception 當場生成失敗時拋出異常
+     */
+    public KeyPair take() throws Exception {
+        KeyPair keyPair = pairs.poll();
+        if (pairs.size() < lowWatermark) {
+            requestRefill();
+        }
+        if (keyPair != null) {
+            served.increment();
+            return keyPair;
+        }
+        starved.increment();
+        return generator.call();
+    }
+
+    public KeyPairPoolStatsDto stats() {
+        long servedCount = served.sum();
+        long starvedCount = starved.sum();
+        long total = servedCount + starvedCount;
+        return KeyPairPoolStatsDto.builder()
+                .capacity(capacity)
+                .lowWatermark(lowWatermark)
+                .highWatermark(highWatermark)
+                .available(pairs.size())
+                .served(servedCount)
+                .starved(starvedCount)
+                .generated(generated.sum())
+                .failures(failures.sum())
+                .starvationRate(total == 0 ? 0 : (double) starvedCount / total)
+                .build();
+    }
+
+    /**
+     * 停止補充執行緒並丟棄池中尚未交出的密鑰對
+     */
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            notifyAll();
+            for (Thread worker : workers) {
+                worker.interrupt();
+            }
+        }
+        pairs.clear();
+    }
+
+    private synchronized void requestRefill() {
+        if (!refillRequested) {
+            refillRequested = true;
+            notifyAll();
+        }
+    }
+
+    private void refillLoop() {
+        try {
+            while (!closed) {
+                synchronized (this) {
+                    while (!refillRequested && !closed) {
+                        wait();
+                    }
+                }
+                while (!closed && pairs.size() < highWatermark) {
+                    if (!fillOne()) {
+                        Thread.sleep(FAILURE_BACKOFF_MILLIS);
+                    }
+                }
+                synchronized (this) {
+                    if (pairs.size() >= highWatermark) {
+                        refillRequested = false;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean fillOne() {
+        KeyPair keyPair;
+        try {
+            keyPair = generator.call();
+        } catch (Exception e) {
+            failures.increment();
+            logger.warn("預先生成密鑰對失敗: {}", e.getMessage());
+            return false;
+        }
+        generated.increment();
+        // 多個補充執行緒同時生成時可能超過 highWatermark，capacity 為上限，超出的直接丟棄
+        pairs.offer(keyPair);
+        return true;
+    }
+}
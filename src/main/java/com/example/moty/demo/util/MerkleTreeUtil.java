@@ -0,0 +1,172 @@
+package com.example.moty.demo.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merkle 樹工具類
+ * 葉節點為 SHA-256(0x00 || data)，內部節點為 SHA-256(0x01 || left || right)，
+ * 以前綴區分葉節點與內部節點，避免第二原像攻擊；奇數個節點時最後一個直接上提
+ */
+public class MerkleTreeUtil {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private static final byte LEAF_PREFIX = 0x00;
+
+    private static final byte NODE_PREFIX = 0x01;
+
+    private MerkleTreeUtil() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * 計算葉節點哈希
+     *
+     * @param data 葉節點數據
+     * @return 葉節點哈希
+     */
+    public static byte[] leafHash(byte[] data) {
+        MessageDigest digest = newDigest();
+        digest.update(LEAF_PREFIX);
+        digest.update(data);
+        return digest.digest();
+    }
+
+    /**
+     * 計算內部節點哈希
+     *
+     * @param left 左子節點哈希
+     * @param right 右子節點哈希
+     * @return 內部節點哈希
+     */
+    public static byte[] nodeHash(byte[] left, byte[] right) {
+        MessageDigest digest = newDigest();
+        digest.update(NODE_PREFIX);
+        digest.update(left);
+        digest.update(right);
+        return digest.digest();
+    }
+
+    /**
+     * 計算 Merkle 根
+     *
+     * @param leaves 葉節點數據（依序）
+     * @return Merkle 根哈希
+     */
+    public static byte[] root(List<byte[]> leaves) {
+        if (leaves.isEmpty()) {
+            throw new IllegalArgumentException("Merkle tree requires at least one leaf");
+        }
+        List<byte[]> level = new ArrayList<>(leaves.size());
+        for (byte[] leaf : leaves) {
+            level.add(leafHash(leaf));
+        }
+        while (level.size() > 1) {
+            level = nextLevel(level);
+        }
+        return level.get(0);
+    }
+
+    /**
+     * 計算每個葉節點的包含證明 (inclusion proof)
+     * 整棵樹只建一次，證明長度約為 log2(葉節點數)；被直接上提的層不產生步驟
+     *
+     * @param leaves 葉節點數據（依序）
+     * @return 與 leaves 同順序的證明，每個證明由葉節點往根依序排列
+     */
+    public static List<List<ProofStep>> proofs(List<byte[]> leaves) {
+        if (leaves.isEmpty()) {
+            throw new IllegalArgumentException("Merkle tree requires at least one leaf");
+        }
+        List<byte[]> level = new ArrayList<>(leaves.size());
+        List<List<ProofStep>> proofs = new ArrayList<>(leaves.size());
+        int[] positions = new int[leaves.size()];
+        for (int i = 0; i < leaves.size(); i++) {
+            level.add(leafHash(leaves.get(i)));
+            proofs.add(new ArrayList<>());
+            positions[i] = i;
+        }
+        while (level.size() > 1) {
+            for (int i = 0; i < positions.length; i++) {
+                int position = positions[i];
+                int sibling = position ^ 1;
+                if (sibling < level.size()) {
+                    proofs.get(i).add(new ProofStep(level.get(sibling), sibling < position));
+                }
+                positions[i] = position / 2;
+            }
+            level = nextLevel(level);
+        }
+        return proofs;
+    }
+
+    /**
+     * 由葉節點數據與包含證明重新計算 Merkle 根
+     *
+     * @param leaf 葉節點數據
+     * @param proof 包含證明
+     * @return 計算出的 Merkle 根，與已簽名的根相同即代表葉節點屬於該樹
+     */
+    public static byte[] rootFromProof(byte[] leaf, List<ProofStep> proof) {
+        byte[] hash = leafHash(leaf);
+        for (ProofStep step : proof) {
+            hash = step.isLeft() ? nodeHash(step.getHash(), hash) : nodeHash(hash, step.getHash());
+        }
+        return hash;
+    }
+
+    static List<byte[]> nextLevel(List<byte[]> level) {
+        List<byte[]> next = new ArrayList<>((level.size() + 1) / 2);
+        for (int i = 0; i < level.size(); i += 2) {
+            if (i + 1 < level.size()) {
+                next.add(nodeHash(level.get(i), level.get(i + 1)));
+            } else {
+                next.add(level.get(i));
+            }
+        }
+        return next;
+    }
+
+    /**
+     * 計算 SHA-256 摘要
+     *
+     * @param data 數據
+     * @return 摘要
+     */
+    public static byte[] sha256(byte[] data) {
+        return newDigest().digest(data);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 包含證明的一個步驟：兄弟節點哈希，以及兄弟節點是否在左側
+     */
+    public static final class ProofStep {
+
+        private final byte[] hash;
+        private final boolean left;
+
+        public ProofStep(byte[] hash, boolean left) {
+            this.hash = hash;
+            this.left = left;
+        }
+
+        public byte[] getHash() {
+            return hash;
+        }
+
+        public boolean isLeft() {
+            return left;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.moty.demo.util;
+
+import java.security.Key;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.example.moty.demo.model.dto.KeyCacheStatsDto;
+
+/**
+ * 已解析密鑰快取
+ * 以編碼後密鑰的 SHA-256 指紋為鍵，保存解析好的 PublicKey / PrivateKey，
+ * 避免每次請求重複 Base64 解碼、ASN.1 解析與 KeyFactory 建立。
+ * 依存取順序淘汰最久未使用者 (LRU)，並在超過 TTL 後重新解析；快取內不保存原始密鑰字串。
+ */
+public class ParsedKeyCache {
+
+    /**
+     * 快取未命中時的解析函式
+     */
+    @FunctionalInterface
+    public interface KeyParser<K extends Key> {
+        K parse(byte[] encoded) throws Exception;
+    }
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // 存取順序的 LinkedHashMap，由 lock 保護
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param maxSize 最多保存的密鑰數，0 表示停用快取
+     * @param ttlMillis 密鑰解析後可重用的時間
+     */
+    public ParsedKeyCache(int maxSize, long ttlMillis) {
+        this.maxSize = Math.max(0, maxSize);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * 取得已解析的密鑰，未命中或已過期時以 parser 解析後放入快取
+     *
+     * @param type 密鑰種類，例如 "RSA-PUBLIC"，避免同一組位元組被當成另一種密鑰
+     * @param encoded Base64 編碼的密鑰
+     */
+    public <K extends Key> K get(String type, String encoded, KeyParser<K> parser) throws Exception {
+        byte[] keyBytes = Base64.getDecoder().decode(encoded);
+        if (maxSize == 0) {
+            misses.increment();
+            return parser.parse(keyBytes);
+        }
+        String fingerprint = type + ":" + fingerprint(keyBytes);
+        long now = System.nanoTime();
+
+        lock.lock();
+        try {
+            Entry entry = entries.get(fingerprint);
+            if (entry != null) {
+                if (now - entry.parsedAt < ttlNanos) {
+                    hits.increment();
+                    @SuppressWarnings("unchecked")
+                    K key = (K) entry.key;
+                    return key;
+                }
+                entries.remove(fingerprint);
+                expirations.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // 在鎖外解析，同一密鑰同時未命中時可能重複解析，結果相同
+        misses.increment();
+        K key = parser.parse(keyBytes);
+        lock.lock();
+        try {
+            entries.put(fingerprint, new Entry(key, now));
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return key;
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public KeyCacheStatsDto stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return KeyCacheStatsDto.builder()
+                .size(size())
+                .maxSize(maxSize)
+                .ttlMillis(TimeUnit.NANOSECONDS.toMillis(ttlNanos))
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.sum())
+                .expirations(expirations.sum())
+                .hitRate(total == 0 ? 0.0 : (double) hitCount / total)
+                .build();
+    }
+
+    private static String fingerprint(byte[] keyBytes) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(keyBytes);
+        return Base64.getEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private static final class Entry {
+
+        private final Key key;
+        private final long parsedAt;
+
+        Entry(Key key, long parsedAt) {
+            this.key = key;
+            this.parsedAt = parsedAt;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.moty.demo.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 伺服器端私鑰加密工具類
+ * 以金鑰加密金鑰 (KEK) 做 AES-GCM 加密後再寫入資料表，keyId 作為附加驗證資料，
+ * 密文被搬到其他資料列時無法解密。密文格式為 "gcm:" + Base64(IV + 密文 + 驗證標籤)。
+ */
+public class PrivateKeyCipher {
+
+    private static final String PREFIX = "gcm:";
+
+    private static final int IV_BYTES = 12;
+
+    private static final int TAG_BITS = 128;
+
+    private final SecretKey kek;
+
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param kek AES 金鑰，長度須為 16、24 或 32 bytes
+     * @throws IllegalArgumentException 金鑰長度不符時拋出
+     */
+    public PrivateKeyCipher(byte[] kek) {
+        if (kek.length != 16 && kek.length != 24 && kek.length != 32) {
+            throw new IllegalArgumentException("金鑰加密金鑰長度須為 16、24 或 32 bytes，實際為 " + kek.length);
+        }
+        this.kek = new SecretKeySpec(kek, "AES");
+    }
+
+    /**
+     * 是否為本類別產生的密文，舊資料列可能仍是未加密的 Base64 私鑰
+     */
+    public static boolean isEncrypted(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    /**
+     * 加密 Base64 私鑰
+     *
+     * @param privateKey Base64 PKCS#8 私鑰
+     * @param keyId 密鑰 ID，解密時須相同
+     * @return 可寫入資料表的密文
+     */
+    public String encrypt(String privateKey, String keyId) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, kek, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(keyId.getBytes(StandardCharsets.UTF_8));
+        byte[] sealed = cipher.doFinal(privateKey.getBytes(StandardCharsets.UTF_8));
+        return PREFIX + Base64.getEncoder().encodeToString(
+                ByteBuffer.allocate(iv.length + sealed.length).put(iv).put(sealed).array());
+    }
+
+    /**
+     * 解密資料表中的私鑰
+     *
+     * @param stored encrypt() 產生的密文
+     * @param keyId 密鑰 ID
+     * @return Base64 PKCS#8 私鑰
+     * @throws GeneralSecurityException 密文遭竄改、keyId 不符或 KEK 錯誤時拋出
+     */
+    public String decrypt(String stored, String keyId) throws GeneralSecurityException {
+        if (!isEncrypted(stored)) {
+            throw new IllegalArgumentException("私鑰不是加密格式");
+        }
+        byte[] data = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        if (data.length <= IV_BYTES) {
+            throw new IllegalArgumentException("私鑰密文長度不足");
+        }
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, kek, new GCMParameterSpec(TAG_BITS, data, 0, IV_BYTES));
+        cipher.updateAAD(keyId.getBytes(StandardCharsets.UTF_8));
+        byte[] plain = cipher.doFinal(data, IV_BYTES, data.length - IV_BYTES);
+        return new String(plain, StandardCharsets.UTF_8);
+    }
+}
@@ -2,16 +2,33 @@ package com.example.moty.demo.util;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.example.moty.demo.config.SignatureProperties;
+import com.example.moty.demo.enums.SignatureAlgorithm;
+import com.example.moty.demo.model.dto.KeyCacheStatsDto;
+import com.example.moty.demo.model.dto.KeyPairPoolStatsDto;
+import com.example.moty.demo.model.dto.SignatureEngineStatsDto;
+import com.example.moty.demo.model.dto.VerificationCacheStatsDto;
+
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.*;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Base64;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 /**
  * RSA 數字簽名工具類
- * 提供 RSA 密鑰生成、數字簽名和驗證功能
+ * 提供 RSA 密鑰生成、數字簽名和驗證功能；
+ * 帶 SignatureAlgorithm 參數的方法另支援 RSA-PSS、ECDSA P-256/P-384 與 Ed25519
  */
 @Component
 public class RsaSignatureUtil {
@@ -21,19 +38,107 @@ public class RsaSignatureUtil {
     // RSA 算法名稱
     private static final String RSA_ALGORITHM = "RSA";
     
-    // 簽名算法名稱
-    private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
-    
     // 密鑰大小
     private static final int KEY_SIZE = 2048;
     
+    // 串流簽名每次讀入的位元組數
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    
+    // 已解析密鑰快取，Spring 注入設定後依 signature.key-cache.* 重建
+    private ParsedKeyCache keyCache = new ParsedKeyCache(1000, 600000);
+    
+    // 各執行緒已初始化的 Signature 引擎，依 signature.engine-pool.* 重建
+    private SignatureEnginePool enginePool = new SignatureEnginePool(16, 600000);
+    
+    // 檔案簽名每次映射的位元組數
+    private int mapWindowBytes = 256 * 1024 * 1024;
+    
+    // 預先生成密鑰對池設定，未注入設定時不啟用
+    private SignatureProperties.KeyPool keyPoolConfig;
+    
+    // 預先生成的密鑰對，啟用時於 Bean 初始化後建立
+    private volatile KeyPairPool keyPairPool;
+    
+    // 驗證成功結果快取，signature.verify-cache.enabled=true 時才建立
+    private VerificationCache verificationCache;
+    
+    /**
+     * 依設定建立密鑰快取與簽名引擎池
+     * 
+     * @param signatureProperties 簽名設定
+     */
+    @Autowired(required = false)
+    public void setSignatureProperties(SignatureProperties signatureProperties) {
+        SignatureProperties.KeyCache config = signatureProperties.getKeyCache();
+        this.keyCache = new ParsedKeyCache(config.getMaxSize(), config.getTtlMillis());
+        // 引擎持有密鑰，與已解析密鑰同時過期
+        this.enginePool = new SignatureEnginePool(signatureProperties.getEnginePool().getMaxPerThread(),
+                config.getTtlMillis());
+        this.mapWindowBytes = signatureProperties.getFiles().getMapWindowBytes();
+        this.keyPoolConfig = signatureProperties.getKeyPool();
+        SignatureProperties.VerifyCache verifyCache = signatureProperties.getVerifyCache();
+        this.verificationCache = verifyCache.isEnabled()
+                ? new VerificationCache(verifyCache.getMaxSize(), verifyCache.getTtlMillis()) : null;
+    }
+    
+    /**
+     * 依 signature.key-pool.* 啟動密鑰對預先生成
+     */
+    @PostConstruct
+    public void startKeyPairPool() {
+        if (keyPoolConfig == null || !keyPoolConfig.isEnabled()) {
+            return;
+        }
+        KeyPairPool pool = new KeyPairPool(this::newKeyPair, keyPoolConfig.getCapacity(),
+                keyPoolConfig.getLowWatermark(), keyPoolConfig.getHighWatermark(),
+                keyPoolConfig.getRefillThreads(), "KeyPairPool-");
+        pool.start();
+        this.keyPairPool = pool;
+        logger.info("RSA 密鑰對預先生成已啟動，水位 {} / {}，容量 {}", keyPoolConfig.getLowWatermark(),
+                keyPoolConfig.getHighWatermark(), keyPoolConfig.getCapacity());
+    }
+    
+    @PreDestroy
+    public void stopKeyPairPool() {
+        KeyPairPool pool = keyPairPool;
+        if (pool != null) {
+            keyPairPool = null;
+            pool.close();
+        }
+    }
+    
     /**
      * 生成 RSA 密鑰對
+     * 啟用預先生成時直接從池中取得，池已取空才當場生成
      * 
      * @return RSA 密鑰對
      * @throws Exception 生成失敗時拋出異常
      */
     public KeyPair generateKeyPair() throws Exception {
+        KeyPairPool pool = keyPairPool;
+        return pool != null ? pool.take() : newKeyPair();
+    }
+    
+    /**
+     * 生成指定演算法的密鑰對
+     * RSA 系列沿用預先生成的 RSA-2048 密鑰對池
+     * 
+     * @param algorithm 簽名演算法
+     * @return 密鑰對
+     * @throws Exception 生成失敗時拋出異常
+     */
+    public KeyPair generateKeyPair(SignatureAlgorithm algorithm) throws Exception {
+        if (RSA_ALGORITHM.equals(algorithm.getKeyAlgorithm())) {
+            return generateKeyPair();
+        }
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(algorithm.getKeyAlgorithm());
+        if (algorithm.getKeyGenParameters() != null) {
+            keyPairGenerator.initialize(algorithm.getKeyGenParameters());
+        }
+        return keyPairGenerator.generateKeyPair();
+    }
+    
+    private KeyPair newKeyPair() throws Exception {
         KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(RSA_ALGORITHM);
         keyPairGenerator.initialize(KEY_SIZE);
         return keyPairGenerator.generateKeyPair();
@@ -61,30 +166,92 @@ public class RsaSignatureUtil {
     
     /**
      * 從 Base64 編碼的字符串恢復公鑰
+     * 相同密鑰在 TTL 內直接取自快取
      * 
      * @param publicKeyString Base64 編碼的公鑰字符串
      * @return 公鑰對象
      * @throws Exception 恢復失敗時拋出異常
      */
     public PublicKey stringToPublicKey(String publicKeyString) throws Exception {
-        byte[] keyBytes = Base64.getDecoder().decode(publicKeyString);
-        X509EncodedKeySpec keySpec = new X509EncodedKeySpec(keyBytes);
-        KeyFactory keyFactory = KeyFactory.getInstance(RSA_ALGORITHM);
-        return keyFactory.generatePublic(keySpec);
+        return stringToPublicKey(publicKeyString, SignatureAlgorithm.RSA_SHA256);
+    }
+    
+    /**
+     * 從 Base64 編碼的字符串恢復指定演算法的公鑰
+     * 
+     * @param publicKeyString Base64 編碼的 X.509 公鑰字符串
+     * @param algorithm 簽名演算法
+     * @return 公鑰對象
+     * @throws Exception 恢復失敗時拋出異常
+     */
+    public PublicKey stringToPublicKey(String publicKeyString, SignatureAlgorithm algorithm) throws Exception {
+        String keyAlgorithm = algorithm.getKeyAlgorithm();
+        return keyCache.get(keyAlgorithm + "-PUBLIC", publicKeyString,
+                keyBytes -> KeyFactory.getInstance(keyAlgorithm).generatePublic(new X509EncodedKeySpec(keyBytes)));
     }
     
     /**
      * 從 Base64 編碼的字符串恢復私鑰
+     * 相同密鑰在 TTL 內直接取自快取
      * 
      * @param privateKeyString Base64 編碼的私鑰字符串
      * @return 私鑰對象
      * @throws Exception 恢復失敗時拋出異常
      */
     public PrivateKey stringToPrivateKey(String privateKeyString) throws Exception {
-        byte[] keyBytes = Base64.getDecoder().decode(privateKeyString);
-        PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(keyBytes);
-        KeyFactory keyFactory = KeyFactory.getInstance(RSA_ALGORITHM);
-        return keyFactory.generatePrivate(keySpec);
+        return stringToPrivateKey(privateKeyString, SignatureAlgorithm.RSA_SHA256);
+    }
+    
+    /**
+     * 從 Base64 編碼的字符串恢復指定演算法的私鑰
+     * 
+     * @param privateKeyString Base64 編碼的 PKCS#8 私鑰字符串
+     * @param algorithm 簽名演算法
+     * @return 私鑰對象
+     * @throws Exception 恢復失敗時拋出異常
+     */
+    public PrivateKey stringToPrivateKey(String privateKeyString, SignatureAlgorithm algorithm) throws Exception {
+        String keyAlgorithm = algorithm.getKeyAlgorithm();
+        return keyCache.get(keyAlgorithm + "-PRIVATE", privateKeyString,
+                keyBytes -> KeyFactory.getInstance(keyAlgorithm).generatePrivate(new PKCS8EncodedKeySpec(keyBytes)));
+    }
+    
+    /**
+     * 取得已解析密鑰快取的命中率等統計
+     * 
+     * @return 快取統計
+     */
+    public KeyCacheStatsDto keyCacheStats() {
+        return keyCache.stats();
+    }
+    
+    /**
+     * 取得預先生成密鑰對池的存量與取空次數
+     * 
+     * @return 密鑰對池統計，未啟用時為 null
+     */
+    public KeyPairPoolStatsDto keyPairPoolStats() {
+        KeyPairPool pool = keyPairPool;
+        return pool != null ? pool.stats() : null;
+    }
+    
+    /**
+     * 取得驗證結果快取的命中率等統計
+     * 
+     * @return 快取統計，未啟用時為 null
+     */
+    public VerificationCacheStatsDto verificationCacheStats() {
+        VerificationCache cache = verificationCache;
+        return cache != null ? cache.stats() : null;
+    }
+    
+    /**
+     * 取得簽名引擎池的重用統計
+     * 
+     * @return 引擎池統計
+     */
+    public SignatureEngineStatsDto engineStats() {
+        return enginePool.stats();
     }
     
     /**
@@ -96,10 +263,7 @@ public class RsaSignatureUtil {
      * @throws Exception 簽名失敗時拋出異常
      */
     public String sign(String data, PrivateKey privateKey) throws Exception {
-        Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
-        signature.initSign(privateKey);
-        signature.update(data.getBytes("UTF-8"));
-        return Base64.getEncoder().encodeToString(signature.sign());
+        return signBytes(data.getBytes("UTF-8"), privateKey);
     }
     
     /**
@@ -112,11 +276,7 @@ public class RsaSignatureUtil {
      * @throws Exception 驗證失敗時拋出異常
      */
     public boolean verify(String data, String signatureString, PublicKey publicKey) throws Exception {
-        Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
-        signature.initVerify(publicKey);
-        signature.update(data.getBytes("UTF-8"));
-        byte[] signatureBytes = Base64.getDecoder().decode(signatureString);
-        return signature.verify(signatureBytes);
+        return verifyBytes(data.getBytes("UTF-8"), signatureString, publicKey);
     }
     
     /**
@@ -128,10 +288,25 @@ public class RsaSignatureUtil {
      * @throws Exception 簽名失敗時拋出異常
      */
     public String signBytes(byte[] data, PrivateKey privateKey) throws Exception {
-        Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
-        signature.initSign(privateKey);
-        signature.update(data);
-        return Base64.getEncoder().encodeToString(signature.sign());
+        return signBytes(data, privateKey, SignatureAlgorithm.RSA_SHA256);
+    }
+    
+    /**
+     * 以指定演算法對字節數組進行數字簽名
+     * 
+     * @param data 要簽名的字節數組
+     * @param privateKey 與演算法相符的私鑰
+     * @param algorithm 簽名演算法
+     * @return Base64 編碼的簽名字符串
+     * @throws Exception 簽名失敗時拋出異常
+     */
+    public String signBytes(byte[] data, PrivateKey privateKey, SignatureAlgorithm algorithm) throws Exception {
+        byte[] signatureBytes = enginePool.withSigner(algorithm.getSignatureAlgorithm(),
+                algorithm.getSignatureParameters(), privateKey, signature -> {
+                    signature.update(data);
+                    return signature.sign();
+                });
+        return Base64.getEncoder().encodeToString(signatureBytes);
     }
     
     /**
@@ -144,11 +319,198 @@ public class RsaSignatureUtil {
      * @throws Exception 驗證失敗時拋出異常
      */
     public boolean verifyBytes(byte[] data, String signatureString, PublicKey publicKey) throws Exception {
-        Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
-        signature.initVerify(publicKey);
-        signature.update(data);
+        return verifyBytes(data, signatureString, publicKey, SignatureAlgorithm.RSA_SHA256);
+    }
+    
+    /**
+     * 以指定演算法驗證字節數組的數字簽名
+     * 
+     * @param data 原始字節數組
+     * @param signatureString Base64 編碼的簽名字符串
+     * @param publicKey 與演算法相符的公鑰
+     * @param algorithm 簽名演算法
+     * @return 驗證結果
+     * @throws Exception 驗證失敗時拋出異常
+     */
+    public boolean verifyBytes(byte[] data, String signatureString, PublicKey publicKey,
+                               SignatureAlgorithm algorithm) throws Exception {
+        byte[] signatureBytes = Base64.getDecoder().decode(signatureString);
+        return enginePool.withVerifier(algorithm.getSignatureAlgorithm(),
+                algorithm.getSignatureParameters(), publicKey, signature -> {
+                    signature.update(data);
+                    return signature.verify(signatureBytes);
+                });
+    }
+    
+    /**
+     * 驗證字節數組的數字簽名，啟用驗證結果快取時相同的 (資料, 簽名, 公鑰) 只實際驗證一次
+     * 快取只保存驗證成功的結果，失敗時每次都會重新驗證
+     * 
+     * @param data 原始字節數組
+     * @param signatureString Base64 編碼的簽名字符串
+     * @param publicKey 與演算法相符的公鑰
+     * @param algorithm 簽名演算法
+     * @return 驗證結果
+     * @throws Exception 驗證失敗時拋出異常
+     */
+    public boolean verifyBytesCached(byte[] data, String signatureString, PublicKey publicKey,
+                                     SignatureAlgorithm algorithm) throws Exception {
+        VerificationCache cache = verificationCache;
+        if (cache == null) {
+            return verifyBytes(data, signatureString, publicKey, algorithm);
+        }
+        return cache.verify(algorithm.getId(), publicKey, signatureString, data,
+                () -> verifyBytes(data, signatureString, publicKey, algorithm));
+    }
+    
+    /**
+     * 對輸入串流進行數字簽名
+     * 以固定大小的緩衝區分段送入 Signature，記憶體用量與資料大小無關
+     * 
+     * @param in 要簽名的資料串流，由呼叫端負責關閉
+     * @param privateKey 私鑰
+     * @return Base64 編碼的簽名字符串
+     * @throws Exception 讀取或簽名失敗時拋出異常
+     */
+    public String signStream(InputStream in, PrivateKey privateKey) throws Exception {
+        return signStream(in, privateKey, SignatureAlgorithm.RSA_SHA256);
+    }
+    
+    /**
+     * 以指定演算法對輸入串流進行數字簽名
+     * 
+     * @param in 要簽名的資料串流，由呼叫端負責關閉
+     * @param privateKey 與演算法相符的私鑰
+     * @param algorithm 簽名演算法
+     * @return Base64 編碼的簽名字符串
+     * @throws Exception 讀取或簽名失敗時拋出異常
+     */
+    public String signStream(InputStream in, PrivateKey privateKey, SignatureAlgorithm algorithm) throws Exception {
+        byte[] signatureBytes = enginePool.withSigner(algorithm.getSignatureAlgorithm(),
+                algorithm.getSignatureParameters(), privateKey, signature -> {
+                    update(signature, in);
+                    return signature.sign();
+                });
+        return Base64.getEncoder().encodeToString(signatureBytes);
+    }
+    
+    /**
+     * 驗證輸入串流的數字簽名
+     * 
+     * @param in 原始資料串流，由呼叫端負責關閉
+     * @param signatureString Base64 編碼的簽名字符串
+     * @param publicKey 公鑰
+     * @return 驗證結果
+     * @throws Exception 讀取或驗證失敗時拋出異常
+     */
+    public boolean verifyStream(InputStream in, String signatureString, PublicKey publicKey) throws Exception {
+        return verifyStream(in, signatureString, publicKey, SignatureAlgorithm.RSA_SHA256);
+    }
+    
+    /**
+     * 以指定演算法驗證輸入串流的數字簽名
+     * 
+     * @param in 原始資料串流，由呼叫端負責關閉
+     * @param signatureString Base64 編碼的簽名字符串
+     * @param publicKey 與演算法相符的公鑰
+     * @param algorithm 簽名演算法
+     * @return 驗證結果
+     * @throws Exception 讀取或驗證失敗時拋出異常
+     */
+    public boolean verifyStream(InputStream in, String signatureString, PublicKey publicKey,
+                                SignatureAlgorithm algorithm) throws Exception {
+        byte[] signatureBytes = Base64.getDecoder().decode(signatureString);
+        return enginePool.withVerifier(algorithm.getSignatureAlgorithm(),
+                algorithm.getSignatureParameters(), publicKey, signature -> {
+                    update(signature, in);
+                    return signature.verify(signatureBytes);
+                });
+    }
+    
+    /**
+     * 對本機檔案進行數字簽名
+     * 以 FileChannel.map 逐段映射檔案 (每段 signature.files.map-window-bytes)，
+     * 映射的緩衝區直接送入 Signature.update，檔案內容不會複製到 Java heap
+     * 
+     * @param file 要簽名的檔案
+     * @param privateKey 私鑰
+     * @return Base64 編碼的簽名字符串
+     * @throws Exception 讀取或簽名失敗時拋出異常
+     */
+    public String signFile(Path file, PrivateKey privateKey) throws Exception {
+        return signFile(file, privateKey, SignatureAlgorithm.RSA_SHA256);
+    }
+    
+    /**
+     * 以指定演算法對本機檔案進行數字簽名
+     * 
+     * @param file 要簽名的檔案
+     * @param privateKey 與演算法相符的私鑰
+     * @param algorithm 簽名演算法
+     * @return Base64 編碼的簽名字符串
+     * @throws Exception 讀取或簽名失敗時拋出異常
+     */
+    public String signFile(Path file, PrivateKey privateKey, SignatureAlgorithm algorithm) throws Exception {
+        byte[] signatureBytes = enginePool.withSigner(algorithm.getSignatureAlgorithm(),
+                algorithm.getSignatureParameters(), privateKey, signature -> {
+                    updateMapped(signature, file);
+                    return signature.sign();
+                });
+        return Base64.getEncoder().encodeToString(signatureBytes);
+    }
+    
+    /**
+     * 驗證本機檔案的數字簽名
+     * 
+     * @param file 原始檔案
+     * @param signatureString Base64 編碼的簽名字符串
+     * @param publicKey 公鑰
+     * @return 驗證結果
+     * @throws Exception 讀取或驗證失敗時拋出異常
+     */
+    public boolean verifyFile(Path file, String signatureString, PublicKey publicKey) throws Exception {
+        return verifyFile(file, signatureString, publicKey, SignatureAlgorithm.RSA_SHA256);
+    }
+    
+    /**
+     * 以指定演算法驗證本機檔案的數字簽名
+     * 
+     * @param file 原始檔案
+     * @param signatureString Base64 編碼的簽名字符串
+     * @param publicKey 與演算法相符的公鑰
+     * @param algorithm 簽名演算法
+     * @return 驗證結果
+     * @throws Exception 讀取或驗證失敗時拋出異常
+     */
+    public boolean verifyFile(Path file, String signatureString, PublicKey publicKey,
+                              SignatureAlgorithm algorithm) throws Exception {
         byte[] signatureBytes = Base64.getDecoder().decode(signatureString);
-        return signature.verify(signatureBytes);
+        return enginePool.withVerifier(algorithm.getSignatureAlgorithm(),
+                algorithm.getSignatureParameters(), publicKey, signature -> {
+                    updateMapped(signature, file);
+                    return signature.verify(signatureBytes);
+                });
+    }
+    
+    private void updateMapped(Signature signature, Path file) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += mapWindowBytes) {
+                long length = Math.min(mapWindowBytes, size - position);
+                // 視窗大小只限制單一映射 (MappedByteBuffer 上限為 2GB)；映射要等 GC 回收緩衝區才解除，
+                // 處理大檔時已讀過的視窗可能仍佔用位址空間，最多到整個檔案大小 (由 page cache 支撐，不佔 heap)
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                signature.update(window);
+            }
+        }
+    }
+    
+    private static void update(Signature signature, InputStream in) throws Exception {
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            signature.update(buffer, 0, read);
+        }
     }
     
     /**
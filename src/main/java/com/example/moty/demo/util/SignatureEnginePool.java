@@ -0,0 +1,209 @@
+package com.example.moty.demo.util;
+
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.moty.demo.model.dto.SignatureEngineStatsDto;
+
+/**
+ * 預先初始化的 Signature 引擎池
+ * 每個執行緒各自保存以 (演算法, 模式, 密鑰) 為鍵的 Signature，已完成 getInstance 與
+ * initSign / initVerify；sign() 與 verify() 完成後引擎會回到初始化後的狀態，可直接重用。
+ * 密鑰以物件身分比對，搭配 ParsedKeyCache 時同一指紋的密鑰即為同一物件。
+ * 每個執行緒最多保存 maxEnginesPerThread 個引擎，依 LRU 淘汰；使用中拋出例外的引擎狀態不明，直接丟棄。
+ * 引擎建立後最多保存 ttlMillis (與密鑰快取相同)，每次使用時清除該執行緒已過期的引擎，
+ * 呼叫端傳入的私鑰不會因為引擎池而一直留在記憶體中。
+ * 引擎借出期間從執行緒的池中移除，同一執行緒巢狀使用相同密鑰時會另建引擎。
+ */
+public class SignatureEnginePool {
+
+    /**
+     * 使用已初始化引擎的操作
+     */
+    @FunctionalInterface
+    public interface EngineCallback<T> {
+        T apply(Signature engine) throws Exception;
+    }
+
+    /**
+     * 引擎池未另外設定有效時間時使用，與 signature.key-cache.ttl-millis 的預設值相同
+     */
+    public static final long DEFAULT_TTL_MILLIS = 600000;
+
+    private final int maxEnginesPerThread;
+
+    private final long ttlNanos;
+
+    private final ThreadLocal<LinkedHashMap<EngineKey, PooledEngine>> engines;
+
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    /**
+     * @param maxEnginesPerThread 每個執行緒保存的引擎數，0 表示每次都建立新引擎
+     */
+    public SignatureEnginePool(int maxEnginesPerThread) {
+        this(maxEnginesPerThread, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * @param maxEnginesPerThread 每個執行緒保存的引擎數，0 表示每次都建立新引擎
+     * @param ttlMillis 引擎建立後可重用的時間
+     */
+    public SignatureEnginePool(int maxEnginesPerThread, long ttlMillis) {
+        this.maxEnginesPerThread = Math.max(0, maxEnginesPerThread);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.engines = ThreadLocal.withInitial(() -> new LinkedHashMap<EngineKey, PooledEngine>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<EngineKey, PooledEngine> eldest) {
+                return size() > SignatureEnginePool.this.maxEnginesPerThread;
+            }
+        });
+    }
+
+    /**
+     * 以已 initSign 的引擎執行 callback
+     */
+    public <T> T withSigner(String algorithm, PrivateKey privateKey, EngineCallback<T> callback) throws Exception {
+        return withSigner(algorithm, null, privateKey, callback);
+    }
+
+    /**
+     * 以已設定參數 (例如 PSS) 並 initSign 的引擎執行 callback
+     * 同一演算法名稱應固定使用同一個參數物件，參數以物件身分區分引擎
+     */
+    public <T> T withSigner(String algorithm, AlgorithmParameterSpec parameters, PrivateKey privateKey,
+                            EngineCallback<T> callback) throws Exception {
+        return with(new EngineKey(algorithm, parameters, true, privateKey), callback);
+    }
+
+    /**
+     * 以已 initVerify 的引擎執行 callback
+     */
+    public <T> T withVerifier(String algorithm, PublicKey publicKey, EngineCallback<T> callback) throws Exception {
+        return withVerifier(algorithm, null, publicKey, callback);
+    }
+
+    /**
+     * 以已設定參數並 initVerify 的引擎執行 callback
+     */
+    public <T> T withVerifier(String algorithm, AlgorithmParameterSpec parameters, PublicKey publicKey,
+                              EngineCallback<T> callback) throws Exception {
+        return with(new EngineKey(algorithm, parameters, false, publicKey), callback);
+    }
+
+    public SignatureEngineStatsDto stats() {
+        return SignatureEngineStatsDto.builder()
+                .maxEnginesPerThread(maxEnginesPerThread)
+                .ttlMillis(TimeUnit.NANOSECONDS.toMillis(ttlNanos))
+                .reused(reused.sum())
+                .created(created.sum())
+                .discarded(discarded.sum())
+                .expired(expired.sum())
+                .build();
+    }
+
+    private <T> T with(EngineKey engineKey, EngineCallback<T> callback) throws Exception {
+        Map<EngineKey, PooledEngine> pool = maxEnginesPerThread > 0 ? engines.get() : null;
+        long now = System.nanoTime();
+        if (pool != null) {
+            removeExpired(pool, now);
+        }
+        PooledEngine pooled = pool != null ? pool.remove(engineKey) : null;
+        Signature engine;
+        long createdAt;
+        if (pooled != null) {
+            engine = pooled.engine;
+            createdAt = pooled.createdAt;
+            reused.increment();
+        } else {
+            engine = Signature.getInstance(engineKey.algorithm);
+            createdAt = now;
+            if (engineKey.parameters != null) {
+                engine.setParameter(engineKey.parameters);
+            }
+            if (engineKey.sign) {
+                engine.initSign((PrivateKey) engineKey.key);
+            } else {
+                engine.initVerify((PublicKey) engineKey.key);
+            }
+            created.increment();
+        }
+
+        T result;
+        try {
+            result = callback.apply(engine);
+        } catch (Exception | Error e) {
+            // 可能停在 update 中途，不可再交給下一個呼叫
+            discarded.increment();
+            throw e;
+        }
+        if (pool != null) {
+            pool.put(engineKey, new PooledEngine(engine, createdAt));
+        }
+        return result;
+    }
+
+    private void removeExpired(Map<EngineKey, PooledEngine> pool, long now) {
+        Iterator<PooledEngine> iterator = pool.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().createdAt >= ttlNanos) {
+                iterator.remove();
+                expired.increment();
+            }
+        }
+    }
+
+    private static final class PooledEngine {
+
+        private final Signature engine;
+        private final long createdAt;
+
+        PooledEngine(Signature engine, long createdAt) {
+            this.engine = engine;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private static final class EngineKey {
+
+        private final String algorithm;
+        private final AlgorithmParameterSpec parameters;
+        private final boolean sign;
+        private final Key key;
+
+        EngineKey(String algorithm, AlgorithmParameterSpec parameters, boolean sign, Key key) {
+            this.algorithm = algorithm;
+            this.parameters = parameters;
+            this.sign = sign;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof EngineKey)) {
+                return false;
+            }
+            EngineKey that = (EngineKey) other;
+            return key == that.key && sign == that.sign && parameters == that.parameters
+                    && algorithm.equals(that.algorithm);
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(key) * 31 + algorithm.hashCode()) * 31 + (sign ? 1 : 0);
+        }
+    }
+}
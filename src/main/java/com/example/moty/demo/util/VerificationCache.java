@@ -0,0 +1,156 @@
+package com.example.moty.demo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.example.moty.demo.model.dto.VerificationCacheStatsDto;
+
+/**
+ * 簽名驗證結果快取
+ * 以 (演算法, 公鑰, 簽名, 資料) 的 SHA-256 為鍵，只保存驗證成功的結果；
+ * 同一組資料重複驗證時 (例如 webhook 重送、同一文件分送多個消費者) 只需計算一次雜湊即可回傳。
+ * 驗證失敗不快取，下一次仍會實際驗證。依存取順序淘汰最久未使用者 (LRU)，超過 TTL 後重新驗證；
+ * 快取內只有雜湊，不保存資料、簽名或密鑰。
+ */
+public class VerificationCache {
+
+    /**
+     * 快取未命中時的實際驗證
+     */
+    @FunctionalInterface
+    public interface Verifier {
+        boolean verify() throws Exception;
+    }
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // 存取順序的 LinkedHashMap，值為驗證成功的時間，由 lock 保護
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param maxSize 最多保存的驗證結果數
+     * @param ttlMillis 驗證成功的結果可重用的時間
+     */
+    public VerificationCache(int maxSize, long ttlMillis) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * 命中時直接回傳 true，否則以 verifier 驗證，成功時放入快取
+     *
+     * @param algorithm 簽名演算法
+     * @param publicKey 公鑰
+     * @param signature Base64 編碼的簽名
+     * @param data 原始資料
+     * @param verifier 實際驗證
+     * @return 驗證結果
+     */
+    public boolean verify(String algorithm, PublicKey publicKey, String signature, byte[] data, Verifier verifier)
+            throws Exception {
+        String fingerprint = fingerprint(algorithm, publicKey, signature, data);
+        long now = System.nanoTime();
+
+        lock.lock();
+        try {
+            Long verifiedAt = entries.get(fingerprint);
+            if (verifiedAt != null) {
+                if (now - verifiedAt < ttlNanos) {
+                    hits.increment();
+                    return true;
+                }
+                entries.remove(fingerprint);
+                expirations.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+        boolean verified = verifier.verify();
+        if (!verified) {
+            return false;
+        }
+        lock.lock();
+        try {
+            entries.put(fingerprint, now);
+            Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public VerificationCacheStatsDto stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return VerificationCacheStatsDto.builder()
+                .size(size())
+                .maxSize(maxSize)
+                .ttlMillis(TimeUnit.NANOSECONDS.toMillis(ttlNanos))
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.sum())
+                .expirations(expirations.sum())
+                .hitRate(total == 0 ? 0.0 : (double) hitCount / total)
+                .build();
+    }
+
+    private static String fingerprint(String algorithm, PublicKey publicKey, String signature, byte[] data)
+            throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        // 每個欄位前加上長度，避免不同欄位組合串接後相同
+        update(digest, algorithm.getBytes(StandardCharsets.UTF_8));
+        update(digest, publicKey.getEncoded());
+        update(digest, signature.getBytes(StandardCharsets.US_ASCII));
+        update(digest, data);
+        return Base64.getEncoder().withoutPadding().encodeToString(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, byte[] field) {
+        int length = field.length;
+        digest.update(new byte[] {(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length});
+        digest.update(field);
+    }
+}
@@ -0,0 +1,18 @@
+-- Monthly range partitioning for audit_log (MySQL 8)
+-- Run once, then set audit.partitioning.enabled=true so AuditRetentionService
+-- keeps future partitions ready and drops expired ones.
+--
+-- MySQL requires the partitioning column in every unique key,
+-- so the primary key becomes (id, created_at). id stays AUTO_INCREMENT and unique.
+
+ALTER TABLE audit_log
+    MODIFY created_at DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+-- Adjust the first partition to the oldest month still present in the table
+ALTER TABLE audit_log
+    PARTITION BY RANGE COLUMNS (created_at) (
+        PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
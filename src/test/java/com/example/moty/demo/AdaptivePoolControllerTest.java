@@ -0,0 +1,136 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.config.AsyncProperties;
+import com.example.moty.demo.enums.BulkheadRejectionPolicy;
+import com.example.moty.demo.executor.AdaptivePoolController;
+import com.example.moty.demo.executor.ExecutorMetrics;
+import com.example.moty.demo.executor.ExecutorMetricsRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 自適應執行緒池測試
+ * 以模擬時鐘與人工寫入的佇列等待時間驅動控制器，測試擴充步伐、吞吐量沒有提升時退回並設上限、
+ * 調整後的冷卻期，以及核心與最大執行緒數不超過設定的 max-pool-size
+ */
+public class AdaptivePoolControllerTest {
+
+    private static final long INTERVAL = 20_000;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    private final ExecutorMetricsRegistry registry = new ExecutorMetricsRegistry();
+
+    @Test
+    public void testHillClimbingCeilingAndCooldown() {
+        ThreadPoolTaskExecutor pool = newPool(4, 40);
+        ExecutorMetrics metrics = registry.get("test");
+        AdaptivePoolController controller = new AdaptivePoolController(properties(), registry, clock::get);
+        try {
+            controller.adjust();
+
+            // p99 超過目標 50ms 的 4 倍，步伐受 max-step 限制為 8
+            tick(metrics, 100, 100);
+            controller.adjust();
+            assertEquals(12, pool.getCorePoolSize());
+            assertEquals(17, pool.getMaxPoolSize(), "最大執行緒數為核心數加上 burst-threads");
+
+            // 冷卻期內即使仍然過載也不調整
+            clock.addAndGet(5_000);
+            controller.adjust();
+            assertEquals(12, pool.getCorePoolSize(), "冷卻期內不應調整");
+
+            // 吞吐量沒有提升：退回上一步並以原大小為上限
+            tick(metrics, 100, 100);
+            controller.adjust();
+            assertEquals(4, pool.getCorePoolSize(), "擴充沒有帶來吞吐量時應退回");
+
+            tick(metrics, 100, 100);
+            controller.adjust();
+            assertEquals(4, pool.getCorePoolSize(), "延遲恢復前不可超過上限");
+
+            // 延遲恢復後上限解除，閒置時每次縮小一條執行緒
+            tick(metrics, 100, 0);
+            controller.adjust();
+            assertEquals(3, pool.getCorePoolSize());
+
+            tick(metrics, 100, 100);
+            controller.adjust();
+            assertEquals(11, pool.getCorePoolSize(), "上限解除後可再次擴充");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testGrowthClampedToConfiguredMax() {
+        ThreadPoolTaskExecutor pool = newPool(2, 6);
+        ExecutorMetrics metrics = registry.get("test");
+        AdaptivePoolController controller = new AdaptivePoolController(properties(), registry, clock::get);
+        try {
+            controller.adjust();
+
+            tick(metrics, 100, 100);
+            controller.adjust();
+            assertEquals(6, pool.getCorePoolSize(), "核心數不可超過設定的 max-pool-size");
+            assertEquals(6, pool.getMaxPoolSize(), "不可覆寫設定的 max-pool-size");
+
+            // 吞吐量提升，保留這一步；已達上限不再擴充
+            tick(metrics, 300, 300);
+            controller.adjust();
+            assertEquals(6, pool.getCorePoolSize());
+            assertEquals(6, pool.getMaxPoolSize());
+
+            // 閒置時縮小，最大執行緒數仍不超過設定值
+            tick(metrics, 0, 0);
+            controller.adjust();
+            assertEquals(5, pool.getCorePoolSize());
+            assertEquals(6, pool.getMaxPoolSize());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private ThreadPoolTaskExecutor newPool(int core, int max) {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(core);
+        pool.setMaxPoolSize(max);
+        pool.setQueueCapacity(100);
+        registry.instrument("test", pool, BulkheadRejectionPolicy.ABORT);
+        pool.initialize();
+        return pool;
+    }
+
+    private static AsyncProperties properties() {
+        AsyncProperties properties = new AsyncProperties();
+        AsyncProperties.Adaptive adaptive = properties.getAdaptive();
+        adaptive.setExecutors(Collections.singletonList("test"));
+        adaptive.setTargetP99Millis(50);
+        adaptive.setMinCorePoolSize(2);
+        adaptive.setMaxCorePoolSize(64);
+        adaptive.setBurstThreads(5);
+        adaptive.setMaxStep(8);
+        adaptive.setMinSamples(20);
+        adaptive.setCooldownMillis(15_000);
+        return properties;
+    }
+
+    /**
+     * 推進一個區間：completed 個立即完成的任務，以及 slow 筆 200ms 的佇列等待
+     */
+    private void tick(ExecutorMetrics metrics, int completed, int slow) {
+        clock.addAndGet(INTERVAL);
+        for (int i = 0; i < completed; i++) {
+            metrics.decorate(() -> { }).run();
+        }
+        for (int i = 0; i < slow; i++) {
+            metrics.getQueueWait().record(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+    }
+}
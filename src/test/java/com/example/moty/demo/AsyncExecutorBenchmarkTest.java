@@ -0,0 +1,103 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.executor.VirtualThreadSupport;
+import com.example.moty.demo.security.SecurityContextPropagation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * taskExecutor 吞吐量基準測試
+ * 以阻塞任務（模擬 sleep / JPA 儲存）比較平台執行緒池與虛擬執行緒，
+ * 並確認兩種模式下 SecurityContext 皆由 task decorator 傳遞到工作執行緒。
+ * 執行方式: ./gradlew benchmark -PjavaTarget=21
+ */
+@Tag("benchmark")
+public class AsyncExecutorBenchmarkTest {
+
+    private static final int TASKS = 2000;
+
+    private static final long BLOCK_MILLIS = 20;
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void benchmarkPlatformThreads() throws Exception {
+        // 與 AsyncConfig 預設值相同: core 5, max 10, queue 100
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(5);
+        pool.setMaxPoolSize(10);
+        pool.setQueueCapacity(100);
+        pool.setThreadNamePrefix("Bench-");
+        // 預設 AbortPolicy 會直接拒絕，基準測試改由呼叫端執行以維持回壓
+        pool.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.setTaskDecorator(SecurityContextPropagation.taskDecorator());
+        pool.initialize();
+        try {
+            run("platform", pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void benchmarkVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreadSupport.isSupported(), "虛擬執行緒需要 Java 21");
+        ExecutorService virtual = VirtualThreadSupport.newThreadPerTaskExecutor("Bench-vt-");
+        try {
+            TaskExecutorAdapter adapter = new TaskExecutorAdapter(virtual);
+            adapter.setTaskDecorator(SecurityContextPropagation.taskDecorator());
+            run("virtual", adapter);
+        } finally {
+            virtual.shutdown();
+        }
+    }
+
+    private void run(String name, AsyncTaskExecutor executor) throws Exception {
+        Authentication user = new TestingAuthenticationToken("bench-user", null, "ROLE_USER");
+        SecurityContextHolder.getContext().setAuthentication(user);
+
+        CountDownLatch done = new CountDownLatch(TASKS);
+        AtomicInteger propagated = new AtomicInteger();
+        long start = System.nanoTime();
+        for (int i = 0; i < TASKS; i++) {
+            executor.execute(() -> {
+                try {
+                    Authentication current = SecurityContextHolder.getContext().getAuthentication();
+                    if (current != null && "bench-user".equals(current.getName())) {
+                        propagated.incrementAndGet();
+                    }
+                    Thread.sleep(BLOCK_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.MINUTES), "任務未在時限內完成");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.printf("%-8s tasks=%d block=%dms elapsed=%dms throughput=%.1f tasks/s%n",
+                name, TASKS, BLOCK_MILLIS, elapsedMillis, TASKS * 1000.0 / Math.max(1, elapsedMillis));
+        assertEquals(TASKS, propagated.get(), "每個任務都應取得呼叫端的 SecurityContext");
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.moty.demo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.moty.demo.config.AuditProperties;
+import com.example.moty.demo.model.dto.AuditLogDto;
+import com.example.moty.demo.model.po.AuditLog;
+import com.example.moty.demo.repo.AuditLogRepository;
+import com.example.moty.demo.service.archive.AuditArchiveReader;
+import com.example.moty.demo.service.archive.AuditArchiveSegment;
+import com.example.moty.demo.service.archive.AuditArchiveService;
+import com.example.moty.demo.service.archive.AuditArchiveWriter;
+
+/**
+ * 審計歸檔格式測試
+ * 測試列式壓縮段的寫入與掃描，以及歸檔中斷後重新執行不會重複寫入段與索引
+ */
+public class AuditArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testWriteAndScan() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0, 0, 123456000);
+        AuditArchiveWriter writer = new AuditArchiveWriter(directory, 40);
+        for (int i = 0; i < 100; i++) {
+            AuditLog log = new AuditLog();
+            log.setId((long) i + 1);
+            log.setUsername(i % 3 == 0 ? "admin" : "user" + (i % 2));
+            log.setAction(i % 10 == 0 ? null : "Hello");
+            log.setDetails(i % 7 == 0 ? null : "[detail-" + i + "]");
+            log.setCreatedAt(base.plusSeconds(i));
+            writer.append(log);
+        }
+        List<AuditArchiveSegment> segments = writer.finish();
+        assertEquals(3, segments.size(), "100 筆資料應寫成 3 個段");
+        assertEquals(40, segments.get(0).getRows());
+        assertEquals(20, segments.get(2).getRows());
+
+        List<AuditLogDto> all = new ArrayList<>();
+        for (AuditArchiveSegment segment : segments) {
+            AuditArchiveReader.scan(directory.resolve(segment.getFileName()), null, null,
+                    Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE, all);
+        }
+        assertEquals(100, all.size());
+        AuditLogDto row = all.get(13);
+        assertEquals(14L, row.getId());
+        assertEquals("user1", row.getUsername());
+        assertEquals("Hello", row.getAction());
+        assertEquals("[detail-13]", row.getDetails());
+        assertEquals(base.plusSeconds(13), row.getCreatedAt());
+        assertNull(all.get(0).getDetails());
+        assertNull(all.get(10).getAction());
+
+        List<AuditLogDto> admins = new ArrayList<>();
+        for (AuditArchiveSegment segment : segments) {
+            AuditArchiveReader.scan(directory.resolve(segment.getFileName()), "admin", "Hello",
+                    Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE, admins);
+        }
+        assertFalse(admins.isEmpty());
+        admins.forEach(dto -> {
+            assertEquals("admin", dto.getUsername());
+            assertEquals("Hello", dto.getAction());
+        });
+
+        List<AuditLogDto> missing = new ArrayList<>();
+        AuditArchiveReader.scan(directory.resolve(segments.get(0).getFileName()), "nobody", null,
+                Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE, missing);
+        assertTrue(missing.isEmpty(), "字典中不存在的用戶應直接跳過");
+    }
+
+    @Test
+    public void testRerunAfterCrashDoesNotDuplicate() throws Exception {
+        List<AuditLog> rows = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.now().minusDays(100);
+        for (int i = 0; i < 100; i++) {
+            AuditLog log = new AuditLog();
+            log.setId((long) i + 1);
+            log.setUsername("alice");
+            log.setAction("SIGN");
+            log.setCreatedAt(base.plusSeconds(i));
+            rows.add(log);
+        }
+        AuditProperties properties = new AuditProperties();
+        properties.getArchive().setDirectory(directory.toString());
+        properties.getArchive().setAfterDays(30);
+        properties.getArchive().setRowsPerSegment(40);
+        boolean[] crash = {true};
+
+        // 段與待刪除標記已寫入，刪除資料列時中斷
+        AuditArchiveService first = archiveService(rows, properties, crash);
+        assertThrows(IllegalStateException.class, first::archive);
+        assertEquals(100, rows.size());
+        // 模擬在更新索引之前中斷：索引只能由待刪除標記補回
+        Files.delete(directory.resolve("segments.idx"));
+
+        crash[0] = false;
+        AuditArchiveService second = archiveService(rows, properties, crash);
+        assertEquals(0, second.archive(), "已寫入段的資料列只需補刪，不應再歸檔一次");
+        assertTrue(rows.isEmpty());
+        assertEquals(0, archiveService(rows, properties, crash).archive());
+
+        List<String> index = Files.readAllLines(directory.resolve("segments.idx"), StandardCharsets.UTF_8);
+        assertEquals(3, index.size(), "每個段在索引中只出現一次");
+        List<Long> ids = archiveService(rows, properties, crash).scan(null, null, null, null, null).stream()
+                .map(AuditLogDto::getId)
+                .collect(Collectors.toList());
+        assertEquals(100, ids.size());
+        assertEquals(100, ids.stream().distinct().count(), "掃描結果不可重複");
+    }
+
+    private static AuditArchiveService archiveService(List<AuditLog> rows, AuditProperties properties,
+                                                      boolean[] crash) throws Exception {
+        AuditArchiveService service = new AuditArchiveService(logRepository(rows, crash), properties,
+                transactionManager(), entityManager());
+        service.init();
+        return service;
+    }
+
+    /**
+     * 記憶體資料表，只實作歸檔用到的串流讀取與分批刪除，crash[0] 為 true 時刪除失敗
+     */
+    private static AuditLogRepository logRepository(List<AuditLog> rows, boolean[] crash) {
+        return (AuditLogRepository) Proxy.newProxyInstance(AuditArchiveTest.class.getClassLoader(),
+                new Class<?>[] {AuditLogRepository.class}, (proxy, method, args) -> {
+                    LocalDateTime cutoff = (LocalDateTime) args[0];
+                    switch (method.getName()) {
+                        case "streamOlderThan":
+                            return rows.stream()
+                                    .filter(row -> row.getCreatedAt().isBefore(cutoff))
+                                    .sorted(Comparator.comparing(AuditLog::getCreatedAt).thenComparing(AuditLog::getId))
+                                    .collect(Collectors.toList())
+                                    .stream();
+                        case "deleteBatchArchived":
+                            if (crash[0]) {
+                                throw new IllegalStateException("歸檔執行中斷");
+                            }
+                            long maxId = (Long) args[1];
+                            int batchSize = (Integer) args[2];
+                            int deleted = 0;
+                            for (Iterator<AuditLog> it = rows.iterator(); it.hasNext() && deleted < batchSize; ) {
+                                AuditLog row = it.next();
+                                if (row.getCreatedAt().isBefore(cutoff) && row.getId() <= maxId) {
+                                    it.remove();
+                                    deleted++;
+                                }
+                            }
+                            return deleted;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static PlatformTransactionManager transactionManager() {
+        return (PlatformTransactionManager) Proxy.newProxyInstance(AuditArchiveTest.class.getClassLoader(),
+                new Class<?>[] {PlatformTransactionManager.class}, (proxy, method, args) -> null);
+    }
+
+    private static EntityManager entityManager() {
+        return (EntityManager) Proxy.newProxyInstance(AuditArchiveTest.class.getClassLoader(),
+                new Class<?>[] {EntityManager.class}, (proxy, method, args) -> null);
+    }
+}
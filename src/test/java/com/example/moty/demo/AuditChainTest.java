@@ -0,0 +1,271 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.config.AuditProperties;
+import com.example.moty.demo.executor.ParallelExecutionService;
+import com.example.moty.demo.model.dto.AuditChainVerificationDto;
+import com.example.moty.demo.model.po.AuditBatchSignature;
+import com.example.moty.demo.model.po.AuditLog;
+import com.example.moty.demo.repo.AuditBatchSignatureRepository;
+import com.example.moty.demo.repo.AuditLogRepository;
+import com.example.moty.demo.service.AuditChainService;
+import com.example.moty.demo.service.AuditChainVerifier;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.security.KeyPair;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 審計哈希鏈測試
+ * 測試資料列的鏈結、重新啟動前尚未簽名的資料列仍會被簽入批次，
+ * 以及驗證器能發現被修改、哈希被清空、被刪除的資料列；歸檔移除最舊的資料列則不算竄改
+ */
+public class AuditChainTest {
+
+    private final RsaSignatureUtil rsaSignatureUtil = new RsaSignatureUtil();
+
+    private final ParallelExecutionService parallelExecutionService = new ParallelExecutionService(2, 2, "chain-test-");
+
+    private final TreeMap<Long, AuditLog> rows = new TreeMap<>();
+
+    private final TreeMap<Long, AuditBatchSignature> batches = new TreeMap<>();
+
+    private final AuditLogRepository logRepository = logRepository();
+
+    private final AuditBatchSignatureRepository batchRepository = batchRepository();
+
+    private final AuditProperties properties = new AuditProperties();
+
+    public AuditChainTest() throws Exception {
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        properties.getChain().setPrivateKey(rsaSignatureUtil.privateKeyToString(keyPair.getPrivate()));
+        properties.getChain().setPublicKey(rsaSignatureUtil.publicKeyToString(keyPair.getPublic()));
+        properties.getChain().setBatchSize(3);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        parallelExecutionService.shutdown();
+    }
+
+    @Test
+    public void testRowsLinkedAndBatchSigned() throws Exception {
+        AuditChainService chain = start();
+        append(chain, 4);
+
+        String previous = AuditChainService.GENESIS_HASH;
+        for (AuditLog row : rows.values()) {
+            assertEquals(previous, row.getPrevHash(), "每一列應指向前一列的哈希");
+            assertEquals(AuditChainService.computeHash(row), row.getHash());
+            previous = row.getHash();
+        }
+        assertEquals(1, batches.size(), "每 3 列簽一個批次");
+        AuditBatchSignature batch = batches.values().iterator().next();
+        assertEquals(1L, batch.getFirstLogId());
+        assertEquals(3L, batch.getLastLogId());
+        assertEquals(AuditChainService.fingerprint(chain.getVerificationKey()), batch.getKeyFingerprint());
+
+        AuditChainVerificationDto report = verifier(chain).verify();
+        assertTrue(report.isValid(), "尚未簽名的最後一列屬於開放中的批次，不算錯誤");
+        assertEquals(1, report.getBatchesVerified());
+        assertEquals(1L, report.getAnchorId());
+    }
+
+    @Test
+    public void testPendingRowsSignedAfterRestart() throws Exception {
+        append(start(), 2);
+        assertTrue(batches.isEmpty());
+
+        // 重新啟動：第一個批次簽名前寫入的資料列須重新載入
+        AuditChainService restarted = start();
+        append(restarted, 1);
+        assertEquals(1, batches.size());
+        AuditBatchSignature batch = batches.values().iterator().next();
+        assertEquals(1L, batch.getFirstLogId(), "重新啟動前的資料列應被簽入批次");
+        assertEquals(3, batch.getEventCount());
+        assertEquals(rows.get(2L).getHash(), rows.get(3L).getPrevHash(), "重新啟動後應接續原本的鏈");
+
+        assertTrue(verifier(restarted).verify().isValid());
+    }
+
+    @Test
+    public void testUnsignedRowsReported() throws Exception {
+        AuditChainService chain = start();
+        append(chain, 3);
+        // 模擬沒有被任何批次涵蓋的資料列：移除第一個批次後再簽一個批次
+        batches.clear();
+        append(chain, 3);
+
+        AuditChainVerificationDto report = verifier(chain).verify();
+        assertFalse(report.isValid());
+        assertEquals(Arrays.asList(1L, 2L, 3L), report.getUnsignedRowIds(), "最後一個批次之前未簽名的資料列應回報");
+    }
+
+    @Test
+    public void testModifiedRowDetected() throws Exception {
+        AuditChainService chain = start();
+        append(chain, 6);
+
+        rows.get(2L).setDetails("竄改後的內容");
+        AuditChainVerificationDto report = verifier(chain).verify();
+        assertFalse(report.isValid());
+        assertEquals(Collections.singletonList(2L), report.getHashMismatchIds());
+
+        // 連同哈希一起改寫：下一列的鏈結與批次簽名都不再成立
+        rows.get(2L).setHash(AuditChainService.computeHash(rows.get(2L)));
+        report = verifier(chain).verify();
+        assertFalse(report.isValid());
+        assertTrue(report.getHashMismatchIds().isEmpty());
+        assertEquals(Collections.singletonList(3L), report.getBrokenLinkIds());
+        assertEquals(Collections.singletonList(firstBatchId()), report.getInvalidBatchIds());
+    }
+
+    @Test
+    public void testNulledHashDetected() throws Exception {
+        AuditChainService chain = start();
+        append(chain, 7);
+
+        rows.get(5L).setHash(null);
+        AuditChainVerificationDto report = verifier(chain).verify();
+        assertFalse(report.isValid(), "鏈中的資料列不可沒有哈希");
+        assertEquals(Collections.singletonList(5L), report.getUnhashedRowIds());
+        assertEquals(Collections.singletonList(6L), report.getBrokenLinkIds(), "清空哈希不可略過下一列的鏈結檢查");
+        assertEquals(1, report.getIncompleteBatchIds().size());
+
+        // 清空鏈的第一列同樣不可被當成啟用前的舊資料
+        rows.get(5L).setHash(AuditChainService.computeHash(rows.get(5L)));
+        rows.get(1L).setHash(null);
+        report = verifier(chain).verify();
+        assertFalse(report.isValid());
+        assertEquals(Collections.singletonList(1L), report.getUnhashedRowIds());
+    }
+
+    @Test
+    public void testDeletedRowDetected() throws Exception {
+        AuditChainService chain = start();
+        append(chain, 6);
+
+        rows.remove(4L);
+        AuditChainVerificationDto report = verifier(chain).verify();
+        assertFalse(report.isValid());
+        assertEquals(Collections.singletonList(5L), report.getBrokenLinkIds());
+        assertEquals(1, report.getIncompleteBatchIds().size(), "少了資料列的批次應回報");
+    }
+
+    @Test
+    public void testDeletedLastRowDetected() throws Exception {
+        AuditChainService chain = start();
+        append(chain, 6);
+
+        // 沒有後續資料列可比對鏈結，靠批次的最後一列發現
+        rows.remove(6L);
+        AuditChainVerificationDto report = verifier(chain).verify();
+        assertFalse(report.isValid());
+        assertTrue(report.getBrokenLinkIds().isEmpty());
+        assertEquals(1, report.getIncompleteBatchIds().size());
+    }
+
+    @Test
+    public void testArchivedRowsAccepted() throws Exception {
+        AuditChainService chain = start();
+        append(chain, 7);
+
+        // 歸檔刪除最舊的資料列，第一個批次只剩部分資料列
+        rows.remove(1L);
+        rows.remove(2L);
+        AuditChainVerificationDto report = verifier(chain).verify();
+        assertTrue(report.isValid(), "歸檔造成的缺口不算竄改");
+        assertEquals(3L, report.getAnchorId());
+        assertEquals(1, report.getBatchesVerified());
+    }
+
+    private AuditChainService start() throws Exception {
+        AuditChainService chain = new AuditChainService(logRepository, batchRepository, rsaSignatureUtil, properties);
+        chain.init();
+        return chain;
+    }
+
+    private AuditChainVerifier verifier(AuditChainService chain) {
+        PlatformTransactionManager transactionManager = (PlatformTransactionManager) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {PlatformTransactionManager.class},
+                (proxy, method, args) -> method.getName().equals("getTransaction") ? new SimpleTransactionStatus() : null);
+        return new AuditChainVerifier(logRepository, batchRepository, chain, rsaSignatureUtil, properties,
+                transactionManager, parallelExecutionService);
+    }
+
+    private static void append(AuditChainService chain, int count) {
+        for (int i = 0; i < count; i++) {
+            AuditLog log = new AuditLog();
+            log.setUsername("alice");
+            log.setAction("SIGN");
+            log.setDetails("第 " + i + " 筆");
+            log.setCreatedAt(LocalDateTime.now());
+            chain.append(log);
+        }
+    }
+
+    private Long firstBatchId() {
+        return batches.firstKey();
+    }
+
+    /**
+     * 以 id 排序的記憶體資料表，只實作鏈服務與驗證器用到的方法
+     */
+    private AuditLogRepository logRepository() {
+        return (AuditLogRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {AuditLogRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "save":
+                            AuditLog log = (AuditLog) args[0];
+                            log.setId(rows.isEmpty() ? 1L : rows.lastKey() + 1);
+                            rows.put(log.getId(), log);
+                            return log;
+                        case "findTopByOrderByIdDesc":
+                            return rows.isEmpty() ? null : rows.lastEntry().getValue();
+                        case "findFirstByHashIsNotNullOrderByIdAsc":
+                            return rows.values().stream().filter(row -> row.getHash() != null).findFirst().orElse(null);
+                        case "findByIdGreaterThanOrderByIdAsc":
+                            return new ArrayList<>(rows.tailMap((Long) args[0], false).values());
+                        case "streamAllInChainOrder":
+                            return new ArrayList<>(rows.values()).stream();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private AuditBatchSignatureRepository batchRepository() {
+        long[] sequence = new long[1];
+        return (AuditBatchSignatureRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {AuditBatchSignatureRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "save":
+                            AuditBatchSignature batch = (AuditBatchSignature) args[0];
+                            batch.setId(++sequence[0]);
+                            batches.put(batch.getId(), batch);
+                            return batch;
+                        case "findTopByOrderByLastLogIdDesc":
+                            return batches.values().stream()
+                                    .max((a, b) -> Long.compare(a.getLastLogId(), b.getLastLogId())).orElse(null);
+                        case "findAllByOrderByFirstLogIdAsc":
+                            return batches.values().stream()
+                                    .sorted((a, b) -> Long.compare(a.getFirstLogId(), b.getFirstLogId()))
+                                    .collect(Collectors.toList());
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.config.AuditProperties;
+import com.example.moty.demo.enums.AuditTailDropPolicy;
+import com.example.moty.demo.model.dto.AuditLogDto;
+import com.example.moty.demo.service.AuditEventBroadcaster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 審計即時推送測試
+ * 以記錄用的 SseEmitter 暫停第一次送出，測試緩衝區滿時兩種丟棄策略與合併的 dropped 事件、
+ * 並發訂閱不超過 max-subscribers、斷線後釋放名額，以及持續有事件的訂閱者不會佔住送出執行緒
+ */
+public class AuditEventBroadcasterTest {
+
+    private final List<String> sendOrder = Collections.synchronizedList(new ArrayList<>());
+
+    private AuditEventBroadcaster broadcaster;
+
+    @AfterEach
+    public void shutdown() {
+        if (broadcaster != null) {
+            broadcaster.shutdown();
+        }
+    }
+
+    @Test
+    public void testDropOldest() throws Exception {
+        RecordingEmitter emitter = subscribeHeld(properties(3, AuditTailDropPolicy.DROP_OLDEST, 4, 1));
+        for (long id = 2; id <= 7; id++) {
+            broadcaster.publish(event(id));
+        }
+        emitter.release();
+
+        awaitTrue(() -> emitter.sent.size() == 5);
+        assertEquals(Arrays.asList("1", "dropped 3", "5", "6", "7"), emitter.sent, "應保留最新的事件，並先告知丟棄數量");
+        assertEquals(3L, stats("dropped"));
+    }
+
+    @Test
+    public void testDropNewest() throws Exception {
+        RecordingEmitter emitter = subscribeHeld(properties(3, AuditTailDropPolicy.DROP_NEWEST, 4, 1));
+        for (long id = 2; id <= 7; id++) {
+            broadcaster.publish(event(id));
+        }
+        emitter.release();
+
+        awaitTrue(() -> emitter.sent.size() == 5);
+        assertEquals(Arrays.asList("1", "dropped 3", "2", "3", "4"), emitter.sent, "應保留已緩衝的事件");
+        assertEquals(4L, stats("delivered"));
+    }
+
+    @Test
+    public void testSubscriberLimit() throws Exception {
+        start(properties(16, AuditTailDropPolicy.DROP_OLDEST, 2, 1));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<SseEmitter>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String name = "client-" + i;
+                futures.add(executor.submit(() -> {
+                    go.await();
+                    return broadcaster.subscribe(name);
+                }));
+            }
+            go.countDown();
+            List<RecordingEmitter> accepted = new ArrayList<>();
+            for (Future<SseEmitter> future : futures) {
+                if (future.get() != null) {
+                    accepted.add((RecordingEmitter) future.get());
+                }
+            }
+            assertEquals(2, accepted.size(), "並發訂閱不可超過 max-subscribers");
+            assertNull(broadcaster.subscribe("late"));
+
+            // 送出失敗的訂閱者被移除後釋放名額
+            accepted.get(0).failing = true;
+            broadcaster.publish(event(1));
+            awaitTrue(() -> broadcaster.stats().size() == 1);
+            assertNotNull(broadcaster.subscribe("late"), "斷線後應可再訂閱");
+            assertNull(broadcaster.subscribe("another"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBusySubscriberYieldsSender() throws Exception {
+        RecordingEmitter busy = subscribeHeld(properties(1000, AuditTailDropPolicy.DROP_OLDEST, 4, 1));
+        busy.label = "busy";
+        RecordingEmitter other = (RecordingEmitter) broadcaster.subscribe("other");
+        other.label = "other";
+        for (long id = 2; id <= 200; id++) {
+            broadcaster.publish(event(id));
+        }
+        busy.release();
+
+        awaitTrue(() -> busy.sent.size() == 200 && other.sent.size() == 199);
+        assertTrue(sendOrder.indexOf("other 2") < sendOrder.indexOf("busy 200"),
+                "只有一條送出執行緒時，其他訂閱者不應等到忙碌的訂閱者清空緩衝區");
+    }
+
+    private AuditProperties properties(int bufferSize, AuditTailDropPolicy dropPolicy, int maxSubscribers,
+                                       int senderThreads) {
+        AuditProperties properties = new AuditProperties();
+        properties.getTail().setBufferSize(bufferSize);
+        properties.getTail().setDropPolicy(dropPolicy);
+        properties.getTail().setMaxSubscribers(maxSubscribers);
+        properties.getTail().setSenderThreads(senderThreads);
+        return properties;
+    }
+
+    private void start(AuditProperties properties) {
+        broadcaster = new AuditEventBroadcaster(properties) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMillis) {
+                return new RecordingEmitter();
+            }
+        };
+        broadcaster.init();
+    }
+
+    /**
+     * 訂閱並發佈第一筆事件，回傳時送出執行緒正停在這筆事件上
+     */
+    private RecordingEmitter subscribeHeld(AuditProperties properties) throws InterruptedException {
+        start(properties);
+        RecordingEmitter emitter = (RecordingEmitter) broadcaster.subscribe("test");
+        emitter.hold();
+        broadcaster.publish(event(1));
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+        return emitter;
+    }
+
+    private long stats(String key) {
+        Object entry = broadcaster.stats().values().iterator().next();
+        return (Long) ((Map<?, ?>) entry).get(key);
+    }
+
+    private static AuditLogDto event(long id) {
+        return AuditLogDto.builder().id(id).username("alice").action("SIGN").build();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待逾時");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * 記錄送出的事件；hold() 後第一次送出會停住，直到 release()
+     */
+    private final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        private volatile String label = "test";
+
+        private volatile boolean failing;
+
+        void hold() {
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("client disconnected");
+            }
+            sending.countDown();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            boolean dropped = false;
+            Object data = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String) {
+                    dropped |= ((String) part.getData()).contains("event:dropped");
+                } else {
+                    data = part.getData();
+                }
+            }
+            String text = dropped ? "dropped " + data : String.valueOf(((AuditLogDto) data).getId());
+            sent.add(text);
+            sendOrder.add(label + " " + text);
+        }
+    }
+}
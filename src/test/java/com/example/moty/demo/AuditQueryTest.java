@@ -0,0 +1,329 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.config.AuditProperties;
+import com.example.moty.demo.model.dto.AuditLogDto;
+import com.example.moty.demo.model.dto.AuditLogPageDto;
+import com.example.moty.demo.model.po.AuditLog;
+import com.example.moty.demo.service.AuditQueryService;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 審計查詢測試
+ * 以記憶體中的 Criteria API 實作執行查詢，測試 keyset 分頁逐頁走完不重複不遺漏、
+ * 相同時間的資料列以 id 區分游標邊界、頁面大小的預設值與上限，以及條件過濾與無效游標
+ */
+public class AuditQueryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    private final List<AuditLog> rows = new ArrayList<>();
+
+    private final AuditProperties properties = new AuditProperties();
+
+    private final AuditQueryService service = new AuditQueryService(entityManager(), properties);
+
+    @Test
+    public void testKeysetPagesCoverAllRows() {
+        // 每 3 筆共用同一個時間，頁面邊界會落在相同時間的資料列之間
+        for (int i = 0; i < 25; i++) {
+            add(i % 2 == 0 ? "alice" : "bob", "SIGN", BASE.plusSeconds(i / 3));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        AuditLogPageDto page;
+        do {
+            page = service.query(null, null, null, null, cursor, 10);
+            pageSizes.add(page.getItems().size());
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            cursor = page.getNextCursor();
+            assertEquals(page.isHasMore(), cursor != null, "還有下一頁時才回傳游標");
+        } while (page.isHasMore());
+
+        assertEquals(Arrays.asList(10, 10, 5), pageSizes);
+        assertEquals(expectedOrder(rows), seen, "逐頁走完應依 (時間, id) 由新到舊且不重複不遺漏");
+    }
+
+    @Test
+    public void testCursorBoundaryWithEqualTimestamps() {
+        for (int i = 0; i < 4; i++) {
+            add("alice", "SIGN", BASE);
+        }
+
+        AuditLogPageDto first = service.query(null, null, null, null, null, 2);
+        assertEquals(Arrays.asList(4L, 3L), ids(first), "相同時間時以 id 由大到小排序");
+        assertTrue(first.isHasMore());
+
+        // 取得游標後才寫入的新資料列在游標之前，不影響後續頁面
+        add("alice", "SIGN", BASE.plusMinutes(1));
+        AuditLogPageDto second = service.query(null, null, null, null, first.getNextCursor(), 2);
+        assertEquals(Arrays.asList(2L, 1L), ids(second), "游標所在的資料列不可重複出現");
+        assertFalse(second.isHasMore(), "剛好取完最後一頁時不應再有下一頁");
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    public void testPageSizeClamped() {
+        properties.getQuery().setDefaultPageSize(5);
+        properties.getQuery().setMaxPageSize(20);
+        for (int i = 0; i < 30; i++) {
+            add("alice", "SIGN", BASE.plusSeconds(i));
+        }
+
+        assertEquals(5, service.query(null, null, null, null, null, null).getItems().size(), "未指定時使用預設大小");
+        assertEquals(5, service.query(null, null, null, null, null, 0).getItems().size());
+        assertEquals(5, service.query(null, null, null, null, null, -3).getItems().size());
+        assertEquals(20, service.query(null, null, null, null, null, 1000).getItems().size(), "不可超過上限");
+        assertEquals(7, service.query(null, null, null, null, null, 7).getItems().size());
+    }
+
+    @Test
+    public void testFiltersAndInvalidCursor() {
+        for (int i = 0; i < 10; i++) {
+            add(i % 2 == 0 ? "alice" : "bob", i < 5 ? "SIGN" : "VERIFY", BASE.plusHours(i));
+        }
+
+        AuditLogPageDto page = service.query("alice", null, BASE.plusHours(2), BASE.plusHours(8), null, 50);
+        assertEquals(Arrays.asList(7L, 5L, 3L), ids(page), "from 含邊界、to 不含邊界");
+        assertTrue(page.getItems().stream().allMatch(item -> "alice".equals(item.getUsername())));
+
+        assertEquals(Arrays.asList(10L, 8L, 6L), ids(service.query("bob", "VERIFY", null, null, null, 50)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.query(null, null, null, null, "not-a-cursor", 10), "格式錯誤的游標應拒絕");
+    }
+
+    private void add(String username, String action, LocalDateTime createdAt) {
+        AuditLog log = new AuditLog();
+        log.setId((long) rows.size() + 1);
+        log.setUsername(username);
+        log.setAction(action);
+        log.setCreatedAt(createdAt);
+        rows.add(log);
+    }
+
+    private static List<Long> expectedOrder(List<AuditLog> rows) {
+        return rows.stream()
+                .sorted(Comparator.comparing(AuditLog::getCreatedAt).thenComparing(AuditLog::getId).reversed())
+                .map(AuditLog::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(AuditLogPageDto page) {
+        return page.getItems().stream().map(AuditLogDto::getId).collect(Collectors.toList());
+    }
+
+    // ---- 記憶體中的 Criteria API，只實作 AuditQueryService 用到的部分 ----
+
+    /**
+     * 每個 Criteria 節點都是代理物件，以函式對單一資料列求值
+     */
+    private static final class Node implements InvocationHandler {
+
+        private final Function<AuditLog, Object> eval;
+
+        private final boolean descending;
+
+        Node(Function<AuditLog, Object> eval, boolean descending) {
+            this.eval = eval;
+            this.descending = descending;
+        }
+
+        @Override
+        public Object invoke(Object proxy, java.lang.reflect.Method method, Object[] args) {
+            switch (method.getName()) {
+                case "get":
+                    return path((String) args[0]);
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Node";
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+    }
+
+    private static <T> T node(Class<T> type, Function<AuditLog, Object> eval) {
+        return node(type, eval, false);
+    }
+
+    private static <T> T node(Class<T> type, Function<AuditLog, Object> eval, boolean descending) {
+        return type.cast(Proxy.newProxyInstance(AuditQueryTest.class.getClassLoader(), new Class<?>[] {type},
+                new Node(eval, descending)));
+    }
+
+    private static Node of(Object proxy) {
+        return (Node) Proxy.getInvocationHandler(proxy);
+    }
+
+    private static Path<?> path(String attribute) {
+        switch (attribute) {
+            case "id":
+                return node(Path.class, AuditLog::getId);
+            case "username":
+                return node(Path.class, AuditLog::getUsername);
+            case "action":
+                return node(Path.class, AuditLog::getAction);
+            case "createdAt":
+                return node(Path.class, AuditLog::getCreatedAt);
+            default:
+                throw new UnsupportedOperationException(attribute);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object left, Object right) {
+        return ((Comparable) left).compareTo(right);
+    }
+
+    private static List<Object> flatten(Object[] args) {
+        List<Object> flat = new ArrayList<>();
+        for (Object arg : args) {
+            if (arg instanceof Object[]) {
+                flat.addAll(Arrays.asList((Object[]) arg));
+            } else if (arg instanceof Collection) {
+                flat.addAll((Collection<?>) arg);
+            } else {
+                flat.add(arg);
+            }
+        }
+        return flat;
+    }
+
+    private static Predicate predicate(java.util.function.Predicate<AuditLog> test) {
+        return node(Predicate.class, test::test);
+    }
+
+    private static boolean holds(Object predicate, AuditLog row) {
+        return (Boolean) of(predicate).eval.apply(row);
+    }
+
+    private CriteriaBuilder criteriaBuilder() {
+        return (CriteriaBuilder) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {CriteriaBuilder.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "createQuery":
+                            return criteriaQuery();
+                        case "equal":
+                            return predicate(row -> args[1].equals(of(args[0]).eval.apply(row)));
+                        case "lessThan":
+                            return predicate(row -> compare(of(args[0]).eval.apply(row), args[1]) < 0);
+                        case "greaterThanOrEqualTo":
+                            return predicate(row -> compare(of(args[0]).eval.apply(row), args[1]) >= 0);
+                        case "and":
+                            List<Object> all = flatten(args);
+                            return predicate(row -> all.stream().allMatch(p -> holds(p, row)));
+                        case "or":
+                            List<Object> any = flatten(args);
+                            return predicate(row -> any.stream().anyMatch(p -> holds(p, row)));
+                        case "desc":
+                            return node(Order.class, of(args[0]).eval, true);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private CriteriaQuery<?> criteriaQuery() {
+        List<Object> where = new ArrayList<>();
+        List<Object> orders = new ArrayList<>();
+        return (CriteriaQuery<?>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {CriteriaQuery.class, Filter.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "from":
+                            return node(Root.class, row -> row);
+                        case "select":
+                            return proxy;
+                        case "where":
+                            where.addAll(flatten(args));
+                            return proxy;
+                        case "orderBy":
+                            orders.addAll(flatten(args));
+                            return proxy;
+                        case "matches":
+                            return where.stream().allMatch(p -> holds(p, (AuditLog) args[0]));
+                        case "compare":
+                            for (Object order : orders) {
+                                int result = compare(of(order).eval.apply((AuditLog) args[0]),
+                                        of(order).eval.apply((AuditLog) args[1]));
+                                if (result != 0) {
+                                    return of(order).descending ? -result : result;
+                                }
+                            }
+                            return 0;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * 讓查詢代理物件能套用收集到的條件與排序
+     */
+    private interface Filter {
+
+        boolean matches(AuditLog row);
+
+        int compare(AuditLog left, AuditLog right);
+    }
+
+    private EntityManager entityManager() {
+        CriteriaBuilder criteriaBuilder = criteriaBuilder();
+        return (EntityManager) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {EntityManager.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getCriteriaBuilder":
+                            return criteriaBuilder;
+                        case "createQuery":
+                            return typedQuery((Filter) args[0]);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private TypedQuery<?> typedQuery(Filter filter) {
+        int[] maxResults = {Integer.MAX_VALUE};
+        return (TypedQuery<?>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {TypedQuery.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setMaxResults":
+                            maxResults[0] = (Integer) args[0];
+                            return proxy;
+                        case "getResultList":
+                            return rows.stream()
+                                    .filter(filter::matches)
+                                    .sorted(filter::compare)
+                                    .limit(maxResults[0])
+                                    .collect(Collectors.toList());
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.config.AuditProperties;
+import com.example.moty.demo.model.po.AuditLog;
+import com.example.moty.demo.repo.AuditLogRepository;
+import com.example.moty.demo.service.AuditRetentionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 審計保留期限測試
+ * 測試過期資料列分批刪除、剛好整批時多查一次才停止、保留天數的計算，
+ * 以及啟用分割時刪除過期的月份分割並預先建立未來月份
+ */
+public class AuditRetentionTest {
+
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("'p'uuuuMM");
+
+    private final List<AuditLog> rows = new ArrayList<>();
+
+    private final List<Integer> deletedPerBatch = new ArrayList<>();
+
+    private final List<String> partitions = new ArrayList<>();
+
+    private final List<String> statements = new ArrayList<>();
+
+    private final AuditProperties properties = new AuditProperties();
+
+    private final AuditRetentionService service;
+
+    public AuditRetentionTest() {
+        properties.getRetention().setBatchSize(10);
+        properties.getRetention().setBatchPauseMillis(0);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+                List<T> names = new ArrayList<>();
+                partitions.forEach(name -> names.add(elementType.cast(name)));
+                return names;
+            }
+
+            @Override
+            public void execute(String sql) {
+                statements.add(sql);
+            }
+        };
+        service = new AuditRetentionService(logRepository(), jdbcTemplate, properties);
+    }
+
+    @Test
+    public void testDeleteInBatches() {
+        LocalDateTime cutoff = LocalDateTime.of(2024, 1, 1, 0, 0);
+        add(25, cutoff.minusDays(1));
+        add(5, cutoff);
+
+        assertEquals(25, service.deleteInBatches(cutoff));
+        assertEquals(Arrays.asList(10, 10, 5), deletedPerBatch, "每批最多 batch-size 筆，不足一批時停止");
+        assertEquals(5, rows.size(), "cutoff 當下與之後的資料列應保留");
+        assertTrue(rows.stream().noneMatch(row -> row.getCreatedAt().isBefore(cutoff)));
+    }
+
+    @Test
+    public void testExactMultipleOfBatchSize() {
+        LocalDateTime cutoff = LocalDateTime.of(2024, 1, 1, 0, 0);
+        add(20, cutoff.minusHours(1));
+
+        assertEquals(20, service.deleteInBatches(cutoff));
+        assertEquals(Arrays.asList(10, 10, 0), deletedPerBatch, "最後一批剛好滿時，要再刪一次確認沒有剩餘");
+        assertTrue(rows.isEmpty());
+        assertTrue(statements.isEmpty(), "未啟用分割時不執行 DDL");
+    }
+
+    @Test
+    public void testPurgeUsesRetentionDays() {
+        properties.getRetention().setDays(30);
+        LocalDateTime cutoff = LocalDate.now().minusDays(30).atStartOfDay();
+        add(3, cutoff.minusSeconds(1));
+        add(2, cutoff);
+        add(4, LocalDateTime.now());
+
+        assertEquals(3, service.purge(), "只刪除保留天數之前 (當天零時起算) 的資料列");
+        assertEquals(6, rows.size());
+    }
+
+    @Test
+    public void testPartitionsDroppedAndCreated() {
+        properties.getRetention().setDays(90);
+        properties.getPartitioning().setEnabled(true);
+        properties.getPartitioning().setMonthsAhead(2);
+        YearMonth now = YearMonth.now();
+        String expired = now.minusMonths(12).format(PARTITION_FORMAT);
+        String current = now.format(PARTITION_FORMAT);
+        partitions.addAll(Arrays.asList(expired, current, "pmax"));
+        add(2, LocalDateTime.now().minusDays(100));
+
+        assertEquals(2, service.purge(), "過期月份中剩下的資料列仍以分批刪除處理");
+
+        List<String> created = new ArrayList<>();
+        List<String> dropped = new ArrayList<>();
+        for (String statement : statements) {
+            if (statement.contains("REORGANIZE PARTITION pmax")) {
+                created.add(statement.substring(statement.indexOf("PARTITION p", statement.indexOf("INTO")) + 10,
+                        statement.indexOf(" VALUES")));
+            } else if (statement.contains("DROP PARTITION")) {
+                dropped.add(statement.substring(statement.lastIndexOf(' ') + 1));
+            }
+        }
+        assertEquals(Arrays.asList(now.plusMonths(1).format(PARTITION_FORMAT), now.plusMonths(2).format(PARTITION_FORMAT)),
+                created, "已存在的當月分割不重建，只建立之後的月份");
+        assertEquals(Arrays.asList(expired), dropped, "只刪除整個月份都已過期的分割");
+    }
+
+    @Test
+    public void testUnpartitionedTableSkipsDdl() {
+        properties.getPartitioning().setEnabled(true);
+        add(1, LocalDateTime.now().minusYears(1));
+
+        assertEquals(1, service.purge());
+        assertTrue(statements.isEmpty(), "尚未分割的資料表不執行分割 DDL");
+    }
+
+    private void add(int count, LocalDateTime createdAt) {
+        for (int i = 0; i < count; i++) {
+            AuditLog log = new AuditLog();
+            log.setId((long) rows.size() + 1);
+            log.setUsername("alice");
+            log.setAction("SIGN");
+            log.setCreatedAt(createdAt);
+            rows.add(log);
+        }
+    }
+
+    /**
+     * 記憶體資料表，只實作保留期限服務用到的分批刪除
+     */
+    private AuditLogRepository logRepository() {
+        return (AuditLogRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {AuditLogRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("deleteBatchOlderThan")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    LocalDateTime cutoff = (LocalDateTime) args[0];
+                    int batchSize = (Integer) args[1];
+                    int deleted = 0;
+                    for (Iterator<AuditLog> it = rows.iterator(); it.hasNext() && deleted < batchSize; ) {
+                        if (it.next().getCreatedAt().isBefore(cutoff)) {
+                            it.remove();
+                            deleted++;
+                        }
+                    }
+                    deletedPerBatch.add(deleted);
+                    return deleted;
+                });
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.config.SignatureProperties;
+import com.example.moty.demo.executor.ParallelExecutionService;
+import com.example.moty.demo.model.vo.BatchSignatureItem;
+import com.example.moty.demo.model.vo.BatchSignatureRequest;
+import com.example.moty.demo.service.BatchSignatureService;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 批次簽名測試
+ * 將 NDJSON 輸出寫入記憶體，測試跨區塊的行順序與內容、單筆失敗的錯誤行、
+ * 項目數上限，以及密鑰為空時回傳 400 的單行錯誤內容
+ */
+public class BatchSignatureTest {
+
+    private final RsaSignatureUtil rsaSignatureUtil = new RsaSignatureUtil();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final SignatureProperties properties = new SignatureProperties();
+
+    private final ParallelExecutionService parallelExecutionService = new ParallelExecutionService(4, 4, "batch-test-");
+
+    private final BatchSignatureService service;
+
+    public BatchSignatureTest() {
+        // 區塊設為 3 筆，10 筆項目會跨越 4 個區塊
+        properties.getBatch().setChunkSize(3);
+        properties.getBatch().setMaxItems(10);
+        service = new BatchSignatureService(rsaSignatureUtil, parallelExecutionService, properties, objectMapper);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        parallelExecutionService.shutdown();
+    }
+
+    @Test
+    public void testBatchSignLinesInOrder() throws Exception {
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        List<BatchSignatureItem> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(BatchSignatureItem.builder().id("item-" + i).data(i == 4 ? null : "資料" + i).build());
+        }
+        BatchSignatureRequest request = BatchSignatureRequest.builder()
+                .privateKey(rsaSignatureUtil.privateKeyToString(keyPair.getPrivate()))
+                .items(items)
+                .build();
+
+        List<JsonNode> lines = run(service.batchSign(request)::writeTo);
+        assertEquals(10, lines.size(), "每個項目一行");
+        for (int i = 0; i < lines.size(); i++) {
+            JsonNode line = lines.get(i);
+            assertEquals(i, line.get("index").asInt(), "跨區塊後仍應依原順序輸出");
+            assertEquals("item-" + i, line.get("id").asText());
+            if (i == 4) {
+                assertFalse(line.get("success").asBoolean(), "資料為空的項目應輸出錯誤行");
+                assertEquals("數據不能為空", line.get("message").asText());
+                assertFalse(line.hasNonNull("signature"));
+            } else {
+                assertTrue(line.get("success").asBoolean());
+                assertTrue(rsaSignatureUtil.verifyBytes(("資料" + i).getBytes(StandardCharsets.UTF_8),
+                        line.get("signature").asText(), keyPair.getPublic()), "輸出的簽名應可驗證");
+            }
+        }
+    }
+
+    @Test
+    public void testBatchVerifyPerItemResults() throws Exception {
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        String signature = rsaSignatureUtil.signBytes("原始資料".getBytes(StandardCharsets.UTF_8), keyPair.getPrivate());
+        BatchSignatureRequest request = BatchSignatureRequest.builder()
+                .publicKey(rsaSignatureUtil.publicKeyToString(keyPair.getPublic()))
+                .items(Arrays.asList(
+                        BatchSignatureItem.builder().id("valid").data("原始資料").signature(signature).build(),
+                        BatchSignatureItem.builder().id("tampered").data("竄改資料").signature(signature).build(),
+                        BatchSignatureItem.builder().id("unsigned").data("原始資料").signature(" ").build(),
+                        BatchSignatureItem.builder().id("garbage").data("原始資料").signature("@@@").build()))
+                .build();
+
+        List<JsonNode> lines = run(service.batchVerify(request)::writeTo);
+        assertEquals(4, lines.size());
+        assertEquals("valid", lines.get(0).get("id").asText());
+        assertTrue(lines.get(0).get("verified").asBoolean());
+        assertTrue(lines.get(1).get("success").asBoolean(), "驗證不通過不算處理失敗");
+        assertFalse(lines.get(1).get("verified").asBoolean(), "竄改的資料應驗證失敗");
+        assertFalse(lines.get(2).get("success").asBoolean());
+        assertEquals("簽名不能為空", lines.get(2).get("message").asText());
+        assertFalse(lines.get(3).get("success").asBoolean(), "無法解碼的簽名只影響該筆");
+        assertTrue(lines.get(3).get("message").asText().startsWith("簽名驗證失敗"));
+    }
+
+    @Test
+    public void testMaxItemsAndBlankKeyRejected() throws Exception {
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        List<BatchSignatureItem> tooMany = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            tooMany.add(BatchSignatureItem.builder().data("資料" + i).build());
+        }
+        IllegalArgumentException overLimit = assertThrows(IllegalArgumentException.class,
+                () -> service.batchSign(BatchSignatureRequest.builder()
+                        .privateKey(rsaSignatureUtil.privateKeyToString(keyPair.getPrivate()))
+                        .items(tooMany)
+                        .build()), "超過項目上限應在開始輸出前拒絕");
+        assertEquals("批次項目超過上限 10", overLimit.getMessage());
+
+        List<BatchSignatureItem> items = tooMany.subList(0, 2);
+        IllegalArgumentException blankPrivate = assertThrows(IllegalArgumentException.class,
+                () -> service.batchSign(BatchSignatureRequest.builder().privateKey(" ").items(items).build()));
+        assertEquals("私鑰不能為空", blankPrivate.getMessage());
+        IllegalArgumentException blankPublic = assertThrows(IllegalArgumentException.class,
+                () -> service.batchVerify(BatchSignatureRequest.builder().items(items).build()));
+        assertEquals("公鑰不能為空", blankPublic.getMessage());
+
+        // 控制器以 400 回傳的內容只有一行錯誤
+        List<JsonNode> lines = run(service.error(blankPrivate.getMessage())::writeTo);
+        assertEquals(1, lines.size());
+        assertFalse(lines.get(0).get("success").asBoolean());
+        assertEquals("私鑰不能為空", lines.get(0).get("message").asText());
+        assertFalse(lines.get(0).hasNonNull("index"));
+    }
+
+    private List<JsonNode> run(Body body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        String text = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(text.endsWith("\n"), "每行以換行結尾");
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void writeTo(ByteArrayOutputStream out) throws Exception;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.executor.DurableTaskQueue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 持久化任務佇列測試
+ * 測試重新開啟後重送未確認任務、checkpoint 後刪除舊區段、截斷損毀尾端與並行寫入
+ */
+public class DurableTaskQueueTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testUnackedRecordsReplayedAfterReopen() throws Exception {
+        DurableTaskQueue queue = new DurableTaskQueue(directory, 1024 * 1024);
+        assertTrue(queue.open().isEmpty());
+        long first = queue.append("task-1");
+        long second = queue.append("task-2");
+        queue.append("task-3");
+        queue.ack(second);
+        queue.close();
+
+        // task-1 未確認，游標停在它之前，task-2 雖已確認仍會重送 (至少一次)
+        DurableTaskQueue reopened = new DurableTaskQueue(directory, 1024 * 1024);
+        List<DurableTaskQueue.Record> pending = reopened.open();
+        assertEquals(3, pending.size());
+        assertEquals(first, pending.get(0).getSeq());
+        assertEquals("task-1", pending.get(0).getPayload());
+
+        reopened.ack(pending.get(0).getSeq());
+        reopened.ack(pending.get(1).getSeq());
+        reopened.close();
+
+        DurableTaskQueue third = new DurableTaskQueue(directory, 1024 * 1024);
+        List<DurableTaskQueue.Record> remaining = third.open();
+        assertEquals(1, remaining.size());
+        assertEquals("task-3", remaining.get(0).getPayload());
+        assertEquals(4, third.append("task-4"), "序號應延續重新開啟前的最大值");
+        third.close();
+    }
+
+    @Test
+    public void testCheckpointDeletesAckedSegments() throws Exception {
+        DurableTaskQueue queue = new DurableTaskQueue(directory, 64);
+        queue.open();
+        List<Long> seqs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            seqs.add(queue.append("payload-" + i));
+        }
+        assertTrue(segments().size() > 5, "超過區段大小應切換新檔案");
+
+        for (long seq : seqs) {
+            queue.ack(seq);
+        }
+        queue.checkpoint();
+        assertEquals(1, segments().size(), "全部確認後只保留目前寫入的區段");
+        assertEquals(0, queue.pending());
+        queue.close();
+
+        DurableTaskQueue reopened = new DurableTaskQueue(directory, 64);
+        assertTrue(reopened.open().isEmpty());
+        reopened.close();
+    }
+
+    @Test
+    public void testTornTailTruncated() throws Exception {
+        DurableTaskQueue queue = new DurableTaskQueue(directory, 1024 * 1024);
+        queue.open();
+        queue.append("complete-1");
+        queue.append("complete-2");
+        queue.close();
+
+        // 模擬寫到一半當機：只寫入部分標頭
+        Path segment = segments().get(0);
+        long size = Files.size(segment);
+        Files.write(segment, new byte[] { 0, 0, 0, 42, 1, 2 }, StandardOpenOption.APPEND);
+
+        DurableTaskQueue reopened = new DurableTaskQueue(directory, 1024 * 1024);
+        List<DurableTaskQueue.Record> pending = reopened.open();
+        assertEquals(2, pending.size());
+        assertEquals(size, Files.size(segment), "損毀的尾端應被截斷");
+        assertEquals(3, reopened.append("after-crash"));
+        reopened.close();
+
+        DurableTaskQueue third = new DurableTaskQueue(directory, 1024 * 1024);
+        assertEquals("after-crash", third.open().get(2).getPayload());
+        third.close();
+    }
+
+    @Test
+    public void testConcurrentAppendsGroupCommitted() throws Exception {
+        DurableTaskQueue queue = new DurableTaskQueue(directory, 16 * 1024);
+        queue.open();
+        int threads = 8;
+        int perThread = 200;
+        Set<Long> seqs = new ConcurrentSkipListSet<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    seqs.add(queue.append("t" + thread + "-" + i));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        queue.close();
+
+        assertEquals(threads * perThread, seqs.size(), "每筆寫入應取得唯一序號");
+        DurableTaskQueue reopened = new DurableTaskQueue(directory, 16 * 1024);
+        List<DurableTaskQueue.Record> pending = reopened.open();
+        assertEquals(threads * perThread, pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            assertEquals(i + 1, pending.get(i).getSeq(), "重送應依序號排序");
+        }
+        reopened.close();
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("segment-"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
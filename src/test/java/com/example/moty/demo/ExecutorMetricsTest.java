@@ -0,0 +1,187 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.enums.BulkheadRejectionPolicy;
+import com.example.moty.demo.executor.ExecutorMetrics;
+import com.example.moty.demo.executor.ExecutorMetricsRegistry;
+import com.example.moty.demo.executor.LatencyHistogram;
+import com.example.moty.demo.executor.VirtualBulkhead;
+import com.example.moty.demo.model.dto.ExecutorStatsDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 執行緒池監控測試
+ * 測試延遲直方圖的百分位數，佇列深度、完成數與拒絕數的統計，以及虛擬執行緒隔艙的同時執行上限
+ */
+public class ExecutorMetricsTest {
+
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(50));
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.getCount());
+        // 100us 落在 [64, 128) 區間，回報上界 128
+        assertEquals(128, snapshot.percentileMicros(0.50));
+        assertEquals(128, snapshot.percentileMicros(0.99));
+        assertEquals(50_000, snapshot.percentileMicros(1.0), "百分位數不可超過實際最大值");
+
+        LatencyHistogram.Snapshot before = histogram.snapshot();
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+        LatencyHistogram.Snapshot interval = histogram.snapshot().minus(before);
+        assertEquals(1, interval.getCount(), "區間快照只包含之後的紀錄");
+        assertEquals(4, interval.percentileMicros(0.99));
+    }
+
+    @Test
+    public void testRejectionsAndQueueDepth() throws Exception {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(1);
+        pool.setMaxPoolSize(1);
+        pool.setQueueCapacity(1);
+        ExecutorMetrics metrics = new ExecutorMetricsRegistry()
+                .instrument("test", pool, BulkheadRejectionPolicy.ABORT);
+        pool.initialize();
+
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            pool.execute(() -> await(release));
+            pool.execute(() -> await(release));
+            assertThrows(TaskRejectedException.class, () -> pool.execute(() -> { }), "佇列已滿時應拒絕任務");
+
+            ExecutorStatsDto busy = metrics.toDto();
+            assertEquals(1, busy.getRejected());
+            assertEquals(1, busy.getQueueDepth());
+            assertEquals(Integer.valueOf(1), busy.getQueueCapacity());
+            assertEquals(1.0, busy.getQueueSaturation(), 0.001);
+            assertEquals("ABORT", busy.getRejectionPolicy());
+
+            release.countDown();
+            pool.shutdown();
+            assertTrue(pool.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+
+            ExecutorStatsDto idle = metrics.toDto();
+            assertEquals(3, idle.getSubmitted());
+            assertEquals(2, idle.getCompleted());
+            assertEquals(0, idle.getActiveThreads());
+            assertEquals(2, idle.getQueueWait().getCount());
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testDiscardOldestKeepsInFlightAccurate() throws Exception {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(1);
+        pool.setMaxPoolSize(1);
+        pool.setQueueCapacity(1);
+        ExecutorMetrics metrics = new ExecutorMetricsRegistry()
+                .instrument("test", pool, BulkheadRejectionPolicy.DISCARD_OLDEST);
+        pool.initialize();
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger evictedRuns = new AtomicInteger();
+        AtomicInteger lastRuns = new AtomicInteger();
+        try {
+            pool.execute(() -> {
+                started.countDown();
+                await(release);
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            pool.execute(evictedRuns::incrementAndGet);
+            pool.execute(evictedRuns::incrementAndGet);
+            pool.execute(lastRuns::incrementAndGet);
+
+            assertEquals(2, metrics.getRejected(), "每次擠掉最舊任務都算一次拒絕");
+            assertEquals(1, metrics.getQueueDepth());
+            assertEquals(2, metrics.getInFlight(), "被擠掉的任務不可留在執行中計數");
+
+            release.countDown();
+            pool.shutdown();
+            assertTrue(pool.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+
+            assertEquals(0, evictedRuns.get(), "被擠掉的任務不應執行");
+            assertEquals(1, lastRuns.get());
+            assertEquals(2, metrics.getCompleted());
+            assertEquals(0, metrics.getInFlight(), "全部完成後執行中計數應歸零");
+            assertEquals(0, metrics.getQueueDepth());
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testVirtualBulkheadBounded() throws Exception {
+        // 以一般執行緒代替每個任務一條的虛擬執行緒，Java 8 也能測試上限
+        ExecutorService threads = Executors.newCachedThreadPool();
+        VirtualBulkhead bulkhead = new VirtualBulkhead("test", threads, 2, 1, BulkheadRejectionPolicy.ABORT);
+        TaskExecutorAdapter executor = new TaskExecutorAdapter(bulkhead);
+        ExecutorMetrics metrics = new ExecutorMetricsRegistry().instrument("test", executor, bulkhead, null);
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Runnable task = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            await(release);
+            running.decrementAndGet();
+        };
+        try {
+            executor.execute(task);
+            executor.execute(task);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            executor.execute(task);
+            assertThrows(TaskRejectedException.class, () -> executor.execute(() -> { }),
+                    "同時執行數與佇列都已滿時應依拒絕策略處理");
+
+            ExecutorStatsDto busy = metrics.toDto();
+            assertEquals("virtual", busy.getThreadModel());
+            assertEquals(1, busy.getRejected());
+            assertEquals(1, busy.getQueueDepth());
+            assertEquals(Integer.valueOf(2), busy.getMaxPoolSize());
+            assertEquals(1.0, busy.getThreadSaturation(), 0.001);
+            assertEquals(3, metrics.getPendingTasks());
+
+            release.countDown();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (metrics.getCompleted() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(3, metrics.getCompleted(), "排隊的任務應在有空位時執行");
+            assertEquals(2, maxRunning.get(), "同時執行的任務不可超過 max-pool-size");
+            assertEquals(0, metrics.getInFlight());
+        } finally {
+            release.countDown();
+            bulkhead.shutdownNow();
+        }
+        assertTrue(threads.isShutdown(), "關閉時應一併關閉底層的執行緒");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
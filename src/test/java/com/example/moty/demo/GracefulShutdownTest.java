@@ -0,0 +1,123 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.config.AsyncProperties;
+import com.example.moty.demo.enums.BulkheadRejectionPolicy;
+import com.example.moty.demo.executor.DurableTaskService;
+import com.example.moty.demo.executor.ExecutorMetricsRegistry;
+import com.example.moty.demo.executor.GracefulShutdownCoordinator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 關機排空測試
+ * 測試 stop() 會等到佇列中與執行中的任務完成才返回，超過期限則捨棄剩餘任務
+ */
+public class GracefulShutdownTest {
+
+    @Test
+    public void testStopWaitsForQueuedAndRunningTasks() throws Exception {
+        ExecutorMetricsRegistry registry = new ExecutorMetricsRegistry();
+        ThreadPoolTaskExecutor pool = newPool(registry);
+        GracefulShutdownCoordinator coordinator = newCoordinator(registry, 5000);
+        coordinator.start();
+
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger finished = new AtomicInteger();
+        try {
+            for (int i = 0; i < 6; i++) {
+                pool.execute(() -> {
+                    await(release, 5000);
+                    finished.incrementAndGet();
+                });
+            }
+            // 兩條執行緒都被卡住、四個任務在佇列中時才開始關機
+            new Thread(() -> {
+                sleep(200);
+                release.countDown();
+            }).start();
+
+            coordinator.stop();
+
+            assertEquals(6, finished.get(), "stop() 返回前所有任務都應完成");
+            assertTrue(pool.getThreadPoolExecutor().isShutdown());
+            assertFalse(coordinator.isRunning());
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testStopDiscardsQueuedTasksAtDeadline() throws Exception {
+        ExecutorMetricsRegistry registry = new ExecutorMetricsRegistry();
+        ThreadPoolTaskExecutor pool = newPool(registry);
+        GracefulShutdownCoordinator coordinator = newCoordinator(registry, 200);
+        coordinator.start();
+
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger finished = new AtomicInteger();
+        try {
+            for (int i = 0; i < 6; i++) {
+                pool.execute(() -> {
+                    if (await(release, 5000)) {
+                        finished.incrementAndGet();
+                    }
+                });
+            }
+
+            long start = System.currentTimeMillis();
+            coordinator.stop();
+            long elapsed = System.currentTimeMillis() - start;
+
+            assertTrue(elapsed < 2000, "超過期限後 stop() 不應繼續等待: " + elapsed + "ms");
+            assertTrue(pool.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS),
+                    "執行中的任務應被中斷");
+            assertEquals(0, finished.get(), "佇列中的任務應被捨棄");
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    private static ThreadPoolTaskExecutor newPool(ExecutorMetricsRegistry registry) {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(2);
+        pool.setMaxPoolSize(2);
+        pool.setQueueCapacity(10);
+        registry.instrument("test", pool, BulkheadRejectionPolicy.ABORT);
+        pool.initialize();
+        return pool;
+    }
+
+    private static GracefulShutdownCoordinator newCoordinator(ExecutorMetricsRegistry registry,
+                                                              long drainTimeoutMillis) {
+        AsyncProperties properties = new AsyncProperties();
+        properties.getShutdown().setDrainTimeoutMillis(drainTimeoutMillis);
+        return new GracefulShutdownCoordinator(properties, registry, log -> { },
+                new DefaultListableBeanFactory().getBeanProvider(DurableTaskService.class));
+    }
+
+    private static boolean await(CountDownLatch latch, long millis) {
+        try {
+            return latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
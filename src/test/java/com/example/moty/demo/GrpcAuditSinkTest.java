@@ -0,0 +1,256 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.config.AuditProperties;
+import com.example.moty.demo.model.po.AuditLog;
+import com.example.moty.demo.repo.AuditBatchSignatureRepository;
+import com.example.moty.demo.repo.AuditLogRepository;
+import com.example.moty.demo.service.AuditChainService;
+import com.example.moty.demo.service.AuditEventBroadcaster;
+import com.example.moty.demo.service.proto.AuditCollectorGrpcService;
+import com.example.moty.demo.service.sink.GrpcAuditSink;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * gRPC 審計傳送測試
+ * 以 in-process 伺服器連接 GrpcAuditSink 與 AuditCollectorGrpcService，
+ * 測試批次確認、收集端拒絕後重送，以及收集端重新啟動後重送的批次不會重複寫入
+ */
+public class GrpcAuditSinkTest {
+
+    private final String serverName = InProcessServerBuilder.generateName();
+
+    private final List<AuditLog> rows = new ArrayList<>();
+
+    private final AtomicInteger saveCalls = new AtomicInteger();
+
+    /**
+     * 第幾次 save 要失敗，0 表示不失敗
+     */
+    private volatile int failOnSave;
+
+    /**
+     * 為 true 時收集端不回傳確認，模擬確認在途中遺失
+     */
+    private volatile boolean dropAcks;
+
+    private final AuditLogRepository logRepository = logRepository();
+
+    private final AuditEventBroadcaster broadcaster;
+
+    private final AuditProperties properties = new AuditProperties();
+
+    private Server server;
+
+    private GrpcAuditSink sink;
+
+    public GrpcAuditSinkTest() {
+        properties.getChain().setEnabled(false);
+        properties.getSink().setBatchSize(5);
+        properties.getSink().setLingerMillis(20);
+        properties.getSink().setRetryBackoffMillis(50);
+        properties.getSink().setMaxRetries(20);
+        // 只讓串流中斷或拒絕觸發重送，不讓確認逾時干擾重送次數
+        properties.getSink().setAckTimeoutMillis(60000);
+        broadcaster = new AuditEventBroadcaster(properties);
+        broadcaster.init();
+    }
+
+    @AfterEach
+    public void shutdown() throws InterruptedException {
+        if (sink != null) {
+            dropAcks = false;
+            failOnSave = 0;
+            sink.stop();
+        }
+        if (server != null) {
+            server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+        broadcaster.shutdown();
+    }
+
+    @Test
+    public void testBatchesAcknowledged() throws Exception {
+        startServer();
+        startSink();
+        write(12);
+
+        assertTrue(sink.flush(5000), "所有批次都應被確認");
+        assertEquals(0, sink.pending());
+        assertEquals(details(12), storedDetails(), "事件應依寫入順序保存");
+        Set<String> keys = new HashSet<>();
+        for (AuditLog row : snapshot()) {
+            assertTrue(row.getEventKey().matches(".+:\\d+:\\d+"), "事件鍵為 senderId:sequence:index");
+            keys.add(row.getEventKey());
+        }
+        assertEquals(12, keys.size(), "每個事件的事件鍵不重複");
+    }
+
+    @Test
+    public void testRejectedBatchRetried() throws Exception {
+        startServer();
+        // 第三筆寫入失敗：前兩筆已保存，收集端拒絕整個批次
+        failOnSave = 3;
+        startSink();
+        write(5);
+
+        assertTrue(sink.flush(5000), "被拒絕的批次應重送並被確認");
+        assertEquals(details(5), storedDetails(), "重送時已保存的事件不可再寫一次");
+        assertEquals(6, saveCalls.get(), "只有失敗的那筆被重寫");
+    }
+
+    @Test
+    public void testResendAfterCollectorRestart() throws Exception {
+        startServer();
+        dropAcks = true;
+        startSink();
+        write(5);
+
+        awaitTrue(() -> snapshot().size() == 5);
+        assertEquals(5, sink.pending(), "沒有收到確認的批次仍在傳送中");
+
+        // 收集端重新啟動：記憶體中的批次紀錄消失，只能靠保存的事件鍵去重
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        dropAcks = false;
+        startServer();
+
+        assertTrue(sink.flush(15000), "串流中斷後應重新連線並重送");
+        assertEquals(details(5), storedDetails(), "重新啟動後重送的批次不可重複寫入");
+        assertEquals(5, saveCalls.get());
+    }
+
+    private void startServer() throws Exception {
+        AuditChainService chain = new AuditChainService(logRepository, batchRepository(), new RsaSignatureUtil(),
+                properties);
+        AuditCollectorGrpcService collector = new AuditCollectorGrpcService(chain, broadcaster, logRepository);
+        server = InProcessServerBuilder.forName(serverName)
+                .addService(ServerInterceptors.intercept(collector, new AckDropper()))
+                .build()
+                .start();
+    }
+
+    private void startSink() {
+        sink = new GrpcAuditSink(properties) {
+            @Override
+            protected ManagedChannel createChannel(String target) {
+                return InProcessChannelBuilder.forName(serverName).build();
+            }
+        };
+        sink.start();
+    }
+
+    private void write(int count) {
+        for (int i = 0; i < count; i++) {
+            AuditLog log = new AuditLog();
+            log.setUsername("alice");
+            log.setAction("SIGN");
+            log.setDetails("event " + i);
+            log.setCreatedAt(LocalDateTime.now());
+            sink.write(log);
+        }
+    }
+
+    private static List<String> details(int count) {
+        List<String> details = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            details.add("event " + i);
+        }
+        return details;
+    }
+
+    private List<String> storedDetails() {
+        return snapshot().stream().map(AuditLog::getDetails).collect(Collectors.toList());
+    }
+
+    private List<AuditLog> snapshot() {
+        synchronized (rows) {
+            return new ArrayList<>(rows);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待逾時");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * 記憶體資料表，只實作收集端用到的方法，並可讓指定的一次 save 失敗
+     */
+    private AuditLogRepository logRepository() {
+        return (AuditLogRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {AuditLogRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "save":
+                            if (saveCalls.incrementAndGet() == failOnSave) {
+                                throw new IllegalStateException("資料庫暫時無法寫入");
+                            }
+                            AuditLog log = (AuditLog) args[0];
+                            synchronized (rows) {
+                                log.setId((long) rows.size() + 1);
+                                rows.add(log);
+                            }
+                            return log;
+                        case "findStoredEventKeys":
+                            Collection<?> keys = (Collection<?>) args[0];
+                            return snapshot().stream().map(AuditLog::getEventKey).filter(keys::contains)
+                                    .collect(Collectors.toList());
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private AuditBatchSignatureRepository batchRepository() {
+        return (AuditBatchSignatureRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {AuditBatchSignatureRepository.class}, (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * dropAcks 為 true 時吞掉收集端送出的確認
+     */
+    private final class AckDropper implements ServerInterceptor {
+
+        @Override
+        public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                     ServerCallHandler<ReqT, RespT> next) {
+            return next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT>(call) {
+                @Override
+                public void sendMessage(RespT message) {
+                    if (!dropAcks) {
+                        super.sendMessage(message);
+                    }
+                }
+            }, headers);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.model.dto.KeyPairPoolStatsDto;
+import com.example.moty.demo.util.KeyPairPool;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 預先生成密鑰對池測試
+ * 測試補充到高水位、低於低水位時重新補充、每組密鑰只交出一次，以及池取空時當場生成
+ */
+public class KeyPairPoolTest {
+
+    // 池不檢查密鑰內容，以空的 KeyPair 物件代替，避免測試花時間生成 RSA 密鑰
+    private static KeyPair fakeKeyPair() {
+        return new KeyPair(null, null);
+    }
+
+    @Test
+    public void testRefillsBetweenWatermarks() throws Exception {
+        KeyPairPool pool = new KeyPairPool(KeyPairPoolTest::fakeKeyPair, 20, 4, 10, 2, "test-pool-");
+        try {
+            pool.start();
+            awaitTrue(() -> pool.stats().getAvailable() >= 10, "啟動後應補充到高水位");
+
+            // 兩個補充執行緒可能略為超過高水位，取到低水位以下為止，應再補回高水位
+            int taken = 0;
+            while (pool.stats().getAvailable() >= 4) {
+                pool.take();
+                taken++;
+            }
+            awaitTrue(() -> pool.stats().getAvailable() >= 10, "低於低水位後應補回高水位");
+
+            KeyPairPoolStatsDto stats = pool.stats();
+            assertEquals(taken, stats.getServed());
+            assertEquals(0, stats.getStarved(), "池有存量時不應當場生成");
+            assertTrue(stats.getAvailable() <= 20, "存量不可超過容量");
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void testEachKeyPairServedOnce() throws Exception {
+        KeyPairPool pool = new KeyPairPool(KeyPairPoolTest::fakeKeyPair, 8, 2, 6, 1, "test-pool-");
+        try {
+            pool.start();
+            Set<KeyPair> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int i = 0; i < 100; i++) {
+                assertTrue(seen.add(pool.take()), "同一組密鑰對不可交給兩個呼叫者");
+            }
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void testStarvationGeneratesOnCaller() throws Exception {
+        // 未啟動補充執行緒，池一直是空的
+        KeyPairPool pool = new KeyPairPool(KeyPairPoolTest::fakeKeyPair, 4, 1, 2, 1, "test-pool-");
+        assertNotNull(pool.take());
+        assertNotNull(pool.take());
+
+        KeyPairPoolStatsDto stats = pool.stats();
+        assertEquals(2, stats.getStarved());
+        assertEquals(0, stats.getServed());
+        assertEquals(1.0, stats.getStarvationRate());
+        pool.close();
+    }
+
+    @Test
+    public void testInvalidWatermarksRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new KeyPairPool(KeyPairPoolTest::fakeKeyPair, 10, 8, 4, 1, "test-pool-"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new KeyPairPool(KeyPairPoolTest::fakeKeyPair, 10, 2, 12, 1, "test-pool-"));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.util.MerkleTreeUtil;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Merkle 包含證明測試
+ * 測試各種葉節點數 (含奇數個節點直接上提) 的證明都能重算出同一個根，以及竄改數據或證明後不符
+ */
+public class MerkleProofTest {
+
+    @Test
+    public void testEveryProofRebuildsRoot() {
+        for (int count = 1; count <= 33; count++) {
+            List<byte[]> leaves = leaves(count);
+            byte[] root = MerkleTreeUtil.root(leaves);
+            List<List<MerkleTreeUtil.ProofStep>> proofs = MerkleTreeUtil.proofs(leaves);
+            assertEquals(count, proofs.size());
+            for (int i = 0; i < count; i++) {
+                assertTrue(MessageDigest.isEqual(root, MerkleTreeUtil.rootFromProof(leaves.get(i), proofs.get(i))),
+                        count + " 個葉節點中第 " + i + " 個的證明應重算出同一個根");
+                assertTrue(proofs.get(i).size() <= 32 - Integer.numberOfLeadingZeros(count - 1),
+                        "證明長度不應超過樹高");
+            }
+        }
+        assertTrue(MerkleTreeUtil.proofs(leaves(1)).get(0).isEmpty(), "單一葉節點時根即為葉節點哈希");
+    }
+
+    @Test
+    public void testTamperedLeafOrProofRejected() {
+        List<byte[]> leaves = leaves(7);
+        byte[] root = MerkleTreeUtil.root(leaves);
+        List<MerkleTreeUtil.ProofStep> proof = MerkleTreeUtil.proofs(leaves).get(3);
+
+        byte[] tampered = "document-3!".getBytes(StandardCharsets.UTF_8);
+        assertFalse(MessageDigest.isEqual(root, MerkleTreeUtil.rootFromProof(tampered, proof)), "數據被竄改後應不符");
+        assertFalse(MessageDigest.isEqual(root, MerkleTreeUtil.rootFromProof(leaves.get(4), proof)),
+                "其他葉節點不可使用這份證明");
+
+        List<MerkleTreeUtil.ProofStep> swapped = new ArrayList<>(proof);
+        MerkleTreeUtil.ProofStep first = swapped.get(0);
+        swapped.set(0, new MerkleTreeUtil.ProofStep(first.getHash(), !first.isLeft()));
+        assertFalse(MessageDigest.isEqual(root, MerkleTreeUtil.rootFromProof(leaves.get(3), swapped)),
+                "兄弟節點左右顛倒後應不符");
+    }
+
+    private static List<byte[]> leaves(int count) {
+        List<byte[]> leaves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            leaves.add(("document-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        return leaves;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.executor.ParallelExecutionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fork-join 平行執行服務測試
+ * 測試結果順序、每次呼叫的平行度上限與 SecurityContext 傳遞
+ */
+public class ParallelExecutionServiceTest {
+
+    private final ParallelExecutionService service = new ParallelExecutionService(4, 2, "Parallel-test-");
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        service.shutdown();
+    }
+
+    @Test
+    public void testMapKeepsOrderAndCapsParallelism() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            items.add(i);
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Integer> doubled = service.map(items, x -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(1);
+            running.decrementAndGet();
+            return x * 2;
+        });
+
+        assertEquals(200, doubled.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i * 2, doubled.get(i).intValue(), "結果應保持輸入順序");
+        }
+        assertTrue(peak.get() <= 2, "同時執行的切片數不可超過每次呼叫的上限");
+        assertEquals(19900L, service.mapReduce(items, x -> (long) x, 0L, Long::sum).longValue());
+    }
+
+    @Test
+    public void testInvokeAllPropagatesSecurityContext() {
+        Authentication auth = new TestingAuthenticationToken("dave", null, "ROLE_USER");
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        Set<String> users = ConcurrentHashMap.newKeySet();
+        Callable<String> task = () -> {
+            users.add(SecurityContextHolder.getContext().getAuthentication().getName());
+            return Thread.currentThread().getName();
+        };
+
+        List<String> threads = service.invokeAll(Arrays.asList(task, task, task, task));
+        assertEquals(4, threads.size());
+        assertEquals(1, users.size());
+        assertTrue(users.contains("dave"), "每個任務都應看到呼叫端的使用者");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
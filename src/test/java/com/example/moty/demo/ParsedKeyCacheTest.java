@@ -0,0 +1,89 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.model.dto.KeyCacheStatsDto;
+import com.example.moty.demo.util.ParsedKeyCache;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 已解析密鑰快取測試
+ * 測試命中統計、LRU 淘汰、TTL 過期與 RsaSignatureUtil 重用已解析密鑰
+ */
+public class ParsedKeyCacheTest {
+
+    private final RsaSignatureUtil rsaSignatureUtil = new RsaSignatureUtil();
+
+    @Test
+    public void testHitsAndLruEviction() throws Exception {
+        ParsedKeyCache cache = new ParsedKeyCache(2, 60_000);
+        AtomicInteger parsed = new AtomicInteger();
+        String key1 = publicKeyString();
+        String key2 = publicKeyString();
+        String key3 = publicKeyString();
+
+        PublicKey first = cache.get("RSA-PUBLIC", key1, bytes -> parse(bytes, parsed));
+        assertSame(first, cache.get("RSA-PUBLIC", key1, bytes -> parse(bytes, parsed)), "命中時應回傳同一物件");
+        cache.get("RSA-PUBLIC", key2, bytes -> parse(bytes, parsed));
+        // key1 最近被使用，加入 key3 時應淘汰 key2
+        cache.get("RSA-PUBLIC", key1, bytes -> parse(bytes, parsed));
+        cache.get("RSA-PUBLIC", key3, bytes -> parse(bytes, parsed));
+        cache.get("RSA-PUBLIC", key1, bytes -> parse(bytes, parsed));
+        assertEquals(3, parsed.get());
+
+        cache.get("RSA-PUBLIC", key2, bytes -> parse(bytes, parsed));
+        assertEquals(4, parsed.get(), "被淘汰的密鑰應重新解析");
+
+        KeyCacheStatsDto stats = cache.stats();
+        assertEquals(2, stats.getSize());
+        assertEquals(3, stats.getHits());
+        assertEquals(4, stats.getMisses());
+        assertEquals(2, stats.getEvictions());
+        assertEquals(3.0 / 7, stats.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void testExpiredKeyReparsed() throws Exception {
+        ParsedKeyCache cache = new ParsedKeyCache(10, 20);
+        AtomicInteger parsed = new AtomicInteger();
+        String key = publicKeyString();
+
+        cache.get("RSA-PUBLIC", key, bytes -> parse(bytes, parsed));
+        Thread.sleep(50);
+        cache.get("RSA-PUBLIC", key, bytes -> parse(bytes, parsed));
+
+        assertEquals(2, parsed.get(), "超過 TTL 應重新解析");
+        assertEquals(1, cache.stats().getExpirations());
+    }
+
+    @Test
+    public void testRsaSignatureUtilReusesParsedKeys() throws Exception {
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        String publicKey = rsaSignatureUtil.publicKeyToString(keyPair.getPublic());
+        String privateKey = rsaSignatureUtil.privateKeyToString(keyPair.getPrivate());
+
+        assertSame(rsaSignatureUtil.stringToPrivateKey(privateKey), rsaSignatureUtil.stringToPrivateKey(privateKey));
+        assertSame(rsaSignatureUtil.stringToPublicKey(publicKey), rsaSignatureUtil.stringToPublicKey(publicKey));
+
+        String signature = rsaSignatureUtil.sign("快取測試", rsaSignatureUtil.stringToPrivateKey(privateKey));
+        assertTrue(rsaSignatureUtil.verify("快取測試", signature, rsaSignatureUtil.stringToPublicKey(publicKey)));
+        assertEquals(2, rsaSignatureUtil.keyCacheStats().getMisses());
+        assertEquals(4, rsaSignatureUtil.keyCacheStats().getHits());
+    }
+
+    private String publicKeyString() throws Exception {
+        return rsaSignatureUtil.publicKeyToString(rsaSignatureUtil.generateKeyPair().getPublic());
+    }
+
+    private static PublicKey parse(byte[] bytes, AtomicInteger parsed) throws Exception {
+        parsed.incrementAndGet();
+        return KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(bytes));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.enums.TaskPriority;
+import com.example.moty.demo.executor.PriorityAgingQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 優先權佇列測試
+ * 測試依優先權出列、同優先權 FIFO、老化避免飢餓與容量上限
+ */
+public class PriorityAgingQueueTest {
+
+    private TaskPriority submitting;
+
+    @Test
+    public void testPriorityOrderAndFifo() throws Exception {
+        PriorityAgingQueue queue = new PriorityAgingQueue(10, 60_000, () -> submitting);
+        Runnable low1 = offer(queue, TaskPriority.LOW);
+        Runnable low2 = offer(queue, TaskPriority.LOW);
+        Runnable critical = offer(queue, TaskPriority.CRITICAL);
+        Runnable normal = offer(queue, TaskPriority.NORMAL);
+
+        assertArrayEquals(new int[] { 1, 0, 1, 2 }, queue.sizesByPriority());
+        assertSame(critical, queue.take());
+        assertSame(normal, queue.take());
+        assertSame(low1, queue.take(), "同優先權應維持 FIFO");
+        assertSame(low2, queue.poll(1, TimeUnit.SECONDS));
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testAgingPreventsStarvation() throws Exception {
+        PriorityAgingQueue queue = new PriorityAgingQueue(10, 20, () -> submitting);
+        Runnable low = offer(queue, TaskPriority.LOW);
+        // LOW 需老化三個等級才能追上新的 CRITICAL，等待超過 3 個區間後應優先出列
+        Thread.sleep(100);
+        offer(queue, TaskPriority.CRITICAL);
+        assertSame(low, queue.take(), "等待過久的低優先權任務應先出列");
+    }
+
+    @Test
+    public void testCapacity() {
+        PriorityAgingQueue queue = new PriorityAgingQueue(1, 1000, () -> submitting);
+        offer(queue, TaskPriority.NORMAL);
+        submitting = TaskPriority.CRITICAL;
+        assertFalse(queue.offer(() -> { }), "佇列已滿時 offer 應失敗，交由拒絕策略處理");
+        assertEquals(0, queue.remainingCapacity());
+    }
+
+    private Runnable offer(PriorityAgingQueue queue, TaskPriority priority) {
+        submitting = priority;
+        Runnable task = () -> { };
+        assertTrue(queue.offer(task));
+        return task;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.security.SecurityContextPropagation;
+import com.example.moty.demo.security.SecurityContextRecursiveTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SecurityContext 傳遞測試
+ * 測試快照在執行緒池、CompletableFuture 與 ForkJoinPool 中的傳遞與還原，以及任務內替換使用者
+ */
+public class SecurityContextPropagationTest {
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testExecutorAndCompletableFuture() throws Exception {
+        login("alice");
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            String user = pool.submit(SecurityContextPropagation.wrap(SecurityContextPropagationTest::currentUser))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals("alice", user, "工作執行緒應看到呼叫端的使用者");
+
+            String stage = CompletableFuture
+                    .supplyAsync(SecurityContextPropagationTest::currentUser, SecurityContextPropagation.wrap(pool))
+                    .thenApplyAsync(name -> name + "/" + currentUser(), SecurityContextPropagation.wrap(pool))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals("alice/alice", stage);
+
+            // 任務結束後工作執行緒不應殘留使用者
+            assertNull(pool.submit(SecurityContextPropagationTest::currentUser).get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSnapshotIsReadOnlyAndCallerContextRestored() throws Exception {
+        login("bob");
+        SecurityContext callerContext = SecurityContextHolder.getContext();
+        SecurityContext snapshot = SecurityContextPropagation.capture();
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.setAuthentication(new TestingAuthenticationToken("eve", null)), "快照不可修改");
+        assertSame(snapshot, SecurityContextPropagation.callWith(snapshot, SecurityContextPropagation::capture),
+                "在快照下再次擷取應重用同一物件");
+
+        // 呼叫端執行（CallerRunsPolicy）後應還原原本的 context
+        SecurityContextPropagation.wrap(() -> assertEquals("bob", currentUser())).run();
+        assertSame(callerContext, SecurityContextHolder.getContext());
+    }
+
+    @Test
+    public void testTaskMayReplaceAuthentication() throws Exception {
+        login("dave");
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            String user = pool.submit(SecurityContextPropagation.wrap(() -> {
+                SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("system", null));
+                // 換過使用者後擷取的快照應帶著新的使用者
+                return SecurityContextPropagation.callWith(SecurityContextPropagation.capture(),
+                        SecurityContextPropagationTest::currentUser);
+            })).get(5, TimeUnit.SECONDS);
+            assertEquals("system", user, "任務內可替換使用者，不應丟出例外");
+
+            assertEquals("dave", pool.submit(SecurityContextPropagation.wrap(SecurityContextPropagationTest::currentUser))
+                    .get(5, TimeUnit.SECONDS), "其他共用同一快照的任務不受影響");
+            assertEquals("dave", currentUser());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testForkJoinSubtasks() {
+        login("carol");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int matches = pool.invoke(new CountUser(0, 1000));
+            assertEquals(1000, matches, "所有子任務都應看到呼叫端的使用者");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void login(String username) {
+        Authentication auth = new TestingAuthenticationToken(username, null, "ROLE_USER");
+        SecurityContextHolder.getContext().setAuthentication(auth);
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : null;
+    }
+
+    private static class CountUser extends SecurityContextRecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        CountUser(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer computeWithContext() {
+            if (to - from <= 10) {
+                return "carol".equals(currentUser()) ? to - from : 0;
+            }
+            int mid = (from + to) >>> 1;
+            CountUser left = new CountUser(from, mid);
+            left.fork();
+            return new CountUser(mid, to).compute() + left.join();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.enums.SignatureAlgorithm;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 簽名演算法吞吐量基準測試
+ * 以單一執行緒比較各演算法的密鑰生成、簽名與驗證 ops/sec，以及公鑰與簽名長度。
+ * 密鑰生成不經過預先生成池，量測的是實際生成成本。
+ * 執行方式: ./gradlew benchmark (Ed25519 需 Java 15 以上，例如 -PjavaTarget=21)
+ */
+@Tag("benchmark")
+public class SignatureAlgorithmBenchmarkTest {
+
+    private static final long WARMUP_MILLIS = 500;
+
+    private static final long MEASURE_MILLIS = 2000;
+
+    private final RsaSignatureUtil rsaSignatureUtil = new RsaSignatureUtil();
+
+    @Test
+    public void benchmarkAlgorithms() throws Exception {
+        byte[] data = "簽名演算法基準測試資料 - 模擬一筆 API 請求內容".getBytes(StandardCharsets.UTF_8);
+        System.out.printf("%-11s %12s %12s %12s %10s %10s%n",
+                "algorithm", "keygen/s", "sign/s", "verify/s", "pubkey(B)", "sig(B)");
+        for (SignatureAlgorithm algorithm : SignatureAlgorithm.values()) {
+            if (!algorithm.isAvailable()) {
+                System.out.printf("%-11s 目前的 Java 版本不可用%n", algorithm.getId());
+                continue;
+            }
+            // new RsaSignatureUtil() 未啟用密鑰對池，RSA 也是當場生成
+            KeyPair keyPair = rsaSignatureUtil.generateKeyPair(algorithm);
+            String signature = rsaSignatureUtil.signBytes(data, keyPair.getPrivate(), algorithm);
+            assertTrue(rsaSignatureUtil.verifyBytes(data, signature, keyPair.getPublic(), algorithm));
+
+            double keygen = opsPerSecond(() -> rsaSignatureUtil.generateKeyPair(algorithm));
+            double sign = opsPerSecond(() -> rsaSignatureUtil.signBytes(data, keyPair.getPrivate(), algorithm));
+            double verify = opsPerSecond(
+                    () -> rsaSignatureUtil.verifyBytes(data, signature, keyPair.getPublic(), algorithm));
+
+            System.out.printf("%-11s %12.1f %12.1f %12.1f %10d %10d%n", algorithm.getId(), keygen, sign, verify,
+                    keyPair.getPublic().getEncoded().length, Base64.getDecoder().decode(signature).length);
+        }
+    }
+
+    private static double opsPerSecond(Callable<?> operation) throws Exception {
+        run(operation, WARMUP_MILLIS);
+        long start = System.nanoTime();
+        long ops = run(operation, MEASURE_MILLIS);
+        return ops * 1e9 / (System.nanoTime() - start);
+    }
+
+    private static long run(Callable<?> operation, long millis) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        long ops = 0;
+        do {
+            operation.call();
+            ops++;
+        } while (System.nanoTime() < deadline);
+        return ops;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.enums.SignatureAlgorithm;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 多簽名演算法測試
+ * 測試各可用演算法的密鑰字串往返、簽名驗證、竄改偵測，以及演算法名稱解析
+ */
+public class SignatureAlgorithmTest {
+
+    private final RsaSignatureUtil rsaSignatureUtil = new RsaSignatureUtil();
+
+    @Test
+    public void testRoundTripForEachAvailableAlgorithm() throws Exception {
+        byte[] data = "多演算法簽名測試".getBytes(StandardCharsets.UTF_8);
+        for (SignatureAlgorithm algorithm : SignatureAlgorithm.values()) {
+            if (!algorithm.isAvailable()) {
+                continue;
+            }
+            KeyPair keyPair = rsaSignatureUtil.generateKeyPair(algorithm);
+            PrivateKey privateKey = rsaSignatureUtil.stringToPrivateKey(
+                    rsaSignatureUtil.privateKeyToString(keyPair.getPrivate()), algorithm);
+            PublicKey publicKey = rsaSignatureUtil.stringToPublicKey(
+                    rsaSignatureUtil.publicKeyToString(keyPair.getPublic()), algorithm);
+
+            String signature = rsaSignatureUtil.signBytes(data, privateKey, algorithm);
+            assertTrue(rsaSignatureUtil.verifyBytes(data, signature, publicKey, algorithm),
+                    algorithm.getId() + " 簽名驗證應該成功");
+            // 引擎池重用後仍應正確
+            assertTrue(rsaSignatureUtil.verifyBytes(data, rsaSignatureUtil.signBytes(data, privateKey, algorithm),
+                    publicKey, algorithm), algorithm.getId() + " 重用引擎後簽名驗證應該成功");
+
+            byte[] tampered = data.clone();
+            tampered[0] ^= 1;
+            assertFalse(rsaSignatureUtil.verifyBytes(tampered, signature, publicKey, algorithm),
+                    algorithm.getId() + " 數據被竄改後驗證應失敗");
+        }
+    }
+
+    @Test
+    public void testDefaultMatchesLegacyRsaMethods() throws Exception {
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        String signature = rsaSignatureUtil.sign("預設演算法", keyPair.getPrivate());
+        assertTrue(rsaSignatureUtil.verifyBytes("預設演算法".getBytes(StandardCharsets.UTF_8), signature,
+                keyPair.getPublic(), SignatureAlgorithm.of(null)), "未指定演算法時應與原本的 SHA256withRSA 相容");
+    }
+
+    @Test
+    public void testRsaPssIsNotInterchangeableWithPkcs1() throws Exception {
+        if (!SignatureAlgorithm.RSA_PSS.isAvailable()) {
+            return;
+        }
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        byte[] data = "填充方式不同".getBytes(StandardCharsets.UTF_8);
+        String pss = rsaSignatureUtil.signBytes(data, keyPair.getPrivate(), SignatureAlgorithm.RSA_PSS);
+        assertFalse(rsaSignatureUtil.verifyBytes(data, pss, keyPair.getPublic(), SignatureAlgorithm.RSA_SHA256),
+                "PSS 簽名不可通過 PKCS#1 v1.5 驗證");
+    }
+
+    @Test
+    public void testParseAlgorithmName() {
+        assertEquals(SignatureAlgorithm.RSA_SHA256, SignatureAlgorithm.of(" "));
+        assertEquals(SignatureAlgorithm.ECDSA_P256, SignatureAlgorithm.of("ecdsa-p256"));
+        assertEquals(SignatureAlgorithm.ECDSA_P384, SignatureAlgorithm.of("ECDSA_P384"));
+        assertThrows(IllegalArgumentException.class, () -> SignatureAlgorithm.of("DSA"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.model.dto.SignatureEngineStatsDto;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import com.example.moty.demo.util.SignatureEnginePool;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.Signature;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 簽名引擎池測試
+ * 測試同一密鑰重用已初始化引擎、失敗時丟棄引擎，以及重用後的簽名仍可正確驗證
+ */
+public class SignatureEnginePoolTest {
+
+    private static final String ALGORITHM = "SHA256withRSA";
+
+    private final RsaSignatureUtil rsaSignatureUtil = new RsaSignatureUtil();
+
+    @Test
+    public void testEngineReusedForSameKey() throws Exception {
+        SignatureEnginePool pool = new SignatureEnginePool(4);
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+
+        byte[] first = sign(pool, keyPair, "第一筆");
+        byte[] second = sign(pool, keyPair, "第二筆");
+        assertTrue(verify(pool, keyPair, "第一筆", first));
+        assertTrue(verify(pool, keyPair, "第二筆", second));
+        assertFalse(verify(pool, keyPair, "第一筆", second), "重用的驗證引擎不可殘留前一次的資料");
+
+        SignatureEngineStatsDto stats = pool.stats();
+        assertEquals(2, stats.getCreated(), "簽名與驗證各建立一個引擎");
+        assertEquals(3, stats.getReused());
+    }
+
+    @Test
+    public void testFailedEngineDiscarded() throws Exception {
+        SignatureEnginePool pool = new SignatureEnginePool(4);
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+
+        assertThrows(IllegalStateException.class, () -> pool.withSigner(ALGORITHM, keyPair.getPrivate(), engine -> {
+            engine.update("只寫入一半".getBytes("UTF-8"));
+            throw new IllegalStateException("中途失敗");
+        }));
+        byte[] signature = sign(pool, keyPair, "完整資料");
+        assertTrue(verify(pool, keyPair, "完整資料", signature), "失敗的引擎不可被下一次呼叫取得");
+
+        assertEquals(1, pool.stats().getDiscarded());
+        assertEquals(3, pool.stats().getCreated());
+    }
+
+    @Test
+    public void testEnginesArePerThread() throws Exception {
+        SignatureEnginePool pool = new SignatureEnginePool(4);
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for (int t = 0; t < futures.length; t++) {
+                String data = "thread-" + t;
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        byte[] signature = sign(pool, keyPair, data + i);
+                        assertTrue(verify(pool, keyPair, data + i, signature));
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(pool.stats().getCreated() <= 8, "每個執行緒最多各建立一個簽名與驗證引擎");
+        assertEquals(160, pool.stats().getCreated() + pool.stats().getReused());
+    }
+
+    @Test
+    public void testExpiredEnginesReleased() throws Exception {
+        SignatureEnginePool pool = new SignatureEnginePool(4, 50);
+        KeyPair first = rsaSignatureUtil.generateKeyPair();
+        KeyPair second = rsaSignatureUtil.generateKeyPair();
+
+        sign(pool, first, "第一把密鑰");
+        Thread.sleep(100);
+        // 使用其他密鑰時也會清除同一執行緒已過期的引擎
+        sign(pool, second, "第二把密鑰");
+        assertEquals(1, pool.stats().getExpired(), "過期的引擎應被移除，不再持有私鑰");
+
+        sign(pool, second, "第二把密鑰");
+        sign(pool, first, "第一把密鑰");
+        assertEquals(3, pool.stats().getCreated(), "過期後再使用同一密鑰須重新建立引擎");
+        assertEquals(1, pool.stats().getReused());
+        assertEquals(50, pool.stats().getTtlMillis());
+    }
+
+    @Test
+    public void testRsaSignatureUtilUsesPool() throws Exception {
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        for (int i = 0; i < 5; i++) {
+            String signature = rsaSignatureUtil.sign("資料" + i, keyPair.getPrivate());
+            assertTrue(rsaSignatureUtil.verify("資料" + i, signature, keyPair.getPublic()));
+        }
+        assertEquals(2, rsaSignatureUtil.engineStats().getCreated());
+        assertEquals(8, rsaSignatureUtil.engineStats().getReused());
+    }
+
+    private static byte[] sign(SignatureEnginePool pool, KeyPair keyPair, String data) throws Exception {
+        return pool.withSigner(ALGORITHM, keyPair.getPrivate(), engine -> {
+            engine.update(data.getBytes("UTF-8"));
+            return engine.sign();
+        });
+    }
+
+    private static boolean verify(SignatureEnginePool pool, KeyPair keyPair, String data, byte[] signature)
+            throws Exception {
+        return pool.withVerifier(ALGORITHM, keyPair.getPublic(), (Signature engine) -> {
+            engine.update(data.getBytes("UTF-8"));
+            return engine.verify(signature);
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.config.SignatureProperties;
+import com.example.moty.demo.enums.SignatureAlgorithm;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 記憶體映射檔案簽名測試
+ * 測試跨多個映射視窗的檔案簽名與整份簽名結果一致、空檔案與竄改後驗證失敗，以及指定非 RSA 演算法的檔案簽名
+ */
+public class SignatureFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testMappedWindowsMatchByteSignature() throws Exception {
+        // 視窗設為 1000 bytes，讓測試檔跨越多個視窗且最後一段不滿一個視窗
+        SignatureProperties properties = new SignatureProperties();
+        properties.getFiles().setMapWindowBytes(1000);
+        RsaSignatureUtil rsaSignatureUtil = new RsaSignatureUtil();
+        rsaSignatureUtil.setSignatureProperties(properties);
+
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        byte[] data = new byte[10 * 1000 + 7];
+        new Random(7).nextBytes(data);
+        Path file = Files.write(directory.resolve("export.bin"), data);
+
+        String signature = rsaSignatureUtil.signFile(file, keyPair.getPrivate());
+        assertEquals(rsaSignatureUtil.signBytes(data, keyPair.getPrivate()), signature,
+                "分段映射與整份簽名應相同");
+        assertTrue(rsaSignatureUtil.verifyFile(file, signature, keyPair.getPublic()));
+
+        data[data.length - 1] ^= 1;
+        Files.write(file, data);
+        assertFalse(rsaSignatureUtil.verifyFile(file, signature, keyPair.getPublic()),
+                "檔案被竄改後驗證應失敗");
+    }
+
+    @Test
+    public void testFileWithSelectedAlgorithm() throws Exception {
+        SignatureProperties properties = new SignatureProperties();
+        properties.getFiles().setMapWindowBytes(1000);
+        RsaSignatureUtil rsaSignatureUtil = new RsaSignatureUtil();
+        rsaSignatureUtil.setSignatureProperties(properties);
+
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair(SignatureAlgorithm.ECDSA_P256);
+        byte[] data = new byte[3 * 1000 + 11];
+        new Random(11).nextBytes(data);
+        Path file = Files.write(directory.resolve("export-ec.bin"), data);
+
+        String signature = rsaSignatureUtil.signFile(file, keyPair.getPrivate(), SignatureAlgorithm.ECDSA_P256);
+        assertTrue(rsaSignatureUtil.verifyBytes(data, signature, keyPair.getPublic(), SignatureAlgorithm.ECDSA_P256),
+                "檔案簽名應使用指定的演算法");
+        assertTrue(rsaSignatureUtil.verifyFile(file, signature, keyPair.getPublic(), SignatureAlgorithm.ECDSA_P256));
+    }
+
+    @Test
+    public void testEmptyFile() throws Exception {
+        RsaSignatureUtil rsaSignatureUtil = new RsaSignatureUtil();
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        Path file = Files.createFile(directory.resolve("empty.bin"));
+
+        String signature = rsaSignatureUtil.signFile(file, keyPair.getPrivate());
+        assertEquals(rsaSignatureUtil.signBytes(new byte[0], keyPair.getPrivate()), signature);
+        assertTrue(rsaSignatureUtil.verifyFile(file, signature, keyPair.getPublic()));
+    }
+}
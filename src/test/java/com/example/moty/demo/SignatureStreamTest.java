@@ -0,0 +1,69 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.enums.SignatureAlgorithm;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.security.KeyPair;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 串流簽名測試
+ * 測試分段簽名與整份簽名結果一致、竄改資料後驗證失敗，以及指定非 RSA 演算法的串流簽名
+ */
+public class SignatureStreamTest {
+
+    private final RsaSignatureUtil rsaSignatureUtil = new RsaSignatureUtil();
+
+    @Test
+    public void testStreamSignatureMatchesByteSignature() throws Exception {
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        byte[] data = new byte[5 * 1024 * 1024 + 123];
+        new Random(42).nextBytes(data);
+
+        String streamed = rsaSignatureUtil.signStream(new ByteArrayInputStream(data), keyPair.getPrivate());
+        assertEquals(rsaSignatureUtil.signBytes(data, keyPair.getPrivate()), streamed,
+                "SHA256withRSA 為確定性簽名，分段與整份簽名應相同");
+        assertTrue(rsaSignatureUtil.verifyStream(new ByteArrayInputStream(data), streamed, keyPair.getPublic()));
+
+        data[data.length / 2] ^= 1;
+        assertFalse(rsaSignatureUtil.verifyStream(new ByteArrayInputStream(data), streamed, keyPair.getPublic()),
+                "資料被竄改後驗證應失敗");
+    }
+
+    @Test
+    public void testShortReadsAreFullyConsumed() throws Exception {
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        byte[] data = "分段讀取測試資料".getBytes("UTF-8");
+
+        // 每次只回傳 3 個位元組，模擬網路串流
+        InputStream trickle = new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                return super.read(buffer, offset, Math.min(3, length));
+            }
+        };
+        String signature = rsaSignatureUtil.signStream(trickle, keyPair.getPrivate());
+        assertTrue(rsaSignatureUtil.verifyBytes(data, signature, keyPair.getPublic()));
+    }
+
+    @Test
+    public void testStreamWithSelectedAlgorithm() throws Exception {
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair(SignatureAlgorithm.ECDSA_P256);
+        byte[] data = new byte[200 * 1024];
+        new Random(3).nextBytes(data);
+
+        String streamed = rsaSignatureUtil.signStream(new ByteArrayInputStream(data), keyPair.getPrivate(),
+                SignatureAlgorithm.ECDSA_P256);
+        assertTrue(rsaSignatureUtil.verifyBytes(data, streamed, keyPair.getPublic(), SignatureAlgorithm.ECDSA_P256),
+                "串流簽名應使用指定的演算法");
+        assertTrue(rsaSignatureUtil.verifyStream(new ByteArrayInputStream(data), streamed, keyPair.getPublic(),
+                SignatureAlgorithm.ECDSA_P256));
+        assertThrows(Exception.class, () -> rsaSignatureUtil.signStream(new ByteArrayInputStream(data),
+                keyPair.getPrivate()), "未指定演算法時為 RSA，不可使用 EC 私鑰");
+    }
+}
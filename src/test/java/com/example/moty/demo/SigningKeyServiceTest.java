@@ -0,0 +1,210 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.config.SignatureProperties;
+import com.example.moty.demo.enums.SignatureAlgorithm;
+import com.example.moty.demo.model.dto.SigningKeyDto;
+import com.example.moty.demo.model.po.SigningKey;
+import com.example.moty.demo.model.vo.SigningKeyImportRequest;
+import com.example.moty.demo.repo.SigningKeyRepository;
+import com.example.moty.demo.service.SigningKeyService;
+import com.example.moty.demo.util.PrivateKeyCipher;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 伺服器端密鑰服務測試
+ * 測試擁有者檢查、公私鑰成對檢查、僅公鑰密鑰、演算法檢查、私鑰加密保存、
+ * 數量上限，以及其他節點刪除密鑰後快取重新確認資料列
+ */
+public class SigningKeyServiceTest {
+
+    private static final String KEK = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private final RsaSignatureUtil rsaSignatureUtil = new RsaSignatureUtil();
+
+    private final Map<String, SigningKey> rows = new ConcurrentHashMap<>();
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testOwnerChecks() throws Exception {
+        SigningKeyService service = newService(properties());
+        login("alice");
+        SigningKeyDto key = service.generate(null);
+        assertTrue(key.isSuccess(), key.getMessage());
+        assertTrue(key.isCanSign());
+        assertNotNull(service.signingKey(key.getKeyId()).getPrivateKey());
+
+        login("bob");
+        assertThrows(IllegalArgumentException.class, () -> service.signingKey(key.getKeyId()), "他人的密鑰不可用於簽名");
+        assertNotNull(service.verificationKey(key.getKeyId()).getPublicKey(), "任何使用者都可用公鑰驗證");
+        assertFalse(service.delete(key.getKeyId()).isSuccess(), "他人的密鑰不可刪除");
+        assertTrue(service.list().isEmpty());
+
+        login("alice");
+        assertEquals(1, service.list().size());
+        assertTrue(service.delete(key.getKeyId()).isSuccess());
+        assertThrows(IllegalArgumentException.class, () -> service.verificationKey(key.getKeyId()));
+    }
+
+    @Test
+    public void testImportRejectsMismatchedPair() throws Exception {
+        SigningKeyService service = newService(properties());
+        login("alice");
+        KeyPair first = rsaSignatureUtil.generateKeyPair();
+        KeyPair second = rsaSignatureUtil.generateKeyPair();
+
+        SigningKeyDto mismatched = service.importKey(SigningKeyImportRequest.builder()
+                .publicKey(rsaSignatureUtil.publicKeyToString(first.getPublic()))
+                .privateKey(rsaSignatureUtil.privateKeyToString(second.getPrivate()))
+                .build());
+        assertFalse(mismatched.isSuccess(), "公私鑰不成對時應拒絕匯入");
+        assertTrue(rows.isEmpty());
+
+        SigningKeyDto matched = service.importKey(SigningKeyImportRequest.builder()
+                .publicKey(rsaSignatureUtil.publicKeyToString(first.getPublic()))
+                .privateKey(rsaSignatureUtil.privateKeyToString(first.getPrivate()))
+                .build());
+        assertTrue(matched.isSuccess(), matched.getMessage());
+        assertEquals(first.getPrivate(), service.signingKey(matched.getKeyId()).getPrivateKey());
+    }
+
+    @Test
+    public void testPublicOnlyKey() throws Exception {
+        // 沒有加密金鑰時仍可匯入僅公鑰的密鑰
+        SignatureProperties properties = new SignatureProperties();
+        SigningKeyService service = newService(properties);
+        login("alice");
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+
+        SigningKeyDto key = service.importKey(SigningKeyImportRequest.builder()
+                .publicKey(rsaSignatureUtil.publicKeyToString(keyPair.getPublic()))
+                .build());
+        assertTrue(key.isSuccess(), key.getMessage());
+        assertFalse(key.isCanSign());
+        assertNull(rows.get(key.getKeyId()).getPrivateKey());
+        assertThrows(IllegalArgumentException.class, () -> service.signingKey(key.getKeyId()), "僅有公鑰時不可簽名");
+        assertEquals(keyPair.getPublic(), service.verificationKey(key.getKeyId()).getPublicKey());
+    }
+
+    @Test
+    public void testAlgorithmFor() throws Exception {
+        SigningKeyService service = newService(properties());
+        login("alice");
+        SigningKeyDto key = service.generate(SignatureAlgorithm.ECDSA_P256.getId());
+        assertTrue(key.isSuccess(), key.getMessage());
+
+        SigningKeyService.StoredKey stored = service.signingKey(key.getKeyId());
+        assertEquals(SignatureAlgorithm.ECDSA_P256, stored.algorithmFor(null));
+        assertEquals(SignatureAlgorithm.ECDSA_P256, stored.algorithmFor(" "));
+        assertEquals(SignatureAlgorithm.ECDSA_P256, stored.algorithmFor(SignatureAlgorithm.ECDSA_P256.getId()));
+        assertThrows(IllegalArgumentException.class, () -> stored.algorithmFor(SignatureAlgorithm.RSA_SHA256.getId()),
+                "指定的演算法與密鑰不符時應拒絕");
+    }
+
+    @Test
+    public void testPrivateKeyEncryptedAtRest() throws Exception {
+        SigningKeyService service = newService(properties());
+        login("alice");
+        SigningKeyDto key = service.generate(null);
+        PrivateKeyCipher cipher = new PrivateKeyCipher(Base64.getDecoder().decode(KEK));
+
+        String stored = rows.get(key.getKeyId()).getPrivateKey();
+        assertTrue(PrivateKeyCipher.isEncrypted(stored), "資料表中的私鑰應已加密");
+        String decrypted = cipher.decrypt(stored, key.getKeyId());
+        assertEquals(decrypted, rsaSignatureUtil.privateKeyToString(service.signingKey(key.getKeyId()).getPrivateKey()));
+        assertThrows(Exception.class, () -> cipher.decrypt(stored, "other-key-id"), "密文不可套用到其他 keyId");
+
+        // 新的服務實例沒有快取，須從資料列解密
+        SigningKeyService restarted = newService(properties());
+        byte[] data = "payload".getBytes(StandardCharsets.UTF_8);
+        String signature = rsaSignatureUtil.signBytes(data, restarted.signingKey(key.getKeyId()).getPrivateKey());
+        assertTrue(rsaSignatureUtil.verifyBytes(data, signature, service.verificationKey(key.getKeyId()).getPublicKey()));
+
+        SigningKeyService withoutKek = newService(new SignatureProperties());
+        assertFalse(withoutKek.generate(null).isSuccess(), "未設定加密金鑰時應拒絕保存私鑰");
+    }
+
+    @Test
+    public void testQuotaAndCacheRecheck() throws Exception {
+        SignatureProperties properties = properties();
+        properties.getKeyStore().setMaxKeysPerUser(2);
+        properties.getKeyStore().setCacheTtlMillis(0);
+        SigningKeyService service = newService(properties);
+        login("alice");
+
+        SigningKeyDto first = service.generate(null);
+        assertTrue(service.generate(null).isSuccess());
+        assertFalse(service.generate(null).isSuccess(), "超過數量上限應拒絕");
+        assertEquals(2, rows.size());
+
+        // 模擬其他節點刪除資料列
+        rows.remove(first.getKeyId());
+        assertThrows(IllegalArgumentException.class, () -> service.signingKey(first.getKeyId()),
+                "快取過期後應重新確認資料列");
+    }
+
+    private SignatureProperties properties() {
+        SignatureProperties properties = new SignatureProperties();
+        properties.getKeyStore().setEncryptionKey(KEK);
+        return properties;
+    }
+
+    private SigningKeyService newService(SignatureProperties properties) {
+        rsaSignatureUtil.setSignatureProperties(properties);
+        return new SigningKeyService(repository(), rsaSignatureUtil, properties);
+    }
+
+    private static void login(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(username, null, "ROLE_USER"));
+    }
+
+    /**
+     * 以 keyId 為鍵的記憶體資料表，只實作服務用到的方法
+     */
+    private SigningKeyRepository repository() {
+        return (SigningKeyRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {SigningKeyRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "save":
+                            SigningKey key = (SigningKey) args[0];
+                            rows.put(key.getKeyId(), key);
+                            return key;
+                        case "delete":
+                            rows.remove(((SigningKey) args[0]).getKeyId());
+                            return null;
+                        case "findByKeyId":
+                            return rows.get((String) args[0]);
+                        case "countByOwner":
+                            return rows.values().stream().filter(row -> row.getOwner().equals(args[0])).count();
+                        case "findByOwnerOrderByCreatedAtDesc":
+                            List<SigningKey> owned = new ArrayList<>();
+                            for (SigningKey row : rows.values()) {
+                                if (row.getOwner().equals(args[0])) {
+                                    owned.add(row);
+                                }
+                            }
+                            return owned;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.moty.demo;
+
+import com.example.moty.demo.config.SignatureProperties;
+import com.example.moty.demo.enums.SignatureAlgorithm;
+import com.example.moty.demo.util.RsaSignatureUtil;
+import com.example.moty.demo.util.VerificationCache;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 驗證結果快取測試
+ * 測試只快取驗證成功的結果、任何欄位不同都不會命中、TTL 過期，以及 RsaSignatureUtil 預設不啟用
+ */
+public class VerificationCacheTest {
+
+    private final RsaSignatureUtil rsaSignatureUtil = new RsaSignatureUtil();
+
+    @Test
+    public void testOnlySuccessfulResultsCached() throws Exception {
+        VerificationCache cache = new VerificationCache(100, 60_000);
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        byte[] data = "webhook 重送".getBytes(StandardCharsets.UTF_8);
+        AtomicInteger verified = new AtomicInteger();
+
+        assertTrue(cache.verify("RSA", keyPair.getPublic(), "c2lnbmF0dXJl", data, () -> verified.incrementAndGet() > 0));
+        assertTrue(cache.verify("RSA", keyPair.getPublic(), "c2lnbmF0dXJl", data, () -> verified.incrementAndGet() > 0));
+        assertEquals(1, verified.get(), "相同輸入第二次應直接命中");
+
+        AtomicInteger rejected = new AtomicInteger();
+        assertFalse(cache.verify("RSA", keyPair.getPublic(), "YmFk", data, () -> rejected.incrementAndGet() < 0));
+        assertFalse(cache.verify("RSA", keyPair.getPublic(), "YmFk", data, () -> rejected.incrementAndGet() < 0));
+        assertEquals(2, rejected.get(), "驗證失敗不可快取");
+
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(3, cache.stats().getMisses());
+        assertEquals(1, cache.stats().getSize());
+    }
+
+    @Test
+    public void testAnyDifferenceMisses() throws Exception {
+        VerificationCache cache = new VerificationCache(100, 60_000);
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        KeyPair otherKeyPair = rsaSignatureUtil.generateKeyPair();
+        byte[] data = "原始資料".getBytes(StandardCharsets.UTF_8);
+        byte[] otherData = "原始資料!".getBytes(StandardCharsets.UTF_8);
+        AtomicInteger verified = new AtomicInteger();
+
+        cache.verify("RSA", keyPair.getPublic(), "c2ln", data, () -> verified.incrementAndGet() > 0);
+        cache.verify("RSA", keyPair.getPublic(), "c2ln", otherData, () -> verified.incrementAndGet() > 0);
+        cache.verify("RSA", keyPair.getPublic(), "c2lo", data, () -> verified.incrementAndGet() > 0);
+        cache.verify("RSA", otherKeyPair.getPublic(), "c2ln", data, () -> verified.incrementAndGet() > 0);
+        cache.verify("RSA-PSS", keyPair.getPublic(), "c2ln", data, () -> verified.incrementAndGet() > 0);
+        assertEquals(5, verified.get(), "資料、簽名、公鑰或演算法不同都應重新驗證");
+        assertEquals(0, cache.stats().getHits());
+    }
+
+    @Test
+    public void testExpiredResultReverified() throws Exception {
+        VerificationCache cache = new VerificationCache(100, 20);
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        byte[] data = "過期".getBytes(StandardCharsets.UTF_8);
+        AtomicInteger verified = new AtomicInteger();
+
+        cache.verify("RSA", keyPair.getPublic(), "c2ln", data, () -> verified.incrementAndGet() > 0);
+        Thread.sleep(50);
+        cache.verify("RSA", keyPair.getPublic(), "c2ln", data, () -> verified.incrementAndGet() > 0);
+        assertEquals(2, verified.get());
+        assertEquals(1, cache.stats().getExpirations());
+    }
+
+    @Test
+    public void testRsaSignatureUtilOptIn() throws Exception {
+        KeyPair keyPair = rsaSignatureUtil.generateKeyPair();
+        byte[] data = "opt-in".getBytes(StandardCharsets.UTF_8);
+        String signature = rsaSignatureUtil.signBytes(data, keyPair.getPrivate());
+
+        assertTrue(rsaSignatureUtil.verifyBytesCached(data, signature, keyPair.getPublic(), SignatureAlgorithm.RSA_SHA256));
+        assertNull(rsaSignatureUtil.verificationCacheStats(), "預設不啟用驗證結果快取");
+
+        SignatureProperties properties = new SignatureProperties();
+        properties.getVerifyCache().setEnabled(true);
+        RsaSignatureUtil cached = new RsaSignatureUtil();
+        cached.setSignatureProperties(properties);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(cached.verifyBytesCached(data, signature, keyPair.getPublic(), SignatureAlgorithm.RSA_SHA256));
+        }
+        data[0] ^= 1;
+        assertFalse(cached.verifyBytesCached(data, signature, keyPair.getPublic(), SignatureAlgorithm.RSA_SHA256),
+                "資料被竄改後不可命中快取");
+        assertEquals(2, cached.verificationCacheStats().getHits());
+        assertEquals(2, cached.verificationCacheStats().getMisses());
+    }
+}